@@ -2,29 +2,61 @@ package com.wind.payment.alipay;
 
 import com.alipay.api.AlipayApiException;
 import com.alipay.api.AlipayClient;
-import com.alipay.api.DefaultAlipayClient;
+import com.alipay.api.AlipayRequest;
+import com.alipay.api.AlipayResponse;
+import com.alipay.api.domain.AlipayDataDataserviceBillDownloadurlQueryModel;
+import com.alipay.api.domain.AlipayTradeCloseModel;
 import com.alipay.api.domain.AlipayTradeFastpayRefundQueryModel;
 import com.alipay.api.domain.AlipayTradeQueryModel;
 import com.alipay.api.domain.AlipayTradeRefundModel;
-import com.alipay.api.internal.util.AlipaySignature;
+import com.alipay.api.request.AlipayDataDataserviceBillDownloadurlQueryRequest;
+import com.alipay.api.request.AlipayTradeCloseRequest;
 import com.alipay.api.request.AlipayTradeFastpayRefundQueryRequest;
 import com.alipay.api.request.AlipayTradeQueryRequest;
 import com.alipay.api.request.AlipayTradeRefundRequest;
+import com.alipay.api.response.AlipayDataDataserviceBillDownloadurlQueryResponse;
+import com.alipay.api.response.AlipayTradeCloseResponse;
 import com.alipay.api.response.AlipayTradeFastpayRefundQueryResponse;
 import com.alipay.api.response.AlipayTradeQueryResponse;
 import com.alipay.api.response.AlipayTradeRefundResponse;
 import com.wind.common.exception.AssertUtils;
 import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.alipay.bill.AlipayTransactionBillIterator;
+import com.wind.payment.alipay.security.AlipayClientRegistry;
+import com.wind.payment.alipay.security.AlipayFormUrlEncodedParser;
+import com.wind.payment.alipay.security.AlipayKeyMaterial;
+import com.wind.payment.alipay.security.AlipayNotificationParams;
+import com.wind.payment.alipay.security.AlipayNotificationVerifier;
+import com.wind.payment.alipay.security.AlipayOrderSigner;
+import com.wind.payment.alipay.transport.AlipayGatewayClient;
+import com.wind.payment.alipay.transport.AlipayGatewayOperation;
+import com.wind.payment.alipay.transport.AlipayHttpTransportRegistry;
+import com.wind.payment.alipay.transport.HttpAlipayGatewayClient;
+import com.wind.payment.alipay.transport.NioAlipayHttpTransport;
+import com.wind.payment.alipay.transport.PooledAlipayHttpTransport;
+import com.wind.payment.alipay.transport.SdkAlipayGatewayClient;
 import com.wind.payment.core.PaymentTransactionException;
 import com.wind.payment.core.PaymentTransactionPlugin;
+import com.wind.payment.core.batch.PaymentTransactionBatchExecutor;
+import com.wind.payment.core.bill.TransactionBillHttpClient;
+import com.wind.payment.core.bill.TransactionBillIterator;
+import com.wind.payment.core.bill.TransactionBillProvider;
 import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.payment.core.metrics.GatewayCallTimer;
+import com.wind.payment.core.request.CloseTransactionOrderRequest;
+import com.wind.payment.core.request.DownloadTransactionBillRequest;
 import com.wind.payment.core.request.PaymentTransactionEventRequest;
 import com.wind.payment.core.request.PaymentTransactionRefundEventRequest;
 import com.wind.payment.core.request.QueryTransactionOrderRefundRequest;
 import com.wind.payment.core.request.QueryTransactionOrderRequest;
 import com.wind.payment.core.request.TransactionOrderRefundRequest;
+import com.wind.payment.core.response.CloseTransactionOrderResponse;
 import com.wind.payment.core.response.QueryTransactionOrderResponse;
 import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import com.wind.payment.core.support.SharedResourceRegistry;
+import com.wind.payment.core.transport.NioPaymentGatewayHttpTransport;
+import com.wind.payment.core.webhook.PaymentTransactionNotification;
+import com.wind.payment.core.webhook.WebhookIdempotencyKey;
 import com.wind.transaction.core.Money;
 import com.wind.transaction.core.enums.CurrencyIsoCode;
 import lombok.Getter;
@@ -33,21 +65,27 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
 
 import jakarta.validation.constraints.NotNull;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
 /**
  * 支付宝支付插件抽象类
+ * 同一商户的各场景插件共享一个 {@link AlipayClient}，插件不再使用时应调用 {@link #close()} 释放引用；
+ * 网关请求按 {@link AliPayPartnerConfig#getTransportType()} 使用 SDK 内置传输、共享连接池或非阻塞传输
  *
  * @author wuxp
  * @date 2023-10-01 08:48
  **/
 @Slf4j
-public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionPlugin {
+public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionPlugin, TransactionBillProvider, AutoCloseable {
 
     /**
      * 支付结果处理成功返回码
@@ -65,12 +103,66 @@ public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionP
 
     private static final String ALI_PAY_DEV = "alipaydev";
 
+    /**
+     * 交易账单类型
+     */
+    private static final String TRADE_BILL_TYPE = "trade";
+
+    /**
+     * 通知幂等 key 中的平台名称
+     */
+    private static final String IDEMPOTENCY_PLATFORM = "ALIPAY";
+
+    /**
+     * 网关调用分阶段计时中的平台名称
+     */
+    private static final String GATEWAY_CALL_PLATFORM = "alipay";
+
+    /**
+     * 关闭订单时交易不存在（用户未扫码或未登录支付宝），视为关闭成功
+     */
+    private static final String TRADE_NOT_EXIST_SUB_CODE = "ACQ.TRADE_NOT_EXIST";
+
+    private static final Duration BILL_DOWNLOAD_TIMEOUT = Duration.ofSeconds(30);
+
 
     private final AliPayPartnerConfig config;
 
+    /**
+     * 预解析的密钥材料，同一 appId 的场景插件共享
+     */
+    @Getter
+    private final AlipayKeyMaterial keyMaterial;
+
+    private final SharedResourceRegistry.Lease<AlipayClient> alipayClientLease;
+
+    /**
+     * 同一商户的场景插件共享
+     */
     @Getter
     private final AlipayClient alipayClient;
 
+    /**
+     * 连接池传输租约，不使用连接池传输时为 null
+     */
+    private final SharedResourceRegistry.Lease<PooledAlipayHttpTransport> transportLease;
+
+    /**
+     * 查询、退款、关单、预下单、付款码支付等网关请求使用的客户端
+     */
+    private final AlipayGatewayClient gatewayClient;
+
+    /**
+     * 本地签名引擎，用于 App、电脑网站等无需请求网关的预下单场景
+     */
+    @Getter
+    private final AlipayOrderSigner orderSigner;
+
+    /**
+     * 通知请求体解析器，用于直接接收原始请求体的场景
+     */
+    private final AlipayFormUrlEncodedParser notificationParser;
+
     protected AbstractAlipayPaymentPlugin(AliPayPartnerConfig config) {
         AssertUtils.hasLength(config.getAppId(), "alipay AppId must not empty");
         AssertUtils.hasLength(config.getPartner(), "alipay Partner must not empty");
@@ -78,14 +170,68 @@ public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionP
         AssertUtils.hasLength(config.getRsaPrivateKey(), "alipay RsaPrivateKey must not empty");
         AssertUtils.hasLength(config.getRsaPublicKey(), "alipay RsaPublicKey must not empty");
         this.config = config;
-        this.alipayClient = new DefaultAlipayClient(
-                config.getServiceUrl(),
-                config.getAppId(),
-                config.getRsaPrivateKey(),
-                "json",
-                config.getCharset(),
-                config.getRsaPublicKey(),
-                config.getEncryptType().name());
+        this.keyMaterial = AlipayKeyMaterial.of(config);
+        this.alipayClientLease = AlipayClientRegistry.acquire(config, keyMaterial, this);
+        this.alipayClient = alipayClientLease.get();
+        if (config.getTransportType() == AliPayPartnerConfig.TransportType.POOLED) {
+            AssertUtils.notNull(config.getHttpPool(), "alipay HttpPool must not null");
+            this.transportLease = AlipayHttpTransportRegistry.acquire(config.getHttpPool(), this);
+            this.gatewayClient = new HttpAlipayGatewayClient(config, keyMaterial, transportLease.get());
+        } else if (config.getTransportType() == AliPayPartnerConfig.TransportType.NIO) {
+            AssertUtils.notNull(config.getHttpPool(), "alipay HttpPool must not null");
+            this.transportLease = null;
+            this.gatewayClient = new HttpAlipayGatewayClient(config, keyMaterial,
+                    new NioAlipayHttpTransport(NioPaymentGatewayHttpTransport.shared()));
+        } else {
+            this.transportLease = null;
+            this.gatewayClient = new SdkAlipayGatewayClient(alipayClient);
+        }
+        this.orderSigner = new AlipayOrderSigner(config, keyMaterial);
+        this.notificationParser = AlipayFormUrlEncodedParser.of(config.getCharset());
+    }
+
+    @Override
+    public void close() {
+        alipayClientLease.close();
+        if (transportLease != null) {
+            transportLease.close();
+        }
+    }
+
+    /**
+     * @return 以商户号区分，同一商户的场景插件、重建后的插件共享批量操作的并发与速率限制
+     */
+    @Override
+    public Object getPartnerKey() {
+        return new PaymentTransactionBatchExecutor.PartnerKey(config.getPartner(), IDEMPOTENCY_PLATFORM);
+    }
+
+    /**
+     * 请求支付宝网关
+     *
+     * @param request   网关请求
+     * @param operation 网关操作，用于确定读超时
+     * @return 网关响应
+     */
+    protected <T extends AlipayResponse> T execute(AlipayRequest<T> request, AlipayGatewayOperation operation) throws AlipayApiException {
+        return gatewayClient.execute(request, operation);
+    }
+
+    /**
+     * 开始网关调用的分阶段计时，计时器关闭前的剩余耗时计为响应转换
+     *
+     * @param operation 网关操作
+     * @return 计时器，未设置监听器时为空计时器
+     */
+    protected GatewayCallTimer startGatewayCallTimer(AlipayGatewayOperation operation) {
+        return GatewayCallTimer.start(GATEWAY_CALL_PLATFORM, operation.getMetricsOperation().getTagValue());
+    }
+
+    /**
+     * @return 网关响应的错误码，优先使用业务错误码 sub_code
+     */
+    static String getGatewayErrorCode(AlipayResponse response) {
+        return StringUtils.defaultIfEmpty(response.getSubCode(), response.getCode());
     }
 
     @Override
@@ -96,8 +242,8 @@ public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionP
         model.setOutTradeNo(request.getTransactionSn());
         req.setBizModel(model);
         QueryTransactionOrderResponse result = new QueryTransactionOrderResponse();
-        try {
-            AlipayTradeQueryResponse response = alipayClient.execute(req);
+        try (GatewayCallTimer timer = startGatewayCallTimer(AlipayGatewayOperation.QUERY)) {
+            AlipayTradeQueryResponse response = execute(req, AlipayGatewayOperation.QUERY);
             if (log.isDebugEnabled()) {
                 log.debug("查询支付宝支付结果 :{}", response.getBody());
             }
@@ -113,11 +259,12 @@ public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionP
                         .setRawResponse(response);
             } else {
                 throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("查询支付宝交易单失败，transactionNo = %s。" +
-                        ERROR_PATTERN, request.getTransactionSn(), response.getCode(), response.getMsg()));
+                        ERROR_PATTERN, request.getTransactionSn(), response.getCode(), response.getMsg()))
+                        .withGatewayErrorCode(getGatewayErrorCode(response));
             }
         } catch (AlipayApiException exception) {
             throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("查询支付宝交易单异常，transactionNo = %s",
-                    request.getTransactionSn()), exception);
+                    request.getTransactionSn()), exception).withGatewayErrorCode(exception.getErrCode());
         }
         return result;
     }
@@ -142,8 +289,8 @@ public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionP
         }
 
         TransactionOrderRefundResponse result = new TransactionOrderRefundResponse();
-        try {
-            AlipayTradeRefundResponse response = alipayClient.execute(req);
+        try (GatewayCallTimer timer = startGatewayCallTimer(AlipayGatewayOperation.REFUND)) {
+            AlipayTradeRefundResponse response = execute(req, AlipayGatewayOperation.REFUND);
             if (log.isDebugEnabled()) {
                 log.debug("支付宝退款响应, {}", response);
             }
@@ -157,12 +304,13 @@ public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionP
                         .setRawResponse(response);
             } else {
                 throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝交易退款失败，transactionNo = %s。" +
-                        ERROR_PATTERN, request.getTransactionSn(), response.getCode(), response.getMsg()));
+                        ERROR_PATTERN, request.getTransactionSn(), response.getCode(), response.getMsg()))
+                        .withGatewayErrorCode(getGatewayErrorCode(response));
             }
             result.setRawResponse(response);
         } catch (AlipayApiException exception) {
             throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝交易退款异常，transactionNo = %s",
-                    request.getTransactionSn()), exception);
+                    request.getTransactionSn()), exception).withGatewayErrorCode(exception.getErrCode());
         }
 
         return result;
@@ -177,8 +325,8 @@ public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionP
         model.setOutTradeNo(request.getOutTransactionSn());
         model.setOutRequestNo(request.getRequestRefundSn());
         req.setBizModel(model);
-        try {
-            AlipayTradeFastpayRefundQueryResponse response = alipayClient.execute(req);
+        try (GatewayCallTimer timer = startGatewayCallTimer(AlipayGatewayOperation.QUERY_REFUND)) {
+            AlipayTradeFastpayRefundQueryResponse response = execute(req, AlipayGatewayOperation.QUERY_REFUND);
             if (log.isDebugEnabled()) {
                 log.debug("查询支付宝退款响应, {}", response);
             }
@@ -196,15 +344,44 @@ public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionP
             } else {
                 throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR,
                         String.format("查询支付宝交易退款失败，transactionNo = %s。" + ERROR_PATTERN, request.getTransactionSn(), response.getCode(),
-                                response.getMsg()));
+                                response.getMsg())).withGatewayErrorCode(getGatewayErrorCode(response));
             }
         } catch (AlipayApiException exception) {
             throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("查询支付宝交易退款异常，transactionNo = %s",
-                    request.getTransactionSn()), exception);
+                    request.getTransactionSn()), exception).withGatewayErrorCode(exception.getErrCode());
         }
         return result;
     }
 
+    @Override
+    public CloseTransactionOrderResponse closeTransactionOrder(CloseTransactionOrderRequest request) {
+        AssertUtils.hasLength(request.getTransactionSn(), "close order transactionSn must not empty");
+        AlipayTradeCloseRequest req = new AlipayTradeCloseRequest();
+        AlipayTradeCloseModel model = new AlipayTradeCloseModel();
+        model.setOutTradeNo(request.getTransactionSn());
+        model.setTradeNo(request.getOutTransactionSn());
+        req.setBizModel(model);
+        try (GatewayCallTimer timer = startGatewayCallTimer(AlipayGatewayOperation.CLOSE)) {
+            AlipayTradeCloseResponse response = execute(req, AlipayGatewayOperation.CLOSE);
+            if (log.isDebugEnabled()) {
+                log.debug("关闭支付宝交易单响应, {}", response.getBody());
+            }
+            if (response.isSuccess() || Objects.equals(TRADE_NOT_EXIST_SUB_CODE, response.getSubCode())) {
+                return new CloseTransactionOrderResponse()
+                        .setTransactionSn(request.getTransactionSn())
+                        .setOutTransactionSn(StringUtils.defaultIfEmpty(response.getTradeNo(), request.getOutTransactionSn()))
+                        .setTransactionState(PaymentTransactionState.CLOSED)
+                        .setRawResponse(response);
+            }
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("关闭支付宝交易单失败，transactionNo = %s。" +
+                    ERROR_PATTERN + "，subCode = %s", request.getTransactionSn(), response.getCode(), response.getMsg(), response.getSubCode()))
+                    .withGatewayErrorCode(getGatewayErrorCode(response));
+        } catch (AlipayApiException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("关闭支付宝交易单异常，transactionNo = %s",
+                    request.getTransactionSn()), exception).withGatewayErrorCode(exception.getErrCode());
+        }
+    }
+
     @Override
     public QueryTransactionOrderResponse onPaymentEvent(PaymentTransactionEventRequest request) {
         Map<String, String> noticeRequest = getNotificationParams(request.getRawRequest());
@@ -247,11 +424,84 @@ public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionP
         return result;
     }
 
+    @Override
+    public TransactionBillIterator downloadTransactionBill(DownloadTransactionBillRequest request) {
+        AssertUtils.notNull(request.getBillDate(), "bill date must not null");
+        AlipayDataDataserviceBillDownloadurlQueryRequest req = new AlipayDataDataserviceBillDownloadurlQueryRequest();
+        AlipayDataDataserviceBillDownloadurlQueryModel model = new AlipayDataDataserviceBillDownloadurlQueryModel();
+        model.setBillType(TRADE_BILL_TYPE);
+        model.setBillDate(request.getBillDate().toString());
+        req.setBizModel(model);
+        try {
+            AlipayDataDataserviceBillDownloadurlQueryResponse response = execute(req, AlipayGatewayOperation.DOWNLOAD_BILL);
+            if (log.isDebugEnabled()) {
+                log.debug("查询支付宝账单下载地址，billDate = {}，响应：{}", request.getBillDate(), response.getBody());
+            }
+            if (!response.isSuccess()) {
+                throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("查询支付宝账单下载地址失败，billDate = %s。" +
+                        ERROR_PATTERN, request.getBillDate(), response.getCode(), response.getMsg()))
+                        .withGatewayErrorCode(getGatewayErrorCode(response));
+            }
+            InputStream input = TransactionBillHttpClient.open(HttpRequest.newBuilder(URI.create(response.getBillDownloadUrl()))
+                    .timeout(BILL_DOWNLOAD_TIMEOUT)
+                    .GET()
+                    .build());
+            return AlipayTransactionBillIterator.open(input);
+        } catch (AlipayApiException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("查询支付宝账单下载地址异常，billDate = %s",
+                    request.getBillDate()), exception).withGatewayErrorCode(exception.getErrCode());
+        }
+    }
+
     @Override
     public Object getWebHookResponse(boolean isSuccessful) {
         return isSuccessful ? PAYMENT_RESULT_HANDLE_SUCCESS_RETURN_CODE : PAYMENT_RESULT_HANDLE_FAILURE_RETURN_CODE;
     }
 
+    @Override
+    public PaymentTransactionNotification parsePaymentEvent(Object rawRequest) {
+        Map<String, String> params = getNotificationParams(rawRequest);
+        return new PaymentTransactionNotification()
+                .setTransactionSn(params.get("out_trade_no"))
+                .setOutTransactionSn(params.get("trade_no"))
+                .setOrderAmount(CurrencyIsoCode.CNY.of(parseAmount(params, "total_amount")))
+                .setRawRequest(rawRequest)
+                .setPayload(params);
+    }
+
+    @Override
+    public PaymentTransactionNotification parseRefundEvent(Object rawRequest) {
+        Map<String, String> params = getNotificationParams(rawRequest);
+        return parsePaymentEvent(params)
+                .setTransactionRefundSn(params.get("out_biz_no"))
+                .setRefundAmount(CurrencyIsoCode.CNY.of(parseAmount(params, "refund_fee")))
+                .setRawRequest(rawRequest);
+    }
+
+    @Override
+    public WebhookIdempotencyKey getIdempotencyKey(Object rawRequest) {
+        if (rawRequest instanceof PaymentTransactionNotification notification) {
+            rawRequest = notification.getPayload();
+        } else if (rawRequest instanceof byte[] || rawRequest instanceof ByteBuffer) {
+            rawRequest = getNotificationParams(rawRequest);
+        }
+        if (!(rawRequest instanceof Map<?, ?> params)) {
+            return null;
+        }
+        String tradeStatus = Objects.toString(params.get("trade_status"), null);
+        // 重复投递的通知 notify_id 不变，退款通知额外区分退款请求号
+        String notifyId = Objects.toString(params.get("notify_id"), null);
+        if (StringUtils.isEmpty(notifyId)) {
+            notifyId = Objects.toString(params.get("trade_no"), null);
+            if (StringUtils.isEmpty(notifyId)) {
+                return null;
+            }
+        }
+        Object refundRequestNo = params.get("out_biz_no");
+        String state = refundRequestNo == null ? tradeStatus : tradeStatus + '/' + refundRequestNo;
+        return new WebhookIdempotencyKey(IDEMPOTENCY_PLATFORM, notifyId, state);
+    }
+
     /**
      * @return 是否使用沙箱环境
      */
@@ -324,30 +574,40 @@ public abstract class AbstractAlipayPaymentPlugin implements PaymentTransactionP
      * @param params 回调参数
      */
     private void verifySign(Map<String, String> params) {
-        Map<String, String> signParams = new HashMap<>(params);
-        AliPayPartnerConfig.EncryptType signType = AliPayPartnerConfig.EncryptType.valueOf(params.get("sign_type"));
-        try {
-            // 切记 rsaPublicKey 是支付宝的公钥，请去 open.alipay.com 对应应用下查看。
-            boolean result = AlipaySignature.rsaCheckV1(signParams, config.getRsaPublicKey(), config.getCharset(), signType.name());
-            AssertUtils.isTrue(result, "支付宝通知签名验证失败");
-        } catch (AlipayApiException exception) {
-            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "支付宝支付通知签名验证异常", exception);
-        }
+        // 切记验签使用的是支付宝的公钥，请去 open.alipay.com 对应应用下查看。
+        boolean result = AlipayNotificationVerifier.verify(params, keyMaterial, config.getCharset());
+        AssertUtils.isTrue(result, "支付宝通知签名验证失败");
     }
 
-    private static Map<String, String> getNotificationParams(Object rawRequest) {
+    /**
+     * 获取通知参数，rawRequest 支持已解码的参数 Map、原始请求体（byte[]、ByteBuffer）以及两阶段处理的解码结果；
+     * 参数 Map 校验后返回其只读视图（不复制）
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, String> getNotificationParams(Object rawRequest) {
+        if (rawRequest instanceof PaymentTransactionNotification notification && notification.getPayload() instanceof Map<?, ?>) {
+            // 两阶段处理时复用已校验的参数
+            return notification.getPayload();
+        }
+        if (rawRequest instanceof AlipayNotificationParams params) {
+            return params;
+        }
+        if (rawRequest instanceof byte[] body) {
+            return notificationParser.parse(body);
+        }
+        if (rawRequest instanceof ByteBuffer body) {
+            return notificationParser.parse(body);
+        }
         if (!(rawRequest instanceof Map<?, ?> rawParams)) {
-            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "支付宝通知原始请求参数必须为 Map<String, String>");
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "支付宝通知原始请求参数必须为 Map<String, String> 或请求体");
         }
-        Map<String, String> result = new HashMap<>();
         for (Map.Entry<?, ?> entry : rawParams.entrySet()) {
-            if (!(entry.getKey() instanceof String key)
+            if (!(entry.getKey() instanceof String)
                     || entry.getValue() != null && !(entry.getValue() instanceof String)) {
                 throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "支付宝通知原始请求参数必须为 Map<String, String>");
             }
-            result.put(key, (String) entry.getValue());
         }
-        return result;
+        return Collections.unmodifiableMap((Map<String, String>) rawParams);
     }
 
     private static BigDecimal parseAmount(Map<String, String> params, String name) {
@@ -1,6 +1,13 @@
 package com.wind.payment.alipay;
 
+import com.wind.payment.alipay.transport.AlipayGatewayOperation;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * 支付宝支付配置
@@ -14,11 +21,90 @@ public class AliPayPartnerConfig {
     /**
      * 支付宝加密类型
      */
+    @AllArgsConstructor
+    @Getter
     public enum EncryptType {
 
-        RSA,
+        RSA("SHA1WithRSA"),
+
+        RSA2("SHA256WithRSA");
+
+        /**
+         * 签名算法
+         */
+        private final String signAlgorithm;
+    }
+
+    /**
+     * 网关请求的 HTTP 传输方式
+     */
+    public enum TransportType {
+
+        /**
+         * 使用 SDK 内置的 HttpURLConnection
+         */
+        SDK,
+
+        /**
+         * 使用共享连接池（基于 Apache HttpClient 5，需要引入 httpclient5 依赖）
+         */
+        POOLED,
+
+        /**
+         * 使用进程内共享的非阻塞传输（基于 java.net.http.HttpClient），等待响应时不占用 I/O 线程
+         */
+        NIO
+    }
+
+    /**
+     * 连接池传输配置，相同配置的商户共享同一个连接池
+     */
+    @Data
+    public static class HttpPoolConfig {
+
+        /**
+         * 每个路由（网关域名）的最大连接数
+         */
+        private int maxConnectionsPerRoute = 64;
+
+        /**
+         * 连接池最大连接数
+         */
+        private int maxConnectionsTotal = 256;
+
+        /**
+         * 建立连接（含 TLS 握手）超时
+         */
+        private Duration connectTimeout = Duration.ofSeconds(3);
+
+        /**
+         * 从连接池获取连接的超时
+         */
+        private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+        /**
+         * 空闲连接的回收时间
+         */
+        private Duration idleEvictTimeout = Duration.ofSeconds(60);
+
+        /**
+         * 连接的最大存活时间，超过后不再复用
+         */
+        private Duration connectionTimeToLive = Duration.ofMinutes(10);
+
+        /**
+         * TLS 会话缓存的有效期，会话复用时重新建立连接只需简化握手
+         */
+        private Duration tlsSessionTimeout = Duration.ofHours(1);
 
-        RSA2;
+        /**
+         * 各操作的读超时，未配置的操作使用 {@link AlipayGatewayOperation#getDefaultReadTimeout()}
+         */
+        private Map<AlipayGatewayOperation, Duration> readTimeouts = new EnumMap<>(AlipayGatewayOperation.class);
+
+        public Duration getReadTimeout(AlipayGatewayOperation operation) {
+            return readTimeouts.getOrDefault(operation, operation.getDefaultReadTimeout());
+        }
     }
 
     /**
@@ -55,4 +141,15 @@ public class AliPayPartnerConfig {
      * 字符编码
      */
     private String charset = "UTF-8";
+
+    /**
+     * 网关请求的 HTTP 传输方式，用于查询、退款、关单、预下单、付款码支付等需要请求网关的操作
+     */
+    private TransportType transportType = TransportType.SDK;
+
+    /**
+     * 连接池传输配置，{@link #transportType} 为 {@link TransportType#POOLED} 时生效；
+     * {@link TransportType#NIO} 仅使用其中的读超时配置
+     */
+    private HttpPoolConfig httpPool = new HttpPoolConfig();
 }
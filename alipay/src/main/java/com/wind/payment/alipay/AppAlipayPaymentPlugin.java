@@ -1,12 +1,8 @@
 package com.wind.payment.alipay;
 
-import com.alipay.api.AlipayApiException;
-import com.alipay.api.domain.AlipayTradeAppPayModel;
-import com.alipay.api.request.AlipayTradeAppPayRequest;
 import com.alipay.api.response.AlipayTradeAppPayResponse;
-import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.jackson.WindJson;
-import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.alipay.security.AlipayOrderSigner;
 import com.wind.payment.core.request.PrePaymentOrderRequest;
 import com.wind.payment.core.response.PrePaymentOrderResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +22,11 @@ public class AppAlipayPaymentPlugin extends AbstractAlipayPaymentPlugin {
      */
     private static final String ALI_APP_PAY_PRODUCT_CODE = "QUICK_MSECURITY_PAY";
 
+    /**
+     * 接口名称
+     */
+    private static final String ALI_APP_PAY_METHOD = "alipay.trade.app.pay";
+
     public AppAlipayPaymentPlugin(String config) {
         this(WindJson.parseObject(config, AliPayPartnerConfig.class));
     }
@@ -36,43 +37,31 @@ public class AppAlipayPaymentPlugin extends AbstractAlipayPaymentPlugin {
 
     @Override
     public PrePaymentOrderResponse preOrder(PrePaymentOrderRequest request) {
-        AlipayTradeAppPayRequest req = new AlipayTradeAppPayRequest();
-        AlipayTradeAppPayModel model = new AlipayTradeAppPayModel();
-        model.setProductCode(ALI_APP_PAY_PRODUCT_CODE);
-        model.setOutTradeNo(request.getTransactionSn());
-        model.setBody(normalizationBody(request.getDescription()));
-        model.setTimeExpire(getExpireTimeOrUseDefault(request.getValidityDuration()));
-        model.setSubject(request.getSubject());
-        model.setTotalAmount(request.getOrderAmount().fen2Yuan().toString());
-        req.setBizModel(model);
-        req.setNotifyUrl(request.getAsynchronousNotificationUrl());
-        req.setReturnUrl(request.getSynchronousCallbackUrl());
+        String bizContent = AlipayOrderSigner.bizContent(
+                "product_code", ALI_APP_PAY_PRODUCT_CODE,
+                "out_trade_no", request.getTransactionSn(),
+                "body", normalizationBody(request.getDescription()),
+                "time_expire", getExpireTimeOrUseDefault(request.getValidityDuration()),
+                "subject", request.getSubject(),
+                "total_amount", request.getOrderAmount().fen2Yuan().toString());
+        AlipayOrderSigner.Order order = new AlipayOrderSigner.Order(ALI_APP_PAY_METHOD, bizContent, request.getAsynchronousNotificationUrl(),
+                request.getSynchronousCallbackUrl());
         if (log.isDebugEnabled()) {
-            log.debug("支付请求参数：{}", req);
+            log.debug("支付请求参数：{}", order);
         }
-        PrePaymentOrderResponse result = new PrePaymentOrderResponse();
-        try {
-            // 这里和普通的接口调用不同，使用的是 sdkExecute
-            AlipayTradeAppPayResponse response = getAlipayClient().sdkExecute(req);
-            if (log.isDebugEnabled()) {
-                log.debug("支付响应 :{}", response);
-            }
-            if (response.isSuccess()) {
-                result.setTransactionSn(request.getTransactionSn())
-                        .setOutTransactionSn(response.getTradeNo())
-                        .setUseSandboxEnv(this.isUseSandboxEnv())
-                        .setOrderAmount(request.getOrderAmount())
-                        .setResult(response.getBody())
-                        .setRawResponse(response);
-            } else {
-                throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝 App 支付交易失败，transactionNo = %s。" +
-                        ERROR_PATTERN, request.getTransactionSn(), response.getCode(), response.getMsg()));
-            }
-
-        } catch (AlipayApiException exception) {
-            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝 App 支付交易异常，transactionNo = %s。",
-                    request.getTransactionSn()), exception);
+        // 和普通的接口调用不同，App 支付只需要在本地生成签名后的订单字符串（等价于 sdkExecute），
+        // 支付宝交易号要在用户支付后才能得到，这里不设置 outTransactionSn
+        AlipayTradeAppPayResponse response = new AlipayTradeAppPayResponse();
+        response.setBody(getOrderSigner().signAppOrder(order));
+        if (log.isDebugEnabled()) {
+            log.debug("支付响应 :{}", response.getBody());
         }
+        PrePaymentOrderResponse result = new PrePaymentOrderResponse();
+        result.setTransactionSn(request.getTransactionSn())
+                .setUseSandboxEnv(this.isUseSandboxEnv())
+                .setOrderAmount(request.getOrderAmount())
+                .setResult(response.getBody())
+                .setRawResponse(response);
         return result;
     }
 }
@@ -7,7 +7,9 @@ import com.alipay.api.response.AlipayTradePayResponse;
 import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.jackson.WindJson;
 import com.wind.payment.alipay.request.AliPayAuthCodePaymentRequest;
+import com.wind.payment.alipay.transport.AlipayGatewayOperation;
 import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.metrics.GatewayCallTimer;
 import com.wind.payment.core.request.PrePaymentOrderRequest;
 import com.wind.payment.core.response.PrePaymentOrderResponse;
 import com.wind.transaction.core.enums.CurrencyIsoCode;
@@ -56,8 +58,8 @@ public class AuthCodeAlipayPaymentPlugin extends AbstractAlipayPaymentPlugin {
             log.debug("支付请求参数：{}", req);
         }
         PrePaymentOrderResponse result = new PrePaymentOrderResponse();
-        try {
-            AlipayTradePayResponse response = getAlipayClient().execute(req);
+        try (GatewayCallTimer timer = startGatewayCallTimer(AlipayGatewayOperation.PAY)) {
+            AlipayTradePayResponse response = execute(req, AlipayGatewayOperation.PAY);
             if (log.isDebugEnabled()) {
                 log.debug("支付响应 :{}", response);
             }
@@ -69,11 +71,12 @@ public class AuthCodeAlipayPaymentPlugin extends AbstractAlipayPaymentPlugin {
                         .setRawResponse(response);
             } else {
                 throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝授权码支付交易失败，transactionNo = %s。" +
-                        ERROR_PATTERN, request.getTransactionSn(), response.getCode(), response.getMsg()));
+                        ERROR_PATTERN, request.getTransactionSn(), response.getCode(), response.getMsg()))
+                        .withGatewayErrorCode(getGatewayErrorCode(response));
             }
         } catch (AlipayApiException exception) {
             throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝授权码支付交易异常，transactionNo = %s。",
-                    request.getTransactionSn()), exception);
+                    request.getTransactionSn()), exception).withGatewayErrorCode(exception.getErrCode());
         }
         return result;
     }
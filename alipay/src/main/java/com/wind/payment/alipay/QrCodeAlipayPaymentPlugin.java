@@ -7,7 +7,9 @@ import com.alipay.api.response.AlipayTradePrecreateResponse;
 import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.jackson.WindJson;
 import com.wind.payment.alipay.response.AliPayQrCodeTransactionPayResult;
+import com.wind.payment.alipay.transport.AlipayGatewayOperation;
 import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.metrics.GatewayCallTimer;
 import com.wind.payment.core.request.PrePaymentOrderRequest;
 import com.wind.payment.core.response.PrePaymentOrderResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -46,9 +48,9 @@ public class QrCodeAlipayPaymentPlugin extends AbstractAlipayPaymentPlugin {
             log.debug("支付请求参数：{}", req);
         }
         PrePaymentOrderResponse result = new PrePaymentOrderResponse();
-        try {
+        try (GatewayCallTimer timer = startGatewayCallTimer(AlipayGatewayOperation.PRE_CREATE)) {
 
-            AlipayTradePrecreateResponse response = getAlipayClient().execute(req);
+            AlipayTradePrecreateResponse response = execute(req, AlipayGatewayOperation.PRE_CREATE);
             if (log.isDebugEnabled()) {
                 log.debug("支付响应 :{}", response);
             }
@@ -60,12 +62,13 @@ public class QrCodeAlipayPaymentPlugin extends AbstractAlipayPaymentPlugin {
                         .setRawResponse(response);
             } else {
                 throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝二维码支付交易失败，transactionNo = %s。" +
-                        ERROR_PATTERN, request.getTransactionSn(), response.getCode(), response.getMsg()));
+                        ERROR_PATTERN, request.getTransactionSn(), response.getCode(), response.getMsg()))
+                        .withGatewayErrorCode(getGatewayErrorCode(response));
             }
 
         } catch (AlipayApiException exception) {
             throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝二维码支付交易异常，transactionNo = %s。",
-                    request.getTransactionSn()), exception);
+                    request.getTransactionSn()), exception).withGatewayErrorCode(exception.getErrCode());
         }
 
         return result;
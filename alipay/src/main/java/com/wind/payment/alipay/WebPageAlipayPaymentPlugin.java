@@ -1,16 +1,11 @@
 package com.wind.payment.alipay;
 
-import com.alipay.api.AlipayApiException;
-import com.alipay.api.domain.AlipayTradePagePayModel;
-import com.alipay.api.request.AlipayTradePagePayRequest;
 import com.alipay.api.response.AlipayTradePagePayResponse;
-import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.jackson.WindJson;
 import com.wind.payment.alipay.response.AliPayPageTransactionPayResult;
-import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.alipay.security.AlipayOrderSigner;
 import com.wind.payment.core.request.PrePaymentOrderRequest;
 import com.wind.payment.core.response.PrePaymentOrderResponse;
-import com.wind.transaction.core.enums.CurrencyIsoCode;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -28,6 +23,11 @@ public class WebPageAlipayPaymentPlugin extends AbstractAlipayPaymentPlugin {
      */
     private static final String ALI_WEB_PAGE_PAY_PRODUCT_CODE = "FAST_INSTANT_TRADE_PAY";
 
+    /**
+     * 接口名称
+     */
+    private static final String ALI_WEB_PAGE_PAY_METHOD = "alipay.trade.page.pay";
+
     public WebPageAlipayPaymentPlugin(String config) {
         this(WindJson.parseObject(config, AliPayPartnerConfig.class));
     }
@@ -38,49 +38,35 @@ public class WebPageAlipayPaymentPlugin extends AbstractAlipayPaymentPlugin {
 
     @Override
     public PrePaymentOrderResponse preOrder(PrePaymentOrderRequest request) {
-        AlipayTradePagePayRequest req = new AlipayTradePagePayRequest();
-        AlipayTradePagePayModel model = new AlipayTradePagePayModel();
-        model.setProductCode(ALI_WEB_PAGE_PAY_PRODUCT_CODE);
-        model.setOutTradeNo(request.getTransactionSn());
-        model.setBody(normalizationBody(request.getDescription()));
-        model.setTimeExpire(getExpireTimeOrUseDefault(request.getValidityDuration()));
-        model.setSubject(request.getSubject());
-        model.setTotalAmount(request.getOrderAmount().fen2Yuan().toString());
-        req.setBizModel(model);
-        req.setNotifyUrl(request.getAsynchronousNotificationUrl());
-        req.setReturnUrl(request.getSynchronousCallbackUrl());
+        String totalAmount = request.getOrderAmount().fen2Yuan().toString();
+        String bizContent = AlipayOrderSigner.bizContent(
+                "product_code", ALI_WEB_PAGE_PAY_PRODUCT_CODE,
+                "out_trade_no", request.getTransactionSn(),
+                "body", normalizationBody(request.getDescription()),
+                "time_expire", getExpireTimeOrUseDefault(request.getValidityDuration()),
+                "subject", request.getSubject(),
+                "total_amount", totalAmount);
+        AlipayOrderSigner.Order order = new AlipayOrderSigner.Order(ALI_WEB_PAGE_PAY_METHOD, bizContent,
+                request.getAsynchronousNotificationUrl(), request.getSynchronousCallbackUrl());
         if (log.isDebugEnabled()) {
-            log.debug("支付请求参数：{}", req);
+            log.debug("支付请求参数：{}", order);
         }
-        PrePaymentOrderResponse result = new PrePaymentOrderResponse();
-        try {
-            AlipayTradePagePayResponse response = getAlipayClient().pageExecute(req);
-            if (log.isDebugEnabled()) {
-                log.debug("支付响应 :{}", response);
-            }
-            if (response.isSuccess()) {
-                AliPayPageTransactionPayResult tradePayResult = new AliPayPageTransactionPayResult();
-                tradePayResult.setOrderInfo(response.getBody())
-                        .setTransactionNo(response.getOutTradeNo())
-                        .setOutTransactionNo(response.getTradeNo())
-                        .setSellerId(response.getSellerId())
-                        .setTotalAmount(response.getTotalAmount())
-                        .setTradeNo(response.getTradeNo());
-                result.setTransactionSn(response.getOutTradeNo())
-                        .setOutTransactionSn(response.getTradeNo())
-                        .setUseSandboxEnv(this.isUseSandboxEnv())
-                        .setOrderAmount(CurrencyIsoCode.CNY.ofText(response.getTotalAmount()))
-                        .setResult(tradePayResult)
-                        .setRawResponse(response);
-            } else {
-                throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝电脑网站支付交易失败，transactionNo = %s。" +
-                        ERROR_PATTERN, request.getTransactionSn(), response.getCode(), response.getMsg()));
-            }
-        } catch (AlipayApiException exception) {
-            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝电脑网站支付交易异常，transactionNo = %s。",
-                    request.getTransactionSn()), exception);
+        // 电脑网站支付只需要在本地生成签名后的自动提交表单（等价于 POST 方式的 pageExecute）
+        AlipayTradePagePayResponse response = new AlipayTradePagePayResponse();
+        response.setBody(getOrderSigner().signPageOrder(order));
+        if (log.isDebugEnabled()) {
+            log.debug("支付响应 :{}", response.getBody());
         }
-
+        AliPayPageTransactionPayResult tradePayResult = new AliPayPageTransactionPayResult();
+        tradePayResult.setOrderInfo(response.getBody())
+                .setTransactionNo(request.getTransactionSn())
+                .setTotalAmount(totalAmount);
+        PrePaymentOrderResponse result = new PrePaymentOrderResponse();
+        result.setTransactionSn(request.getTransactionSn())
+                .setUseSandboxEnv(this.isUseSandboxEnv())
+                .setOrderAmount(request.getOrderAmount())
+                .setResult(tradePayResult)
+                .setRawResponse(response);
         return result;
     }
 }
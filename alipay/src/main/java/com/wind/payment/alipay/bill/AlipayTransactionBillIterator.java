@@ -0,0 +1,119 @@
+package com.wind.payment.alipay.bill;
+
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.bill.AbstractDelimitedTransactionBillIterator;
+import com.wind.payment.core.bill.TransactionBillRecord;
+import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.transaction.core.Money;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 支付宝交易账单（trade）迭代器
+ * 账单为 zip 压缩的 GBK 编码 csv，包含业务明细与汇总两个文件，这里在下载流上直接定位到业务明细文件逐行解析
+ *
+ * @author wuxp
+ * @date 2026-10-18 19:05
+ **/
+public final class AlipayTransactionBillIterator extends AbstractDelimitedTransactionBillIterator {
+
+    private static final Charset BILL_CHARSET = Charset.forName("GBK");
+
+    private static final String DETAIL_FILE_KEYWORD = "明细";
+
+    private static final String SUMMARY_FILE_KEYWORD = "汇总";
+
+    private static final String HEADER_FIRST_COLUMN = "支付宝交易号";
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private static final String TRADE_TYPE_PAYMENT = "交易";
+
+    private static final String TRADE_TYPE_REFUND = "退款";
+
+    private AlipayTransactionBillIterator(BufferedReader reader) {
+        super(reader);
+    }
+
+    /**
+     * @param input 账单 zip 下载流，迭代器关闭时一并关闭
+     * @return 账单迭代器
+     */
+    public static AlipayTransactionBillIterator open(InputStream input) {
+        ZipInputStream zip = new ZipInputStream(input, BILL_CHARSET);
+        try {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (name.contains(DETAIL_FILE_KEYWORD) && !name.contains(SUMMARY_FILE_KEYWORD)) {
+                    return new AlipayTransactionBillIterator(new BufferedReader(new InputStreamReader(zip, BILL_CHARSET)));
+                }
+            }
+        } catch (IOException exception) {
+            closeQuietly(zip);
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "read alipay bill archive error", exception);
+        }
+        closeQuietly(zip);
+        throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "alipay bill archive not contains detail file");
+    }
+
+    @Override
+    protected boolean isHeaderLine(String line) {
+        return line.startsWith(HEADER_FIRST_COLUMN);
+    }
+
+    @Override
+    protected boolean isEndLine(String line) {
+        // 明细之后以 # 开头的行为结束标记与汇总信息
+        return line.startsWith(COMMENT_PREFIX);
+    }
+
+    @Override
+    protected TransactionBillRecord mapRecord(Map<String, String> row) {
+        String tradeType = row.get("业务类型");
+        // 退款记录的订单金额列为原订单金额，商家实收列为负数的退款金额
+        Money orderAmount = parseMoney(row.get("订单金额（元）"));
+        TransactionBillRecord result = new TransactionBillRecord()
+                .setOutTransactionSn(row.get("支付宝交易号"))
+                .setTransactionSn(row.get("商户订单号"))
+                .setDescription(row.get("商品名称"))
+                .setOrderAmount(orderAmount)
+                .setTransactionTime(parseTime(row.get("完成时间") == null ? row.get("创建时间") : row.get("完成时间")));
+        if (TRADE_TYPE_PAYMENT.equals(tradeType)) {
+            return result.setTransactionState(PaymentTransactionState.COMPLETED);
+        }
+        if (TRADE_TYPE_REFUND.equals(tradeType)) {
+            Money refundAmount = parseMoney(row.get("商家实收（元）"));
+            return result.setTransactionRefundSn(row.get("退款批次号/请求号"))
+                    .setRefundAmount(refundAmount)
+                    .setTransactionState(transformRefundState(orderAmount, refundAmount));
+        }
+        return result.setTransactionState(PaymentTransactionState.UNKNOWN);
+    }
+
+    /**
+     * 账单中只有单笔退款金额，退款金额小于订单金额时视为部分退款
+     */
+    private static PaymentTransactionState transformRefundState(Money orderAmount, Money refundAmount) {
+        if (orderAmount != null && refundAmount != null && refundAmount.getIntAmount() < orderAmount.getIntAmount()) {
+            return PaymentTransactionState.PARTIAL_REFUND;
+        }
+        return PaymentTransactionState.REFUNDED;
+    }
+
+    private static void closeQuietly(InputStream input) {
+        try {
+            input.close();
+        } catch (IOException ignore) {
+            // ignore
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.wind.payment.alipay.security;
+
+import com.alipay.api.AlipayClient;
+import com.wind.payment.alipay.AliPayPartnerConfig;
+import com.wind.payment.core.support.SharedResourceRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Objects;
+
+/**
+ * 支付宝客户端注册表
+ * 以 (serviceUrl, appId, 密钥指纹, encryptType, charset) 为 key，同一商户的所有场景插件共享一个 {@link AlipayClient}，
+ * 插件关闭或被回收时释放引用，引用归零后移除
+ *
+ * @author wuxp
+ * @date 2026-10-18 16:45
+ **/
+@Slf4j
+public final class AlipayClientRegistry {
+
+    private static final SharedResourceRegistry<ClientKey, AlipayClient> CLIENTS =
+            new SharedResourceRegistry<>(AlipayClientRegistry::buildAlipayClient, AlipayClientRegistry::destroyAlipayClient);
+
+    private AlipayClientRegistry() {
+        throw new AssertionError();
+    }
+
+    /**
+     * 获取商户共享的支付宝客户端
+     *
+     * @param config      支付宝配置
+     * @param keyMaterial 商户密钥材料
+     * @param owner       客户端持有者
+     * @return 客户端租约
+     */
+    public static SharedResourceRegistry.Lease<AlipayClient> acquire(AliPayPartnerConfig config, AlipayKeyMaterial keyMaterial, Object owner) {
+        return CLIENTS.acquire(new ClientKey(config, keyMaterial), owner);
+    }
+
+    /**
+     * @return 当前共享的支付宝客户端数量
+     */
+    public static int size() {
+        return CLIENTS.size();
+    }
+
+    /**
+     * @param config 支付宝配置
+     * @return 商户支付宝客户端的引用计数
+     */
+    public static int getReferenceCount(AliPayPartnerConfig config) {
+        return CLIENTS.getReferenceCount(new ClientKey(config, AlipayKeyMaterial.of(config)));
+    }
+
+    private static AlipayClient buildAlipayClient(ClientKey key) {
+        return new KeyMaterialAlipayClient(key.config, key.keyMaterial);
+    }
+
+    private static void destroyAlipayClient(AlipayClient client) {
+        if (log.isDebugEnabled()) {
+            log.debug("release alipay client, appId = {}", ((KeyMaterialAlipayClient) client).getKeyMaterial().getAppId());
+        }
+    }
+
+    /**
+     * 客户端 key，只有参与比较的字段决定是否共享；config 仅用于首次创建客户端
+     */
+    private static final class ClientKey {
+
+        private final String serviceUrl;
+
+        private final String appId;
+
+        private final String keyFingerprint;
+
+        private final AliPayPartnerConfig.EncryptType encryptType;
+
+        private final String charset;
+
+        private final AliPayPartnerConfig config;
+
+        private final AlipayKeyMaterial keyMaterial;
+
+        private ClientKey(AliPayPartnerConfig config, AlipayKeyMaterial keyMaterial) {
+            this.serviceUrl = config.getServiceUrl();
+            this.appId = config.getAppId();
+            this.keyFingerprint = keyMaterial.getFingerprint();
+            this.encryptType = config.getEncryptType();
+            this.charset = config.getCharset();
+            this.config = config;
+            this.keyMaterial = keyMaterial;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ClientKey key)) {
+                return false;
+            }
+            return Objects.equals(serviceUrl, key.serviceUrl)
+                    && Objects.equals(appId, key.appId)
+                    && Objects.equals(keyFingerprint, key.keyFingerprint)
+                    && encryptType == key.encryptType
+                    && Objects.equals(charset, key.charset);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serviceUrl, appId, keyFingerprint, encryptType, charset);
+        }
+
+        @Override
+        public String toString() {
+            return "ClientKey(serviceUrl=" + serviceUrl + ", appId=" + appId + ", encryptType=" + encryptType + ")";
+        }
+    }
+}
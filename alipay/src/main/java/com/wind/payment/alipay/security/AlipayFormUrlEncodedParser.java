@@ -0,0 +1,145 @@
+package com.wind.payment.alipay.security;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.PaymentTransactionException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 支付宝异步通知请求体（application/x-www-form-urlencoded）解析器
+ * 在字节上一次遍历完成分隔与百分号解码，直接写入 {@link AlipayNotificationParams}；
+ * 请求体大小在解析前校验，参数数量在解析过程中校验，超出限制或参数名重复时拒绝该通知
+ *
+ * @author wuxp
+ * @date 2026-10-18 22:35
+ **/
+public final class AlipayFormUrlEncodedParser {
+
+    /**
+     * 支付宝通知参数通常不超过 4KB，默认限制为 64KB
+     */
+    public static final int DEFAULT_MAX_BODY_BYTES = 64 * 1024;
+
+    public static final int DEFAULT_MAX_FIELDS = 128;
+
+    private final Charset charset;
+
+    private final int maxBodyBytes;
+
+    private final int maxFields;
+
+    public AlipayFormUrlEncodedParser(Charset charset) {
+        this(charset, DEFAULT_MAX_BODY_BYTES, DEFAULT_MAX_FIELDS);
+    }
+
+    /**
+     * @param charset      请求体字符集，与商户配置的 charset 一致
+     * @param maxBodyBytes 请求体最大字节数
+     * @param maxFields    最大参数数量
+     */
+    public AlipayFormUrlEncodedParser(Charset charset, int maxBodyBytes, int maxFields) {
+        AssertUtils.notNull(charset, "argument charset must not null");
+        AssertUtils.isTrue(maxBodyBytes > 0, "argument maxBodyBytes must greater than 0");
+        AssertUtils.isTrue(maxFields > 0, "argument maxFields must greater than 0");
+        this.charset = charset;
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxFields = maxFields;
+    }
+
+    public static AlipayFormUrlEncodedParser of(String charset) {
+        return new AlipayFormUrlEncodedParser(charset == null || charset.isEmpty() ? StandardCharsets.UTF_8 : Charset.forName(charset));
+    }
+
+    /**
+     * @param body 请求体
+     * @return 通知参数
+     */
+    public AlipayNotificationParams parse(byte[] body) {
+        return parse(ByteBuffer.wrap(body));
+    }
+
+    /**
+     * @param body 请求体，解析不会改变其 position
+     * @return 通知参数
+     */
+    public AlipayNotificationParams parse(ByteBuffer body) {
+        return parse(body, new AlipayNotificationParams());
+    }
+
+    /**
+     * 解析到已有的参数结构中，原有参数会被清除
+     *
+     * @param body   请求体，解析不会改变其 position
+     * @param target 参数结构
+     * @return target
+     */
+    public AlipayNotificationParams parse(ByteBuffer body, AlipayNotificationParams target) {
+        AssertUtils.notNull(body, "argument body must not null");
+        int length = body.remaining();
+        if (length > maxBodyBytes) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝通知请求体过大，size = %d，limit = %d", length,
+                    maxBodyBytes));
+        }
+        target.reset();
+        // 解码后的长度不会超过原始长度，请求体大小已受限，按次分配即可
+        byte[] scratch = new byte[length];
+        int start = body.position();
+        int end = start + length;
+        int scratchLength = 0;
+        String name = null;
+        int fields = 0;
+        for (int i = start; i <= end; i++) {
+            byte b = i == end ? (byte) '&' : body.get(i);
+            switch (b) {
+                case '&' -> {
+                    if (name == null && scratchLength == 0) {
+                        // 跳过空参数，例如连续的 &&
+                        continue;
+                    }
+                    String value = name == null ? "" : new String(scratch, 0, scratchLength, charset);
+                    String fieldName = name == null ? new String(scratch, 0, scratchLength, charset) : name;
+                    if (++fields > maxFields) {
+                        throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝通知参数数量超过限制，limit = %d",
+                                maxFields));
+                    }
+                    if (!target.add(fieldName, value)) {
+                        throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝通知参数重复，name = %s", fieldName));
+                    }
+                    name = null;
+                    scratchLength = 0;
+                }
+                case '=' -> {
+                    if (name == null) {
+                        name = new String(scratch, 0, scratchLength, charset);
+                        scratchLength = 0;
+                    } else {
+                        scratch[scratchLength++] = b;
+                    }
+                }
+                case '+' -> scratch[scratchLength++] = ' ';
+                case '%' -> {
+                    if (i + 2 >= end) {
+                        throw malformed(i - start);
+                    }
+                    int high = Character.digit(body.get(i + 1), 16);
+                    int low = Character.digit(body.get(i + 2), 16);
+                    if (high < 0 || low < 0) {
+                        throw malformed(i - start);
+                    }
+                    scratch[scratchLength++] = (byte) ((high << 4) | low);
+                    i += 2;
+                }
+                default -> scratch[scratchLength++] = b;
+            }
+        }
+        target.sort();
+        return target;
+    }
+
+    private static PaymentTransactionException malformed(int offset) {
+        return new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝通知请求体编码错误，offset = %d", offset));
+    }
+}
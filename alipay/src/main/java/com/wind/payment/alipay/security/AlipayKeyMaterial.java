@@ -0,0 +1,263 @@
+package com.wind.payment.alipay.security;
+
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.alipay.AliPayPartnerConfig;
+import com.wind.payment.core.PaymentTransactionException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * 支付宝商户密钥材料
+ * 应用私钥、支付宝公钥只解析一次，同一 appId 的所有场景插件共享同一个实例；
+ * 按签名类型在有界的共享池中复用已初始化的 {@link Signature}，避免重复查找 Provider 与初始化密钥。
+ * 跨调用复用的对象（Signature、{@link AlipayNotificationVerifier} 的待验签内容缓冲区）都放在有界共享池中而不是 ThreadLocal：
+ * 异步插件默认在虚拟线程中执行，每个虚拟线程只处理一次调用，线程内缓存无法复用且会反复创建；
+ * ThreadLocal 只用于在一次调用内传递上下文（例如 GatewayCallTimer），调用结束即解除绑定
+ *
+ * @author wuxp
+ * @date 2026-10-18 13:20
+ **/
+@Getter
+public final class AlipayKeyMaterial {
+
+    private static final String KEY_ALGORITHM = "RSA";
+
+    private static final Map<String, AlipayKeyMaterial> KEY_MATERIALS = new ConcurrentReferenceHashMap<>();
+
+    private final String appId;
+
+    /**
+     * 应用私钥
+     */
+    private final PrivateKey privateKey;
+
+    /**
+     * 支付宝公钥
+     */
+    private final PublicKey alipayPublicKey;
+
+    /**
+     * 密钥指纹，appId 与密钥内容的 SHA-256 摘要
+     */
+    private final String fingerprint;
+
+    /**
+     * 按签名类型缓存的签名器
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<AliPayPartnerConfig.EncryptType, SignaturePool> signers;
+
+    /**
+     * 按签名类型缓存的验签器
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<AliPayPartnerConfig.EncryptType, SignaturePool> verifiers;
+
+    private AlipayKeyMaterial(String appId, PrivateKey privateKey, PublicKey alipayPublicKey, String fingerprint) {
+        this.appId = appId;
+        this.privateKey = privateKey;
+        this.alipayPublicKey = alipayPublicKey;
+        this.fingerprint = fingerprint;
+        Map<AliPayPartnerConfig.EncryptType, SignaturePool> signerMap = new EnumMap<>(AliPayPartnerConfig.EncryptType.class);
+        Map<AliPayPartnerConfig.EncryptType, SignaturePool> verifierMap = new EnumMap<>(AliPayPartnerConfig.EncryptType.class);
+        for (AliPayPartnerConfig.EncryptType encryptType : AliPayPartnerConfig.EncryptType.values()) {
+            signerMap.put(encryptType, new SignaturePool(() -> newSigner(encryptType)));
+            verifierMap.put(encryptType, new SignaturePool(() -> newVerifier(encryptType)));
+        }
+        this.signers = Collections.unmodifiableMap(signerMap);
+        this.verifiers = Collections.unmodifiableMap(verifierMap);
+    }
+
+    /**
+     * 获取商户的密钥材料，相同的 appId 与密钥只会解析一次
+     *
+     * @param config 支付宝配置
+     * @return 密钥材料
+     */
+    public static AlipayKeyMaterial of(AliPayPartnerConfig config) {
+        String fingerprint = fingerprint(config.getAppId(), config.getRsaPrivateKey(), config.getRsaPublicKey());
+        return KEY_MATERIALS.computeIfAbsent(fingerprint, key -> new AlipayKeyMaterial(config.getAppId(),
+                parsePrivateKey(config.getRsaPrivateKey()), parsePublicKey(config.getRsaPublicKey()), key));
+    }
+
+    /**
+     * 使用应用私钥签名
+     *
+     * @param content     待签名内容
+     * @param encryptType 签名类型
+     * @param charset     字符集
+     * @return Base64 编码的签名
+     */
+    public String sign(String content, AliPayPartnerConfig.EncryptType encryptType, String charset) {
+        return sign(content.getBytes(getCharset(charset)), encryptType);
+    }
+
+    /**
+     * 使用应用私钥签名
+     *
+     * @param content     待签名内容
+     * @param encryptType 签名类型
+     * @return Base64 编码的签名
+     */
+    public String sign(byte[] content, AliPayPartnerConfig.EncryptType encryptType) {
+        SignaturePool pool = signers.get(encryptType);
+        Signature signature = pool.borrow();
+        try {
+            signature.update(content);
+            String result = Base64.getEncoder().encodeToString(signature.sign());
+            // sign 完成后 Signature 会重置为 initSign 之后的状态，可以归还复用；异常时状态未知，直接丢弃
+            pool.release(signature);
+            return result;
+        } catch (GeneralSecurityException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝签名异常，appId = %s", appId), exception);
+        }
+    }
+
+    /**
+     * 使用支付宝公钥验证签名
+     *
+     * @param content     待验签内容
+     * @param sign        Base64 编码的签名
+     * @param encryptType 签名类型
+     * @param charset     字符集
+     * @return 签名是否有效
+     */
+    public boolean verify(String content, String sign, AliPayPartnerConfig.EncryptType encryptType, String charset) {
+        return verify(ByteBuffer.wrap(content.getBytes(getCharset(charset))), sign, encryptType);
+    }
+
+    /**
+     * 使用支付宝公钥验证签名
+     *
+     * @param content     待验签内容（已编码的字节）
+     * @param sign        Base64 编码的签名
+     * @param encryptType 签名类型
+     * @return 签名是否有效
+     */
+    public boolean verify(ByteBuffer content, String sign, AliPayPartnerConfig.EncryptType encryptType) {
+        if (StringUtils.isEmpty(sign)) {
+            return false;
+        }
+        byte[] signBytes;
+        try {
+            signBytes = Base64.getMimeDecoder().decode(sign);
+        } catch (IllegalArgumentException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝签名格式错误，appId = %s", appId), exception);
+        }
+        SignaturePool pool = verifiers.get(encryptType);
+        Signature signature = pool.borrow();
+        try {
+            signature.update(content);
+            boolean result = signature.verify(signBytes);
+            // verify 完成后 Signature 会重置为 initVerify 之后的状态，可以归还复用；异常时状态未知，直接丢弃
+            pool.release(signature);
+            return result;
+        } catch (GeneralSecurityException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝验签异常，appId = %s", appId), exception);
+        }
+    }
+
+    private Signature newSigner(AliPayPartnerConfig.EncryptType encryptType) {
+        try {
+            Signature result = Signature.getInstance(encryptType.getSignAlgorithm());
+            result.initSign(privateKey);
+            return result;
+        } catch (GeneralSecurityException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("初始化支付宝签名器异常，appId = %s", appId), exception);
+        }
+    }
+
+    private Signature newVerifier(AliPayPartnerConfig.EncryptType encryptType) {
+        try {
+            Signature result = Signature.getInstance(encryptType.getSignAlgorithm());
+            result.initVerify(alipayPublicKey);
+            return result;
+        } catch (GeneralSecurityException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("初始化支付宝验签器异常，appId = %s", appId), exception);
+        }
+    }
+
+    static Charset getCharset(String charset) {
+        return StringUtils.isEmpty(charset) ? Charset.defaultCharset() : Charset.forName(charset);
+    }
+
+    private static PrivateKey parsePrivateKey(String privateKey) {
+        try {
+            return KeyFactory.getInstance(KEY_ALGORITHM).generatePrivate(new PKCS8EncodedKeySpec(decodeKey(privateKey)));
+        } catch (GeneralSecurityException | IllegalArgumentException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "支付宝应用私钥格式错误", exception);
+        }
+    }
+
+    private static PublicKey parsePublicKey(String publicKey) {
+        try {
+            return KeyFactory.getInstance(KEY_ALGORITHM).generatePublic(new X509EncodedKeySpec(decodeKey(publicKey)));
+        } catch (GeneralSecurityException | IllegalArgumentException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "支付宝公钥格式错误", exception);
+        }
+    }
+
+    private static byte[] decodeKey(String key) {
+        // 兼容带换行、空格的密钥文本
+        return Base64.getMimeDecoder().decode(key);
+    }
+
+    private static String fingerprint(String... values) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String value : values) {
+                digest.update(StringUtils.defaultString(value).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * 有界的 {@link Signature} 池，池为空时新建，池已满时丢弃归还的实例
+     */
+    private static final class SignaturePool {
+
+        private static final int MAX_IDLE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+        private final ArrayBlockingQueue<Signature> idle = new ArrayBlockingQueue<>(MAX_IDLE);
+
+        private final Supplier<Signature> factory;
+
+        private SignaturePool(Supplier<Signature> factory) {
+            this.factory = factory;
+        }
+
+        Signature borrow() {
+            Signature result = idle.poll();
+            return result == null ? factory.get() : result;
+        }
+
+        void release(Signature signature) {
+            idle.offer(signature);
+        }
+    }
+}
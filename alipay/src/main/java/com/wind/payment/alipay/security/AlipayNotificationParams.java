@@ -0,0 +1,166 @@
+package com.wind.payment.alipay.security;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 支付宝通知参数
+ * 参数名与参数值以两个平行数组保存，解析完成后按参数名升序排列：按名称查找使用二分查找，
+ * 验签时直接按数组顺序拼接待验签内容，无需再次排序。实例只读，可通过 {@link AlipayFormUrlEncodedParser#parse(java.nio.ByteBuffer, AlipayNotificationParams)}
+ * 重置后复用
+ *
+ * @author wuxp
+ * @date 2026-10-18 22:30
+ **/
+public final class AlipayNotificationParams extends AbstractMap<String, String> {
+
+    private String[] names;
+
+    private String[] values;
+
+    private int size;
+
+    private Set<Entry<String, String>> entrySet;
+
+    public AlipayNotificationParams() {
+        this(32);
+    }
+
+    AlipayNotificationParams(int initialCapacity) {
+        this.names = new String[initialCapacity];
+        this.values = new String[initialCapacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String name && indexOf(name) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        int index = indexOf(name);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    String nameAt(int index) {
+        return names[index];
+    }
+
+    String valueAt(int index) {
+        return values[index];
+    }
+
+    void reset() {
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * 追加参数，调用方需保证追加完成后调用 {@link #sort()}
+     *
+     * @return 参数名是否重复
+     */
+    boolean add(String name, String value) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                return false;
+            }
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * 按参数名升序排列，通知参数通常只有二三十个，使用插入排序
+     */
+    void sort() {
+        for (int i = 1; i < size; i++) {
+            String name = names[i];
+            String value = values[i];
+            int j = i - 1;
+            while (j >= 0 && names[j].compareTo(name) > 0) {
+                names[j + 1] = names[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            names[j + 1] = name;
+            values[j + 1] = value;
+        }
+    }
+
+    private int indexOf(String name) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compared = names[middle].compareTo(name);
+            if (compared < 0) {
+                low = middle + 1;
+            } else if (compared > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, String>> {
+
+        @Override
+        public Iterator<Entry<String, String>> iterator() {
+            return new Iterator<>() {
+
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public Entry<String, String> next() {
+                    if (index >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    Entry<String, String> result = new SimpleImmutableEntry<>(names[index], values[index]);
+                    index++;
+                    return result;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.wind.payment.alipay.security;
+
+import com.wind.payment.alipay.AliPayPartnerConfig;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * 支付宝异步通知验签
+ * 与 {@code AlipaySignature.rsaCheckV1} 的待验签内容规则一致：排除 sign、sign_type，按参数名升序以 key=value 用 & 连接。
+ * 直接读取通知参数视图构建待验签内容，不复制参数 Map，也不产生中间字符串；
+ * 参数为 {@link AlipayNotificationParams} 时已按名称排序，省去排序。
+ * 待验签内容写入从有界共享池借出的可复用缓冲区，池化方式的取舍见 {@link AlipayKeyMaterial}
+ *
+ * @author wuxp
+ * @date 2026-10-18 14:30
+ **/
+public final class AlipayNotificationVerifier {
+
+    static final String SIGN_NAME = "sign";
+
+    static final String SIGN_TYPE_NAME = "sign_type";
+
+    private static final int MAX_IDLE_BUFFERS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * 超过该容量的缓冲区不归还，避免个别超大通知长期占用内存
+     */
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final ArrayBlockingQueue<SignContentBuffer> IDLE_BUFFERS = new ArrayBlockingQueue<>(MAX_IDLE_BUFFERS);
+
+    private AlipayNotificationVerifier() {
+        throw new AssertionError();
+    }
+
+    /**
+     * 验证通知签名
+     *
+     * @param params      通知参数（只读）
+     * @param keyMaterial 商户密钥材料
+     * @param charset     字符集
+     * @return 签名是否有效
+     */
+    public static boolean verify(Map<String, String> params, AlipayKeyMaterial keyMaterial, String charset) {
+        AliPayPartnerConfig.EncryptType signType = AliPayPartnerConfig.EncryptType.valueOf(params.get(SIGN_TYPE_NAME));
+        Charset contentCharset = AlipayKeyMaterial.getCharset(charset);
+        SignContentBuffer buffer = borrowBuffer();
+        try {
+            // 字节解析得到的参数已按名称排序，直接拼接
+            if (params instanceof AlipayNotificationParams sortedParams) {
+                writeSignContent(sortedParams, buffer.content);
+            } else {
+                writeSignContent(params, buffer.content);
+            }
+            // 验签不会持有内容缓冲区，结束后即可归还
+            return keyMaterial.verify(buffer.encode(contentCharset), params.get(SIGN_NAME), signType);
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    private static void writeSignContent(Map<String, String> params, StringBuilder content) {
+        String[] names = new String[params.size()];
+        int size = 0;
+        for (String name : params.keySet()) {
+            if (!SIGN_NAME.equals(name) && !SIGN_TYPE_NAME.equals(name)) {
+                names[size++] = name;
+            }
+        }
+        Arrays.sort(names, 0, size);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                content.append('&');
+            }
+            // 与 SDK 保持一致，null 值按 "null" 拼接
+            content.append(names[i]).append('=').append(params.get(names[i]));
+        }
+    }
+
+    private static void writeSignContent(AlipayNotificationParams params, StringBuilder content) {
+        for (int i = 0; i < params.size(); i++) {
+            String name = params.nameAt(i);
+            if (SIGN_NAME.equals(name) || SIGN_TYPE_NAME.equals(name)) {
+                continue;
+            }
+            if (!content.isEmpty()) {
+                content.append('&');
+            }
+            content.append(name).append('=').append(params.valueAt(i));
+        }
+    }
+
+    private static SignContentBuffer borrowBuffer() {
+        SignContentBuffer result = IDLE_BUFFERS.poll();
+        return result == null ? new SignContentBuffer() : result;
+    }
+
+    private static void releaseBuffer(SignContentBuffer buffer) {
+        if (buffer.isRetainable()) {
+            buffer.content.setLength(0);
+            IDLE_BUFFERS.offer(buffer);
+        }
+    }
+
+    /**
+     * 可复用的待验签内容缓冲区，包含拼接用的字符缓冲区与编码后的字节缓冲区
+     */
+    private static final class SignContentBuffer {
+
+        private final StringBuilder content = new StringBuilder(1024);
+
+        private ByteBuffer bytes = ByteBuffer.allocate(2048);
+
+        private CharsetEncoder encoder;
+
+        ByteBuffer encode(Charset charset) {
+            if (encoder == null || !encoder.charset().equals(charset)) {
+                // 与 String#getBytes 一致，无法编码的字符使用替换字符
+                encoder = charset.newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
+            int required = (int) Math.ceil(content.length() * (double) encoder.maxBytesPerChar());
+            if (bytes.capacity() < required) {
+                bytes = ByteBuffer.allocate(required);
+            }
+            bytes.clear();
+            encoder.reset();
+            encoder.encode(CharBuffer.wrap(content), bytes, true);
+            encoder.flush(bytes);
+            return bytes.flip();
+        }
+
+        boolean isRetainable() {
+            return content.capacity() <= MAX_RETAINED_CAPACITY && bytes.capacity() <= MAX_RETAINED_CAPACITY * 4;
+        }
+    }
+}
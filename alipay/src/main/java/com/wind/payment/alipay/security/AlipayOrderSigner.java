@@ -0,0 +1,245 @@
+package com.wind.payment.alipay.security;
+
+import com.alipay.api.AlipayConstants;
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.alipay.AliPayPartnerConfig;
+import org.apache.commons.lang3.StringUtils;
+
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 支付宝本地签名引擎
+ * 用于 App 支付（sdkExecute）与电脑网站支付（pageExecute）这类只在本地签名、不发起网络请求的场景。
+ * 公共参数按参数名的字典序预先排列，签名内容直接写入 StringBuilder，不构建中间 Map；签名使用预解析私钥与池中复用的 Signature
+ *
+ * @author wuxp
+ * @date 2026-10-18 15:10
+ **/
+public final class AlipayOrderSigner {
+
+    private static final ZoneId ALIPAY_ZONE = ZoneId.of("GMT+8");
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String FORMAT_JSON = "json";
+
+    private static final String API_VERSION = "1.0";
+
+    /**
+     * 参数名，已按字典序排列，下标与 {@link #collectValues} 的填充顺序一致
+     */
+    private static final String[] PARAM_NAMES = {"alipay_sdk", "app_id", "biz_content", "charset", "format", "method", "notify_url", "return_url",
+            "sign_type", "timestamp", "version"};
+
+    private static final int BIZ_CONTENT_INDEX = 2;
+
+    /**
+     * 签名参数插入位置（return_url 之后，sign_type 之前）
+     */
+    private static final int SIGN_INSERT_INDEX = 8;
+
+    private static final String SIGN_NAME = "sign";
+
+    private final String serviceUrl;
+
+    private final String appId;
+
+    private final String charsetName;
+
+    private final Charset charset;
+
+    private final AliPayPartnerConfig.EncryptType encryptType;
+
+    private final AlipayKeyMaterial keyMaterial;
+
+    public AlipayOrderSigner(AliPayPartnerConfig config, AlipayKeyMaterial keyMaterial) {
+        this.serviceUrl = config.getServiceUrl();
+        this.appId = config.getAppId();
+        this.charsetName = config.getCharset();
+        this.charset = AlipayKeyMaterial.getCharset(config.getCharset());
+        this.encryptType = config.getEncryptType();
+        this.keyMaterial = keyMaterial;
+    }
+
+    /**
+     * 生成 App 支付的订单字符串（等价于 sdkExecute 的返回）
+     *
+     * @param order 待签名订单
+     * @return url 编码后的订单字符串
+     */
+    public String signAppOrder(Order order) {
+        String[] values = collectValues(order);
+        String sign = sign(values);
+        StringBuilder result = new StringBuilder(512);
+        appendQuery(result, values, sign, -1);
+        return result.toString();
+    }
+
+    /**
+     * 生成电脑网站支付的自动提交表单（等价于 POST 方式 pageExecute 的返回）
+     *
+     * @param order 待签名订单
+     * @return html 表单
+     */
+    public String signPageOrder(Order order) {
+        String[] values = collectValues(order);
+        String sign = sign(values);
+        StringBuilder result = new StringBuilder(1024);
+        result.append("<form name=\"punchout_form\" method=\"post\" action=\"");
+        StringBuilder action = new StringBuilder(512).append(serviceUrl).append('?');
+        appendQuery(action, values, sign, BIZ_CONTENT_INDEX);
+        appendHtmlEscaped(result, action);
+        result.append("\">\n<input type=\"hidden\" name=\"biz_content\" value=\"");
+        appendHtmlEscaped(result, values[BIZ_CONTENT_INDEX]);
+        result.append("\">\n<input type=\"submit\" value=\"立即支付\" style=\"display:none\" >\n</form>\n")
+                .append("<script>document.forms[0].submit();</script>");
+        return result.toString();
+    }
+
+    /**
+     * 批量生成 App 支付订单字符串，在多个 CPU 核心上并行签名
+     *
+     * @param orders 待签名订单
+     * @return 订单字符串，顺序与入参一致
+     */
+    public List<String> signAppOrders(Collection<Order> orders) {
+        return orders.parallelStream().map(this::signAppOrder).toList();
+    }
+
+    /**
+     * 批量生成电脑网站支付表单，在多个 CPU 核心上并行签名
+     *
+     * @param orders 待签名订单
+     * @return html 表单，顺序与入参一致
+     */
+    public List<String> signPageOrders(Collection<Order> orders) {
+        return orders.parallelStream().map(this::signPageOrder).toList();
+    }
+
+    private String[] collectValues(Order order) {
+        AssertUtils.hasLength(order.method(), "alipay order method must not empty");
+        AssertUtils.hasLength(order.bizContent(), "alipay order bizContent must not empty");
+        return new String[]{
+                // 与 SDK 一致，alipay_sdk 也参与签名
+                AlipayConstants.SDK_VERSION,
+                appId,
+                order.bizContent(),
+                charsetName,
+                FORMAT_JSON,
+                order.method(),
+                order.notifyUrl(),
+                order.returnUrl(),
+                encryptType.name(),
+                TIMESTAMP_FORMATTER.format(ZonedDateTime.now(ALIPAY_ZONE)),
+                API_VERSION
+        };
+    }
+
+    private String sign(String[] values) {
+        StringBuilder content = new StringBuilder(512);
+        for (int i = 0; i < PARAM_NAMES.length; i++) {
+            if (StringUtils.isEmpty(values[i])) {
+                continue;
+            }
+            if (!content.isEmpty()) {
+                content.append('&');
+            }
+            content.append(PARAM_NAMES[i]).append('=').append(values[i]);
+        }
+        return keyMaterial.sign(content.toString().getBytes(charset), encryptType);
+    }
+
+    private void appendQuery(StringBuilder result, String[] values, String sign, int excludeIndex) {
+        int start = result.length();
+        for (int i = 0; i < PARAM_NAMES.length; i++) {
+            if (i == SIGN_INSERT_INDEX) {
+                appendQueryParam(result, start, SIGN_NAME, sign);
+            }
+            if (i != excludeIndex && StringUtils.isNotEmpty(values[i])) {
+                appendQueryParam(result, start, PARAM_NAMES[i], values[i]);
+            }
+        }
+    }
+
+    private void appendQueryParam(StringBuilder result, int start, String name, String value) {
+        if (result.length() > start) {
+            result.append('&');
+        }
+        result.append(name).append('=').append(URLEncoder.encode(value, charset));
+    }
+
+    private static void appendHtmlEscaped(StringBuilder result, CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> result.append("&quot;");
+                case '&' -> result.append("&amp;");
+                case '<' -> result.append("&lt;");
+                case '>' -> result.append("&gt;");
+                default -> result.append(c);
+            }
+        }
+    }
+
+    /**
+     * 构建 biz_content，值为 null 的字段不输出
+     *
+     * @param nameAndValues 字段名与字段值交替排列
+     * @return json 字符串
+     */
+    public static String bizContent(String... nameAndValues) {
+        AssertUtils.isTrue(nameAndValues.length % 2 == 0, "biz content name and values must be paired");
+        StringBuilder result = new StringBuilder(256).append('{');
+        for (int i = 0; i < nameAndValues.length; i += 2) {
+            if (nameAndValues[i + 1] == null) {
+                continue;
+            }
+            if (result.length() > 1) {
+                result.append(',');
+            }
+            appendJsonString(result, nameAndValues[i]);
+            result.append(':');
+            appendJsonString(result, nameAndValues[i + 1]);
+        }
+        return result.append('}').toString();
+    }
+
+    private static void appendJsonString(StringBuilder result, String value) {
+        result.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> result.append("\\\"");
+                case '\\' -> result.append("\\\\");
+                case '\n' -> result.append("\\n");
+                case '\r' -> result.append("\\r");
+                case '\t' -> result.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        result.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+                }
+            }
+        }
+        result.append('"');
+    }
+
+    /**
+     * 待签名订单
+     *
+     * @param method     接口名称，例如：alipay.trade.app.pay
+     * @param bizContent 业务参数 json
+     * @param notifyUrl  异步通知地址
+     * @param returnUrl  同步跳转地址
+     */
+    public record Order(String method, String bizContent, String notifyUrl, String returnUrl) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.wind.payment.alipay.security;
+
+import com.alipay.api.AlipayApiException;
+import com.alipay.api.DefaultAlipayClient;
+import com.alipay.api.SignChecker;
+import com.alipay.api.Signer;
+import com.alipay.api.internal.util.AlipaySignature;
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.alipay.AliPayPartnerConfig;
+import com.wind.payment.core.PaymentTransactionException;
+import lombok.Getter;
+
+/**
+ * 使用预解析密钥材料签名与验签的支付宝客户端
+ * SDK 默认的签名器与验签器每次调用都会重新解析 Base64 私钥、公钥，这里都替换为共享的 {@link AlipayKeyMaterial}
+ *
+ * @author wuxp
+ * @date 2026-10-18 13:42
+ **/
+public class KeyMaterialAlipayClient extends DefaultAlipayClient {
+
+    private static final String FORMAT_JSON = "json";
+
+    @Getter
+    private final AlipayKeyMaterial keyMaterial;
+
+    private final Signer signer;
+
+    private final SignChecker signChecker;
+
+    public KeyMaterialAlipayClient(AliPayPartnerConfig config, AlipayKeyMaterial keyMaterial) {
+        super(config.getServiceUrl(),
+                config.getAppId(),
+                config.getRsaPrivateKey(),
+                FORMAT_JSON,
+                config.getCharset(),
+                config.getRsaPublicKey(),
+                config.getEncryptType().name());
+        this.keyMaterial = keyMaterial;
+        this.signer = (content, signType, charset) -> keyMaterial.sign(content, AliPayPartnerConfig.EncryptType.valueOf(signType), charset);
+        this.signChecker = new KeyMaterialSignChecker(keyMaterial);
+    }
+
+    @Override
+    public Signer getSigner() {
+        return signer;
+    }
+
+    @Override
+    public SignChecker getSignChecker() {
+        return signChecker;
+    }
+
+    /**
+     * 使用密钥材料中已解析的支付宝公钥验签，证书模式仍使用 SDK 的实现
+     */
+    private record KeyMaterialSignChecker(AlipayKeyMaterial keyMaterial) implements SignChecker {
+
+        @Override
+        public boolean check(String sourceContent, String signature, String signType, String charset) {
+            return keyMaterial.verify(sourceContent, signature, AliPayPartnerConfig.EncryptType.valueOf(signType), charset);
+        }
+
+        @Override
+        public boolean checkCert(String sourceContent, String signature, String signType, String charset, String publicKey) {
+            try {
+                return AlipaySignature.rsaCheck(sourceContent, signature, publicKey, charset, signType);
+            } catch (AlipayApiException exception) {
+                throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("支付宝验签异常，appId = %s",
+                        keyMaterial.getAppId()), exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.wind.payment.alipay.transport;
+
+import com.alipay.api.AlipayApiException;
+import com.alipay.api.AlipayRequest;
+import com.alipay.api.AlipayResponse;
+
+/**
+ * 支付宝网关客户端，按 {@link com.wind.payment.alipay.AliPayPartnerConfig.TransportType} 选择 SDK 或连接池传输
+ *
+ * @author wuxp
+ * @date 2026-10-19 10:40
+ **/
+public interface AlipayGatewayClient {
+
+    /**
+     * 签名并请求网关，验证响应签名
+     *
+     * @param request   网关请求
+     * @param operation 网关操作，用于确定读超时
+     * @return 网关响应
+     * @throws AlipayApiException 网络异常或响应验签失败
+     */
+    <T extends AlipayResponse> T execute(AlipayRequest<T> request, AlipayGatewayOperation operation) throws AlipayApiException;
+}
@@ -0,0 +1,63 @@
+package com.wind.payment.alipay.transport;
+
+import com.wind.payment.core.metrics.PaymentTransactionOperation;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 支付宝网关操作，用于区分各操作的读超时，并映射为网关调用指标的 operation 标签
+ *
+ * @author wuxp
+ * @date 2026-10-19 10:05
+ **/
+@AllArgsConstructor
+@Getter
+public enum AlipayGatewayOperation {
+
+    /**
+     * 统一收单交易查询
+     */
+    QUERY(Duration.ofSeconds(5), PaymentTransactionOperation.QUERY),
+
+    /**
+     * 统一收单交易退款
+     */
+    REFUND(Duration.ofSeconds(15), PaymentTransactionOperation.REFUND),
+
+    /**
+     * 统一收单交易退款查询
+     */
+    QUERY_REFUND(Duration.ofSeconds(5), PaymentTransactionOperation.QUERY_REFUND),
+
+    /**
+     * 统一收单交易关闭
+     */
+    CLOSE(Duration.ofSeconds(5), PaymentTransactionOperation.CLOSE),
+
+    /**
+     * 统一收单线下交易预创建（扫码支付）
+     */
+    PRE_CREATE(Duration.ofSeconds(10), PaymentTransactionOperation.PRE_ORDER),
+
+    /**
+     * 统一收单交易支付（付款码支付），需要等待支付宝扣款
+     */
+    PAY(Duration.ofSeconds(30), PaymentTransactionOperation.PRE_ORDER),
+
+    /**
+     * 查询对账单下载地址
+     */
+    DOWNLOAD_BILL(Duration.ofSeconds(10), PaymentTransactionOperation.DOWNLOAD_BILL);
+
+    /**
+     * 默认读超时
+     */
+    private final Duration defaultReadTimeout;
+
+    /**
+     * 对应的插件操作，网关调用指标使用其标签值，与插件调用指标保持一致
+     */
+    private final PaymentTransactionOperation metricsOperation;
+}
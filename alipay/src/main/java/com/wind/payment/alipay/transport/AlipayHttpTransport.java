@@ -0,0 +1,27 @@
+package com.wind.payment.alipay.transport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.time.Duration;
+
+/**
+ * 支付宝网关 HTTP 传输
+ *
+ * @author wuxp
+ * @date 2026-10-19 10:08
+ **/
+public interface AlipayHttpTransport {
+
+    /**
+     * 以 application/x-www-form-urlencoded 提交请求
+     *
+     * @param uri         网关地址
+     * @param formBody    已 url 编码的表单
+     * @param charset     表单与响应的字符集
+     * @param readTimeout 读超时
+     * @return 响应体
+     * @throws IOException 网络异常或响应状态码不是 2xx
+     */
+    String post(URI uri, String formBody, Charset charset, Duration readTimeout) throws IOException;
+}
@@ -0,0 +1,92 @@
+package com.wind.payment.alipay.transport;
+
+import com.wind.payment.alipay.AliPayPartnerConfig;
+import com.wind.payment.core.support.SharedResourceRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * 支付宝网关连接池注册表
+ * 连接池配置相同的商户共享一个 {@link PooledAlipayHttpTransport}，连接按网关域名复用；最后一个持有者释放后关闭连接池
+ *
+ * @author wuxp
+ * @date 2026-10-19 10:30
+ **/
+@Slf4j
+public final class AlipayHttpTransportRegistry {
+
+    private static final SharedResourceRegistry<PoolKey, PooledAlipayHttpTransport> TRANSPORTS =
+            new SharedResourceRegistry<>(AlipayHttpTransportRegistry::buildTransport, AlipayHttpTransportRegistry::destroyTransport);
+
+    private AlipayHttpTransportRegistry() {
+        throw new AssertionError();
+    }
+
+    /**
+     * 获取共享的连接池传输
+     *
+     * @param config 连接池配置
+     * @param owner  持有者
+     * @return 传输租约
+     */
+    public static SharedResourceRegistry.Lease<PooledAlipayHttpTransport> acquire(AliPayPartnerConfig.HttpPoolConfig config, Object owner) {
+        return TRANSPORTS.acquire(new PoolKey(config), owner);
+    }
+
+    /**
+     * @return 当前共享的连接池数量
+     */
+    public static int size() {
+        return TRANSPORTS.size();
+    }
+
+    private static PooledAlipayHttpTransport buildTransport(PoolKey key) {
+        return new PooledAlipayHttpTransport(key.config);
+    }
+
+    private static void destroyTransport(PooledAlipayHttpTransport transport) {
+        if (log.isDebugEnabled()) {
+            log.debug("close alipay http connection pool, stats = {}", transport.getPoolStats());
+        }
+        transport.close();
+    }
+
+    /**
+     * 连接池 key，读超时按请求设置，不参与比较；config 仅用于首次创建连接池
+     */
+    private record PoolKey(int maxConnectionsPerRoute, int maxConnectionsTotal, Duration connectTimeout, Duration connectionRequestTimeout,
+                           Duration idleEvictTimeout, Duration connectionTimeToLive, Duration tlsSessionTimeout,
+                           AliPayPartnerConfig.HttpPoolConfig config) {
+
+        private PoolKey(AliPayPartnerConfig.HttpPoolConfig config) {
+            this(config.getMaxConnectionsPerRoute(), config.getMaxConnectionsTotal(), config.getConnectTimeout(),
+                    config.getConnectionRequestTimeout(), config.getIdleEvictTimeout(), config.getConnectionTimeToLive(),
+                    config.getTlsSessionTimeout(), config);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof PoolKey key)) {
+                return false;
+            }
+            return maxConnectionsPerRoute == key.maxConnectionsPerRoute
+                    && maxConnectionsTotal == key.maxConnectionsTotal
+                    && connectTimeout.equals(key.connectTimeout)
+                    && connectionRequestTimeout.equals(key.connectionRequestTimeout)
+                    && idleEvictTimeout.equals(key.idleEvictTimeout)
+                    && connectionTimeToLive.equals(key.connectionTimeToLive)
+                    && tlsSessionTimeout.equals(key.tlsSessionTimeout);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(maxConnectionsPerRoute, maxConnectionsTotal, connectTimeout, connectionRequestTimeout, idleEvictTimeout,
+                    connectionTimeToLive, tlsSessionTimeout);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.wind.payment.alipay.transport;
+
+import com.alipay.api.AlipayApiException;
+import com.alipay.api.AlipayRequest;
+import com.alipay.api.AlipayResponse;
+import com.alipay.api.internal.parser.json.ObjectJsonParser;
+import com.alipay.api.internal.util.json.JSONWriter;
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.alipay.AliPayPartnerConfig;
+import com.wind.payment.alipay.security.AlipayKeyMaterial;
+import com.wind.payment.core.metrics.GatewayCallPhase;
+import com.wind.payment.core.metrics.GatewayCallTimer;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 通过 {@link AlipayHttpTransport} 请求网关的客户端
+ * 请求参数的组装、签名与响应验签规则与 SDK 的 DefaultAlipayClient 一致，签名使用预解析的 {@link AlipayKeyMaterial}；
+ * 响应仍由 SDK 的 {@link ObjectJsonParser} 解析为对应的 {@link AlipayResponse}；
+ * 签名、网络与解析验签的耗时记录到当前线程的 {@link GatewayCallTimer}
+ *
+ * @author wuxp
+ * @date 2026-10-19 10:50
+ **/
+public class HttpAlipayGatewayClient implements AlipayGatewayClient {
+
+    private static final ZoneId ALIPAY_ZONE = ZoneId.of("GMT+8");
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String FORMAT_JSON = "json";
+
+    private static final String DEFAULT_API_VERSION = "1.0";
+
+    private static final String BIZ_CONTENT_NAME = "biz_content";
+
+    private static final String SIGN_NAME = "sign";
+
+    private static final String RESPONSE_SUFFIX = "_response";
+
+    private static final String ERROR_RESPONSE_NAME = "error_response";
+
+    private final AliPayPartnerConfig config;
+
+    private final AlipayKeyMaterial keyMaterial;
+
+    private final AlipayHttpTransport transport;
+
+    private final URI gatewayUri;
+
+    private final Charset charset;
+
+    public HttpAlipayGatewayClient(AliPayPartnerConfig config, AlipayKeyMaterial keyMaterial, AlipayHttpTransport transport) {
+        AssertUtils.notNull(config, "argument config must not null");
+        AssertUtils.notNull(keyMaterial, "argument keyMaterial must not null");
+        AssertUtils.notNull(transport, "argument transport must not null");
+        this.config = config;
+        this.keyMaterial = keyMaterial;
+        this.transport = transport;
+        this.charset = Charset.forName(config.getCharset());
+        this.gatewayUri = URI.create(config.getServiceUrl() + "?charset=" + URLEncoder.encode(config.getCharset(), charset));
+    }
+
+    @Override
+    public <T extends AlipayResponse> T execute(AlipayRequest<T> request, AlipayGatewayOperation operation) throws AlipayApiException {
+        GatewayCallTimer timer = GatewayCallTimer.current();
+        Map<String, String> params = buildParams(request);
+        params.put(SIGN_NAME, keyMaterial.sign(signContent(params), config.getEncryptType(), config.getCharset()));
+        String formBody = encodeForm(params);
+        timer.mark(GatewayCallPhase.SIGN);
+        String body;
+        try {
+            body = transport.post(gatewayUri, formBody, charset, config.getHttpPool().getReadTimeout(operation));
+        } catch (IOException exception) {
+            throw new AlipayApiException(exception);
+        } finally {
+            timer.mark(GatewayCallPhase.NETWORK);
+        }
+        T result = new ObjectJsonParser<>(request.getResponseClass()).parse(body);
+        result.setBody(body);
+        verifyResponse(request.getApiMethodName(), body, result.isSuccess());
+        timer.mark(GatewayCallPhase.PARSE);
+        return result;
+    }
+
+    /**
+     * @return 按参数名排序的公共参数与业务参数，不含空值
+     */
+    Map<String, String> buildParams(AlipayRequest<?> request) {
+        Map<String, String> result = new TreeMap<>();
+        Map<String, String> textParams = request.getTextParams();
+        if (textParams != null) {
+            textParams.forEach((name, value) -> putIfNotEmpty(result, name, value));
+        }
+        if (!result.containsKey(BIZ_CONTENT_NAME) && request.getBizModel() != null) {
+            result.put(BIZ_CONTENT_NAME, new JSONWriter().write(request.getBizModel(), true));
+        }
+        putIfNotEmpty(result, "app_id", config.getAppId());
+        putIfNotEmpty(result, "method", request.getApiMethodName());
+        putIfNotEmpty(result, "format", FORMAT_JSON);
+        putIfNotEmpty(result, "charset", config.getCharset());
+        putIfNotEmpty(result, "sign_type", config.getEncryptType().name());
+        putIfNotEmpty(result, "timestamp", TIMESTAMP_FORMATTER.format(ZonedDateTime.now(ALIPAY_ZONE)));
+        putIfNotEmpty(result, "version", StringUtils.defaultIfEmpty(request.getApiVersion(), DEFAULT_API_VERSION));
+        putIfNotEmpty(result, "notify_url", request.getNotifyUrl());
+        putIfNotEmpty(result, "return_url", request.getReturnUrl());
+        putIfNotEmpty(result, "prod_code", request.getProdCode());
+        putIfNotEmpty(result, "terminal_type", request.getTerminalType());
+        putIfNotEmpty(result, "terminal_info", request.getTerminalInfo());
+        return result;
+    }
+
+    private void verifyResponse(String method, String body, boolean successful) throws AlipayApiException {
+        String content = extractObject(body, method.replace('.', '_') + RESPONSE_SUFFIX);
+        if (content == null) {
+            content = extractObject(body, ERROR_RESPONSE_NAME);
+        }
+        if (content == null) {
+            throw new AlipayApiException("invalid alipay gateway response, method = " + method);
+        }
+        String sign = extractString(body, SIGN_NAME, body.indexOf(content) + content.length());
+        if (StringUtils.isEmpty(sign)) {
+            // 网关对部分失败响应（例如 appId 不存在）不签名
+            if (successful) {
+                throw new AlipayApiException("sign check fail: sign is empty, method = " + method);
+            }
+            return;
+        }
+        if (!keyMaterial.verify(content, sign, config.getEncryptType(), config.getCharset())) {
+            throw new AlipayApiException("sign check fail: check Sign and Data Fail, method = " + method);
+        }
+    }
+
+    private static String signContent(Map<String, String> sortedParams) {
+        StringBuilder result = new StringBuilder(512);
+        sortedParams.forEach((name, value) -> {
+            if (!result.isEmpty()) {
+                result.append('&');
+            }
+            result.append(name).append('=').append(value);
+        });
+        return result.toString();
+    }
+
+    private String encodeForm(Map<String, String> params) {
+        StringBuilder result = new StringBuilder(1024);
+        params.forEach((name, value) -> {
+            if (!result.isEmpty()) {
+                result.append('&');
+            }
+            result.append(name).append('=').append(URLEncoder.encode(value, charset));
+        });
+        return result.toString();
+    }
+
+    private static void putIfNotEmpty(Map<String, String> params, String name, String value) {
+        if (StringUtils.isNotEmpty(value)) {
+            params.put(name, value);
+        }
+    }
+
+    /**
+     * 提取 json 中指定字段的对象原文，即网关签名的内容
+     */
+    static String extractObject(String body, String name) {
+        int start = indexOfValue(body, name, 0);
+        if (start < 0 || body.charAt(start) != '{') {
+            return null;
+        }
+        int depth = 0;
+        boolean inString = false;
+        for (int i = start; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return body.substring(start, i + 1);
+            }
+        }
+        return null;
+    }
+
+    private static String extractString(String body, String name, int from) {
+        int start = indexOfValue(body, name, from);
+        if (start < 0 || body.charAt(start) != '"') {
+            return null;
+        }
+        int end = body.indexOf('"', start + 1);
+        return end < 0 ? null : body.substring(start + 1, end).replace("\\/", "/");
+    }
+
+    private static int indexOfValue(String body, String name, int from) {
+        String key = '"' + name + '"';
+        int index = body.indexOf(key, from);
+        if (index < 0) {
+            return -1;
+        }
+        int i = skipWhitespace(body, index + key.length());
+        if (i >= body.length() || body.charAt(i) != ':') {
+            return -1;
+        }
+        i = skipWhitespace(body, i + 1);
+        return i < body.length() ? i : -1;
+    }
+
+    private static int skipWhitespace(String body, int index) {
+        while (index < body.length() && Character.isWhitespace(body.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,41 @@
+package com.wind.payment.alipay.transport;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.core.transport.PaymentGatewayHttpRequest;
+import com.wind.payment.core.transport.PaymentGatewayHttpResponse;
+import com.wind.payment.core.transport.PaymentGatewayHttpTransport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.time.Duration;
+
+/**
+ * 基于 {@link PaymentGatewayHttpTransport} 的支付宝网关传输
+ * 请求在等待网关响应期间不占用 I/O 线程；调用方在虚拟线程中执行时（例如通过 DefaultAsyncPaymentTransactionPlugin），
+ * 大量并发请求只需少量平台线程
+ *
+ * @author wuxp
+ * @date 2026-10-19 13:40
+ **/
+public class NioAlipayHttpTransport implements AlipayHttpTransport {
+
+    private static final String FORM_MIME_TYPE = "application/x-www-form-urlencoded";
+
+    private final PaymentGatewayHttpTransport transport;
+
+    public NioAlipayHttpTransport(PaymentGatewayHttpTransport transport) {
+        AssertUtils.notNull(transport, "argument transport must not null");
+        this.transport = transport;
+    }
+
+    @Override
+    public String post(URI uri, String formBody, Charset charset, Duration readTimeout) throws IOException {
+        PaymentGatewayHttpResponse response = transport.send(new PaymentGatewayHttpRequest(uri, FORM_MIME_TYPE + "; charset=" + charset.name(),
+                formBody.getBytes(charset), readTimeout));
+        if (!response.isSuccessful()) {
+            throw new IOException(String.format("alipay gateway response status = %d, uri = %s", response.statusCode(), uri));
+        }
+        return new String(response.body(), charset);
+    }
+}
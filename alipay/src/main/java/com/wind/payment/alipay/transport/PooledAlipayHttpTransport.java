@@ -0,0 +1,114 @@
+package com.wind.payment.alipay.transport;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.alipay.AliPayPartnerConfig;
+import com.wind.payment.core.metrics.GatewayCallPhase;
+import com.wind.payment.core.metrics.GatewayCallTimer;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.time.Duration;
+
+/**
+ * 基于 Apache HttpClient 5 连接池的支付宝网关传输
+ * 连接按路由限制数量并保持长连接，空闲或超过存活时间的连接由后台线程回收；
+ * 传输内的连接共享一个私有的 {@link SSLContext}，新建连接时可复用缓存的 TLS 会话，避免完整握手；
+ * 获取（及建立）连接的耗时记录为 {@link GatewayCallPhase#CONNECT}
+ *
+ * @author wuxp
+ * @date 2026-10-19 10:15
+ **/
+public class PooledAlipayHttpTransport implements AlipayHttpTransport, AutoCloseable {
+
+    private static final String FORM_MIME_TYPE = "application/x-www-form-urlencoded";
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final CloseableHttpClient httpClient;
+
+    private final Timeout connectionRequestTimeout;
+
+    public PooledAlipayHttpTransport(AliPayPartnerConfig.HttpPoolConfig config) {
+        AssertUtils.notNull(config, "argument config must not null");
+        AssertUtils.isTrue(config.getMaxConnectionsPerRoute() > 0, "argument maxConnectionsPerRoute must greater than 0");
+        AssertUtils.isTrue(config.getMaxConnectionsTotal() >= config.getMaxConnectionsPerRoute(),
+                "argument maxConnectionsTotal must not less than maxConnectionsPerRoute");
+        // 使用独立的 SSLContext：createSystemDefault 返回 JVM 全局单例，修改其会话超时会影响进程内所有 TLS 连接
+        SSLContext sslContext = SSLContexts.createDefault();
+        sslContext.getClientSessionContext().setSessionTimeout((int) config.getTlsSessionTimeout().toSeconds());
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setSSLSocketFactory(SSLConnectionSocketFactoryBuilder.create().setSslContext(sslContext).build())
+                .setMaxConnPerRoute(config.getMaxConnectionsPerRoute())
+                .setMaxConnTotal(config.getMaxConnectionsTotal())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(toTimeout(config.getConnectTimeout()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(config.getConnectionTimeToLive().toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(config.getIdleEvictTimeout().toMillis()))
+                .disableCookieManagement()
+                .disableAutomaticRetries()
+                .addExecInterceptorAfter(ChainElement.CONNECT.name(), "gateway-call-timer", (request, scope, chain) -> {
+                    GatewayCallTimer.current().mark(GatewayCallPhase.CONNECT);
+                    return chain.proceed(request, scope);
+                })
+                .build();
+        this.connectionRequestTimeout = toTimeout(config.getConnectionRequestTimeout());
+    }
+
+    @Override
+    public String post(URI uri, String formBody, Charset charset, Duration readTimeout) throws IOException {
+        HttpPost post = new HttpPost(uri);
+        post.setConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .setResponseTimeout(toTimeout(readTimeout))
+                .build());
+        post.setEntity(new StringEntity(formBody, ContentType.create(FORM_MIME_TYPE, charset)));
+        return httpClient.execute(post, response -> {
+            String body = EntityUtils.toString(response.getEntity(), charset);
+            if (response.getCode() < 200 || response.getCode() >= 300) {
+                throw new IOException(String.format("alipay gateway response status = %d, uri = %s", response.getCode(), uri));
+            }
+            return body;
+        });
+    }
+
+    /**
+     * @return 连接池统计
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    @Override
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+}
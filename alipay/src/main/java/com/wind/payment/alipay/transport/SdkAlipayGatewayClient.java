@@ -0,0 +1,35 @@
+package com.wind.payment.alipay.transport;
+
+import com.alipay.api.AlipayApiException;
+import com.alipay.api.AlipayClient;
+import com.alipay.api.AlipayRequest;
+import com.alipay.api.AlipayResponse;
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.core.metrics.GatewayCallPhase;
+import com.wind.payment.core.metrics.GatewayCallTimer;
+
+/**
+ * 使用 SDK 内置传输（HttpURLConnection）的网关客户端，读超时使用 SDK 的默认值；
+ * SDK 内部的签名、网络与解析无法区分，耗时全部计入 {@link GatewayCallPhase#NETWORK}
+ *
+ * @author wuxp
+ * @date 2026-10-19 10:42
+ **/
+public class SdkAlipayGatewayClient implements AlipayGatewayClient {
+
+    private final AlipayClient alipayClient;
+
+    public SdkAlipayGatewayClient(AlipayClient alipayClient) {
+        AssertUtils.notNull(alipayClient, "argument alipayClient must not null");
+        this.alipayClient = alipayClient;
+    }
+
+    @Override
+    public <T extends AlipayResponse> T execute(AlipayRequest<T> request, AlipayGatewayOperation operation) throws AlipayApiException {
+        try {
+            return alipayClient.execute(request);
+        } finally {
+            GatewayCallTimer.current().mark(GatewayCallPhase.NETWORK);
+        }
+    }
+}
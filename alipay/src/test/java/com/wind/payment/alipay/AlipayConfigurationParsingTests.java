@@ -1,5 +1,7 @@
 package com.wind.payment.alipay;
 
+import com.wind.jackson.WindJson;
+import com.wind.payment.alipay.security.AlipayClientRegistry;
 import org.junit.jupiter.api.Test;
 import tools.jackson.core.JacksonException;
 
@@ -8,6 +10,8 @@ import java.security.KeyPairGenerator;
 import java.util.Base64;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class AlipayConfigurationParsingTests {
@@ -30,6 +34,28 @@ class AlipayConfigurationParsingTests {
         assertThrows(JacksonException.class, () -> new AppAlipayPaymentPlugin(config));
     }
 
+    @Test
+    void testScenePluginsOfSameAppIdShareKeyMaterial() throws Exception {
+        String config = configJson("shared-app-id");
+
+        AppAlipayPaymentPlugin appPlugin = new AppAlipayPaymentPlugin(config);
+        QrCodeAlipayPaymentPlugin qrCodePlugin = new QrCodeAlipayPaymentPlugin(config);
+
+        assertSame(appPlugin.getKeyMaterial(), qrCodePlugin.getKeyMaterial());
+    }
+
+    @Test
+    void testScenePluginsOfSameAppIdShareAlipayClient() throws Exception {
+        AliPayPartnerConfig config = WindJson.parseObject(configJson("shared-client-app-id"), AliPayPartnerConfig.class);
+
+        try (AppAlipayPaymentPlugin appPlugin = new AppAlipayPaymentPlugin(config);
+             QrCodeAlipayPaymentPlugin qrCodePlugin = new QrCodeAlipayPaymentPlugin(config)) {
+            assertSame(appPlugin.getAlipayClient(), qrCodePlugin.getAlipayClient());
+            assertEquals(2, AlipayClientRegistry.getReferenceCount(config));
+        }
+        assertEquals(0, AlipayClientRegistry.getReferenceCount(config));
+    }
+
     private static String configJson(String appId) throws Exception {
         KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
         generator.initialize(2048);
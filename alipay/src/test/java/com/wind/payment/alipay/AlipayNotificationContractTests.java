@@ -10,6 +10,7 @@ import com.wind.payment.core.request.PaymentTransactionEventRequest;
 import com.wind.payment.core.request.PaymentTransactionRefundEventRequest;
 import com.wind.payment.core.response.QueryTransactionOrderResponse;
 import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import com.wind.payment.core.webhook.PaymentTransactionNotification;
 import com.wind.transaction.core.enums.CurrencyIsoCode;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -121,6 +122,51 @@ class AlipayNotificationContractTests {
         assertEquals(params, response.<Map<String, String>>getRawResponse());
     }
 
+    @Test
+    void testVerifiesParsedPaymentNotification() throws Exception {
+        Map<String, String> params = signedParams(Map.of(
+                "out_trade_no", "payment-002",
+                "trade_no", "alipay-002",
+                "trade_status", "TRADE_SUCCESS",
+                "total_amount", "50.00",
+                "notify_time", "2023-11-29 13:09:27"));
+
+        PaymentTransactionNotification notification = plugin.parsePaymentEvent(params);
+        assertEquals("payment-002", notification.getTransactionSn());
+        assertEquals("alipay-002", notification.getOutTransactionSn());
+        assertEquals(CurrencyIsoCode.CNY.of(5_000), notification.getOrderAmount());
+
+        PaymentTransactionEventRequest request = new PaymentTransactionEventRequest();
+        request.setTransactionSn(notification.getTransactionSn());
+        request.setOrderAmount(notification.getOrderAmount());
+        request.setRawRequest(notification);
+        QueryTransactionOrderResponse response = plugin.onPaymentEvent(request);
+
+        assertEquals(PaymentTransactionState.COMPLETED, response.getTransactionState());
+        assertEquals(params, response.<Map<String, String>>getRawResponse());
+    }
+
+    @Test
+    void testRejectsParsedNotificationWithUnexpectedAmount() throws Exception {
+        Map<String, String> params = signedParams(Map.of(
+                "out_trade_no", "payment-003",
+                "out_biz_no", "refund-003",
+                "total_amount", "100.00",
+                "refund_fee", "20.00",
+                "notify_time", "2023-11-29 13:09:27"));
+        PaymentTransactionNotification notification = plugin.parseRefundEvent(params);
+        assertEquals("refund-003", notification.getTransactionRefundSn());
+        assertEquals(CurrencyIsoCode.CNY.of(2_000), notification.getRefundAmount());
+
+        PaymentTransactionRefundEventRequest request = new PaymentTransactionRefundEventRequest();
+        request.setTransactionRefundSn("refund-003");
+        request.setOrderAmount(CurrencyIsoCode.CNY.of(10_000));
+        request.setRefundAmount(CurrencyIsoCode.CNY.of(1_000));
+        request.setRawRequest(notification);
+
+        assertThrows(BaseException.class, () -> plugin.onRefundEvent(request));
+    }
+
     @Test
     void testRejectsTypedDtoInsteadOfTreatingItAsSignedRawParameters() {
         PaymentTransactionEventRequest request = new PaymentTransactionEventRequest();
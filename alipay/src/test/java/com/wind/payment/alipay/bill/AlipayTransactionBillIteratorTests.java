@@ -0,0 +1,67 @@
+package com.wind.payment.alipay.bill;
+
+import com.wind.payment.core.bill.TransactionBillRecord;
+import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.transaction.core.enums.CurrencyIsoCode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AlipayTransactionBillIteratorTests {
+
+    private static final Charset GBK = Charset.forName("GBK");
+
+    private static final String DETAIL = """
+            #支付宝业务明细查询
+            #账号：[20880000000000000156]
+            #起始日期：[2026年10月17日 00:00:00]   终止日期：[2026年10月18日 00:00:00]
+            #-----------------------------------------业务明细列表----------------------------------------
+            支付宝交易号,商户订单号,业务类型,商品名称,创建时间,完成时间,门店编号,门店名称,操作员,终端号,对方账户,订单金额（元）,商家实收（元）,支付宝红包（元）,集分宝（元）,支付宝优惠（元）,商家优惠（元）,券核销金额（元）,券名称,商家红包消费金额（元）,卡消费金额（元）,退款批次号/请求号,服务费（元）,分润（元）,备注
+            2026101722001\t,T001\t,交易,商品,2026-10-17 10:00:00,2026-10-17 10:00:05,,,,,buyer,1.00,1.00,0.00,0.00,0.00,0.00,0.00,,0.00,0.00,,-0.01,0.00,
+            2026101722001\t,T001\t,退款,商品,2026-10-17 11:00:00,2026-10-17 11:00:01,,,,,buyer,1.00,-0.50,0.00,0.00,0.00,0.00,0.00,,0.00,0.00,R001\t,0.00,0.00,
+            2026101722002\t,T002\t,退款,商品,2026-10-17 12:00:00,2026-10-17 12:00:01,,,,,buyer,2.00,-2.00,0.00,0.00,0.00,0.00,0.00,,0.00,0.00,R002\t,0.00,0.00,
+            #-----------------------------------------业务明细列表结束------------------------------------
+            #交易合计：1笔，商家实收共1.00元
+            """;
+
+    @Test
+    void testParsesDetailFileOfZipArchive() throws IOException {
+        byte[] archive = zip("20881_20261017_业务明细(汇总).csv", "#汇总\n", "20881_20261017_业务明细.csv", DETAIL);
+
+        try (AlipayTransactionBillIterator iterator = AlipayTransactionBillIterator.open(new ByteArrayInputStream(archive))) {
+            List<TransactionBillRecord> records = iterator.stream().toList();
+
+            assertEquals(3, records.size());
+            assertEquals("T001", records.get(0).getTransactionSn());
+            assertEquals(CurrencyIsoCode.CNY.of(100), records.get(0).getOrderAmount());
+            assertEquals(PaymentTransactionState.COMPLETED, records.get(0).getTransactionState());
+            assertEquals("R001", records.get(1).getTransactionRefundSn());
+            assertEquals(CurrencyIsoCode.CNY.of(100), records.get(1).getOrderAmount());
+            assertEquals(CurrencyIsoCode.CNY.of(50), records.get(1).getRefundAmount());
+            assertEquals(PaymentTransactionState.PARTIAL_REFUND, records.get(1).getTransactionState());
+            assertEquals(CurrencyIsoCode.CNY.of(200), records.get(2).getOrderAmount());
+            assertEquals(CurrencyIsoCode.CNY.of(200), records.get(2).getRefundAmount());
+            assertEquals(PaymentTransactionState.REFUNDED, records.get(2).getTransactionState());
+        }
+    }
+
+    private static byte[] zip(String... nameAndContents) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (ZipOutputStream output = new ZipOutputStream(result, GBK)) {
+            for (int i = 0; i < nameAndContents.length; i += 2) {
+                output.putNextEntry(new ZipEntry(nameAndContents[i]));
+                output.write(nameAndContents[i + 1].getBytes(GBK));
+                output.closeEntry();
+            }
+        }
+        return result.toByteArray();
+    }
+}
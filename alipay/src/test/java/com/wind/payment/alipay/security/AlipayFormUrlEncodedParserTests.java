@@ -0,0 +1,66 @@
+package com.wind.payment.alipay.security;
+
+import com.wind.payment.core.PaymentTransactionException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AlipayFormUrlEncodedParserTests {
+
+    private final AlipayFormUrlEncodedParser parser = new AlipayFormUrlEncodedParser(StandardCharsets.UTF_8, 256, 4);
+
+    @Test
+    void testDecodesPercentEncodedAndPlusCharacters() {
+        AlipayNotificationParams params = parser.parse(bytes("subject=%E6%B5%8B%E8%AF%95+%26+a%3Db&trade_no=1&&empty="));
+
+        assertEquals(Map.of("subject", "测试 & a=b", "trade_no", "1", "empty", ""), params);
+        assertEquals(List.of("empty", "subject", "trade_no"), List.copyOf(params.keySet()));
+        assertNull(params.get("missing"));
+    }
+
+    @Test
+    void testDoesNotMoveBufferPosition() {
+        ByteBuffer body = ByteBuffer.wrap(bytes("xxa=1&b=2"));
+        body.position(2);
+
+        assertEquals(Map.of("a", "1", "b", "2"), parser.parse(body));
+        assertEquals(2, body.position());
+    }
+
+    @Test
+    void testReusesTargetParams() {
+        AlipayNotificationParams params = new AlipayNotificationParams();
+        parser.parse(ByteBuffer.wrap(bytes("a=1&b=2")), params);
+        parser.parse(ByteBuffer.wrap(bytes("c=3")), params);
+
+        assertEquals(Map.of("c", "3"), params);
+    }
+
+    @Test
+    void testRejectsOversizedBody() {
+        assertThrows(PaymentTransactionException.class, () -> parser.parse(new byte[257]));
+    }
+
+    @Test
+    void testRejectsTooManyFields() {
+        assertThrows(PaymentTransactionException.class, () -> parser.parse(bytes("a=1&b=2&c=3&d=4&e=5")));
+    }
+
+    @Test
+    void testRejectsDuplicateAndMalformedFields() {
+        assertThrows(PaymentTransactionException.class, () -> parser.parse(bytes("a=1&a=2")));
+        assertThrows(PaymentTransactionException.class, () -> parser.parse(bytes("a=%E6%B")));
+        assertThrows(PaymentTransactionException.class, () -> parser.parse(bytes("a=%ZZ")));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,138 @@
+package com.wind.payment.alipay.security;
+
+import com.alipay.api.AlipayApiException;
+import com.alipay.api.internal.util.AlipaySignature;
+import com.sun.management.ThreadMXBean;
+import com.wind.payment.alipay.AliPayPartnerConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.management.ManagementFactory;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AlipayNotificationVerifierTests {
+
+    private static final String CHARSET = "UTF-8";
+
+    private static String privateKey;
+
+    private static String publicKey;
+
+    private static AlipayKeyMaterial keyMaterial;
+
+    @BeforeAll
+    static void setUpKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        privateKey = Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded());
+        AliPayPartnerConfig config = new AliPayPartnerConfig();
+        config.setAppId("verifier-app-id");
+        config.setRsaPrivateKey(privateKey);
+        publicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        config.setRsaPublicKey(publicKey);
+        keyMaterial = AlipayKeyMaterial.of(config);
+    }
+
+    @ParameterizedTest
+    @EnumSource(AliPayPartnerConfig.EncryptType.class)
+    void testVerifiesSdkSignatureWithoutCopyingParams(AliPayPartnerConfig.EncryptType encryptType) throws Exception {
+        Map<String, String> params = signedParams(encryptType);
+        Map<String, String> snapshot = new HashMap<>(params);
+
+        for (int i = 0; i < 3; i++) {
+            // 重复验签以覆盖池中 Signature 的复用
+            assertTrue(AlipayNotificationVerifier.verify(params, keyMaterial, CHARSET));
+        }
+        assertEquals(snapshot, params);
+    }
+
+    @ParameterizedTest
+    @EnumSource(AliPayPartnerConfig.EncryptType.class)
+    void testRejectsTamperedParams(AliPayPartnerConfig.EncryptType encryptType) throws Exception {
+        Map<String, String> params = signedParams(encryptType);
+        params.put("subject", "篡改后的标题");
+
+        assertFalse(AlipayNotificationVerifier.verify(params, keyMaterial, CHARSET));
+        params.remove("subject");
+        assertFalse(AlipayNotificationVerifier.verify(params, keyMaterial, CHARSET));
+    }
+
+    @ParameterizedTest
+    @EnumSource(AliPayPartnerConfig.EncryptType.class)
+    void testVerifiesParamsParsedFromRequestBody(AliPayPartnerConfig.EncryptType encryptType) throws Exception {
+        Map<String, String> params = signedParams(encryptType);
+        String body = params.entrySet().stream()
+                .map(entry -> URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+
+        AlipayNotificationParams parsed = AlipayFormUrlEncodedParser.of(CHARSET).parse(body.getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals(params, parsed);
+        assertTrue(AlipayNotificationVerifier.verify(parsed, keyMaterial, CHARSET));
+    }
+
+    @Test
+    void testAllocatesLessThanSdkRsaCheckV1() throws Exception {
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+        Map<String, String> params = signedParams(AliPayPartnerConfig.EncryptType.RSA2);
+        String body = params.entrySet().stream()
+                .map(entry -> URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        AlipayNotificationParams parsed = AlipayFormUrlEncodedParser.of(CHARSET).parse(body.getBytes(StandardCharsets.US_ASCII));
+        Runnable verifier = () -> assertTrue(AlipayNotificationVerifier.verify(parsed, keyMaterial, CHARSET));
+        Runnable sdk = () -> {
+            try {
+                // 原有路径：插件复制参数后交给 SDK 拼接、解析公钥并验签
+                assertTrue(AlipaySignature.rsaCheckV1(new HashMap<>(params), publicKey, CHARSET, "RSA2"));
+            } catch (AlipayApiException exception) {
+                throw new IllegalStateException(exception);
+            }
+        };
+        // 预热，排除类加载与池初始化的分配
+        allocatedBytes(threadBean, verifier, 200);
+        allocatedBytes(threadBean, sdk, 200);
+
+        long verifierBytes = allocatedBytes(threadBean, verifier, 500);
+        long sdkBytes = allocatedBytes(threadBean, sdk, 500);
+
+        assertTrue(verifierBytes < sdkBytes, () -> String.format("verifier allocated %d bytes, sdk allocated %d bytes", verifierBytes,
+                sdkBytes));
+    }
+
+    private static long allocatedBytes(ThreadMXBean threadBean, Runnable action, int iterations) {
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            action.run();
+        }
+        return threadBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static Map<String, String> signedParams(AliPayPartnerConfig.EncryptType encryptType) throws Exception {
+        Map<String, String> params = new HashMap<>();
+        params.put("out_trade_no", "payment-001");
+        params.put("trade_no", "alipay-001");
+        params.put("subject", "测试订单 & 标题=中文");
+        params.put("total_amount", "100.00");
+        params.put("sign_type", encryptType.name());
+        String content = AlipaySignature.getSignCheckContentV1(new HashMap<>(params));
+        params.put("sign", AlipaySignature.sign(content, privateKey, CHARSET, encryptType.name()));
+        return params;
+    }
+}
@@ -0,0 +1,87 @@
+package com.wind.payment.alipay.security;
+
+import com.alipay.api.AlipayConstants;
+import com.alipay.api.internal.util.AlipaySignature;
+import com.wind.payment.alipay.AliPayPartnerConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlipayOrderSignerTests {
+
+    private static String publicKey;
+
+    private static AlipayOrderSigner signer;
+
+    @BeforeAll
+    static void setUpKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        publicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        AliPayPartnerConfig config = new AliPayPartnerConfig();
+        config.setAppId("signer-app-id");
+        config.setRsaPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        config.setRsaPublicKey(publicKey);
+        signer = new AlipayOrderSigner(config, AlipayKeyMaterial.of(config));
+    }
+
+    @Test
+    void testSignsAppOrderStringVerifiableBySdk() throws Exception {
+        String orderString = signer.signAppOrder(newOrder("payment-001"));
+
+        Map<String, String> params = parseQuery(orderString);
+        assertEquals("alipay.trade.app.pay", params.get("method"));
+        assertEquals("signer-app-id", params.get("app_id"));
+        assertEquals(AlipayConstants.SDK_VERSION, params.get("alipay_sdk"));
+        assertTrue(params.get("biz_content").contains("\"out_trade_no\":\"payment-001\""));
+        assertTrue(AlipaySignature.rsaCheckV2(params, publicKey, "UTF-8", "RSA2"));
+    }
+
+    @Test
+    void testBatchSigningPreservesOrder() throws Exception {
+        List<AlipayOrderSigner.Order> orders = IntStream.range(0, 64).mapToObj(i -> newOrder("payment-" + i)).toList();
+
+        List<String> orderStrings = signer.signAppOrders(orders);
+
+        assertEquals(orders.size(), orderStrings.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Map<String, String> params = parseQuery(orderStrings.get(i));
+            assertTrue(params.get("biz_content").contains("\"out_trade_no\":\"payment-" + i + "\""));
+            assertTrue(AlipaySignature.rsaCheckV2(params, publicKey, "UTF-8", "RSA2"));
+        }
+    }
+
+    @Test
+    void testEscapesBizContentValues() {
+        String bizContent = AlipayOrderSigner.bizContent("subject", "\"测试\"\\", "body", null);
+
+        assertEquals("{\"subject\":\"\\\"测试\\\"\\\\\"}", bizContent);
+    }
+
+    private static AlipayOrderSigner.Order newOrder(String transactionSn) {
+        String bizContent = AlipayOrderSigner.bizContent("out_trade_no", transactionSn, "subject", "测试 & 订单", "total_amount", "1.00");
+        return new AlipayOrderSigner.Order("alipay.trade.app.pay", bizContent, "https://example.com/notify", null);
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> result = new HashMap<>();
+        for (String pair : query.split("&")) {
+            int index = pair.indexOf('=');
+            result.put(pair.substring(0, index), URLDecoder.decode(pair.substring(index + 1), StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+}
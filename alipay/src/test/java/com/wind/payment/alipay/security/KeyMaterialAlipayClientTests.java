@@ -0,0 +1,50 @@
+package com.wind.payment.alipay.security;
+
+import com.alipay.api.SignChecker;
+import com.wind.payment.alipay.AliPayPartnerConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyMaterialAlipayClientTests {
+
+    private static AlipayKeyMaterial keyMaterial;
+
+    @BeforeAll
+    static void setUpKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        AliPayPartnerConfig config = new AliPayPartnerConfig();
+        config.setAppId("client-app-id");
+        config.setRsaPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        config.setRsaPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        keyMaterial = AlipayKeyMaterial.of(config);
+    }
+
+    @Test
+    void testVerifiesResponsesWithParsedKeyMaterial() {
+        // 客户端配置中的公钥文本无法解析，验签成功说明 SDK 通道只使用了已解析的密钥材料
+        AliPayPartnerConfig config = new AliPayPartnerConfig();
+        config.setAppId("client-app-id");
+        config.setRsaPrivateKey("unparseable-private-key");
+        config.setRsaPublicKey("unparseable-public-key");
+        KeyMaterialAlipayClient client = new KeyMaterialAlipayClient(config, keyMaterial);
+        String content = "{\"code\":\"10000\",\"msg\":\"Success\",\"out_trade_no\":\"payment-001\"}";
+        String sign = keyMaterial.sign(content, AliPayPartnerConfig.EncryptType.RSA2, "UTF-8");
+
+        SignChecker signChecker = client.getSignChecker();
+
+        assertSame(signChecker, client.getSignChecker());
+        assertTrue(signChecker.check(content, sign, "RSA2", "UTF-8"));
+        assertTrue(signChecker.check(content, sign, "RSA2", "UTF-8"));
+        assertFalse(signChecker.check(content.replace("10000", "40004"), sign, "RSA2", "UTF-8"));
+    }
+}
@@ -0,0 +1,123 @@
+package com.wind.payment.alipay.transport;
+
+import com.alipay.api.AlipayApiException;
+import com.alipay.api.domain.AlipayTradeQueryModel;
+import com.alipay.api.request.AlipayTradeQueryRequest;
+import com.alipay.api.response.AlipayTradeQueryResponse;
+import com.wind.payment.alipay.AliPayPartnerConfig;
+import com.wind.payment.alipay.security.AlipayKeyMaterial;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpAlipayGatewayClientTests {
+
+    private static final String QUERY_RESPONSE = "{\"code\":\"10000\",\"msg\":\"Success\",\"trade_no\":\"alipay-001\"," +
+            "\"out_trade_no\":\"payment-001\",\"trade_status\":\"TRADE_SUCCESS\",\"total_amount\":\"100.00\"}";
+
+    private static AliPayPartnerConfig config;
+
+    private static AlipayKeyMaterial keyMaterial;
+
+    @BeforeAll
+    static void setUpKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        config = new AliPayPartnerConfig();
+        config.setAppId("transport-app-id");
+        config.setPartner("partner-id");
+        config.setRsaPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        config.setRsaPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        config.getHttpPool().getReadTimeouts().put(AlipayGatewayOperation.QUERY, Duration.ofSeconds(2));
+        keyMaterial = AlipayKeyMaterial.of(config);
+    }
+
+    @Test
+    void testSignsRequestAndVerifiesResponse() throws Exception {
+        AtomicReference<String> form = new AtomicReference<>();
+        AtomicReference<Duration> timeout = new AtomicReference<>();
+        HttpAlipayGatewayClient client = new HttpAlipayGatewayClient(config, keyMaterial, (uri, formBody, charset, readTimeout) -> {
+            assertEquals("charset=UTF-8", uri.getQuery());
+            form.set(formBody);
+            timeout.set(readTimeout);
+            return signedResponse("alipay_trade_query_response", QUERY_RESPONSE);
+        });
+
+        AlipayTradeQueryResponse response = client.execute(queryRequest(), AlipayGatewayOperation.QUERY);
+
+        assertTrue(response.isSuccess());
+        assertEquals("alipay-001", response.getTradeNo());
+        assertEquals("TRADE_SUCCESS", response.getTradeStatus());
+        assertEquals(Duration.ofSeconds(2), timeout.get());
+        Map<String, String> params = decodeForm(form.get());
+        assertEquals("alipay.trade.query", params.get("method"));
+        assertEquals("transport-app-id", params.get("app_id"));
+        assertTrue(params.get("biz_content").contains("payment-001"));
+        String sign = params.remove("sign");
+        String content = params.entrySet().stream().map(entry -> entry.getKey() + "=" + entry.getValue()).collect(Collectors.joining("&"));
+        assertTrue(keyMaterial.verify(content, sign, AliPayPartnerConfig.EncryptType.RSA2, "UTF-8"));
+    }
+
+    @Test
+    void testRejectsTamperedResponse() {
+        String body = signedResponse("alipay_trade_query_response", QUERY_RESPONSE).replace("100.00", "1.00");
+        HttpAlipayGatewayClient client = new HttpAlipayGatewayClient(config, keyMaterial, (uri, formBody, charset, readTimeout) -> body);
+
+        assertThrows(AlipayApiException.class, () -> client.execute(queryRequest(), AlipayGatewayOperation.QUERY));
+    }
+
+    @Test
+    void testRejectsUnsignedSuccessResponse() {
+        String body = "{\"alipay_trade_query_response\":" + QUERY_RESPONSE + "}";
+        HttpAlipayGatewayClient client = new HttpAlipayGatewayClient(config, keyMaterial, (uri, formBody, charset, readTimeout) -> body);
+
+        assertThrows(AlipayApiException.class, () -> client.execute(queryRequest(), AlipayGatewayOperation.QUERY));
+    }
+
+    @Test
+    void testExtractsSignedObjectWithNestedBraces() {
+        String content = "{\"code\":\"10000\",\"detail\":{\"memo\":\"a}b\\\"{\"},\"list\":[{\"x\":1}]}";
+        String body = "{\"alipay_trade_query_response\" : " + content + ",\"sign\":\"abc\"}";
+
+        assertEquals(content, HttpAlipayGatewayClient.extractObject(body, "alipay_trade_query_response"));
+        assertNull(HttpAlipayGatewayClient.extractObject(body, "error_response"));
+    }
+
+    private static AlipayTradeQueryRequest queryRequest() {
+        AlipayTradeQueryModel model = new AlipayTradeQueryModel();
+        model.setOutTradeNo("payment-001");
+        AlipayTradeQueryRequest result = new AlipayTradeQueryRequest();
+        result.setBizModel(model);
+        return result;
+    }
+
+    private static String signedResponse(String name, String content) {
+        String sign = keyMaterial.sign(content, AliPayPartnerConfig.EncryptType.RSA2, "UTF-8");
+        return "{\"" + name + "\":" + content + ",\"sign\":\"" + sign + "\"}";
+    }
+
+    private static Map<String, String> decodeForm(String form) {
+        Map<String, String> result = new TreeMap<>();
+        for (String pair : form.split("&")) {
+            int index = pair.indexOf('=');
+            result.put(pair.substring(0, index), URLDecoder.decode(pair.substring(index + 1), StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.wind.payment.core;
+
+import com.wind.payment.core.request.PrePaymentOrderRequest;
+import com.wind.payment.core.request.QueryTransactionOrderRefundRequest;
+import com.wind.payment.core.request.QueryTransactionOrderRequest;
+import com.wind.payment.core.request.TransactionOrderRefundRequest;
+import com.wind.payment.core.response.PrePaymentOrderResponse;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.payment.core.response.TransactionOrderRefundResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步支付交易插件
+ * 调用不阻塞当前线程，结果以 {@link CompletableFuture} 返回；失败时以 {@link PaymentTransactionException} 异常完成，
+ * 超时以 {@link java.util.concurrent.TimeoutException} 异常完成。
+ * 取消或超时会中断仍在执行的网关请求
+ *
+ * @author wuxp
+ * @date 2026-10-18 17:05
+ **/
+public interface AsyncPaymentTransactionPlugin {
+
+    /**
+     * 预下(支付)单
+     *
+     * @param request 预下单请求
+     * @param timeout 本次调用超时时间，为 null 时使用默认超时
+     * @return 预下单结果
+     */
+    CompletableFuture<PrePaymentOrderResponse> preOrder(PrePaymentOrderRequest request, Duration timeout);
+
+    /**
+     * 查询交易订单
+     *
+     * @param request 查询订单请求
+     * @param timeout 本次调用超时时间，为 null 时使用默认超时
+     * @return 查询响应
+     */
+    CompletableFuture<QueryTransactionOrderResponse> queryTransactionOrder(QueryTransactionOrderRequest request, Duration timeout);
+
+    /**
+     * 交易单退款
+     *
+     * @param request 退款请求
+     * @param timeout 本次调用超时时间，为 null 时使用默认超时
+     * @return 退款响应
+     */
+    CompletableFuture<TransactionOrderRefundResponse> transactionOrderRefund(TransactionOrderRefundRequest request, Duration timeout);
+
+    /**
+     * 查询交易退款
+     *
+     * @param request 退款请求
+     * @param timeout 本次调用超时时间，为 null 时使用默认超时
+     * @return 退款响应
+     */
+    CompletableFuture<TransactionOrderRefundResponse> queryTransactionOrderRefund(QueryTransactionOrderRefundRequest request, Duration timeout);
+
+    default CompletableFuture<PrePaymentOrderResponse> preOrder(PrePaymentOrderRequest request) {
+        return preOrder(request, null);
+    }
+
+    default CompletableFuture<QueryTransactionOrderResponse> queryTransactionOrder(QueryTransactionOrderRequest request) {
+        return queryTransactionOrder(request, null);
+    }
+
+    default CompletableFuture<TransactionOrderRefundResponse> transactionOrderRefund(TransactionOrderRefundRequest request) {
+        return transactionOrderRefund(request, null);
+    }
+
+    default CompletableFuture<TransactionOrderRefundResponse> queryTransactionOrderRefund(QueryTransactionOrderRefundRequest request) {
+        return queryTransactionOrderRefund(request, null);
+    }
+
+    /**
+     * @return 被适配的同步插件
+     */
+    PaymentTransactionPlugin getDelegate();
+}
@@ -0,0 +1,159 @@
+package com.wind.payment.core;
+
+import com.wind.payment.core.batch.PaymentTransactionBatchExecutor;
+import com.wind.payment.core.bill.TransactionBillIterator;
+import com.wind.payment.core.bill.TransactionBillProvider;
+import com.wind.payment.core.request.CloseTransactionOrderRequest;
+import com.wind.payment.core.request.DownloadTransactionBillRequest;
+import com.wind.payment.core.request.PaymentTransactionEventRequest;
+import com.wind.payment.core.request.PaymentTransactionRefundEventRequest;
+import com.wind.payment.core.request.PrePaymentOrderRequest;
+import com.wind.payment.core.request.QueryTransactionOrderRefundRequest;
+import com.wind.payment.core.request.QueryTransactionOrderRequest;
+import com.wind.payment.core.request.TransactionOrderRefundRequest;
+import com.wind.payment.core.response.CloseTransactionOrderResponse;
+import com.wind.payment.core.response.PrePaymentOrderResponse;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import com.wind.payment.core.webhook.PaymentTransactionNotification;
+import com.wind.payment.core.webhook.WebhookIdempotencyKey;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.Reference;
+import java.util.function.Supplier;
+
+/**
+ * {@link PaymentTransactionPluginCache} 交给调用方的插件句柄
+ * 缓存与调用方都只持有句柄，被缓存移除后，句柄不再被任何调用方引用（被 GC 回收）时才关闭被缓存的插件，
+ * 避免关闭仍在使用中的插件（及其释放的共享连接池）；被缓存的插件实现了 {@link TransactionBillProvider} 时使用 {@link BillProvider}
+ *
+ * @author wuxp
+ * @date 2026-10-18 10:20
+ **/
+@Slf4j
+public class CachedPaymentTransactionPlugin implements PaymentTransactionPlugin {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    @Getter
+    private final PaymentTransactionPlugin delegate;
+
+    /**
+     * 商户标识，插件重建后保持不变
+     */
+    private final PaymentTransactionBatchExecutor.PartnerKey partnerKey;
+
+    CachedPaymentTransactionPlugin(PaymentTransactionBatchExecutor.PartnerKey partnerKey, PaymentTransactionPlugin delegate) {
+        this.partnerKey = partnerKey;
+        this.delegate = delegate;
+        if (delegate instanceof AutoCloseable closeable) {
+            // 注意：清理动作不能持有句柄的引用
+            CLEANER.register(this, new CloseAction(closeable));
+        }
+    }
+
+    static CachedPaymentTransactionPlugin of(String partnerId, PaymentTransactionPlatform platform, PaymentTransactionPlugin delegate) {
+        PaymentTransactionBatchExecutor.PartnerKey partnerKey = new PaymentTransactionBatchExecutor.PartnerKey(partnerId, platform.name());
+        return delegate instanceof TransactionBillProvider ? new BillProvider(partnerKey, delegate) :
+                new CachedPaymentTransactionPlugin(partnerKey, delegate);
+    }
+
+    @Override
+    public PrePaymentOrderResponse preOrder(PrePaymentOrderRequest request) {
+        return call(() -> delegate.preOrder(request));
+    }
+
+    @Override
+    public QueryTransactionOrderResponse queryTransactionOrder(QueryTransactionOrderRequest request) {
+        return call(() -> delegate.queryTransactionOrder(request));
+    }
+
+    @Override
+    public TransactionOrderRefundResponse transactionOrderRefund(TransactionOrderRefundRequest request) {
+        return call(() -> delegate.transactionOrderRefund(request));
+    }
+
+    @Override
+    public TransactionOrderRefundResponse queryTransactionOrderRefund(QueryTransactionOrderRefundRequest request) {
+        return call(() -> delegate.queryTransactionOrderRefund(request));
+    }
+
+    @Override
+    public CloseTransactionOrderResponse closeTransactionOrder(CloseTransactionOrderRequest request) {
+        return call(() -> delegate.closeTransactionOrder(request));
+    }
+
+    @Override
+    public PaymentTransactionNotification parsePaymentEvent(Object rawRequest) {
+        return call(() -> delegate.parsePaymentEvent(rawRequest));
+    }
+
+    @Override
+    public PaymentTransactionNotification parseRefundEvent(Object rawRequest) {
+        return call(() -> delegate.parseRefundEvent(rawRequest));
+    }
+
+    @Override
+    public QueryTransactionOrderResponse onPaymentEvent(PaymentTransactionEventRequest request) {
+        return call(() -> delegate.onPaymentEvent(request));
+    }
+
+    @Override
+    public TransactionOrderRefundResponse onRefundEvent(PaymentTransactionRefundEventRequest request) {
+        return call(() -> delegate.onRefundEvent(request));
+    }
+
+    @Override
+    public Object getWebHookResponse(boolean isSuccessful) {
+        return call(() -> delegate.getWebHookResponse(isSuccessful));
+    }
+
+    @Override
+    public WebhookIdempotencyKey getIdempotencyKey(Object rawRequest) {
+        return call(() -> delegate.getIdempotencyKey(rawRequest));
+    }
+
+    @Override
+    public Object getPartnerKey() {
+        return partnerKey;
+    }
+
+    <T> T call(Supplier<T> action) {
+        try {
+            return action.get();
+        } finally {
+            // 调用期间句柄保持可达，避免插件在调用中被关闭
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    /**
+     * 同时提供对账单下载的插件句柄
+     */
+    public static class BillProvider extends CachedPaymentTransactionPlugin implements TransactionBillProvider {
+
+        BillProvider(PaymentTransactionBatchExecutor.PartnerKey partnerKey, PaymentTransactionPlugin delegate) {
+            super(partnerKey, delegate);
+        }
+
+        @Override
+        public TransactionBillIterator downloadTransactionBill(DownloadTransactionBillRequest request) {
+            TransactionBillProvider provider = (TransactionBillProvider) getDelegate();
+            return call(() -> provider.downloadTransactionBill(request));
+        }
+    }
+
+    private record CloseAction(AutoCloseable plugin) implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                plugin.close();
+            } catch (Exception exception) {
+                log.warn("close payment transaction plugin error, plugin = {}", plugin.getClass().getName(), exception);
+            }
+        }
+    }
+}
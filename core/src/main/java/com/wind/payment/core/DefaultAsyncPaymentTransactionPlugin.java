@@ -0,0 +1,144 @@
+package com.wind.payment.core;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.request.PrePaymentOrderRequest;
+import com.wind.payment.core.request.QueryTransactionOrderRefundRequest;
+import com.wind.payment.core.request.QueryTransactionOrderRequest;
+import com.wind.payment.core.request.TransactionOrderRefundRequest;
+import com.wind.payment.core.response.PrePaymentOrderResponse;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 基于 {@link ExecutorService} 的异步支付插件适配器
+ * 同步插件的每次调用提交到执行器执行，默认执行器为虚拟线程（每个任务一个虚拟线程），运行环境不支持虚拟线程时退化为缓存线程池
+ *
+ * @author wuxp
+ * @date 2026-10-18 17:10
+ **/
+@Slf4j
+public class DefaultAsyncPaymentTransactionPlugin implements AsyncPaymentTransactionPlugin {
+
+    @Getter
+    private final PaymentTransactionPlugin delegate;
+
+    private final ExecutorService executor;
+
+    /**
+     * 默认超时时间，为 null 表示不超时
+     */
+    private final Duration defaultTimeout;
+
+    public DefaultAsyncPaymentTransactionPlugin(PaymentTransactionPlugin delegate) {
+        this(delegate, defaultExecutor(), null);
+    }
+
+    /**
+     * @param delegate       同步插件
+     * @param executor       执行器
+     * @param defaultTimeout 默认超时时间，为 null 表示不超时
+     */
+    public DefaultAsyncPaymentTransactionPlugin(PaymentTransactionPlugin delegate, ExecutorService executor, Duration defaultTimeout) {
+        AssertUtils.notNull(delegate, "argument delegate must not null");
+        AssertUtils.notNull(executor, "argument executor must not null");
+        this.delegate = delegate;
+        this.executor = executor;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    @Override
+    public CompletableFuture<PrePaymentOrderResponse> preOrder(PrePaymentOrderRequest request, Duration timeout) {
+        return execute(() -> delegate.preOrder(request), timeout);
+    }
+
+    @Override
+    public CompletableFuture<QueryTransactionOrderResponse> queryTransactionOrder(QueryTransactionOrderRequest request, Duration timeout) {
+        return execute(() -> delegate.queryTransactionOrder(request), timeout);
+    }
+
+    @Override
+    public CompletableFuture<TransactionOrderRefundResponse> transactionOrderRefund(TransactionOrderRefundRequest request, Duration timeout) {
+        return execute(() -> delegate.transactionOrderRefund(request), timeout);
+    }
+
+    @Override
+    public CompletableFuture<TransactionOrderRefundResponse> queryTransactionOrderRefund(QueryTransactionOrderRefundRequest request,
+                                                                                         Duration timeout) {
+        return execute(() -> delegate.queryTransactionOrderRefund(request), timeout);
+    }
+
+    private <T> CompletableFuture<T> execute(Supplier<T> action, Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    result.complete(action.get());
+                } catch (Throwable throwable) {
+                    result.completeExceptionally(throwable);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            result.completeExceptionally(new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "payment transaction async " +
+                    "executor rejected the task", exception));
+            return result;
+        }
+        // CompletableFuture#cancel 不会中断执行线程，取消或超时时需要主动中断仍在等待网关响应的任务
+        result.whenComplete((response, throwable) -> {
+            if (throwable != null) {
+                task.cancel(true);
+            }
+        });
+        Duration effectiveTimeout = timeout == null ? defaultTimeout : timeout;
+        if (effectiveTimeout != null) {
+            result.orTimeout(effectiveTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    /**
+     * @return 默认的共享执行器，优先使用虚拟线程
+     */
+    public static ExecutorService defaultExecutor() {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+
+    private static final class DefaultExecutorHolder {
+
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            try {
+                // 运行时探测虚拟线程支持，避免对编译目标 JDK 版本的依赖
+                return (ExecutorService) MethodHandles.publicLookup()
+                        .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                        .invokeExact();
+            } catch (Throwable throwable) {
+                log.info("virtual threads unavailable, payment transaction async executor fallback to cached thread pool");
+                AtomicInteger counter = new AtomicInteger();
+                ThreadFactory threadFactory = runnable -> {
+                    Thread result = new Thread(runnable, "payment-transaction-async-" + counter.incrementAndGet());
+                    result.setDaemon(true);
+                    return result;
+                };
+                return Executors.newCachedThreadPool(threadFactory);
+            }
+        }
+    }
+}
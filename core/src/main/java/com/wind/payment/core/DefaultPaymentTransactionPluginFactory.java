@@ -3,42 +3,82 @@ package com.wind.payment.core;
 import com.wind.common.exception.AssertUtils;
 import com.wind.common.exception.BaseException;
 import com.wind.common.exception.DefaultExceptionCode;
-import lombok.AllArgsConstructor;
-import org.springframework.util.ConcurrentReferenceHashMap;
-import org.springframework.util.ReflectionUtils;
+import lombok.Getter;
 
-import java.lang.reflect.Constructor;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Function;
 
 /**
  * @author wuxp
  * @date 2023-09-30 20:17
  **/
-@AllArgsConstructor
 public class DefaultPaymentTransactionPluginFactory implements PaymentTransactionPluginFactory {
 
-    private static final Map<String, Class<? extends PaymentTransactionPlugin>> PLUGINS = new ConcurrentReferenceHashMap<>();
+    private static final PaymentTransactionPluginRegistry REGISTRY = new PaymentTransactionPluginRegistry();
 
     private final PartnerConfigProvider partnerConfigProvider;
 
+    /**
+     * 插件实例缓存
+     */
+    @Getter
+    private final PaymentTransactionPluginCache pluginCache;
+
+    /**
+     * 插件装饰器，例如指标统计
+     */
+    private final PaymentTransactionPluginDecorator pluginDecorator;
+
+    public DefaultPaymentTransactionPluginFactory(PartnerConfigProvider partnerConfigProvider) {
+        this(partnerConfigProvider, new PaymentTransactionPluginCache());
+    }
+
+    public DefaultPaymentTransactionPluginFactory(PartnerConfigProvider partnerConfigProvider, PaymentTransactionPluginCache pluginCache) {
+        this(partnerConfigProvider, pluginCache, PaymentTransactionPluginDecorator.NONE);
+    }
+
+    public DefaultPaymentTransactionPluginFactory(PartnerConfigProvider partnerConfigProvider, PaymentTransactionPluginCache pluginCache,
+                                                  PaymentTransactionPluginDecorator pluginDecorator) {
+        AssertUtils.notNull(pluginDecorator, "argument pluginDecorator must not null");
+        this.partnerConfigProvider = partnerConfigProvider;
+        this.pluginCache = pluginCache;
+        this.pluginDecorator = pluginDecorator;
+    }
+
     @Override
     public PaymentTransactionPlugin factory(String partnerId, PaymentTransactionPlatform platform, PaymentTransactionScene scene) {
-        Class<? extends PaymentTransactionPlugin> classType = PLUGINS.get(getPluginCacheKey(platform, scene));
-        AssertUtils.notNull(classType, String.format("not found platform = %s scene = %s payment transaction plugin", platform.getDesc(),
+        Function<String, PaymentTransactionPlugin> builder = REGISTRY.getBuilder(platform, scene);
+        AssertUtils.notNull(builder, String.format("not found platform = %s scene = %s payment transaction plugin", platform.getDesc(),
                 scene.getDesc()));
         String config = partnerConfigProvider.apply(partnerId);
-        return buildPaymentTransactionPlugin(classType, config);
+        // 以配置内容的摘要作为指纹，商户配置变更后缓存的插件实例自动失效，缓存中不保留含密钥的配置原文
+        return pluginCache.get(partnerId, platform, scene, fingerprint(config),
+                () -> pluginDecorator.decorate(partnerId, platform, scene, buildPaymentTransactionPlugin(builder, config)));
     }
 
-    private PaymentTransactionPlugin buildPaymentTransactionPlugin(Class<? extends PaymentTransactionPlugin> classType, String config) {
+    private PaymentTransactionPlugin buildPaymentTransactionPlugin(Function<String, PaymentTransactionPlugin> builder, String config) {
         try {
-            Constructor<? extends PaymentTransactionPlugin> constructor = ReflectionUtils.accessibleConstructor(classType, String.class);
-            return constructor.newInstance(config);
+            return builder.apply(config);
         } catch (Exception exception) {
             throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "build PaymentTransactionPlugin error", exception);
         }
     }
 
+    private static String fingerprint(String config) {
+        if (config == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(config.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "compute partner config fingerprint error", exception);
+        }
+    }
+
     /**
      * 注册支付插件实现
      *
@@ -48,10 +88,13 @@ public class DefaultPaymentTransactionPluginFactory implements PaymentTransactio
      */
     public static void register(PaymentTransactionPlatform platform, PaymentTransactionScene scene,
                                 Class<? extends PaymentTransactionPlugin> pluginClassType) {
-        PLUGINS.put(getPluginCacheKey(platform, scene), pluginClassType);
+        REGISTRY.register(platform, scene, pluginClassType);
     }
 
-    private static String getPluginCacheKey(PaymentTransactionPlatform platform, PaymentTransactionScene scene) {
-        return String.format("%s_%s", platform.name(), scene.name());
+    /**
+     * 冻结支付插件注册表，应用启动完成后调用，之后的注册将会失败
+     */
+    public static void freezeRegistry() {
+        REGISTRY.freeze();
     }
 }
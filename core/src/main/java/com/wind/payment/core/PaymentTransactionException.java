@@ -20,6 +20,11 @@ public class PaymentTransactionException extends BaseException {
 
     private final String requestId;
 
+    /**
+     * 支付平台返回的错误码，例如支付宝的 sub_code、微信支付的 err_code，用于按错误码统计
+     */
+    private String gatewayErrorCode;
+
     public PaymentTransactionException(String message) {
         this(message, null);
     }
@@ -45,4 +50,13 @@ public class PaymentTransactionException extends BaseException {
         super(code, message, cause);
         this.requestId = requestId;
     }
+
+    /**
+     * @param gatewayErrorCode 支付平台返回的错误码
+     * @return this
+     */
+    public PaymentTransactionException withGatewayErrorCode(String gatewayErrorCode) {
+        this.gatewayErrorCode = gatewayErrorCode;
+        return this;
+    }
 }
@@ -1,13 +1,21 @@
 package com.wind.payment.core;
 
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.batch.BatchProgressListener;
+import com.wind.payment.core.batch.BatchResultIterator;
+import com.wind.payment.core.batch.PaymentTransactionBatchExecutor;
+import com.wind.payment.core.request.CloseTransactionOrderRequest;
 import com.wind.payment.core.request.PrePaymentOrderRequest;
 import com.wind.payment.core.request.QueryTransactionOrderRefundRequest;
 import com.wind.payment.core.request.QueryTransactionOrderRequest;
 import com.wind.payment.core.request.TransactionOrderRefundRequest;
+import com.wind.payment.core.response.CloseTransactionOrderResponse;
 import com.wind.payment.core.response.PrePaymentOrderResponse;
 import com.wind.payment.core.response.QueryTransactionOrderResponse;
 import com.wind.payment.core.response.TransactionOrderRefundResponse;
 
+import java.util.Collection;
+
 /**
  * 支付交易插件、根据不同的平台提供支付相关能力
  *
@@ -51,4 +59,62 @@ public interface PaymentTransactionPlugin extends PaymentTransactionWebHooker {
      * @return 退款响应
      */
     TransactionOrderRefundResponse queryTransactionOrderRefund(QueryTransactionOrderRefundRequest request);
+
+    /**
+     * 关闭交易订单，关闭后用户无法再支付该订单
+     * 支付平台不存在该订单时视为关闭成功，已支付等无法关闭的情况抛出异常 {@link PaymentTransactionException}
+     * 默认不支持，保持已有插件实现的兼容
+     *
+     * @param request 关闭订单请求
+     * @return 关闭响应
+     */
+    default CloseTransactionOrderResponse closeTransactionOrder(CloseTransactionOrderRequest request) {
+        throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR,
+                "unsupported close transaction order, plugin = " + getClass().getName());
+    }
+
+    /**
+     * 商户标识，同一标识的批量操作共享并发与速率限制
+     * 默认为插件实例本身，实现类应返回插件重建、不同支付场景之间保持不变的标识，例如 {@link PaymentTransactionBatchExecutor.PartnerKey}
+     *
+     * @return 商户标识
+     */
+    default Object getPartnerKey() {
+        return this;
+    }
+
+    /**
+     * 批量查询交易订单
+     * 使用默认批量执行器并行查询，同一商户的并发数受限；结果按完成顺序返回，单个订单查询失败记录在对应结果中
+     *
+     * @param requests 查询订单请求
+     * @return 查询结果迭代器
+     */
+    default BatchResultIterator<QueryTransactionOrderRequest, QueryTransactionOrderResponse> queryTransactionOrders(
+            Collection<QueryTransactionOrderRequest> requests) {
+        return PaymentTransactionBatchExecutor.getDefault().queryTransactionOrders(this, requests);
+    }
+
+    /**
+     * 批量退款
+     * 使用默认批量执行器，不同交易单的退款并行执行，同一交易单的退款按入参顺序串行执行
+     *
+     * @param requests 退款请求
+     * @param listener 进度监听器
+     * @return 退款结果迭代器
+     */
+    default BatchResultIterator<TransactionOrderRefundRequest, TransactionOrderRefundResponse> transactionOrderRefunds(
+            Collection<TransactionOrderRefundRequest> requests, BatchProgressListener<TransactionOrderRefundRequest,
+            TransactionOrderRefundResponse> listener) {
+        return PaymentTransactionBatchExecutor.getDefault().transactionOrderRefunds(this, requests, listener);
+    }
+
+    /**
+     * 获取异步调用视图，使用默认执行器（虚拟线程）执行，不改变同步调用的行为
+     *
+     * @return 异步支付插件
+     */
+    default AsyncPaymentTransactionPlugin async() {
+        return new DefaultAsyncPaymentTransactionPlugin(this);
+    }
 }
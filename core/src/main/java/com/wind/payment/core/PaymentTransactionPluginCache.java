@@ -0,0 +1,211 @@
+package com.wind.payment.core;
+
+import com.wind.common.exception.AssertUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 支付交易插件实例缓存
+ * 以 (partnerId, platform, scene) 为 key 缓存已构建的插件实例，按容量和空闲时间淘汰，商户配置指纹变化时失效；
+ * 返回给调用方的是 {@link CachedPaymentTransactionPlugin} 句柄，被移除的插件如果实现了 {@link AutoCloseable}，
+ * 在句柄不再被调用方引用后关闭，以释放其持有的共享资源
+ *
+ * @author wuxp
+ * @date 2026-10-18 10:12
+ **/
+@Slf4j
+public class PaymentTransactionPluginCache {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private static final Duration DEFAULT_EXPIRE_AFTER_ACCESS = Duration.ofMinutes(30);
+
+    private final int maximumSize;
+
+    private final long expireAfterAccessNanos;
+
+    /**
+     * 按访问顺序排列，链表头部即为最久未访问的条目
+     */
+    private final LinkedHashMap<PluginCacheKey, CacheEntry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder invalidationCount = new LongAdder();
+
+    public PaymentTransactionPluginCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRE_AFTER_ACCESS);
+    }
+
+    public PaymentTransactionPluginCache(int maximumSize, Duration expireAfterAccess) {
+        AssertUtils.isTrue(maximumSize > 0, "plugin cache maximumSize must greater than 0");
+        AssertUtils.notNull(expireAfterAccess, "plugin cache expireAfterAccess must not null");
+        this.maximumSize = maximumSize;
+        this.expireAfterAccessNanos = expireAfterAccess.toNanos();
+    }
+
+    /**
+     * 获取缓存的插件实例，不存在、已过期或配置指纹不一致时使用 loader 重新构建
+     *
+     * @param partnerId         商户标识
+     * @param platform          支付平台
+     * @param scene             支付场景
+     * @param configFingerprint 商户配置指纹，例如配置内容的摘要
+     * @param loader            插件构建者
+     * @return 支付插件
+     */
+    public PaymentTransactionPlugin get(String partnerId, PaymentTransactionPlatform platform, PaymentTransactionScene scene,
+                                        String configFingerprint, Supplier<PaymentTransactionPlugin> loader) {
+        PluginCacheKey key = new PluginCacheKey(partnerId, platform, scene);
+        long now = System.nanoTime();
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null) {
+                // 被移除的句柄仍可能被调用方持有，由句柄在不可达后关闭插件
+                if (isExpired(entry, now)) {
+                    entries.remove(key);
+                    evictionCount.increment();
+                } else if (!Objects.equals(entry.fingerprint, configFingerprint)) {
+                    entries.remove(key);
+                    invalidationCount.increment();
+                } else {
+                    entry.lastAccessNanos = now;
+                    hitCount.increment();
+                    return entry.plugin;
+                }
+            }
+        }
+        missCount.increment();
+        // 在锁外构建插件，避免构建耗时阻塞其它商户的读取
+        PaymentTransactionPlugin plugin = loader.get();
+        PaymentTransactionPlugin result;
+        synchronized (entries) {
+            CacheEntry exists = entries.get(key);
+            if (exists != null && Objects.equals(exists.fingerprint, configFingerprint) && !isExpired(exists, now)) {
+                // 并发构建时保留先写入的实例
+                result = exists.plugin;
+            } else {
+                CachedPaymentTransactionPlugin handle = CachedPaymentTransactionPlugin.of(partnerId, platform, plugin);
+                if (entries.put(key, new CacheEntry(handle, configFingerprint, now)) != null) {
+                    invalidationCount.increment();
+                }
+                evictEntries(now);
+                return handle;
+            }
+        }
+        // 未被使用的实例可以立即关闭
+        closePlugin(plugin);
+        return result;
+    }
+
+    /**
+     * 使商户的所有插件实例失效
+     *
+     * @param partnerId 商户标识
+     */
+    public void invalidate(String partnerId) {
+        synchronized (entries) {
+            Iterator<Map.Entry<PluginCacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                if (Objects.equals(iterator.next().getKey().partnerId(), partnerId)) {
+                    iterator.remove();
+                    invalidationCount.increment();
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidationCount.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return 缓存统计快照
+     */
+    public Stats stats() {
+        return new Stats(hitCount.sum(), missCount.sum(), evictionCount.sum(), invalidationCount.sum(), size());
+    }
+
+    private void evictEntries(long now) {
+        Iterator<Map.Entry<PluginCacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<PluginCacheKey, CacheEntry> eldest = iterator.next();
+            // 按访问顺序遍历，遇到第一个未过期且容量未超限的条目即可停止
+            if (entries.size() > maximumSize || isExpired(eldest.getValue(), now)) {
+                iterator.remove();
+                evictionCount.increment();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void closePlugin(PaymentTransactionPlugin plugin) {
+        if (plugin instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception exception) {
+                log.warn("close payment transaction plugin error, plugin = {}", plugin.getClass().getName(), exception);
+            }
+        }
+    }
+
+    private boolean isExpired(CacheEntry entry, long now) {
+        return now - entry.lastAccessNanos >= expireAfterAccessNanos;
+    }
+
+    private record PluginCacheKey(String partnerId, PaymentTransactionPlatform platform, PaymentTransactionScene scene) {
+    }
+
+    private static final class CacheEntry {
+
+        private final CachedPaymentTransactionPlugin plugin;
+
+        private final String fingerprint;
+
+        private long lastAccessNanos;
+
+        private CacheEntry(CachedPaymentTransactionPlugin plugin, String fingerprint, long lastAccessNanos) {
+            this.plugin = plugin;
+            this.fingerprint = fingerprint;
+            this.lastAccessNanos = lastAccessNanos;
+        }
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @param hitCount          命中次数
+     * @param missCount         未命中次数
+     * @param evictionCount     按容量或空闲时间淘汰的次数
+     * @param invalidationCount 配置变更或主动失效的次数
+     * @param size              当前缓存条目数
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount, long invalidationCount, int size) {
+
+        public double hitRate() {
+            long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.wind.payment.core;
+
+/**
+ * 支付交易插件装饰器，用于在 {@link DefaultPaymentTransactionPluginFactory} 构建插件后增加统计、追踪等能力
+ * 装饰后的插件与被装饰的插件一起缓存，被缓存移除时关闭装饰后的插件，装饰器应负责关闭被装饰的插件
+ *
+ * @author wuxp
+ * @date 2026-10-19 14:20
+ **/
+@FunctionalInterface
+public interface PaymentTransactionPluginDecorator {
+
+    /**
+     * 不做任何装饰
+     */
+    PaymentTransactionPluginDecorator NONE = (partnerId, platform, scene, plugin) -> plugin;
+
+    /**
+     * 装饰插件
+     *
+     * @param partnerId 商户标识
+     * @param platform  支付平台
+     * @param scene     支付场景
+     * @param plugin    被装饰的插件
+     * @return 装饰后的插件
+     */
+    PaymentTransactionPlugin decorate(String partnerId, PaymentTransactionPlatform platform, PaymentTransactionScene scene,
+                                      PaymentTransactionPlugin plugin);
+}
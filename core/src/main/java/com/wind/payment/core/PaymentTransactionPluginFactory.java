@@ -17,4 +17,17 @@ public interface PaymentTransactionPluginFactory {
      * @return 支付插件
      */
     PaymentTransactionPlugin factory(String partnerConfigOrId, PaymentTransactionPlatform platform, PaymentTransactionScene scene);
+
+    /**
+     * 创建一个异步支付交易插件
+     *
+     * @param partnerConfigOrId 商户配置 OR 唯一标识
+     * @param platform          支付平台
+     * @param scene             支付场景
+     * @return 异步支付插件
+     */
+    default AsyncPaymentTransactionPlugin factoryAsync(String partnerConfigOrId, PaymentTransactionPlatform platform,
+                                                       PaymentTransactionScene scene) {
+        return factory(partnerConfigOrId, platform, scene).async();
+    }
 }
@@ -0,0 +1,148 @@
+package com.wind.payment.core;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.BaseException;
+import com.wind.common.exception.DefaultExceptionCode;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 支付插件注册表
+ * 注册时将插件的 {@code (String config)} 构造器预编译为构建函数；读取基于不可变快照，无锁且不分配对象，
+ * 启动完成后可调用 {@link #freeze()} 冻结，拒绝后续注册
+ *
+ * @author wuxp
+ * @date 2026-10-18 11:05
+ **/
+public final class PaymentTransactionPluginRegistry {
+
+    private static final MethodType BUILDER_FACTORY_TYPE = MethodType.methodType(Function.class);
+
+    private static final MethodType BUILDER_ERASED_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * 平台 -> 场景 -> 插件构建函数，每次注册都会替换为新的不可变快照
+     */
+    private volatile Map<PaymentTransactionPlatform, Map<PaymentTransactionScene, Function<String, PaymentTransactionPlugin>>> builders = Map.of();
+
+    private volatile boolean frozen = false;
+
+    /**
+     * 注册支付插件实现
+     *
+     * @param platform        支付平台
+     * @param scene           支付场景
+     * @param pluginClassType 支付插件实现类，必须提供 {@code (String config)} 构造器
+     */
+    public synchronized void register(PaymentTransactionPlatform platform, PaymentTransactionScene scene,
+                                      Class<? extends PaymentTransactionPlugin> pluginClassType) {
+        AssertUtils.notNull(platform, "argument platform must not null");
+        AssertUtils.notNull(scene, "argument scene must not null");
+        AssertUtils.notNull(pluginClassType, "argument pluginClassType must not null");
+        AssertUtils.isTrue(!frozen, () -> String.format("payment transaction plugin registry is frozen, register platform = %s scene = %s " +
+                "plugin failure", platform.name(), scene.name()));
+        Function<String, PaymentTransactionPlugin> builder = compileBuilder(pluginClassType);
+        Map<PaymentTransactionPlatform, Map<PaymentTransactionScene, Function<String, PaymentTransactionPlugin>>> next = new HashMap<>(builders);
+        Map<PaymentTransactionScene, Function<String, PaymentTransactionPlugin>> scenes = new HashMap<>(next.getOrDefault(platform, Map.of()));
+        scenes.put(scene, builder);
+        next.put(platform, Map.copyOf(scenes));
+        builders = Map.copyOf(next);
+    }
+
+    /**
+     * 冻结注册表，之后的注册将会失败
+     */
+    public synchronized void freeze() {
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * @param platform 支付平台
+     * @param scene    支付场景
+     * @return 插件构建函数，未注册时返回 null
+     */
+    public Function<String, PaymentTransactionPlugin> getBuilder(PaymentTransactionPlatform platform, PaymentTransactionScene scene) {
+        Map<PaymentTransactionScene, Function<String, PaymentTransactionPlugin>> scenes = builders.get(platform);
+        return scenes == null ? null : scenes.get(scene);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Function<String, PaymentTransactionPlugin> compileBuilder(Class<? extends PaymentTransactionPlugin> pluginClassType) {
+        Constructor<? extends PaymentTransactionPlugin> accessibleConstructor;
+        MethodHandle constructor;
+        try {
+            accessibleConstructor = ReflectionUtils.accessibleConstructor(pluginClassType, String.class);
+            constructor = MethodHandles.lookup().unreflectConstructor(accessibleConstructor);
+        } catch (Exception exception) {
+            throw new BaseException(DefaultExceptionCode.COMMON_ERROR, String.format("payment transaction plugin = %s must provide (String " +
+                    "config) constructor", pluginClassType.getName()), exception);
+        }
+        ReflectiveBuilder fallback = new ReflectiveBuilder(constructor.asType(MethodType.methodType(PaymentTransactionPlugin.class,
+                String.class)));
+        if (!isLinkable(accessibleConstructor)) {
+            return fallback;
+        }
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(MethodHandles.lookup(), "apply", BUILDER_FACTORY_TYPE, BUILDER_ERASED_TYPE,
+                    constructor, constructor.type());
+            return (Function<String, PaymentTransactionPlugin>) callSite.getTarget().invokeExact();
+        } catch (Throwable throwable) {
+            // 生成构建函数失败（LambdaConversionException 等）时，退化为直接调用 MethodHandle
+            return fallback;
+        }
+    }
+
+    /**
+     * 生成的构建函数与当前类同属一个类加载器，首次调用时才解析插件类；
+     * 在编译时提前校验插件类对当前类加载器可见且构造器可访问，避免链接失败延迟到调用时与插件构造器自身的错误混在一起
+     */
+    private static boolean isLinkable(Constructor<? extends PaymentTransactionPlugin> constructor) {
+        Class<?> pluginClassType = constructor.getDeclaringClass();
+        if (!Modifier.isPublic(constructor.getModifiers())) {
+            return false;
+        }
+        try {
+            MethodHandles.lookup().accessClass(pluginClassType);
+            return Class.forName(pluginClassType.getName(), false, PaymentTransactionPluginRegistry.class.getClassLoader()) == pluginClassType;
+        } catch (ClassNotFoundException | IllegalAccessException | LinkageError exception) {
+            return false;
+        }
+    }
+
+    /**
+     * 非公开构造器或插件类对当前类加载器不可见时，直接调用构造器的 MethodHandle
+     */
+    static final class ReflectiveBuilder implements Function<String, PaymentTransactionPlugin> {
+
+        private final MethodHandle constructor;
+
+        private ReflectiveBuilder(MethodHandle constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        public PaymentTransactionPlugin apply(String config) {
+            try {
+                return (PaymentTransactionPlugin) constructor.invokeExact(config);
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable throwable) {
+                throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "build PaymentTransactionPlugin error", throwable);
+            }
+        }
+    }
+}
@@ -1,22 +1,50 @@
 package com.wind.payment.core;
 
+import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.payment.core.request.PaymentTransactionEventRequest;
 import com.wind.payment.core.request.PaymentTransactionRefundEventRequest;
 import com.wind.payment.core.response.QueryTransactionOrderResponse;
 import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import com.wind.payment.core.webhook.PaymentTransactionNotification;
+import com.wind.payment.core.webhook.WebhookIdempotencyKey;
 
 /**
  * 支付交易回调处理
+ * 支持两阶段处理：先通过 {@link #parsePaymentEvent(Object)}、{@link #parseRefundEvent(Object)} 解码通知并取得交易流水号、金额，
+ * 加载订单后再将解码结果作为 rawRequest 调用 {@link #onPaymentEvent(PaymentTransactionEventRequest)}、
+ * {@link #onRefundEvent(PaymentTransactionRefundEventRequest)} 验签，每个通知只解码一次
  *
  * @author wuxp
  * @date 2023-10-01 13:40
  **/
 public interface PaymentTransactionWebHooker {
 
+    /**
+     * 解码支付通知，不验签，默认不支持，调用方可以回退为直接调用 {@link #onPaymentEvent(PaymentTransactionEventRequest)}
+     *
+     * @param rawRequest 原始的通知请求参数
+     * @return 解码后的通知
+     */
+    default PaymentTransactionNotification parsePaymentEvent(Object rawRequest) {
+        throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR,
+                "unsupported parse payment event, webhooker = " + getClass().getName());
+    }
+
+    /**
+     * 解码退款通知，不验签，默认不支持，调用方可以回退为直接调用 {@link #onRefundEvent(PaymentTransactionRefundEventRequest)}
+     *
+     * @param rawRequest 原始的通知请求参数
+     * @return 解码后的通知
+     */
+    default PaymentTransactionNotification parseRefundEvent(Object rawRequest) {
+        throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR,
+                "unsupported parse refund event, webhooker = " + getClass().getName());
+    }
+
     /**
      * 支付通知
      *
-     * @param request 支付通知请求参数
+     * @param request 支付通知请求参数，rawRequest 可以是原始参数或 {@link #parsePaymentEvent(Object)} 的结果
      * @return 处理响应
      */
     QueryTransactionOrderResponse onPaymentEvent(PaymentTransactionEventRequest request);
@@ -24,7 +52,7 @@ public interface PaymentTransactionWebHooker {
     /**
      * 退款通知
      *
-     * @param request 退款通知请求参数
+     * @param request 退款通知请求参数，rawRequest 可以是原始参数或 {@link #parseRefundEvent(Object)} 的结果
      * @return 处理响应
      */
     TransactionOrderRefundResponse onRefundEvent(PaymentTransactionRefundEventRequest request);
@@ -37,4 +65,14 @@ public interface PaymentTransactionWebHooker {
      */
     Object getWebHookResponse(boolean isSuccessful);
 
+    /**
+     * 从原始通知中提取幂等 key，不验签，供 {@link com.wind.payment.core.webhook.WebhookIdempotencyGuard} 判重
+     *
+     * @param rawRequest 原始的通知请求参数或解码后的通知
+     * @return 幂等 key，无法提取时返回 null
+     */
+    default WebhookIdempotencyKey getIdempotencyKey(Object rawRequest) {
+        return null;
+    }
+
 }
@@ -0,0 +1,25 @@
+package com.wind.payment.core.batch;
+
+/**
+ * 批量操作中单个请求的结果，成功时 response 非空，失败时 error 非空
+ *
+ * @param request  请求
+ * @param response 响应
+ * @param error    异常
+ * @author wuxp
+ * @date 2026-10-18 17:40
+ **/
+public record BatchItemResult<Q, R>(Q request, R response, Throwable error) {
+
+    public static <Q, R> BatchItemResult<Q, R> success(Q request, R response) {
+        return new BatchItemResult<>(request, response, null);
+    }
+
+    public static <Q, R> BatchItemResult<Q, R> failure(Q request, Throwable error) {
+        return new BatchItemResult<>(request, null, error);
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
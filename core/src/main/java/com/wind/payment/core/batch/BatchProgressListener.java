@@ -0,0 +1,25 @@
+package com.wind.payment.core.batch;
+
+/**
+ * 批量操作进度监听器，在执行线程中回调，实现应尽快返回
+ *
+ * @author wuxp
+ * @date 2026-10-18 18:15
+ **/
+@FunctionalInterface
+public interface BatchProgressListener<Q, R> {
+
+    /**
+     * 单个请求执行完成
+     *
+     * @param result    请求结果
+     * @param completed 已完成数量
+     * @param total     请求总数
+     */
+    void onProgress(BatchItemResult<Q, R> result, int completed, int total);
+
+    static <Q, R> BatchProgressListener<Q, R> none() {
+        return (result, completed, total) -> {
+        };
+    }
+}
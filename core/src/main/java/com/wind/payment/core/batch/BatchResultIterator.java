@@ -0,0 +1,117 @@
+package com.wind.payment.core.batch;
+
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.PaymentTransactionException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 批量操作结果迭代器，按完成顺序返回每个请求的结果，{@link #next()} 会阻塞直到下一个结果就绪。
+ * 提前结束消费时应调用 {@link #close()} 取消尚未执行的请求
+ *
+ * @author wuxp
+ * @date 2026-10-18 17:45
+ **/
+@Slf4j
+public final class BatchResultIterator<Q, R> implements Iterator<BatchItemResult<Q, R>>, AutoCloseable {
+
+    private final BlockingQueue<BatchItemResult<Q, R>> results = new LinkedBlockingQueue<>();
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private final AtomicInteger completed = new AtomicInteger();
+
+    private final int total;
+
+    private final BatchProgressListener<Q, R> listener;
+
+    private int returned;
+
+    private volatile List<Future<?>> workers = List.of();
+
+    BatchResultIterator(int total, BatchProgressListener<Q, R> listener) {
+        this.total = total;
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return returned < total && !closed.get();
+    }
+
+    @Override
+    public BatchItemResult<Q, R> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            BatchItemResult<Q, R> result = results.take();
+            returned++;
+            return result;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "wait batch result interrupted", exception);
+        }
+    }
+
+    /**
+     * @return 按完成顺序排列的结果流，关闭流时取消尚未执行的请求
+     */
+    public Stream<BatchItemResult<Q, R>> stream() {
+        Spliterator<BatchItemResult<Q, R>> spliterator = Spliterators.spliterator(this, total, Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * @return 请求总数
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return 已完成的请求数量
+     */
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            workers.forEach(worker -> worker.cancel(true));
+        }
+    }
+
+    void setWorkers(List<Future<?>> workers) {
+        this.workers = workers;
+        if (closed.get()) {
+            workers.forEach(worker -> worker.cancel(true));
+        }
+    }
+
+    void offer(BatchItemResult<Q, R> result) {
+        results.add(result);
+        try {
+            listener.onProgress(result, completed.incrementAndGet(), total);
+        } catch (Exception exception) {
+            log.warn("batch progress listener error, request = {}", result.request(), exception);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.wind.payment.core.batch;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.DefaultAsyncPaymentTransactionPlugin;
+import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.PaymentTransactionPlugin;
+import com.wind.payment.core.request.QueryTransactionOrderRequest;
+import com.wind.payment.core.request.TransactionOrderRefundRequest;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import com.wind.payment.core.support.RateLimiter;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 支付交易批量执行器
+ * 将一批请求分发到执行器并行执行，同一商户（{@link PaymentTransactionPlugin#getPartnerKey()}）的并发数不超过
+ * {@link #maxConcurrencyPerPartner}，请求速率不超过 {@link #maxRequestsPerSecondPerPartner}，多个批次同时执行时共享这些限制；
+ * 同一分组（例如同一交易单的退款）的请求在整个执行器范围内串行执行，多个批次同时执行时也不会并行；
+ * 单个请求失败只记录在对应结果中，不影响其它请求
+ *
+ * @author wuxp
+ * @date 2026-10-18 17:50
+ **/
+public class PaymentTransactionBatchExecutor {
+
+    private static final int DEFAULT_MAX_CONCURRENCY_PER_PARTNER = 8;
+
+    /**
+     * 分组锁的数量，不同分组可能映射到同一把锁，只会多一些串行
+     */
+    private static final int GROUP_LOCK_STRIPES = 256;
+
+    private static final PaymentTransactionBatchExecutor DEFAULT = new PaymentTransactionBatchExecutor(
+            DefaultAsyncPaymentTransactionPlugin.defaultExecutor(), DEFAULT_MAX_CONCURRENCY_PER_PARTNER);
+
+    private final ExecutorService executor;
+
+    /**
+     * 每个商户的最大并发数
+     */
+    @Getter
+    private final int maxConcurrencyPerPartner;
+
+    /**
+     * 每个商户每秒最大请求数，小于等于 0 表示不限制
+     */
+    @Getter
+    private final double maxRequestsPerSecondPerPartner;
+
+    /**
+     * 商户 -> 并发许可与限流器，强引用持有，通过 {@link #evictPartnerLimits(Object)} 显式移除
+     */
+    private final Map<Object, PartnerLimits> partnerLimits = new ConcurrentHashMap<>();
+
+    /**
+     * 按分组 key 哈希分配的锁，同一分组的请求跨批次串行执行
+     */
+    private final ReentrantLock[] groupLocks = new ReentrantLock[GROUP_LOCK_STRIPES];
+
+    public PaymentTransactionBatchExecutor(ExecutorService executor, int maxConcurrencyPerPartner) {
+        this(executor, maxConcurrencyPerPartner, 0);
+    }
+
+    public PaymentTransactionBatchExecutor(ExecutorService executor, int maxConcurrencyPerPartner, double maxRequestsPerSecondPerPartner) {
+        AssertUtils.notNull(executor, "argument executor must not null");
+        AssertUtils.isTrue(maxConcurrencyPerPartner > 0, "argument maxConcurrencyPerPartner must greater than 0");
+        this.executor = executor;
+        this.maxConcurrencyPerPartner = maxConcurrencyPerPartner;
+        this.maxRequestsPerSecondPerPartner = maxRequestsPerSecondPerPartner;
+        for (int i = 0; i < GROUP_LOCK_STRIPES; i++) {
+            groupLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @return 默认批量执行器，使用虚拟线程执行，每个商户并发数为 8，不限制速率
+     */
+    public static PaymentTransactionBatchExecutor getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 批量查询交易单
+     *
+     * @param plugin   商户的支付插件，同一商户的查询共享并发限制
+     * @param requests 查询请求
+     * @return 按完成顺序返回的查询结果
+     */
+    public BatchResultIterator<QueryTransactionOrderRequest, QueryTransactionOrderResponse> queryTransactionOrders(PaymentTransactionPlugin plugin,
+                                                                                                                Collection<QueryTransactionOrderRequest> requests) {
+        return execute(plugin.getPartnerKey(), requests, plugin::queryTransactionOrder);
+    }
+
+    /**
+     * 批量退款
+     * 不同交易单的退款并行执行；同一交易单（transactionSn）的多笔退款按入参顺序串行执行，并与其它批次中该交易单的退款互斥，
+     * 避免支付平台拒绝同一订单的并发退款。前一笔退款失败不会跳过后续退款，结果中会分别记录
+     *
+     * @param plugin   商户的支付插件，同一商户的退款共享并发与速率限制
+     * @param requests 退款请求
+     * @param listener 进度监听器
+     * @return 按完成顺序返回的退款结果
+     */
+    public BatchResultIterator<TransactionOrderRefundRequest, TransactionOrderRefundResponse> transactionOrderRefunds(PaymentTransactionPlugin plugin,
+                                                                                                                   Collection<TransactionOrderRefundRequest> requests,
+                                                                                                                   BatchProgressListener<TransactionOrderRefundRequest, TransactionOrderRefundResponse> listener) {
+        return execute(plugin.getPartnerKey(), requests, TransactionOrderRefundRequest::getTransactionSn, plugin::transactionOrderRefund,
+                listener);
+    }
+
+    /**
+     * 批量执行
+     *
+     * @param partnerKey 商户标识，相同标识的请求共享并发与速率限制
+     * @param requests   请求
+     * @param action     单个请求的执行逻辑
+     * @return 按完成顺序返回的执行结果
+     */
+    public <Q, R> BatchResultIterator<Q, R> execute(Object partnerKey, Collection<Q> requests, Function<Q, R> action) {
+        return execute(partnerKey, requests, null, action, BatchProgressListener.none());
+    }
+
+    /**
+     * 批量执行
+     *
+     * @param partnerKey 商户标识，相同标识的请求共享并发与速率限制
+     * @param requests   请求
+     * @param groupKey   分组函数，同一分组的请求按入参顺序串行执行（跨批次互斥），为 null 时每个请求独立执行
+     * @param action     单个请求的执行逻辑
+     * @param listener   进度监听器
+     * @return 按完成顺序返回的执行结果
+     */
+    public <Q, R> BatchResultIterator<Q, R> execute(Object partnerKey, Collection<Q> requests, Function<Q, ?> groupKey, Function<Q, R> action,
+                                                    BatchProgressListener<Q, R> listener) {
+        AssertUtils.notNull(partnerKey, "argument partnerKey must not null");
+        AssertUtils.notNull(requests, "argument requests must not null");
+        AssertUtils.notNull(action, "argument action must not null");
+        AssertUtils.notNull(listener, "argument listener must not null");
+        BatchResultIterator<Q, R> result = new BatchResultIterator<>(requests.size(), listener);
+        if (requests.isEmpty()) {
+            return result;
+        }
+        Queue<RequestGroup<Q>> pending = new ConcurrentLinkedQueue<>(groupRequests(requests, groupKey));
+        // 工作任务数不超过并发上限，避免在平台线程池上为每个请求占用一个线程
+        int workerCount = Math.min(maxConcurrencyPerPartner, pending.size());
+        // 在 compute 中登记工作任务，与 evictPartnerLimits 互斥，执行中的商户限制不会被移除
+        PartnerLimits limits = partnerLimits.compute(partnerKey, (key, exists) -> {
+            PartnerLimits value = exists == null ? new PartnerLimits(maxConcurrencyPerPartner, maxRequestsPerSecondPerPartner) : exists;
+            value.activeWorkers.addAndGet(workerCount);
+            return value;
+        });
+        List<Future<?>> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(executor.submit(() -> {
+                try {
+                    drain(pending, limits, action, result);
+                } finally {
+                    limits.activeWorkers.decrementAndGet();
+                }
+            }));
+        }
+        result.setWorkers(workers);
+        return result;
+    }
+
+    /**
+     * 移除商户的并发许可与限流器，例如商户下线后；商户有正在执行的批次时不移除
+     *
+     * @param partnerKey 商户标识
+     * @return 是否已移除（或不存在）
+     */
+    public boolean evictPartnerLimits(Object partnerKey) {
+        AssertUtils.notNull(partnerKey, "argument partnerKey must not null");
+        return partnerLimits.computeIfPresent(partnerKey, (key, exists) -> exists.activeWorkers.get() > 0 ? exists : null) == null;
+    }
+
+    private static <Q> Collection<RequestGroup<Q>> groupRequests(Collection<Q> requests, Function<Q, ?> groupKey) {
+        if (groupKey == null) {
+            return requests.stream().map(request -> new RequestGroup<>(null, List.of(request))).toList();
+        }
+        Map<Object, List<Q>> groups = new LinkedHashMap<>();
+        for (Q request : requests) {
+            groups.computeIfAbsent(groupKey.apply(request), key -> new ArrayList<>(1)).add(request);
+        }
+        List<RequestGroup<Q>> result = new ArrayList<>(groups.size());
+        groups.forEach((key, values) -> result.add(new RequestGroup<>(key, values)));
+        return result;
+    }
+
+    private <Q, R> void drain(Queue<RequestGroup<Q>> pending, PartnerLimits limits, Function<Q, R> action,
+                              BatchResultIterator<Q, R> result) {
+        RequestGroup<Q> group;
+        while (!result.isClosed() && (group = pending.poll()) != null) {
+            ReentrantLock lock = group.key() == null ? null : groupLocks[Math.floorMod(group.key().hashCode(), GROUP_LOCK_STRIPES)];
+            try {
+                if (lock != null) {
+                    lock.lockInterruptibly();
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                failRemaining(group.requests(), 0, pending, result, new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR,
+                        "batch execute interrupted", exception));
+                return;
+            }
+            try {
+                if (!drainGroup(group.requests(), pending, limits, action, result)) {
+                    return;
+                }
+            } finally {
+                if (lock != null) {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 是否继续处理后续分组
+     */
+    private static <Q, R> boolean drainGroup(List<Q> requests, Queue<RequestGroup<Q>> pending, PartnerLimits limits, Function<Q, R> action,
+                                             BatchResultIterator<Q, R> result) {
+        for (int i = 0; i < requests.size(); i++) {
+            Q request = requests.get(i);
+            if (result.isClosed()) {
+                return false;
+            }
+            try {
+                limits.acquire();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                failRemaining(requests, i, pending, result, new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR,
+                        "batch execute interrupted", exception));
+                return false;
+            }
+            try {
+                result.offer(BatchItemResult.success(request, action.apply(request)));
+            } catch (Exception exception) {
+                result.offer(BatchItemResult.failure(request, exception));
+            } catch (Throwable throwable) {
+                // Error（例如 OutOfMemoryError）之后不再执行，剩余请求全部记为失败，避免结果迭代器一直等待
+                result.offer(BatchItemResult.failure(request, throwable));
+                failRemaining(requests, i + 1, pending, result, throwable);
+                throw throwable;
+            } finally {
+                limits.release();
+            }
+        }
+        return true;
+    }
+
+    private static <Q, R> void failRemaining(List<Q> requests, int fromIndex, Queue<RequestGroup<Q>> pending,
+                                             BatchResultIterator<Q, R> result, Throwable error) {
+        for (int i = fromIndex; i < requests.size(); i++) {
+            result.offer(BatchItemResult.failure(requests.get(i), error));
+        }
+        RequestGroup<Q> group;
+        while ((group = pending.poll()) != null) {
+            group.requests().forEach(request -> result.offer(BatchItemResult.failure(request, error)));
+        }
+    }
+
+    private record RequestGroup<Q>(Object key, List<Q> requests) {
+    }
+
+    /**
+     * 商户标识
+     *
+     * @param partnerId 商户在支付平台的唯一标识，例如 appId、mchId
+     * @param platform  支付平台
+     */
+    public record PartnerKey(String partnerId, String platform) {
+    }
+
+    private static final class PartnerLimits {
+
+        private final Semaphore concurrency;
+
+        private final RateLimiter rateLimiter;
+
+        /**
+         * 正在执行的工作任务数
+         */
+        private final AtomicInteger activeWorkers = new AtomicInteger();
+
+        private PartnerLimits(int maxConcurrency, double maxRequestsPerSecond) {
+            this.concurrency = new Semaphore(maxConcurrency);
+            this.rateLimiter = maxRequestsPerSecond > 0 ? new RateLimiter(maxRequestsPerSecond) : null;
+        }
+
+        private void acquire() throws InterruptedException {
+            concurrency.acquire();
+            if (rateLimiter != null) {
+                try {
+                    rateLimiter.acquire();
+                } catch (InterruptedException exception) {
+                    concurrency.release();
+                    throw exception;
+                }
+            }
+        }
+
+        private void release() {
+            concurrency.release();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.wind.payment.core.bill;
+
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.PaymentTransactionException;
+import com.wind.transaction.core.Money;
+import com.wind.transaction.core.enums.CurrencyIsoCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 分隔符（csv）格式对账单迭代器
+ * 逐行读取，定位表头后将每一行转换为 表头 -> 值 交给子类映射为标准记录；读到末尾或结束标记时自动关闭
+ *
+ * @author wuxp
+ * @date 2026-10-18 18:50
+ **/
+@Slf4j
+public abstract class AbstractDelimitedTransactionBillIterator implements TransactionBillIterator {
+
+    protected static final DateTimeFormatter BILL_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final BufferedReader reader;
+
+    private String[] header;
+
+    private TransactionBillRecord next;
+
+    private boolean finished = false;
+
+    private boolean closed = false;
+
+    protected AbstractDelimitedTransactionBillIterator(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            next = readNext();
+        } catch (IOException | RuntimeException exception) {
+            close();
+            if (exception instanceof PaymentTransactionException transactionException) {
+                throw transactionException;
+            }
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "read transaction bill error", exception);
+        }
+        if (next == null) {
+            close();
+        }
+        return next != null;
+    }
+
+    @Override
+    public TransactionBillRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        TransactionBillRecord result = next;
+        next = null;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            reader.close();
+        } catch (IOException exception) {
+            log.warn("close transaction bill reader error", exception);
+        }
+    }
+
+    private TransactionBillRecord readNext() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (header == null) {
+                if (isHeaderLine(line)) {
+                    header = split(line);
+                }
+                continue;
+            }
+            if (isEndLine(line)) {
+                return null;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] values = split(line);
+            Map<String, String> row = new LinkedHashMap<>(header.length * 2);
+            for (int i = 0; i < header.length; i++) {
+                row.put(header[i], i < values.length ? values[i] : null);
+            }
+            TransactionBillRecord result = mapRecord(row);
+            if (result != null) {
+                return result.setRawRecord(row);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param line 行内容
+     * @return 是否为明细表头
+     */
+    protected abstract boolean isHeaderLine(String line);
+
+    /**
+     * @param line 表头之后的行内容
+     * @return 是否为明细结束（汇总信息开始）
+     */
+    protected abstract boolean isEndLine(String line);
+
+    /**
+     * 将一行明细映射为标准记录
+     *
+     * @param row 表头 -> 值
+     * @return 标准记录，返回 null 时跳过该行
+     */
+    protected abstract TransactionBillRecord mapRecord(Map<String, String> row);
+
+    /**
+     * 规范化单元格的值
+     *
+     * @param value 原始值
+     * @return 规范化后的值，空值返回 null
+     */
+    protected String normalizeValue(String value) {
+        String result = value.strip();
+        return result.isEmpty() ? null : result;
+    }
+
+    private String[] split(String line) {
+        List<String> result = new ArrayList<>(header == null ? 32 : header.length);
+        StringBuilder cell = new StringBuilder(32);
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append(c);
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                result.add(normalizeValue(cell.toString()));
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        result.add(normalizeValue(cell.toString()));
+        return result.toArray(String[]::new);
+    }
+
+    /**
+     * @param yuan 以元为单位的金额文本，负数取绝对值
+     * @return 人民币金额，空值返回 null
+     */
+    protected static Money parseMoney(String yuan) {
+        if (yuan == null) {
+            return null;
+        }
+        return CurrencyIsoCode.CNY.ofText(yuan.startsWith("-") ? yuan.substring(1) : yuan);
+    }
+
+    /**
+     * @param time yyyy-MM-dd HH:mm:ss 格式的时间文本
+     * @return 时间，空值返回 null
+     */
+    protected static LocalDateTime parseTime(String time) {
+        return time == null ? null : LocalDateTime.parse(time, BILL_TIME_FORMATTER);
+    }
+}
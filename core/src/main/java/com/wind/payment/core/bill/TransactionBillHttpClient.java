@@ -0,0 +1,55 @@
+package com.wind.payment.core.bill;
+
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.PaymentTransactionException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 对账单下载 http 客户端
+ * 以流的方式返回响应体，调用方边读边处理，不在内存中缓冲整个文件
+ *
+ * @author wuxp
+ * @date 2026-10-18 18:55
+ **/
+public final class TransactionBillHttpClient {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private TransactionBillHttpClient() {
+        throw new AssertionError();
+    }
+
+    /**
+     * 发送请求并返回响应体输入流
+     *
+     * @param request http 请求
+     * @return 响应体输入流，调用方负责关闭
+     */
+    public static InputStream open(HttpRequest request) {
+        try {
+            HttpResponse<InputStream> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() != 200) {
+                response.body().close();
+                throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("download transaction bill failure, " +
+                        "status = %d, uri = %s", response.statusCode(), request.uri().getHost()));
+            }
+            return response.body();
+        } catch (IOException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "download transaction bill error", exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "download transaction bill interrupted", exception);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.wind.payment.core.bill;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 对账单明细迭代器
+ * 边下载、边解压、边解析，内存占用与账单大小无关；使用完毕（包括提前结束）必须关闭以释放网络连接
+ *
+ * @author wuxp
+ * @date 2026-10-18 18:45
+ **/
+public interface TransactionBillIterator extends Iterator<TransactionBillRecord>, AutoCloseable {
+
+    @Override
+    void close();
+
+    /**
+     * @return 明细流，关闭流时关闭迭代器
+     */
+    default Stream<TransactionBillRecord> stream() {
+        Spliterator<TransactionBillRecord> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+}
@@ -0,0 +1,21 @@
+package com.wind.payment.core.bill;
+
+import com.wind.payment.core.request.DownloadTransactionBillRequest;
+
+/**
+ * 交易对账单提供者
+ *
+ * @author wuxp
+ * @date 2026-10-18 18:46
+ **/
+public interface TransactionBillProvider {
+
+    /**
+     * 下载交易对账单
+     * 下载失败则抛出异常 {@link com.wind.payment.core.PaymentTransactionException}
+     *
+     * @param request 下载请求
+     * @return 对账单明细迭代器
+     */
+    TransactionBillIterator downloadTransactionBill(DownloadTransactionBillRequest request);
+}
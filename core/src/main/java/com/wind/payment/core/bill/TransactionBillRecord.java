@@ -0,0 +1,81 @@
+package com.wind.payment.core.bill;
+
+import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.transaction.core.Money;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 标准化的对账单明细记录
+ *
+ * @author wuxp
+ * @date 2026-10-18 18:42
+ **/
+@Data
+@Accessors(chain = true)
+public class TransactionBillRecord implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -3346418410536370157L;
+
+    /**
+     * 支付交易流水号(系统内的)
+     */
+    private String transactionSn;
+
+    /**
+     * 第三方交易流水号
+     */
+    private String outTransactionSn;
+
+    /**
+     * 交易退款流水号(系统内的)，仅退款记录有值
+     */
+    private String transactionRefundSn;
+
+    /**
+     * 第三方退款流水号，仅退款记录有值
+     */
+    private String outTransactionRefundSn;
+
+    /**
+     * 订单金额
+     * 单位：分
+     */
+    private Money orderAmount;
+
+    /**
+     * 退款金额，仅退款记录有值
+     * 单位：分
+     */
+    private Money refundAmount;
+
+    /**
+     * 交易状态，支付记录为 {@link PaymentTransactionState#COMPLETED}，退款记录为退款相关状态
+     */
+    private PaymentTransactionState transactionState;
+
+    /**
+     * 交易时间
+     */
+    private LocalDateTime transactionTime;
+
+    /**
+     * 商品描述
+     */
+    private String description;
+
+    /**
+     * 原始记录，表头 -> 值
+     */
+    private Map<String, String> rawRecord;
+
+    public boolean isRefund() {
+        return transactionRefundSn != null || outTransactionRefundSn != null;
+    }
+}
@@ -66,4 +66,10 @@ public enum PaymentTransactionState implements DescriptiveEnum {
 
     private final String desc;
 
+    /**
+     * @return 是否为终态，非终态（待支付、支付中、等待退款、未知）需要继续查询
+     */
+    public boolean isTerminal() {
+        return this != WAIT_PAY && this != PAYING && this != WAIT_REFUND && this != UNKNOWN;
+    }
 }
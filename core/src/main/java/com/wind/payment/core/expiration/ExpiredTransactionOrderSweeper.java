@@ -0,0 +1,219 @@
+package com.wind.payment.core.expiration;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.core.DefaultAsyncPaymentTransactionPlugin;
+import com.wind.payment.core.PaymentTransactionPlugin;
+import com.wind.payment.core.batch.BatchItemResult;
+import com.wind.payment.core.batch.BatchProgressListener;
+import com.wind.payment.core.batch.PaymentTransactionBatchExecutor;
+import com.wind.payment.core.request.CloseTransactionOrderRequest;
+import com.wind.payment.core.request.PrePaymentOrderRequest;
+import com.wind.payment.core.response.CloseTransactionOrderResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 过期交易单清理器
+ * 预下单后跟踪交易单的有效期，到期仍未支付的交易单按插件分组，通过 {@link PaymentTransactionBatchExecutor} 限速并行关闭，
+ * 同一商户（{@link PaymentTransactionPlugin#getPartnerKey()}）不同场景的插件共享并发与速率限制；
+ * 释放支付平台侧的资源并阻止用户继续支付已失效的订单。
+ * 有效期按 {@link #bucketMillis} 划分时间桶索引，每次清理只取出已到期的桶，不扫描未到期的交易单；
+ * 交易单最多在到期后一个时间桶时长内被关闭。收到支付通知后应调用 {@link #cancel(String)} 停止跟踪
+ *
+ * @author wuxp
+ * @date 2026-10-18 21:20
+ **/
+@Slf4j
+public class ExpiredTransactionOrderSweeper implements AutoCloseable {
+
+    private static final Duration DEFAULT_BUCKET_DURATION = Duration.ofSeconds(5);
+
+    private static final int DEFAULT_MAX_CONCURRENCY_PER_PARTNER = 4;
+
+    private static final double DEFAULT_MAX_REQUESTS_PER_SECOND_PER_PARTNER = 20;
+
+    private final PaymentTransactionBatchExecutor batchExecutor;
+
+    private final BatchProgressListener<CloseTransactionOrderRequest, CloseTransactionOrderResponse> listener;
+
+    private final long bucketMillis;
+
+    /**
+     * 时间桶结束时间（bucketMillis 的倍数） -> 桶内交易单，桶内的交易单取消跟踪后不会立即移除，清理时跳过
+     */
+    private final NavigableMap<Long, ArrayDeque<TrackedOrder>> buckets = new TreeMap<>();
+
+    /**
+     * transactionSn -> 正在跟踪的交易单
+     */
+    private final Map<String, TrackedOrder> orders = new ConcurrentHashMap<>();
+
+    /**
+     * 已提交过关闭请求的商户标识，下次清理时移除批量执行器中空闲的商户限制，避免一直持有已被缓存淘汰的插件
+     */
+    private final Set<Object> partnerKeys = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService scheduler;
+
+    public ExpiredTransactionOrderSweeper() {
+        this(new PaymentTransactionBatchExecutor(DefaultAsyncPaymentTransactionPlugin.defaultExecutor(), DEFAULT_MAX_CONCURRENCY_PER_PARTNER,
+                DEFAULT_MAX_REQUESTS_PER_SECOND_PER_PARTNER), DEFAULT_BUCKET_DURATION, BatchProgressListener.none());
+    }
+
+    /**
+     * @param batchExecutor  批量关闭执行器，用于限制每个商户的并发数与请求速率
+     * @param bucketDuration 时间桶时长，即清理间隔
+     * @param listener       关闭结果监听器
+     */
+    public ExpiredTransactionOrderSweeper(PaymentTransactionBatchExecutor batchExecutor, Duration bucketDuration,
+                                          BatchProgressListener<CloseTransactionOrderRequest, CloseTransactionOrderResponse> listener) {
+        AssertUtils.notNull(batchExecutor, "argument batchExecutor must not null");
+        AssertUtils.notNull(bucketDuration, "argument bucketDuration must not null");
+        AssertUtils.isTrue(bucketDuration.toMillis() > 0, "argument bucketDuration must greater than 0ms");
+        AssertUtils.notNull(listener, "argument listener must not null");
+        this.batchExecutor = batchExecutor;
+        this.bucketMillis = bucketDuration.toMillis();
+        this.listener = listener;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread result = new Thread(runnable, "expired-transaction-order-sweeper");
+            result.setDaemon(true);
+            return result;
+        });
+        scheduler.scheduleWithFixedDelay(this::sweepQuietly, bucketMillis, bucketMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 跟踪预下单的交易单，在 {@link PrePaymentOrderRequest#getValidityDuration()} 到期后关闭
+     *
+     * @param plugin  支付插件
+     * @param request 预下单请求
+     */
+    public void track(PaymentTransactionPlugin plugin, PrePaymentOrderRequest request) {
+        AssertUtils.notNull(request.getValidityDuration(), "argument validityDuration must not null");
+        CloseTransactionOrderRequest closeRequest = new CloseTransactionOrderRequest();
+        closeRequest.setTransactionSn(request.getTransactionSn());
+        track(plugin, closeRequest, Instant.now().plus(request.getValidityDuration()));
+    }
+
+    /**
+     * 跟踪交易单，同一 transactionSn 重复提交时替换之前的截止时间
+     *
+     * @param plugin   支付插件
+     * @param request  到期后的关闭请求
+     * @param deadline 截止时间
+     */
+    public void track(PaymentTransactionPlugin plugin, CloseTransactionOrderRequest request, Instant deadline) {
+        AssertUtils.notNull(plugin, "argument plugin must not null");
+        AssertUtils.hasLength(request.getTransactionSn(), "argument transactionSn must not empty");
+        AssertUtils.notNull(deadline, "argument deadline must not null");
+        TrackedOrder order = new TrackedOrder(plugin, request);
+        orders.put(request.getTransactionSn(), order);
+        // 向上取整到桶的结束时间，保证桶被清理时桶内交易单都已到期
+        long bucket = Math.floorDiv(deadline.toEpochMilli() + bucketMillis - 1, bucketMillis) * bucketMillis;
+        synchronized (buckets) {
+            buckets.computeIfAbsent(bucket, key -> new ArrayDeque<>()).add(order);
+        }
+    }
+
+    /**
+     * 停止跟踪交易单，交易单已支付或已主动关闭时调用
+     *
+     * @param transactionSn 交易流水号
+     * @return 交易单是否正在被跟踪
+     */
+    public boolean cancel(String transactionSn) {
+        return orders.remove(transactionSn) != null;
+    }
+
+    /**
+     * @return 正在跟踪的交易单数量
+     */
+    public int getTrackingCount() {
+        return orders.size();
+    }
+
+    /**
+     * 关闭在指定时间之前到期的交易单，关闭结果通过监听器异步返回
+     *
+     * @param now 当前时间
+     * @return 提交关闭的交易单数量
+     */
+    public int sweep(Instant now) {
+        // 仍有批次在执行的商户不会被移除，留到下次清理
+        partnerKeys.removeIf(batchExecutor::evictPartnerLimits);
+        List<TrackedOrder> expired = new ArrayList<>();
+        synchronized (buckets) {
+            NavigableMap<Long, ArrayDeque<TrackedOrder>> expiredBuckets = buckets.headMap(now.toEpochMilli(), true);
+            expiredBuckets.values().forEach(expired::addAll);
+            expiredBuckets.clear();
+        }
+        Map<PaymentTransactionPlugin, List<CloseTransactionOrderRequest>> requests = new IdentityHashMap<>();
+        for (TrackedOrder order : expired) {
+            // 已取消或被重新跟踪的交易单不在此处关闭
+            if (orders.remove(order.request.getTransactionSn(), order)) {
+                requests.computeIfAbsent(order.plugin, key -> new ArrayList<>()).add(order.request);
+            }
+        }
+        int result = 0;
+        for (Map.Entry<PaymentTransactionPlugin, List<CloseTransactionOrderRequest>> entry : requests.entrySet()) {
+            PaymentTransactionPlugin plugin = entry.getKey();
+            Object partnerKey = plugin.getPartnerKey();
+            partnerKeys.add(partnerKey);
+            batchExecutor.execute(partnerKey, entry.getValue(), null, plugin::closeTransactionOrder, this::onClosed);
+            result += entry.getValue().size();
+        }
+        if (result > 0 && log.isDebugEnabled()) {
+            log.debug("sweep expired transaction orders, count = {}", result);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep(Instant.now());
+        } catch (Exception exception) {
+            log.error("sweep expired transaction orders error", exception);
+        }
+    }
+
+    private void onClosed(BatchItemResult<CloseTransactionOrderRequest, CloseTransactionOrderResponse> result, int completed, int total) {
+        if (!result.isSuccessful()) {
+            log.warn("close expired transaction order error, transactionSn = {}", result.request().getTransactionSn(), result.error());
+        }
+        listener.onProgress(result, completed, total);
+    }
+
+    /**
+     * 按引用比较，重新跟踪的交易单不会被旧时间桶中的条目误删
+     */
+    private static final class TrackedOrder {
+
+        private final PaymentTransactionPlugin plugin;
+
+        private final CloseTransactionOrderRequest request;
+
+        private TrackedOrder(PaymentTransactionPlugin plugin, CloseTransactionOrderRequest request) {
+            this.plugin = plugin;
+            this.request = request;
+        }
+    }
+}
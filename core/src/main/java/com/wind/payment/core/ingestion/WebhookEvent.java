@@ -0,0 +1,107 @@
+package com.wind.payment.core.ingestion;
+
+import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import com.wind.transaction.core.Money;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 已验签的支付/退款通知，归一化后写入 {@link WebhookEventJournal}
+ *
+ * @param sequence               日志序号，写入日志时分配，未写入时为 0
+ * @param type                   通知类型
+ * @param partnerId              商户标识，由调用方提供，用于业务处理时定位商户
+ * @param transactionSn          支付交易流水号(系统内的)
+ * @param outTransactionSn       第三方交易流水号
+ * @param transactionRefundSn    交易退款流水号(系统内的)，支付通知为 null
+ * @param outTransactionRefundSn 第三方退款流水号，支付通知为 null
+ * @param transactionState       交易状态
+ * @param orderAmount            订单金额，单位：分
+ * @param refundAmount           退款金额，单位：分，支付通知为 0
+ * @param receivedAt             接收时间，epoch 毫秒
+ * @author wuxp
+ * @date 2026-10-18 23:10
+ **/
+public record WebhookEvent(long sequence, Type type, String partnerId, String transactionSn, String outTransactionSn, String transactionRefundSn,
+                           String outTransactionRefundSn, PaymentTransactionState transactionState, long orderAmount, long refundAmount,
+                           long receivedAt) {
+
+    private static final PaymentTransactionState[] STATES = PaymentTransactionState.values();
+
+    private static final Type[] TYPES = Type.values();
+
+    public static WebhookEvent of(String partnerId, QueryTransactionOrderResponse response) {
+        return new WebhookEvent(0, Type.PAYMENT, partnerId, response.getTransactionSn(), response.getOutTransactionSn(), null, null,
+                response.getTransactionState(), amountOf(response.getOrderAmount()), 0, System.currentTimeMillis());
+    }
+
+    public static WebhookEvent of(String partnerId, TransactionOrderRefundResponse response) {
+        return new WebhookEvent(0, Type.REFUND, partnerId, response.getTransactionSn(), null, response.getTransactionRefundSn(),
+                response.getOutTransactionRefundSn(), response.getTransactionState(), amountOf(response.getOrderAmount()),
+                amountOf(response.getRefundAmount()), System.currentTimeMillis());
+    }
+
+    WebhookEvent withSequence(long sequence) {
+        return new WebhookEvent(sequence, type, partnerId, transactionSn, outTransactionSn, transactionRefundSn, outTransactionRefundSn,
+                transactionState, orderAmount, refundAmount, receivedAt);
+    }
+
+    void writeTo(DataOutput output) throws IOException {
+        output.writeLong(sequence);
+        output.writeByte(type.ordinal());
+        writeNullable(output, partnerId);
+        writeNullable(output, transactionSn);
+        writeNullable(output, outTransactionSn);
+        writeNullable(output, transactionRefundSn);
+        writeNullable(output, outTransactionRefundSn);
+        output.writeByte(transactionState == null ? -1 : transactionState.ordinal());
+        output.writeLong(orderAmount);
+        output.writeLong(refundAmount);
+        output.writeLong(receivedAt);
+    }
+
+    static WebhookEvent readFrom(DataInput input) throws IOException {
+        long sequence = input.readLong();
+        Type type = TYPES[input.readByte()];
+        String partnerId = readNullable(input);
+        String transactionSn = readNullable(input);
+        String outTransactionSn = readNullable(input);
+        String transactionRefundSn = readNullable(input);
+        String outTransactionRefundSn = readNullable(input);
+        byte state = input.readByte();
+        return new WebhookEvent(sequence, type, partnerId, transactionSn, outTransactionSn, transactionRefundSn, outTransactionRefundSn,
+                state < 0 ? null : STATES[state], input.readLong(), input.readLong(), input.readLong());
+    }
+
+    private static long amountOf(Money money) {
+        return money == null ? 0 : money.getIntAmount();
+    }
+
+    private static void writeNullable(DataOutput output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    public enum Type {
+
+        /**
+         * 支付通知
+         */
+        PAYMENT,
+
+        /**
+         * 退款通知
+         */
+        REFUND
+    }
+}
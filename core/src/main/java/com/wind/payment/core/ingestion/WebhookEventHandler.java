@@ -0,0 +1,32 @@
+package com.wind.payment.core.ingestion;
+
+import java.util.List;
+
+/**
+ * 支付通知事件的业务处理器，由 {@link WebhookIngestionPipeline} 的工作线程批量调用
+ * 处理失败时整批重试，事件可能被重复投递（重试、宕机后重放），实现需要保证幂等
+ *
+ * @author wuxp
+ * @date 2026-10-18 23:30
+ **/
+@FunctionalInterface
+public interface WebhookEventHandler {
+
+    /**
+     * 处理一批事件，按序号顺序排列
+     *
+     * @param events 事件
+     * @throws Exception 处理失败，整批会在退避后重试
+     */
+    void handle(List<WebhookEvent> events) throws Exception;
+
+    /**
+     * 重试次数用尽时回调，回调后这批事件视为已完成，不再重放
+     * 默认不处理，可在此将事件写入死信表人工处理
+     *
+     * @param events    事件
+     * @param throwable 最后一次处理失败的异常
+     */
+    default void onExhausted(List<WebhookEvent> events, Throwable throwable) {
+    }
+}
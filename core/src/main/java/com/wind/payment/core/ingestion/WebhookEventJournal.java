@@ -0,0 +1,483 @@
+package com.wind.payment.core.ingestion;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.PaymentTransactionException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 支付通知事件的本地追加日志
+ * 事件按序号顺序追加到分段文件 webhook-{首个序号}.journal，每条记录格式为 [长度][CRC32][事件]，
+ * {@link #append(WebhookEvent, Consumer)} 在数据落盘（fsync）后才返回；并发追加的事件共享一次 fsync（组提交）。
+ * 处理完成的序号通过 {@link #commit(long)} 写入检查点，检查点之前的分段文件会被删除；
+ * 打开日志时截断末尾不完整的记录（写入过程中宕机），检查点之后的事件可通过 {@link #replay(Consumer)} 重新投递
+ *
+ * @author wuxp
+ * @date 2026-10-18 23:20
+ **/
+@Slf4j
+public class WebhookEventJournal implements AutoCloseable {
+
+    private static final long DEFAULT_SEGMENT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "webhook-";
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final String CHECKPOINT_FILE = "webhook.checkpoint";
+
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    /**
+     * 单条事件的最大字节数，超出视为记录损坏
+     */
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+
+    private final Path directory;
+
+    private final long segmentMaxBytes;
+
+    /**
+     * 分段文件首个序号 -> 分段文件，由 {@link #writeLock} 保护
+     */
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+
+    private final Object writeLock = new Object();
+
+    /**
+     * 串行化 fsync，持有期间其它线程可继续写入，下一次 fsync 会覆盖这些写入
+     */
+    private final Object syncLock = new Object();
+
+    private FileChannel channel;
+
+    private long segmentBytes;
+
+    private long lastSequence;
+
+    private volatile long syncedSequence;
+
+    private volatile long committedSequence;
+
+    private volatile boolean closed;
+
+    public WebhookEventJournal(Path directory) {
+        this(directory, DEFAULT_SEGMENT_MAX_BYTES);
+    }
+
+    public WebhookEventJournal(Path directory, long segmentMaxBytes) {
+        AssertUtils.notNull(directory, "argument directory must not null");
+        AssertUtils.isTrue(segmentMaxBytes > MAX_RECORD_BYTES, "argument segmentMaxBytes must greater than " + MAX_RECORD_BYTES);
+        this.directory = directory;
+        this.segmentMaxBytes = segmentMaxBytes;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException exception) {
+            throw asTransactionException("open webhook event journal error, directory = " + directory, exception);
+        }
+    }
+
+    /**
+     * 追加事件并等待落盘
+     *
+     * @param event       事件，序号由日志分配
+     * @param onSequenced 分配序号后、落盘前的回调（在写锁内执行，按序号顺序调用），用于登记未完成的序号
+     * @return 带序号的事件
+     */
+    public WebhookEvent append(WebhookEvent event, Consumer<WebhookEvent> onSequenced) {
+        AssertUtils.notNull(event, "argument event must not null");
+        AssertUtils.notNull(onSequenced, "argument onSequenced must not null");
+        WebhookEvent result;
+        synchronized (writeLock) {
+            AssertUtils.isTrue(!closed, "webhook event journal is closed");
+            result = event.withSequence(lastSequence + 1);
+            ByteBuffer record = encode(result);
+            try {
+                if (!channel.isOpen()) {
+                    // 其它线程 fsync 时被中断，通道已被关闭
+                    reopenSegment(segmentBytes);
+                }
+                if (segmentBytes > 0 && segmentBytes + record.remaining() > segmentMaxBytes) {
+                    rollSegment(result.sequence());
+                }
+            } catch (IOException exception) {
+                throw asTransactionException("roll webhook event journal segment error, sequence = " + result.sequence(), exception);
+            }
+            writeRecord(record, result.sequence());
+            lastSequence = result.sequence();
+            onSequenced.accept(result);
+        }
+        sync(result.sequence());
+        return result;
+    }
+
+    /**
+     * 按序号顺序重放检查点之后的事件
+     *
+     * @param consumer 事件消费者
+     * @return 重放的事件数量
+     */
+    public int replay(Consumer<WebhookEvent> consumer) {
+        AssertUtils.notNull(consumer, "argument consumer must not null");
+        List<Path> files;
+        synchronized (writeLock) {
+            files = new ArrayList<>(segments.values());
+        }
+        int count = 0;
+        long committed = committedSequence;
+        for (Path file : files) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                JournalRecord record;
+                while ((record = readRecord(input)) != null) {
+                    if (record.event().sequence() > committed) {
+                        consumer.accept(record.event());
+                        count++;
+                    }
+                }
+            } catch (IOException exception) {
+                throw asTransactionException("replay webhook event journal error, file = " + file, exception);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 提交检查点，该序号及之前的事件不会再被重放
+     *
+     * @param sequence 已处理完成的最大连续序号
+     */
+    public void commit(long sequence) {
+        List<Path> expired = new ArrayList<>();
+        synchronized (writeLock) {
+            // 未落盘的事件不能提交，否则宕机后检查点会越过日志末尾
+            long committable = Math.min(sequence, syncedSequence);
+            if (committable <= committedSequence) {
+                return;
+            }
+            try {
+                writeCheckpoint(committable);
+            } catch (IOException exception) {
+                throw asTransactionException("write webhook event journal checkpoint error, sequence = " + committable, exception);
+            }
+            committedSequence = committable;
+            // 下一个分段的首个序号不大于 committable + 1 时，当前分段的事件均已提交；最后一个分段正在写入，始终保留
+            Long current = segments.lastKey();
+            for (Map.Entry<Long, Path> entry : segments.headMap(current, false).entrySet()) {
+                Long next = segments.higherKey(entry.getKey());
+                if (next - 1 > committable) {
+                    break;
+                }
+                expired.add(entry.getValue());
+            }
+            expired.forEach(path -> segments.values().remove(path));
+        }
+        for (Path path : expired) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException exception) {
+                log.warn("delete committed webhook event journal segment error, file = {}", path, exception);
+            }
+        }
+    }
+
+    /**
+     * @return 最后追加的事件序号
+     */
+    public long getLastSequence() {
+        synchronized (writeLock) {
+            return lastSequence;
+        }
+    }
+
+    /**
+     * @return 检查点序号
+     */
+    public long getCommittedSequence() {
+        return committedSequence;
+    }
+
+    /**
+     * @return 当前保留的分段文件数量
+     */
+    public int getSegmentCount() {
+        synchronized (writeLock) {
+            return segments.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException exception) {
+                log.warn("close webhook event journal error, directory = {}", directory, exception);
+            }
+        }
+    }
+
+    private void sync(long sequence) {
+        if (syncedSequence >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedSequence >= sequence) {
+                // 其它线程的 fsync 已覆盖本次写入
+                return;
+            }
+            long upTo;
+            FileChannel current;
+            synchronized (writeLock) {
+                upTo = lastSequence;
+                current = channel;
+            }
+            try {
+                current.force(false);
+            } catch (ClosedChannelException exception) {
+                // 包括 ClosedByInterruptException：线程在 fsync 时被中断会关闭通道，此时数据未必落盘
+                try {
+                    syncClosedChannel(current);
+                } catch (IOException syncException) {
+                    exception.addSuppressed(syncException);
+                    throw asTransactionException("sync webhook event journal error, sequence = " + sequence, exception);
+                }
+            } catch (IOException exception) {
+                throw asTransactionException("sync webhook event journal error, sequence = " + sequence, exception);
+            }
+            syncedSequence = upTo;
+        }
+    }
+
+    /**
+     * 通道被关闭后确认数据已落盘
+     *
+     * @param closedChannel 读取时的当前分段通道
+     */
+    private void syncClosedChannel(FileChannel closedChannel) throws IOException {
+        synchronized (writeLock) {
+            if (closed || channel != closedChannel) {
+                // 分段切换、日志关闭时旧的通道在关闭前已经 fsync，其它线程重新打开分段后也已 fsync
+                return;
+            }
+            reopenSegment(segmentBytes);
+        }
+    }
+
+    private void writeRecord(ByteBuffer record, long sequence) {
+        long position = segmentBytes;
+        try {
+            while (record.hasRemaining()) {
+                segmentBytes += channel.write(record);
+            }
+        } catch (IOException exception) {
+            // 截断写了一半的记录，否则恢复时会在此处停止，丢失后续追加的事件
+            try {
+                if (channel.isOpen()) {
+                    channel.truncate(position);
+                    segmentBytes = position;
+                } else {
+                    reopenSegment(position);
+                }
+            } catch (IOException truncateException) {
+                exception.addSuppressed(truncateException);
+            }
+            throw asTransactionException("append webhook event error, sequence = " + sequence, exception);
+        }
+    }
+
+    private void rollSegment(long firstSequence) throws IOException {
+        channel.force(false);
+        channel.close();
+        openSegment(firstSequence);
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        boolean created = Files.notExists(file);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentBytes = channel.size();
+        segments.put(firstSequence, file);
+        if (created) {
+            // 新建的分段文件需要 fsync 目录，否则宕机后目录项可能丢失，已确认的事件随之丢失
+            syncDirectory();
+        }
+    }
+
+    /**
+     * 线程被中断时 FileChannel 会被关闭（ClosedByInterruptException），重新打开当前分段、截断到有效长度并 fsync；
+     * 期间清除中断标记，避免新的通道再次被关闭，完成后恢复。调用方持有 {@link #writeLock}
+     *
+     * @param validBytes 当前分段的有效字节数
+     */
+    private void reopenSegment(long validBytes) throws IOException {
+        boolean interrupted = Thread.interrupted();
+        try {
+            openSegment(segments.lastKey());
+            if (segmentBytes > validBytes) {
+                channel.truncate(validBytes);
+                segmentBytes = validBytes;
+            }
+            channel.force(false);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void syncDirectory() throws IOException {
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (AccessDeniedException exception) {
+            // Windows 不支持打开目录，NTFS 的元数据由文件系统日志保证
+            log.debug("sync webhook event journal directory unsupported, directory = {}", directory);
+        }
+    }
+
+    private void recover() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            try (DataInputStream input = new DataInputStream(Files.newInputStream(checkpoint))) {
+                committedSequence = input.readLong();
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(WebhookEventJournal::isSegmentFile).forEach(file -> segments.put(parseFirstSequence(file), file));
+        }
+        lastSequence = committedSequence;
+        Long firstSequence = null;
+        for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+            long validBytes = 0;
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry.getValue())))) {
+                JournalRecord record;
+                while ((record = readRecord(input)) != null) {
+                    lastSequence = Math.max(lastSequence, record.event().sequence());
+                    validBytes += record.bytes();
+                }
+            }
+            long size = Files.size(entry.getValue());
+            if (validBytes < size) {
+                log.warn("truncate torn webhook event journal record, file = {}, size = {}, validBytes = {}", entry.getValue(), size, validBytes);
+                try (FileChannel truncated = FileChannel.open(entry.getValue(), StandardOpenOption.WRITE)) {
+                    truncated.truncate(validBytes);
+                    truncated.force(true);
+                }
+            }
+            firstSequence = entry.getKey();
+        }
+        openSegment(firstSequence == null ? lastSequence + 1 : firstSequence);
+        syncedSequence = lastSequence;
+    }
+
+    private void writeCheckpoint(long sequence) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel output = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, sequence);
+            while (buffer.hasRemaining()) {
+                output.write(buffer);
+            }
+            output.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+    }
+
+    private static ByteBuffer encode(WebhookEvent event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeLong(0);
+            event.writeTo(output);
+        } catch (IOException exception) {
+            throw asTransactionException("encode webhook event error, sequence = " + event.sequence(), exception);
+        }
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        int length = record.capacity() - RECORD_HEADER_BYTES;
+        AssertUtils.isTrue(length <= MAX_RECORD_BYTES, "webhook event too large, sequence = " + event.sequence());
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER_BYTES, length);
+        record.putInt(0, length);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        return record;
+    }
+
+    /**
+     * @return 下一条完整且校验通过的记录，到达文件末尾或遇到不完整、损坏的记录时返回 null
+     */
+    private static JournalRecord readRecord(DataInputStream input) throws IOException {
+        int length;
+        int checksum;
+        byte[] payload;
+        try {
+            length = input.readInt();
+            checksum = input.readInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES) {
+                return null;
+            }
+            payload = new byte[length];
+            input.readFully(payload);
+        } catch (EOFException exception) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        try (InputStream bytes = new ByteArrayInputStream(payload)) {
+            return new JournalRecord(WebhookEvent.readFrom(new DataInputStream(bytes)), RECORD_HEADER_BYTES + length);
+        }
+    }
+
+    private static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long parseFirstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static PaymentTransactionException asTransactionException(String message, IOException exception) {
+        return new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, message, exception);
+    }
+
+    /**
+     * @param event 事件
+     * @param bytes 记录占用的字节数（含记录头）
+     */
+    private record JournalRecord(WebhookEvent event, int bytes) {
+    }
+}
@@ -0,0 +1,347 @@
+package com.wind.payment.core.ingestion;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.core.PaymentTransactionWebHooker;
+import com.wind.payment.core.request.PaymentTransactionEventRequest;
+import com.wind.payment.core.request.PaymentTransactionRefundEventRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 支付通知接入管道
+ * 通知请求只做验签、归一化并写入 {@link WebhookEventJournal}，落盘后立即返回成功响应，避免业务处理耗时导致支付平台超时重发；
+ * 业务处理由工作线程从队列批量取出事件交给 {@link WebhookEventHandler}，失败时指数退避重试。
+ * 未完成的事件数量达到 {@link #maxPendingEvents} 时直接返回失败响应（降载），由支付平台稍后重发。
+ * 检查点只推进到连续完成的最大序号，宕机重启后从检查点重放未完成的事件
+ *
+ * @author wuxp
+ * @date 2026-10-18 23:40
+ **/
+@Slf4j
+public class WebhookIngestionPipeline implements AutoCloseable {
+
+    private static final int DEFAULT_WORKER_COUNT = 2;
+
+    private static final int DEFAULT_MAX_PENDING_EVENTS = 10_000;
+
+    private static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    private static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(200);
+
+    private static final long MAX_BACKOFF_MILLIS = Duration.ofSeconds(30).toMillis();
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final WebhookEventJournal journal;
+
+    private final WebhookEventHandler handler;
+
+    private final int maxPendingEvents;
+
+    private final int maxBatchSize;
+
+    private final int maxAttempts;
+
+    private final long initialBackoffMillis;
+
+    private final BlockingQueue<WebhookEvent> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * 已分配序号、尚未处理完成的事件序号，最小值之前的序号均已完成
+     */
+    private final ConcurrentSkipListSet<Long> inFlightSequences = new ConcurrentSkipListSet<>();
+
+    /**
+     * 已处理完成的最大序号
+     */
+    private final AtomicLong completedSequence = new AtomicLong();
+
+    /**
+     * 已接收、尚未处理完成的事件数量（含重放的事件）
+     */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final LongAdder acceptedCount = new LongAdder();
+
+    private final LongAdder shedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LongAdder processedCount = new LongAdder();
+
+    private final LongAdder retryCount = new LongAdder();
+
+    private final LongAdder exhaustedCount = new LongAdder();
+
+    private final List<Thread> workers;
+
+    private volatile boolean running = true;
+
+    public WebhookIngestionPipeline(WebhookEventJournal journal, WebhookEventHandler handler) {
+        this(journal, handler, DEFAULT_WORKER_COUNT, DEFAULT_MAX_PENDING_EVENTS, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_ATTEMPTS,
+                DEFAULT_INITIAL_BACKOFF);
+    }
+
+    /**
+     * @param journal          事件日志
+     * @param handler          业务处理器
+     * @param workerCount      工作线程数
+     * @param maxPendingEvents 最大未完成事件数量，超出时降载
+     * @param maxBatchSize     每批最多处理的事件数量
+     * @param maxAttempts      每批最多处理次数（含首次）
+     * @param initialBackoff   首次重试的退避时间，之后每次翻倍，最长 30 秒
+     */
+    public WebhookIngestionPipeline(WebhookEventJournal journal, WebhookEventHandler handler, int workerCount, int maxPendingEvents,
+                                    int maxBatchSize, int maxAttempts, Duration initialBackoff) {
+        AssertUtils.notNull(journal, "argument journal must not null");
+        AssertUtils.notNull(handler, "argument handler must not null");
+        AssertUtils.isTrue(workerCount > 0, "argument workerCount must greater than 0");
+        AssertUtils.isTrue(maxPendingEvents > 0, "argument maxPendingEvents must greater than 0");
+        AssertUtils.isTrue(maxBatchSize > 0, "argument maxBatchSize must greater than 0");
+        AssertUtils.isTrue(maxAttempts > 0, "argument maxAttempts must greater than 0");
+        AssertUtils.notNull(initialBackoff, "argument initialBackoff must not null");
+        this.journal = journal;
+        this.handler = handler;
+        this.maxPendingEvents = maxPendingEvents;
+        this.maxBatchSize = maxBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = Math.max(initialBackoff.toMillis(), 1);
+        this.completedSequence.set(journal.getCommittedSequence());
+        int replayed = journal.replay(this::enqueueReplayed);
+        if (replayed > 0) {
+            log.info("replay uncommitted webhook events, count = {}", replayed);
+        }
+        this.workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "webhook-ingestion-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * 接收支付通知
+     *
+     * @param partnerId 商户标识
+     * @param hooker    通知验签者（支付插件）
+     * @param request   通知请求
+     * @return 返回给支付平台的响应，验签失败、降载或写入日志失败时为失败响应
+     */
+    public Object ingestPaymentEvent(String partnerId, PaymentTransactionWebHooker hooker, PaymentTransactionEventRequest request) {
+        AssertUtils.notNull(request, "argument request must not null");
+        return ingest(hooker, () -> WebhookEvent.of(partnerId, hooker.onPaymentEvent(request)), request.getTransactionSn());
+    }
+
+    /**
+     * 接收退款通知
+     *
+     * @param partnerId 商户标识
+     * @param hooker    通知验签者（支付插件）
+     * @param request   通知请求
+     * @return 返回给支付平台的响应，验签失败、降载或写入日志失败时为失败响应
+     */
+    public Object ingestRefundEvent(String partnerId, PaymentTransactionWebHooker hooker, PaymentTransactionRefundEventRequest request) {
+        AssertUtils.notNull(request, "argument request must not null");
+        return ingest(hooker, () -> WebhookEvent.of(partnerId, hooker.onRefundEvent(request)), request.getTransactionRefundSn());
+    }
+
+    /**
+     * @return 已接收、尚未处理完成的事件数量
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * @return 管道统计快照
+     */
+    public Stats stats() {
+        return new Stats(acceptedCount.sum(), shedCount.sum(), rejectedCount.sum(), processedCount.sum(), retryCount.sum(),
+                exhaustedCount.sum(), pendingCount.get());
+    }
+
+    /**
+     * 停止工作线程并关闭日志，未处理完成的事件在下次启动时重放
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        journal.close();
+    }
+
+    private Object ingest(PaymentTransactionWebHooker hooker, Supplier<WebhookEvent> verifier, String transactionSn) {
+        AssertUtils.notNull(hooker, "argument hooker must not null");
+        // 先占用名额再验签，降载时不消耗验签的 CPU
+        if (!running || !tryReserve()) {
+            shedCount.increment();
+            log.warn("webhook ingestion pipeline overloaded, shed event, transactionSn = {}, pending = {}", transactionSn, pendingCount.get());
+            return hooker.getWebHookResponse(false);
+        }
+        WebhookEvent event;
+        try {
+            event = verifier.get();
+        } catch (RuntimeException exception) {
+            pendingCount.decrementAndGet();
+            rejectedCount.increment();
+            log.warn("verify webhook event error, transactionSn = {}", transactionSn, exception);
+            return hooker.getWebHookResponse(false);
+        }
+        AtomicLong sequence = new AtomicLong();
+        try {
+            event = journal.append(event, sequenced -> {
+                sequence.set(sequenced.sequence());
+                inFlightSequences.add(sequenced.sequence());
+            });
+        } catch (RuntimeException exception) {
+            if (sequence.get() > 0) {
+                inFlightSequences.remove(sequence.get());
+            }
+            pendingCount.decrementAndGet();
+            rejectedCount.increment();
+            log.error("append webhook event to journal error, transactionSn = {}", transactionSn, exception);
+            return hooker.getWebHookResponse(false);
+        }
+        queue.add(event);
+        acceptedCount.increment();
+        return hooker.getWebHookResponse(true);
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = pendingCount.get();
+            if (current >= maxPendingEvents) {
+                return false;
+            }
+        } while (!pendingCount.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void enqueueReplayed(WebhookEvent event) {
+        // 重放的事件在宕机前已经确认给支付平台，不受 maxPendingEvents 限制
+        pendingCount.incrementAndGet();
+        inFlightSequences.add(event.sequence());
+        queue.add(event);
+    }
+
+    private void runWorker() {
+        List<WebhookEvent> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                WebhookEvent first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                process(batch);
+                complete(batch);
+            } catch (InterruptedException exception) {
+                // 关闭时中断，未完成的批次不提交，下次启动重放
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable throwable) {
+                // 工作线程不能因单个批次的异常退出，否则后续事件无人处理
+                log.error("webhook ingestion worker error, batchSize = {}", batch.size(), throwable);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<WebhookEvent> batch) throws InterruptedException {
+        List<WebhookEvent> events = List.copyOf(batch);
+        Throwable lastException = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (attempt > 1) {
+                if (!running) {
+                    throw new InterruptedException("webhook ingestion pipeline closed");
+                }
+                retryCount.increment();
+                Thread.sleep(backoffMillis(attempt - 1));
+            }
+            try {
+                handler.handle(events);
+                processedCount.add(events.size());
+                return;
+            } catch (Throwable throwable) {
+                // 处理器抛出的 Error（例如 StackOverflowError）同样计为一次失败的处理
+                lastException = throwable;
+                log.warn("handle webhook events error, attempt = {}, firstSequence = {}, size = {}", attempt, events.get(0).sequence(),
+                        events.size(), throwable);
+            }
+        }
+        exhaustedCount.add(events.size());
+        log.error("handle webhook events exhausted, firstSequence = {}, size = {}", events.get(0).sequence(), events.size(), lastException);
+        try {
+            handler.onExhausted(events, lastException);
+        } catch (Throwable throwable) {
+            log.error("handle exhausted webhook events error, firstSequence = {}", events.get(0).sequence(), throwable);
+        }
+    }
+
+    private long backoffMillis(int retry) {
+        int shift = Math.min(retry - 1, 20);
+        return Math.min(initialBackoffMillis << shift, MAX_BACKOFF_MILLIS);
+    }
+
+    private void complete(List<WebhookEvent> batch) {
+        long highest = 0;
+        for (WebhookEvent event : batch) {
+            inFlightSequences.remove(event.sequence());
+            highest = Math.max(highest, event.sequence());
+        }
+        long completed = completedSequence.accumulateAndGet(highest, Math::max);
+        // 检查点只推进到最小的未完成序号之前
+        Long lowestInFlight = inFlightSequences.ceiling(Long.MIN_VALUE);
+        long checkpoint = lowestInFlight == null ? completed : Math.min(completed, lowestInFlight - 1);
+        try {
+            journal.commit(checkpoint);
+        } catch (RuntimeException exception) {
+            // 下一批完成时会再次提交，期间宕机最多重复投递这部分事件
+            log.warn("commit webhook event journal checkpoint error, checkpoint = {}", checkpoint, exception);
+        }
+        pendingCount.addAndGet(-batch.size());
+    }
+
+    /**
+     * 管道统计
+     *
+     * @param acceptedCount  落盘并确认的事件数量
+     * @param shedCount      降载拒绝的事件数量
+     * @param rejectedCount  验签失败或写入日志失败的事件数量
+     * @param processedCount 业务处理成功的事件数量
+     * @param retryCount     批次重试次数
+     * @param exhaustedCount 重试次数用尽的事件数量
+     * @param pendingCount   尚未处理完成的事件数量
+     */
+    public record Stats(long acceptedCount, long shedCount, long rejectedCount, long processedCount, long retryCount, long exhaustedCount,
+                        int pendingCount) {
+    }
+}
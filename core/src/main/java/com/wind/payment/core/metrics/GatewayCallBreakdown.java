@@ -0,0 +1,74 @@
+package com.wind.payment.core.metrics;
+
+import lombok.Getter;
+
+/**
+ * 单次支付网关调用的各阶段耗时
+ *
+ * @author wuxp
+ * @date 2026-10-19 15:28
+ **/
+public final class GatewayCallBreakdown {
+
+    /**
+     * 支付平台
+     */
+    @Getter
+    private final String platform;
+
+    /**
+     * 网关操作
+     */
+    @Getter
+    private final String operation;
+
+    /**
+     * 调用总耗时
+     */
+    @Getter
+    private final long totalNanos;
+
+    private final long[] phaseNanos;
+
+    /**
+     * 已记录的阶段，按 {@link GatewayCallPhase#ordinal()} 置位
+     */
+    private final int recordedPhases;
+
+    GatewayCallBreakdown(String platform, String operation, long totalNanos, long[] phaseNanos, int recordedPhases) {
+        this.platform = platform;
+        this.operation = operation;
+        this.totalNanos = totalNanos;
+        this.phaseNanos = phaseNanos;
+        this.recordedPhases = recordedPhases;
+    }
+
+    /**
+     * @param phase 调用阶段
+     * @return 阶段耗时，未记录时为 0
+     */
+    public long getPhaseNanos(GatewayCallPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * @param phase 调用阶段
+     * @return 是否记录了该阶段，传输无法区分的阶段不会被记录
+     */
+    public boolean isRecorded(GatewayCallPhase phase) {
+        return (recordedPhases & (1 << phase.ordinal())) != 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(128).append("GatewayCallBreakdown(platform=").append(platform)
+                .append(", operation=").append(operation)
+                .append(", totalNanos=").append(totalNanos);
+        for (GatewayCallPhase phase : GatewayCallPhase.values()) {
+            if (isRecorded(phase)) {
+                result.append(", ").append(phase.getTagValue()).append('=').append(phaseNanos[phase.ordinal()]);
+            }
+        }
+        return result.append(')').toString();
+    }
+}
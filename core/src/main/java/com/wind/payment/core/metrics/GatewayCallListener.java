@@ -0,0 +1,23 @@
+package com.wind.payment.core.metrics;
+
+/**
+ * 支付网关调用耗时监听器，每次调用结束后回调一次
+ * 在调用线程中同步执行，实现应尽量轻量
+ *
+ * @author wuxp
+ * @date 2026-10-19 15:25
+ **/
+@FunctionalInterface
+public interface GatewayCallListener {
+
+    /**
+     * 不监听，此时 {@link GatewayCallTimer} 不读取时钟也不分配对象
+     */
+    GatewayCallListener NOOP = breakdown -> {
+    };
+
+    /**
+     * @param breakdown 调用的各阶段耗时
+     */
+    void onCompleted(GatewayCallBreakdown breakdown);
+}
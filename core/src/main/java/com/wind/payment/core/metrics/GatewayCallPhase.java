@@ -0,0 +1,45 @@
+package com.wind.payment.core.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 支付网关调用阶段
+ *
+ * @author wuxp
+ * @date 2026-10-19 15:20
+ **/
+@AllArgsConstructor
+@Getter
+public enum GatewayCallPhase {
+
+    /**
+     * 组装请求参数并签名
+     */
+    SIGN("sign"),
+
+    /**
+     * 从连接池获取连接，需要时建立连接（含 TLS 握手）；传输无法区分时计入 {@link #NETWORK}
+     */
+    CONNECT("connect"),
+
+    /**
+     * 发送请求并等待、读取网关响应
+     */
+    NETWORK("network"),
+
+    /**
+     * 解析响应并验签
+     */
+    PARSE("parse"),
+
+    /**
+     * 将网关响应转换为插件的响应对象
+     */
+    MAP("map");
+
+    /**
+     * 标签值
+     */
+    private final String tagValue;
+}
@@ -0,0 +1,147 @@
+package com.wind.payment.core.metrics;
+
+import com.wind.common.exception.AssertUtils;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 支付网关调用的分阶段计时器
+ * 各阶段按顺序执行，{@link #mark(GatewayCallPhase)} 将上一次标记（或开始）到现在的耗时计入指定阶段，同一阶段多次标记时累加；
+ * {@link #close()} 将剩余耗时计入 {@link GatewayCallPhase#MAP} 并通知监听器。
+ * 计时器在调用期间绑定到当前线程，供无法传参的位置（例如 SDK 内部的 http 请求）通过 {@link #current()} 获取。
+ * 未设置监听器时返回共享的空计时器，所有方法直接返回
+ *
+ * @author wuxp
+ * @date 2026-10-19 15:30
+ **/
+@Slf4j
+public final class GatewayCallTimer implements AutoCloseable {
+
+    private static final GatewayCallTimer NOOP = new GatewayCallTimer(null, null, null, null);
+
+    private static final ThreadLocal<GatewayCallTimer> CURRENT = new ThreadLocal<>();
+
+    private static volatile GatewayCallListener defaultListener = GatewayCallListener.NOOP;
+
+    private final GatewayCallListener listener;
+
+    private final String platform;
+
+    private final String operation;
+
+    /**
+     * 开始计时前绑定在当前线程的计时器
+     */
+    private final GatewayCallTimer previous;
+
+    private final long[] phaseNanos;
+
+    private final long startNanos;
+
+    private long lastNanos;
+
+    private int recordedPhases;
+
+    private boolean closed;
+
+    private GatewayCallTimer(GatewayCallListener listener, String platform, String operation, GatewayCallTimer previous) {
+        this.listener = listener;
+        this.platform = platform;
+        this.operation = operation;
+        this.previous = previous;
+        this.phaseNanos = listener == null ? null : new long[GatewayCallPhase.values().length];
+        this.startNanos = listener == null ? 0 : System.nanoTime();
+        this.lastNanos = startNanos;
+    }
+
+    /**
+     * 设置默认的监听器
+     *
+     * @param listener 监听器，{@link GatewayCallListener#NOOP} 表示关闭分阶段计时
+     */
+    public static void setDefaultListener(GatewayCallListener listener) {
+        AssertUtils.notNull(listener, "argument listener must not null");
+        defaultListener = listener;
+    }
+
+    /**
+     * 使用默认监听器开始计时
+     *
+     * @param platform  支付平台
+     * @param operation 网关操作
+     * @return 计时器
+     */
+    public static GatewayCallTimer start(String platform, String operation) {
+        return start(defaultListener, platform, operation);
+    }
+
+    /**
+     * 开始计时并绑定到当前线程
+     *
+     * @param listener  监听器
+     * @param platform  支付平台
+     * @param operation 网关操作
+     * @return 计时器，监听器为 {@link GatewayCallListener#NOOP} 时返回空计时器
+     */
+    public static GatewayCallTimer start(GatewayCallListener listener, String platform, String operation) {
+        if (listener == GatewayCallListener.NOOP) {
+            return NOOP;
+        }
+        GatewayCallTimer result = new GatewayCallTimer(listener, platform, operation, CURRENT.get());
+        CURRENT.set(result);
+        return result;
+    }
+
+    /**
+     * @return 当前线程绑定的计时器，没有时返回空计时器
+     */
+    public static GatewayCallTimer current() {
+        GatewayCallTimer result = CURRENT.get();
+        return result == null ? NOOP : result;
+    }
+
+    /**
+     * 将上一次标记到现在的耗时计入指定阶段
+     *
+     * @param phase 调用阶段
+     */
+    public void mark(GatewayCallPhase phase) {
+        if (listener == null || closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - lastNanos;
+        recordedPhases |= 1 << phase.ordinal();
+        lastNanos = now;
+    }
+
+    /**
+     * @return 是否在计时，空计时器返回 false
+     */
+    public boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * 将剩余耗时计入 {@link GatewayCallPhase#MAP}，解除线程绑定并通知监听器
+     */
+    @Override
+    public void close() {
+        if (listener == null || closed) {
+            return;
+        }
+        mark(GatewayCallPhase.MAP);
+        closed = true;
+        if (CURRENT.get() == this) {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+        try {
+            listener.onCompleted(new GatewayCallBreakdown(platform, operation, lastNanos - startNanos, phaseNanos, recordedPhases));
+        } catch (RuntimeException exception) {
+            log.warn("gateway call listener error, platform = {}, operation = {}", platform, operation, exception);
+        }
+    }
+}
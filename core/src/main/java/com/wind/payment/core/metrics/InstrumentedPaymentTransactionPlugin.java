@@ -0,0 +1,149 @@
+package com.wind.payment.core.metrics;
+
+import com.wind.payment.core.PaymentTransactionPlugin;
+import com.wind.payment.core.bill.TransactionBillIterator;
+import com.wind.payment.core.bill.TransactionBillProvider;
+import com.wind.payment.core.request.CloseTransactionOrderRequest;
+import com.wind.payment.core.request.DownloadTransactionBillRequest;
+import com.wind.payment.core.request.PaymentTransactionEventRequest;
+import com.wind.payment.core.request.PaymentTransactionRefundEventRequest;
+import com.wind.payment.core.request.PrePaymentOrderRequest;
+import com.wind.payment.core.request.QueryTransactionOrderRefundRequest;
+import com.wind.payment.core.request.QueryTransactionOrderRequest;
+import com.wind.payment.core.request.TransactionOrderRefundRequest;
+import com.wind.payment.core.response.CloseTransactionOrderResponse;
+import com.wind.payment.core.response.PrePaymentOrderResponse;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import com.wind.payment.core.webhook.PaymentTransactionNotification;
+import com.wind.payment.core.webhook.WebhookIdempotencyKey;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 记录调用指标的支付交易插件，由 {@link MicrometerPaymentTransactionPluginDecorator} 创建
+ * 被装饰的插件实现了 {@link TransactionBillProvider} 时使用 {@link BillProvider}，保持对账单下载能力
+ *
+ * @author wuxp
+ * @date 2026-10-19 14:50
+ **/
+public class InstrumentedPaymentTransactionPlugin implements PaymentTransactionPlugin, AutoCloseable {
+
+    @Getter
+    private final PaymentTransactionPlugin delegate;
+
+    private final MicrometerPaymentTransactionPluginDecorator.OperationMeters[] meters;
+
+    private final MicrometerPaymentTransactionPluginDecorator decorator;
+
+    InstrumentedPaymentTransactionPlugin(PaymentTransactionPlugin delegate,
+                                         MicrometerPaymentTransactionPluginDecorator.OperationMeters[] meters,
+                                         MicrometerPaymentTransactionPluginDecorator decorator) {
+        this.delegate = delegate;
+        this.meters = meters;
+        this.decorator = decorator;
+    }
+
+    @Override
+    public PrePaymentOrderResponse preOrder(PrePaymentOrderRequest request) {
+        return record(PaymentTransactionOperation.PRE_ORDER, () -> delegate.preOrder(request));
+    }
+
+    @Override
+    public QueryTransactionOrderResponse queryTransactionOrder(QueryTransactionOrderRequest request) {
+        return record(PaymentTransactionOperation.QUERY, () -> delegate.queryTransactionOrder(request));
+    }
+
+    @Override
+    public TransactionOrderRefundResponse transactionOrderRefund(TransactionOrderRefundRequest request) {
+        return record(PaymentTransactionOperation.REFUND, () -> delegate.transactionOrderRefund(request));
+    }
+
+    @Override
+    public TransactionOrderRefundResponse queryTransactionOrderRefund(QueryTransactionOrderRefundRequest request) {
+        return record(PaymentTransactionOperation.QUERY_REFUND, () -> delegate.queryTransactionOrderRefund(request));
+    }
+
+    @Override
+    public CloseTransactionOrderResponse closeTransactionOrder(CloseTransactionOrderRequest request) {
+        return record(PaymentTransactionOperation.CLOSE, () -> delegate.closeTransactionOrder(request));
+    }
+
+    @Override
+    public QueryTransactionOrderResponse onPaymentEvent(PaymentTransactionEventRequest request) {
+        return record(PaymentTransactionOperation.ON_PAYMENT_EVENT, () -> delegate.onPaymentEvent(request));
+    }
+
+    @Override
+    public TransactionOrderRefundResponse onRefundEvent(PaymentTransactionRefundEventRequest request) {
+        return record(PaymentTransactionOperation.ON_REFUND_EVENT, () -> delegate.onRefundEvent(request));
+    }
+
+    @Override
+    public PaymentTransactionNotification parsePaymentEvent(Object rawRequest) {
+        return delegate.parsePaymentEvent(rawRequest);
+    }
+
+    @Override
+    public PaymentTransactionNotification parseRefundEvent(Object rawRequest) {
+        return delegate.parseRefundEvent(rawRequest);
+    }
+
+    @Override
+    public Object getWebHookResponse(boolean isSuccessful) {
+        return delegate.getWebHookResponse(isSuccessful);
+    }
+
+    @Override
+    public WebhookIdempotencyKey getIdempotencyKey(Object rawRequest) {
+        return delegate.getIdempotencyKey(rawRequest);
+    }
+
+    @Override
+    public Object getPartnerKey() {
+        return delegate.getPartnerKey();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    <T> T record(PaymentTransactionOperation operation, Supplier<T> action) {
+        MicrometerPaymentTransactionPluginDecorator.OperationMeters operationMeters = meters[operation.ordinal()];
+        operationMeters.inFlight.incrementAndGet();
+        long startTime = System.nanoTime();
+        try {
+            T result = action.get();
+            operationMeters.successTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException | Error throwable) {
+            operationMeters.errorTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            operationMeters.errorCounter(decorator.getErrorCodeTag(throwable)).increment();
+            throw throwable;
+        } finally {
+            operationMeters.inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * 同时提供对账单下载的插件
+     */
+    public static class BillProvider extends InstrumentedPaymentTransactionPlugin implements TransactionBillProvider {
+
+        BillProvider(PaymentTransactionPlugin delegate, MicrometerPaymentTransactionPluginDecorator.OperationMeters[] meters,
+                     MicrometerPaymentTransactionPluginDecorator decorator) {
+            super(delegate, meters, decorator);
+        }
+
+        @Override
+        public TransactionBillIterator downloadTransactionBill(DownloadTransactionBillRequest request) {
+            TransactionBillProvider provider = (TransactionBillProvider) getDelegate();
+            return record(PaymentTransactionOperation.DOWNLOAD_BILL, () -> provider.downloadTransactionBill(request));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.wind.payment.core.metrics;
+
+import com.wind.common.exception.AssertUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 将支付网关调用的各阶段耗时汇总为 Micrometer 耗时分布
+ * 指标 {@value #PHASE_METER_NAME} 的标签为 platform、operation、phase，未记录的阶段不计入；
+ * operation 取值与插件调用指标一致，为 {@link PaymentTransactionOperation#getTagValue()}
+ *
+ * @author wuxp
+ * @date 2026-10-19 15:45
+ **/
+public class MicrometerGatewayCallListener implements GatewayCallListener {
+
+    public static final String PHASE_METER_NAME = "payment.gateway.call.phase";
+
+    private static final GatewayCallPhase[] PHASES = GatewayCallPhase.values();
+
+    private final MeterRegistry registry;
+
+    /**
+     * key 为 platform + operation，value 按 {@link GatewayCallPhase#ordinal()} 排列
+     */
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public MicrometerGatewayCallListener(MeterRegistry registry) {
+        AssertUtils.notNull(registry, "argument registry must not null");
+        this.registry = registry;
+    }
+
+    @Override
+    public void onCompleted(GatewayCallBreakdown breakdown) {
+        Timer[] phaseTimers = timers.computeIfAbsent(breakdown.getPlatform() + ':' + breakdown.getOperation(),
+                key -> buildTimers(breakdown.getPlatform(), breakdown.getOperation()));
+        for (GatewayCallPhase phase : PHASES) {
+            if (breakdown.isRecorded(phase)) {
+                phaseTimers[phase.ordinal()].record(breakdown.getPhaseNanos(phase), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Timer[] buildTimers(String platform, String operation) {
+        Timer[] result = new Timer[PHASES.length];
+        for (GatewayCallPhase phase : PHASES) {
+            result[phase.ordinal()] = Timer.builder(PHASE_METER_NAME)
+                    .description("payment gateway call latency by phase")
+                    .tag("platform", platform)
+                    .tag("operation", operation)
+                    .tag("phase", phase.getTagValue())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(10_000))
+                    .maximumExpectedValue(Duration.ofSeconds(60))
+                    .register(registry);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,212 @@
+package com.wind.payment.core.metrics;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.PaymentTransactionPlatform;
+import com.wind.payment.core.PaymentTransactionPlugin;
+import com.wind.payment.core.PaymentTransactionPluginDecorator;
+import com.wind.payment.core.PaymentTransactionScene;
+import com.wind.payment.core.bill.TransactionBillProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 Micrometer 的支付交易插件指标装饰器
+ * 记录各操作的耗时分布（同时作为吞吐量）、按支付平台错误码区分的错误次数与正在执行的调用数量，
+ * 标签为 platform、scene、operation（{@link PaymentTransactionOperation#getTagValue()}）、merchant；
+ * merchant 与 error_code 标签的取值数量有上限，超出的取值统一记为 {@value #OTHER_TAG_VALUE}。
+ * 耗时默认发布百分位直方图，直方图的数量受 merchant 标签上限约束，也可以通过构造参数关闭
+ *
+ * @author wuxp
+ * @date 2026-10-19 14:35
+ **/
+public class MicrometerPaymentTransactionPluginDecorator implements PaymentTransactionPluginDecorator {
+
+    public static final String REQUESTS_METER_NAME = "payment.transaction.plugin.requests";
+
+    public static final String ERRORS_METER_NAME = "payment.transaction.plugin.errors";
+
+    public static final String IN_FLIGHT_METER_NAME = "payment.transaction.plugin.in.flight";
+
+    static final String OTHER_TAG_VALUE = "other";
+
+    private static final String UNKNOWN_TAG_VALUE = "unknown";
+
+    private static final int DEFAULT_MAX_MERCHANT_TAGS = 100;
+
+    private static final int DEFAULT_MAX_ERROR_CODE_TAGS = 128;
+
+    private static final int MAX_CAUSE_DEPTH = 8;
+
+    private final MeterRegistry registry;
+
+    private final TagValueLimiter merchantTags;
+
+    private final TagValueLimiter errorCodeTags;
+
+    private final boolean publishPercentileHistogram;
+
+    /**
+     * 插件重建（例如商户配置变更）后沿用同一组指标，正在执行的调用数量也由此处强引用，避免 gauge 被回收
+     */
+    private final Map<Tags, OperationMeters> operationMeters = new ConcurrentHashMap<>();
+
+    public MicrometerPaymentTransactionPluginDecorator(MeterRegistry registry) {
+        this(registry, DEFAULT_MAX_MERCHANT_TAGS, DEFAULT_MAX_ERROR_CODE_TAGS);
+    }
+
+    /**
+     * @param registry         指标注册表
+     * @param maxMerchantTags  merchant 标签的最大取值数量，为 0 时不区分商户
+     * @param maxErrorCodeTags error_code 标签的最大取值数量
+     */
+    public MicrometerPaymentTransactionPluginDecorator(MeterRegistry registry, int maxMerchantTags, int maxErrorCodeTags) {
+        this(registry, maxMerchantTags, maxErrorCodeTags, true);
+    }
+
+    /**
+     * @param registry                   指标注册表
+     * @param maxMerchantTags            merchant 标签的最大取值数量，为 0 时不区分商户
+     * @param maxErrorCodeTags           error_code 标签的最大取值数量
+     * @param publishPercentileHistogram 是否发布耗时的百分位直方图，为 false 时只记录次数、总耗时与最大耗时
+     */
+    public MicrometerPaymentTransactionPluginDecorator(MeterRegistry registry, int maxMerchantTags, int maxErrorCodeTags,
+                                                       boolean publishPercentileHistogram) {
+        AssertUtils.notNull(registry, "argument registry must not null");
+        AssertUtils.isTrue(maxMerchantTags >= 0, "argument maxMerchantTags must not less than 0");
+        AssertUtils.isTrue(maxErrorCodeTags > 0, "argument maxErrorCodeTags must greater than 0");
+        this.registry = registry;
+        this.merchantTags = new TagValueLimiter(maxMerchantTags);
+        this.errorCodeTags = new TagValueLimiter(maxErrorCodeTags);
+        this.publishPercentileHistogram = publishPercentileHistogram;
+    }
+
+    @Override
+    public PaymentTransactionPlugin decorate(String partnerId, PaymentTransactionPlatform platform, PaymentTransactionScene scene,
+                                             PaymentTransactionPlugin plugin) {
+        Tags tags = Tags.of("platform", platform.name(), "scene", scene.name(), "merchant", merchantTags.apply(partnerId));
+        OperationMeters[] meters = new OperationMeters[PaymentTransactionOperation.values().length];
+        for (PaymentTransactionOperation operation : PaymentTransactionOperation.values()) {
+            meters[operation.ordinal()] = operationMeters.computeIfAbsent(tags.and("operation", operation.getTagValue()),
+                    this::buildOperationMeters);
+        }
+        if (plugin instanceof TransactionBillProvider) {
+            return new InstrumentedPaymentTransactionPlugin.BillProvider(plugin, meters, this);
+        }
+        return new InstrumentedPaymentTransactionPlugin(plugin, meters, this);
+    }
+
+    /**
+     * 从异常链中提取错误码：优先使用 {@link PaymentTransactionException#getGatewayErrorCode()}，否则使用根异常的类名
+     *
+     * @param throwable 调用异常
+     * @return error_code 标签值
+     */
+    String getErrorCodeTag(Throwable throwable) {
+        Throwable root = throwable;
+        for (int i = 0; root != null && i < MAX_CAUSE_DEPTH; i++) {
+            if (root instanceof PaymentTransactionException exception && StringUtils.hasLength(exception.getGatewayErrorCode())) {
+                return errorCodeTags.apply(exception.getGatewayErrorCode());
+            }
+            if (root.getCause() == null || root.getCause() == root) {
+                break;
+            }
+            root = root.getCause();
+        }
+        return errorCodeTags.apply(root == null ? null : root.getClass().getSimpleName());
+    }
+
+    private OperationMeters buildOperationMeters(Tags tags) {
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder(IN_FLIGHT_METER_NAME, inFlight, AtomicInteger::get)
+                .description("payment transaction plugin calls in flight")
+                .tags(tags)
+                .register(registry);
+        return new OperationMeters(tags, buildTimer(tags, "success"), buildTimer(tags, "error"), inFlight);
+    }
+
+    private Timer buildTimer(Tags tags, String outcome) {
+        return Timer.builder(REQUESTS_METER_NAME)
+                .description("payment transaction plugin call latency")
+                .tags(tags)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram(publishPercentileHistogram)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(60))
+                .register(registry);
+    }
+
+    /**
+     * 单个操作的指标
+     */
+    final class OperationMeters {
+
+        private final Tags tags;
+
+        final Timer successTimer;
+
+        final Timer errorTimer;
+
+        final AtomicInteger inFlight;
+
+        private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+
+        private OperationMeters(Tags tags, Timer successTimer, Timer errorTimer, AtomicInteger inFlight) {
+            this.tags = tags;
+            this.successTimer = successTimer;
+            this.errorTimer = errorTimer;
+            this.inFlight = inFlight;
+        }
+
+        Counter errorCounter(String errorCode) {
+            return errorCounters.computeIfAbsent(errorCode, code -> Counter.builder(ERRORS_METER_NAME)
+                    .description("payment transaction plugin call errors by gateway error code")
+                    .tags(tags)
+                    .tag("error_code", code)
+                    .register(registry));
+        }
+    }
+
+    /**
+     * 限制标签取值数量，先到先得
+     */
+    static final class TagValueLimiter {
+
+        private final int maxSize;
+
+        private final Set<String> values = ConcurrentHashMap.newKeySet();
+
+        TagValueLimiter(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        String apply(String value) {
+            if (!StringUtils.hasLength(value)) {
+                return UNKNOWN_TAG_VALUE;
+            }
+            if (maxSize == 0) {
+                return OTHER_TAG_VALUE;
+            }
+            if (values.contains(value)) {
+                return value;
+            }
+            synchronized (values) {
+                if (values.contains(value) || values.size() < maxSize) {
+                    values.add(value);
+                    return value;
+                }
+            }
+            return OTHER_TAG_VALUE;
+        }
+    }
+}
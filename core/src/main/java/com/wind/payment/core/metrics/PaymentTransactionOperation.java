@@ -0,0 +1,36 @@
+package com.wind.payment.core.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 支付交易插件操作，作为指标的 operation 标签
+ *
+ * @author wuxp
+ * @date 2026-10-19 14:30
+ **/
+@AllArgsConstructor
+@Getter
+public enum PaymentTransactionOperation {
+
+    PRE_ORDER("preOrder"),
+
+    QUERY("query"),
+
+    REFUND("refund"),
+
+    QUERY_REFUND("queryRefund"),
+
+    CLOSE("close"),
+
+    ON_PAYMENT_EVENT("onPaymentEvent"),
+
+    ON_REFUND_EVENT("onRefundEvent"),
+
+    DOWNLOAD_BILL("downloadBill");
+
+    /**
+     * 标签值
+     */
+    private final String tagValue;
+}
@@ -0,0 +1,270 @@
+package com.wind.payment.core.polling;
+
+import com.wind.common.exception.AssertUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 哈希时间轮
+ * 单个工作线程按 tick 推进，新增与取消都是 O(1)；到期任务交给 taskExecutor 执行，工作线程不执行任何业务逻辑。
+ * 适合管理大量精度要求不高（tick 级别）的定时任务
+ *
+ * @author wuxp
+ * @date 2026-10-18 20:30
+ **/
+@Slf4j
+public final class HashedTimingWheel implements AutoCloseable {
+
+    private static final int STATE_WAITING = 0;
+
+    private static final int STATE_CANCELLED = 1;
+
+    private static final int STATE_EXPIRED = 2;
+
+    private final long tickNanos;
+
+    private final int mask;
+
+    private final Bucket[] wheel;
+
+    private final Executor taskExecutor;
+
+    /**
+     * 新增的定时任务，由工作线程在每个 tick 开始时放入对应的槽
+     */
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final Thread worker;
+
+    private final long startNanos;
+
+    private volatile boolean closed = false;
+
+    /**
+     * @param tickDuration  tick 时长
+     * @param ticksPerWheel 时间轮的槽数，会向上取整为 2 的幂
+     * @param taskExecutor  到期任务执行器
+     */
+    public HashedTimingWheel(Duration tickDuration, int ticksPerWheel, Executor taskExecutor) {
+        AssertUtils.notNull(tickDuration, "argument tickDuration must not null");
+        AssertUtils.isTrue(!tickDuration.isNegative() && !tickDuration.isZero(), "argument tickDuration must greater than 0");
+        AssertUtils.isTrue(ticksPerWheel > 0 && ticksPerWheel <= 1 << 20, "argument ticksPerWheel must in (0, 2^20]");
+        AssertUtils.notNull(taskExecutor, "argument taskExecutor must not null");
+        this.tickNanos = tickDuration.toNanos();
+        int wheelSize = 1;
+        while (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+        this.mask = wheelSize - 1;
+        this.wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.taskExecutor = taskExecutor;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, "payment-transaction-timing-wheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 新增定时任务
+     *
+     * @param task  任务
+     * @param delay 延迟时间
+     * @return 定时任务句柄
+     */
+    public Timeout newTimeout(Runnable task, Duration delay) {
+        AssertUtils.notNull(task, "argument task must not null");
+        AssertUtils.notNull(delay, "argument delay must not null");
+        AssertUtils.isTrue(!closed, "timing wheel is closed");
+        long deadline = System.nanoTime() - startNanos + Math.max(0, delay.toNanos());
+        Timeout result = new Timeout(this, task, deadline);
+        pendingCount.incrementAndGet();
+        pendingTimeouts.add(result);
+        return result;
+    }
+
+    /**
+     * @return 尚未到期且未取消的任务数量
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (!closed) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            transferPendingTimeouts(tick);
+            expireTimeouts(wheel[(int) (tick & mask)], deadline);
+            tick++;
+        }
+    }
+
+    private void transferPendingTimeouts(long tick) {
+        // 每个 tick 最多转移固定数量，避免大量新增任务时阻塞时间轮推进
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() == STATE_CANCELLED) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // 已经过期的任务放入当前槽，在本 tick 执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(Bucket bucket, long deadline) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.state.get() == STATE_CANCELLED) {
+                bucket.remove(timeout);
+            } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                bucket.remove(timeout);
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            taskExecutor.execute(task);
+        } catch (RejectedExecutionException exception) {
+            log.warn("timing wheel task rejected", exception);
+        }
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public static final class Timeout {
+
+        private final HashedTimingWheel timingWheel;
+
+        private final Runnable task;
+
+        /**
+         * 相对时间轮启动时间的到期时间
+         */
+        private final long deadline;
+
+        private final AtomicInteger state = new AtomicInteger(STATE_WAITING);
+
+        private long remainingRounds;
+
+        private Timeout next;
+
+        private Timeout prev;
+
+        private Timeout(HashedTimingWheel timingWheel, Runnable task, long deadline) {
+            this.timingWheel = timingWheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消定时任务，已到期的任务无法取消
+         *
+         * @return 是否取消成功
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(STATE_WAITING, STATE_CANCELLED)) {
+                // 取消的任务由工作线程在经过对应的槽时移除
+                timingWheel.pendingCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == STATE_EXPIRED;
+        }
+
+        /**
+         * @return 剩余延迟时间
+         */
+        public Duration getRemaining() {
+            long remaining = deadline - (System.nanoTime() - timingWheel.startNanos);
+            return Duration.ofNanos(Math.max(0, remaining));
+        }
+
+        private void expire() {
+            if (state.compareAndSet(STATE_WAITING, STATE_EXPIRED)) {
+                timingWheel.pendingCount.decrementAndGet();
+                timingWheel.execute(task);
+            }
+        }
+    }
+
+    /**
+     * 时间轮槽，只由工作线程访问
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.next = null;
+            timeout.prev = null;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.wind.payment.core.polling;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.core.DefaultAsyncPaymentTransactionPlugin;
+import com.wind.payment.core.PaymentTransactionPlugin;
+import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.payment.core.request.QueryTransactionOrderRefundRequest;
+import com.wind.payment.core.request.QueryTransactionOrderRequest;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 交易状态轮询器
+ * 对支付中、等待退款等中间状态的交易按退避策略定时查询，查询到终态、收到 webhook 通知或退避策略放弃时停止。
+ * 调度基于 {@link HashedTimingWheel}，每笔交易只占用一个轮询任务与一个定时任务句柄，可同时跟踪数十万笔交易
+ *
+ * @author wuxp
+ * @date 2026-10-18 20:50
+ **/
+@Slf4j
+public class PaymentTransactionStatePoller implements AutoCloseable {
+
+    private static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(100);
+
+    private static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    private final HashedTimingWheel timingWheel;
+
+    private final PollingBackoffPolicy backoffPolicy;
+
+    /**
+     * transactionSn -> 交易单轮询任务
+     */
+    private final Map<String, PollingTask<?>> orderTasks = new ConcurrentHashMap<>();
+
+    /**
+     * transactionRefundSn -> 退款轮询任务
+     */
+    private final Map<String, PollingTask<?>> refundTasks = new ConcurrentHashMap<>();
+
+    public PaymentTransactionStatePoller() {
+        this(DefaultAsyncPaymentTransactionPlugin.defaultExecutor(), PollingBackoffPolicy.defaults());
+    }
+
+    public PaymentTransactionStatePoller(Executor executor, PollingBackoffPolicy backoffPolicy) {
+        this(executor, backoffPolicy, DEFAULT_TICK_DURATION, DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * @param executor      查询执行器
+     * @param backoffPolicy 退避策略
+     * @param tickDuration  时间轮 tick 时长，即轮询时间精度
+     * @param ticksPerWheel 时间轮槽数
+     */
+    public PaymentTransactionStatePoller(Executor executor, PollingBackoffPolicy backoffPolicy, Duration tickDuration, int ticksPerWheel) {
+        AssertUtils.notNull(backoffPolicy, "argument backoffPolicy must not null");
+        this.timingWheel = new HashedTimingWheel(tickDuration, ticksPerWheel, executor);
+        this.backoffPolicy = backoffPolicy;
+    }
+
+    /**
+     * 轮询交易单状态，同一 transactionSn 重复提交时替换之前的轮询
+     *
+     * @param plugin   支付插件
+     * @param request  查询请求
+     * @param listener 监听器
+     */
+    public void pollTransactionOrder(PaymentTransactionPlugin plugin, QueryTransactionOrderRequest request,
+                                     TransactionStatePollingListener<QueryTransactionOrderResponse> listener) {
+        AssertUtils.notNull(plugin, "argument plugin must not null");
+        AssertUtils.hasLength(request.getTransactionSn(), "argument transactionSn must not empty");
+        AssertUtils.notNull(listener, "argument listener must not null");
+        schedule(new PollingTask<>(orderTasks, request.getTransactionSn(), () -> plugin.queryTransactionOrder(request),
+                QueryTransactionOrderResponse::getTransactionState, listener));
+    }
+
+    /**
+     * 轮询退款状态，同一退款流水号重复提交时替换之前的轮询
+     *
+     * @param plugin   支付插件
+     * @param request  查询请求
+     * @param listener 监听器
+     */
+    public void pollTransactionOrderRefund(PaymentTransactionPlugin plugin, QueryTransactionOrderRefundRequest request,
+                                           TransactionStatePollingListener<TransactionOrderRefundResponse> listener) {
+        AssertUtils.notNull(plugin, "argument plugin must not null");
+        AssertUtils.hasLength(request.getRequestRefundSn(), "argument requestRefundSn must not empty");
+        AssertUtils.notNull(listener, "argument listener must not null");
+        schedule(new PollingTask<>(refundTasks, request.getRequestRefundSn(), () -> plugin.queryTransactionOrderRefund(request),
+                TransactionOrderRefundResponse::getTransactionState, listener));
+    }
+
+    /**
+     * 收到支付通知，停止对应交易单的轮询
+     *
+     * @param transactionSn 交易流水号
+     * @return 是否停止了轮询
+     */
+    public boolean onPaymentEvent(String transactionSn) {
+        return stop(orderTasks.get(transactionSn));
+    }
+
+    /**
+     * 收到退款通知，停止对应退款的轮询
+     *
+     * @param transactionRefundSn 退款流水号
+     * @return 是否停止了轮询
+     */
+    public boolean onRefundEvent(String transactionRefundSn) {
+        return stop(refundTasks.get(transactionRefundSn));
+    }
+
+    /**
+     * @return 正在轮询的交易数量
+     */
+    public int getPollingCount() {
+        return orderTasks.size() + refundTasks.size();
+    }
+
+    @Override
+    public void close() {
+        timingWheel.close();
+        orderTasks.values().forEach(PollingTask::stop);
+        refundTasks.values().forEach(PollingTask::stop);
+    }
+
+    private void schedule(PollingTask<?> task) {
+        PollingTask<?> previous = task.tasks.put(task.key, task);
+        if (previous != null) {
+            previous.stop();
+        }
+        task.scheduleNext(null, null);
+    }
+
+    private static boolean stop(PollingTask<?> task) {
+        return task != null && task.stop();
+    }
+
+    private final class PollingTask<R> implements Runnable {
+
+        private final Map<String, PollingTask<?>> tasks;
+
+        private final String key;
+
+        private final Supplier<R> query;
+
+        private final Function<R, PaymentTransactionState> stateGetter;
+
+        private final TransactionStatePollingListener<R> listener;
+
+        private int attempt = 0;
+
+        private volatile HashedTimingWheel.Timeout timeout;
+
+        private final AtomicBoolean stopped = new AtomicBoolean(false);
+
+        private PollingTask(Map<String, PollingTask<?>> tasks, String key, Supplier<R> query, Function<R, PaymentTransactionState> stateGetter,
+                            TransactionStatePollingListener<R> listener) {
+            this.tasks = tasks;
+            this.key = key;
+            this.query = query;
+            this.stateGetter = stateGetter;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            if (stopped.get()) {
+                return;
+            }
+            attempt++;
+            R response = null;
+            Throwable error = null;
+            try {
+                response = query.get();
+            } catch (Exception exception) {
+                error = exception;
+                log.warn("poll transaction state error, key = {}, attempt = {}", key, attempt, exception);
+            }
+            // 查询期间可能已收到 webhook 通知
+            if (stopped.get()) {
+                return;
+            }
+            PaymentTransactionState state = response == null ? null : stateGetter.apply(response);
+            if (state != null && state.isTerminal()) {
+                if (stop()) {
+                    listener.onCompleted(response);
+                }
+                return;
+            }
+            scheduleNext(response, error);
+        }
+
+        private void scheduleNext(R lastResponse, Throwable lastError) {
+            Duration delay = backoffPolicy.nextDelay(attempt);
+            if (delay == null) {
+                if (stop()) {
+                    listener.onExhausted(lastResponse, lastError);
+                }
+                return;
+            }
+            timeout = timingWheel.newTimeout(this, delay);
+            if (stopped.get()) {
+                // 与 stop 并发时确保定时任务被取消
+                timeout.cancel();
+            }
+        }
+
+        private boolean stop() {
+            if (!stopped.compareAndSet(false, true)) {
+                return false;
+            }
+            HashedTimingWheel.Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+            tasks.remove(key, this);
+            return true;
+        }
+    }
+}
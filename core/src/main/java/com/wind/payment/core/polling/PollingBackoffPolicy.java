@@ -0,0 +1,57 @@
+package com.wind.payment.core.polling;
+
+import com.wind.common.exception.AssertUtils;
+
+import java.time.Duration;
+
+/**
+ * 交易状态轮询退避策略
+ *
+ * @author wuxp
+ * @date 2026-10-18 20:45
+ **/
+@FunctionalInterface
+public interface PollingBackoffPolicy {
+
+    /**
+     * @param attempt 已完成的查询次数，首次查询前为 0
+     * @return 下一次查询前的等待时间，返回 null 表示放弃轮询
+     */
+    Duration nextDelay(int attempt);
+
+    /**
+     * 默认策略：前 5 次每 2 秒查询一次，之后按 2 倍递增到 1 分钟，最多查询 30 次
+     */
+    static PollingBackoffPolicy defaults() {
+        return exponential(Duration.ofSeconds(2), 5, 2.0, Duration.ofMinutes(1), 30);
+    }
+
+    /**
+     * 先快速查询若干次，之后指数退避
+     *
+     * @param fastInterval 快速查询间隔，也是指数退避的初始间隔
+     * @param fastAttempts 快速查询次数
+     * @param multiplier   退避倍数
+     * @param maxInterval  最大查询间隔
+     * @param maxAttempts  最大查询次数
+     * @return 退避策略
+     */
+    static PollingBackoffPolicy exponential(Duration fastInterval, int fastAttempts, double multiplier, Duration maxInterval, int maxAttempts) {
+        AssertUtils.notNull(fastInterval, "argument fastInterval must not null");
+        AssertUtils.notNull(maxInterval, "argument maxInterval must not null");
+        AssertUtils.isTrue(multiplier >= 1, "argument multiplier must greater than or equal to 1");
+        AssertUtils.isTrue(maxAttempts > 0, "argument maxAttempts must greater than 0");
+        long fastNanos = fastInterval.toNanos();
+        long maxNanos = maxInterval.toNanos();
+        return attempt -> {
+            if (attempt >= maxAttempts) {
+                return null;
+            }
+            if (attempt < fastAttempts) {
+                return fastInterval;
+            }
+            double nanos = fastNanos * Math.pow(multiplier, attempt - fastAttempts + 1);
+            return Duration.ofNanos((long) Math.min(nanos, maxNanos));
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.wind.payment.core.polling;
+
+/**
+ * 交易状态轮询监听器，在轮询执行线程中回调
+ *
+ * @author wuxp
+ * @date 2026-10-18 20:48
+ **/
+@FunctionalInterface
+public interface TransactionStatePollingListener<R> {
+
+    /**
+     * 查询到终态
+     *
+     * @param response 查询响应
+     */
+    void onCompleted(R response);
+
+    /**
+     * 按退避策略放弃轮询
+     *
+     * @param lastResponse 最后一次查询的响应，查询异常时为 null
+     * @param lastError    最后一次查询的异常，查询成功时为 null
+     */
+    default void onExhausted(R lastResponse, Throwable lastError) {
+    }
+}
@@ -0,0 +1,252 @@
+package com.wind.payment.core.reconciliation;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.DefaultAsyncPaymentTransactionPlugin;
+import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.bill.TransactionBillRecord;
+import com.wind.payment.core.enums.PaymentTransactionState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * 基于外部排序的对账器
+ * 支付平台账单与本地交易记录分别外部排序（两侧并行，块内多核排序，超出内存预算时溢写磁盘），再按连接 key 归并，
+ * 同一 key 的记录在段内配对，输出缺失、金额不一致、状态不一致的差异。内存占用受 {@link #memoryBudgetBytes} 约束，与数据量无关
+ *
+ * @author wuxp
+ * @date 2026-10-18 20:10
+ **/
+public class ExternalSortReconciler {
+
+    private static final long DEFAULT_MEMORY_BUDGET_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * 退款状态在账单与本地记录中可能分别记录为全额或部分退款，视为一致
+     */
+    private static final Set<PaymentTransactionState> REFUNDED_STATES = Set.of(PaymentTransactionState.REFUNDED,
+            PaymentTransactionState.PARTIAL_REFUND);
+
+    private static final BiPredicate<PaymentTransactionState, PaymentTransactionState> DEFAULT_STATE_MATCHER =
+            (gateway, local) -> gateway == local || (REFUNDED_STATES.contains(gateway) && REFUNDED_STATES.contains(local));
+
+    /**
+     * 排序使用的内存预算，两侧各占一半
+     */
+    private final long memoryBudgetBytes;
+
+    /**
+     * 溢写文件目录
+     */
+    private final Path tempDirectory;
+
+    /**
+     * 状态匹配规则（支付平台状态, 本地状态）
+     */
+    private final BiPredicate<PaymentTransactionState, PaymentTransactionState> stateMatcher;
+
+    public ExternalSortReconciler() {
+        this(DEFAULT_MEMORY_BUDGET_BYTES, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    public ExternalSortReconciler(long memoryBudgetBytes, Path tempDirectory) {
+        this(memoryBudgetBytes, tempDirectory, DEFAULT_STATE_MATCHER);
+    }
+
+    public ExternalSortReconciler(long memoryBudgetBytes, Path tempDirectory, BiPredicate<PaymentTransactionState, PaymentTransactionState> stateMatcher) {
+        AssertUtils.isTrue(memoryBudgetBytes > 0, "argument memoryBudgetBytes must greater than 0");
+        AssertUtils.notNull(tempDirectory, "argument tempDirectory must not null");
+        AssertUtils.notNull(stateMatcher, "argument stateMatcher must not null");
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.tempDirectory = tempDirectory;
+        this.stateMatcher = stateMatcher;
+    }
+
+    /**
+     * 对账
+     *
+     * @param gatewayRecords 支付平台账单记录
+     * @param localRecords   本地交易记录
+     * @param consumer       差异消费者，按连接 key 顺序回调
+     * @return 对账结果汇总
+     */
+    public ReconciliationResult reconcile(Iterator<TransactionBillRecord> gatewayRecords, Iterator<TransactionBillRecord> localRecords,
+                                          Consumer<ReconciliationMismatch> consumer) {
+        AssertUtils.notNull(gatewayRecords, "argument gatewayRecords must not null");
+        AssertUtils.notNull(localRecords, "argument localRecords must not null");
+        AssertUtils.notNull(consumer, "argument consumer must not null");
+        ExternalSorter sorter = new ExternalSorter(memoryBudgetBytes / 2, tempDirectory);
+        // 本地记录在另一个线程排序，与账单排序并行
+        CompletableFuture<ExternalSorter.SortedEntries> localFuture = CompletableFuture.supplyAsync(() -> sortQuietly(sorter, localRecords),
+                DefaultAsyncPaymentTransactionPlugin.defaultExecutor());
+        ExternalSorter.SortedEntries gateway;
+        try {
+            gateway = sorter.sort(gatewayRecords);
+        } catch (IOException | RuntimeException exception) {
+            localFuture.thenAccept(ExternalSorter.SortedEntries::close);
+            throw asTransactionException(exception);
+        }
+        try (gateway; ExternalSorter.SortedEntries local = joinQuietly(localFuture)) {
+            return mergeJoin(gateway, local, consumer);
+        } catch (UncheckedIOException exception) {
+            throw asTransactionException(exception.getCause());
+        }
+    }
+
+    private ReconciliationResult mergeJoin(ExternalSorter.SortedEntries gateway, ExternalSorter.SortedEntries local,
+                                           Consumer<ReconciliationMismatch> consumer) {
+        RunJoiner joiner = new RunJoiner(consumer);
+        // 同一连接 key 的记录（一笔交易的支付与退款）数量有限，按 key 分段缓存后在段内配对
+        List<ReconciliationEntry> gatewayRun = new ArrayList<>();
+        List<ReconciliationEntry> localRun = new ArrayList<>();
+        ReconciliationEntry gatewayEntry = nextOrNull(gateway);
+        ReconciliationEntry localEntry = nextOrNull(local);
+        while (gatewayEntry != null || localEntry != null) {
+            // 缺少连接 key 的记录无法配对，null key 排在最前，直接输出
+            if (gatewayEntry != null && gatewayEntry.joinKey() == null) {
+                joiner.missingLocal(gatewayEntry);
+                gatewayEntry = nextOrNull(gateway);
+                continue;
+            }
+            if (localEntry != null && localEntry.joinKey() == null) {
+                joiner.missingGateway(localEntry);
+                localEntry = nextOrNull(local);
+                continue;
+            }
+            String joinKey;
+            if (gatewayEntry == null || localEntry == null) {
+                joinKey = gatewayEntry == null ? localEntry.joinKey() : gatewayEntry.joinKey();
+            } else {
+                joinKey = gatewayEntry.joinKey().compareTo(localEntry.joinKey()) <= 0 ? gatewayEntry.joinKey() : localEntry.joinKey();
+            }
+            while (gatewayEntry != null && joinKey.equals(gatewayEntry.joinKey())) {
+                gatewayRun.add(gatewayEntry);
+                gatewayEntry = nextOrNull(gateway);
+            }
+            while (localEntry != null && joinKey.equals(localEntry.joinKey())) {
+                localRun.add(localEntry);
+                localEntry = nextOrNull(local);
+            }
+            joiner.join(gatewayRun, localRun);
+            gatewayRun.clear();
+            localRun.clear();
+        }
+        return new ReconciliationResult(gateway.getCount(), local.getCount(), joiner.matched, joiner.mismatched);
+    }
+
+    private ReconciliationMismatchType compare(ReconciliationEntry gatewayEntry, ReconciliationEntry localEntry) {
+        if (gatewayEntry.amount() != localEntry.amount()) {
+            return ReconciliationMismatchType.AMOUNT_MISMATCH;
+        }
+        if (!stateMatcher.test(gatewayEntry.transactionState(), localEntry.transactionState())) {
+            return ReconciliationMismatchType.STATE_MISMATCH;
+        }
+        return null;
+    }
+
+    /**
+     * 同一连接 key 内的配对：支付记录与支付记录、退款记录与退款流水号相同的退款记录配对，
+     * 优先选择金额与状态都一致的记录，未配对的记录视为对方缺失
+     */
+    private final class RunJoiner {
+
+        private final Consumer<ReconciliationMismatch> consumer;
+
+        private long matched;
+
+        private long mismatched;
+
+        private RunJoiner(Consumer<ReconciliationMismatch> consumer) {
+            this.consumer = consumer;
+        }
+
+        private void join(List<ReconciliationEntry> gatewayRun, List<ReconciliationEntry> localRun) {
+            for (ReconciliationEntry gatewayEntry : gatewayRun) {
+                ReconciliationEntry localEntry = removePaired(gatewayEntry, localRun);
+                if (localEntry == null) {
+                    missingLocal(gatewayEntry);
+                    continue;
+                }
+                ReconciliationMismatchType type = compare(gatewayEntry, localEntry);
+                if (type == null) {
+                    matched++;
+                } else {
+                    accept(new ReconciliationMismatch(type, gatewayEntry, localEntry));
+                }
+            }
+            localRun.forEach(this::missingGateway);
+        }
+
+        private ReconciliationEntry removePaired(ReconciliationEntry gatewayEntry, List<ReconciliationEntry> localRun) {
+            int candidate = -1;
+            for (int i = 0; i < localRun.size(); i++) {
+                ReconciliationEntry localEntry = localRun.get(i);
+                if (!gatewayEntry.isSameTransaction(localEntry)) {
+                    continue;
+                }
+                if (compare(gatewayEntry, localEntry) == null) {
+                    return localRun.remove(i);
+                }
+                if (candidate < 0) {
+                    candidate = i;
+                }
+            }
+            return candidate < 0 ? null : localRun.remove(candidate);
+        }
+
+        private void missingLocal(ReconciliationEntry gatewayEntry) {
+            accept(new ReconciliationMismatch(ReconciliationMismatchType.MISSING_LOCAL, gatewayEntry, null));
+        }
+
+        private void missingGateway(ReconciliationEntry localEntry) {
+            accept(new ReconciliationMismatch(ReconciliationMismatchType.MISSING_GATEWAY, null, localEntry));
+        }
+
+        private void accept(ReconciliationMismatch mismatch) {
+            consumer.accept(mismatch);
+            mismatched++;
+        }
+    }
+
+    private static ReconciliationEntry nextOrNull(Iterator<ReconciliationEntry> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static ExternalSorter.SortedEntries sortQuietly(ExternalSorter sorter, Iterator<TransactionBillRecord> records) {
+        try {
+            return sorter.sort(records);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static ExternalSorter.SortedEntries joinQuietly(CompletableFuture<ExternalSorter.SortedEntries> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            Throwable cause = Objects.requireNonNullElse(exception.getCause(), exception);
+            if (cause instanceof UncheckedIOException ioException) {
+                throw ioException;
+            }
+            throw asTransactionException(cause);
+        }
+    }
+
+    private static PaymentTransactionException asTransactionException(Throwable throwable) {
+        if (throwable instanceof PaymentTransactionException exception) {
+            return exception;
+        }
+        return new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "reconcile transaction bill error", throwable);
+    }
+}
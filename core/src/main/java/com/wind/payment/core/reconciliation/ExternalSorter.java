@@ -0,0 +1,242 @@
+package com.wind.payment.core.reconciliation;
+
+import com.wind.payment.core.bill.TransactionBillRecord;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * 外部排序
+ * 记录按内存预算分块，每块使用 {@link Arrays#parallelSort} 多核排序后溢写为磁盘上的有序段，最后多路归并；
+ * 数据量未超过内存预算时不落盘
+ *
+ * @author wuxp
+ * @date 2026-10-18 20:00
+ **/
+@Slf4j
+final class ExternalSorter {
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    private final long memoryBudgetBytes;
+
+    private final Path tempDirectory;
+
+    ExternalSorter(long memoryBudgetBytes, Path tempDirectory) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * @param records 待排序记录
+     * @return 有序记录，使用完毕后必须关闭以删除临时文件
+     */
+    SortedEntries sort(Iterator<TransactionBillRecord> records) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        List<ReconciliationEntry> buffer = new ArrayList<>();
+        long bufferedBytes = 0;
+        long count = 0;
+        try {
+            while (records.hasNext()) {
+                ReconciliationEntry entry = ReconciliationEntry.of(records.next());
+                buffer.add(entry);
+                bufferedBytes += entry.estimateSize();
+                count++;
+                if (bufferedBytes >= memoryBudgetBytes) {
+                    runs.add(spill(sortBuffer(buffer)));
+                    buffer.clear();
+                    bufferedBytes = 0;
+                }
+            }
+            ReconciliationEntry[] sorted = sortBuffer(buffer);
+            if (runs.isEmpty()) {
+                return new SortedEntries(Arrays.asList(sorted).iterator(), count, List.of(), List.of());
+            }
+            if (sorted.length > 0) {
+                runs.add(spill(sorted));
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("external sort spilled {} runs, records = {}", runs.size(), count);
+            }
+            return merge(runs, count);
+        } catch (IOException | RuntimeException exception) {
+            deleteQuietly(runs);
+            throw exception;
+        }
+    }
+
+    private static ReconciliationEntry[] sortBuffer(List<ReconciliationEntry> buffer) {
+        ReconciliationEntry[] result = buffer.toArray(ReconciliationEntry[]::new);
+        Arrays.parallelSort(result);
+        return result;
+    }
+
+    private Path spill(ReconciliationEntry[] entries) throws IOException {
+        Path result = Files.createTempFile(tempDirectory, "reconciliation-", ".run");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(result), IO_BUFFER_SIZE))) {
+            output.writeInt(entries.length);
+            for (ReconciliationEntry entry : entries) {
+                entry.writeTo(output);
+            }
+        } catch (IOException exception) {
+            Files.deleteIfExists(result);
+            throw exception;
+        }
+        return result;
+    }
+
+    private static SortedEntries merge(List<Path> runs, long count) throws IOException {
+        PriorityQueue<RunCursor> queue = new PriorityQueue<>(runs.size());
+        List<Closeable> resources = new ArrayList<>(runs.size());
+        try {
+            for (Path run : runs) {
+                RunCursor cursor = new RunCursor(run);
+                resources.add(cursor);
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+        } catch (IOException exception) {
+            closeQuietly(resources);
+            throw exception;
+        }
+        Iterator<ReconciliationEntry> iterator = new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public ReconciliationEntry next() {
+                RunCursor cursor = queue.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                ReconciliationEntry result = cursor.current;
+                try {
+                    if (cursor.advance()) {
+                        queue.add(cursor);
+                    }
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+                return result;
+            }
+        };
+        return new SortedEntries(iterator, count, resources, runs);
+    }
+
+    private static void closeQuietly(List<Closeable> resources) {
+        for (Closeable resource : resources) {
+            try {
+                resource.close();
+            } catch (IOException exception) {
+                log.warn("close reconciliation run error", exception);
+            }
+        }
+    }
+
+    private static void deleteQuietly(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException exception) {
+                log.warn("delete reconciliation run = {} error", file, exception);
+            }
+        }
+    }
+
+    /**
+     * 有序段读取游标
+     */
+    private static final class RunCursor implements Comparable<RunCursor>, Closeable {
+
+        private final DataInputStream input;
+
+        private int remaining;
+
+        private ReconciliationEntry current;
+
+        private RunCursor(Path run) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), IO_BUFFER_SIZE));
+            this.remaining = input.readInt();
+        }
+
+        private boolean advance() throws IOException {
+            if (remaining == 0) {
+                current = null;
+                input.close();
+                return false;
+            }
+            remaining--;
+            current = ReconciliationEntry.readFrom(input);
+            return true;
+        }
+
+        @Override
+        public int compareTo(RunCursor other) {
+            return current.compareTo(other.current);
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    /**
+     * 有序记录
+     */
+    static final class SortedEntries implements Iterator<ReconciliationEntry>, Closeable {
+
+        private final Iterator<ReconciliationEntry> delegate;
+
+        private final long count;
+
+        private final List<Closeable> resources;
+
+        private final List<Path> files;
+
+        private SortedEntries(Iterator<ReconciliationEntry> delegate, long count, List<Closeable> resources, List<Path> files) {
+            this.delegate = delegate;
+            this.count = count;
+            this.resources = resources;
+            this.files = files;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public ReconciliationEntry next() {
+            return delegate.next();
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(resources);
+            deleteQuietly(files);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.wind.payment.core.reconciliation;
+
+import com.wind.payment.core.bill.TransactionBillRecord;
+import com.wind.payment.core.enums.PaymentTransactionState;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 参与对账的精简记录，排序与溢写磁盘时只保留对账需要的字段
+ *
+ * @param transactionSn          支付交易流水号(系统内的)
+ * @param outTransactionSn       第三方交易流水号
+ * @param transactionRefundSn    交易退款流水号(系统内的)，支付记录为 null
+ * @param outTransactionRefundSn 第三方退款流水号，支付记录为 null
+ * @param amount                 对账金额，支付记录为订单金额，退款记录为退款金额，单位：分
+ * @param transactionState       交易状态
+ * @author wuxp
+ * @date 2026-10-18 19:52
+ **/
+public record ReconciliationEntry(String transactionSn, String outTransactionSn, String transactionRefundSn, String outTransactionRefundSn,
+                                  long amount, PaymentTransactionState transactionState) implements Comparable<ReconciliationEntry> {
+
+    private static final PaymentTransactionState[] STATES = PaymentTransactionState.values();
+
+    /**
+     * 按连接 key 排序，同一交易的支付记录排在退款记录之前。
+     * 比较时不拼接字符串，避免排序过程中产生大量临时对象
+     */
+    @Override
+    public int compareTo(ReconciliationEntry other) {
+        int result = compareNullable(joinKey(), other.joinKey());
+        if (result != 0) {
+            return result;
+        }
+        result = Boolean.compare(isRefund(), other.isRefund());
+        if (result != 0) {
+            return result;
+        }
+        result = compareNullable(transactionRefundSn, other.transactionRefundSn);
+        return result != 0 ? result : compareNullable(outTransactionRefundSn, other.outTransactionRefundSn);
+    }
+
+    /**
+     * 两侧统一的连接 key：优先使用系统内交易流水号，缺失时使用第三方交易流水号
+     *
+     * @return 连接 key，两者都缺失时为 null
+     */
+    public String joinKey() {
+        return transactionSn == null ? outTransactionSn : transactionSn;
+    }
+
+    public boolean isRefund() {
+        return transactionRefundSn != null || outTransactionRefundSn != null;
+    }
+
+    /**
+     * 同一连接 key 下的两条记录是否对应同一笔支付或退款，退款记录的系统内或第三方退款流水号任一相同即可
+     */
+    boolean isSameTransaction(ReconciliationEntry other) {
+        if (!isRefund() || !other.isRefund()) {
+            return isRefund() == other.isRefund();
+        }
+        return (transactionRefundSn != null && transactionRefundSn.equals(other.transactionRefundSn))
+                || (outTransactionRefundSn != null && outTransactionRefundSn.equals(other.outTransactionRefundSn));
+    }
+
+    private static int compareNullable(String left, String right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : -1) : 1;
+        }
+        return left.compareTo(right);
+    }
+
+    /**
+     * @return 估算的堆内存占用，单位：字节
+     */
+    long estimateSize() {
+        return 64 + estimateSize(transactionSn) + estimateSize(outTransactionSn) + estimateSize(transactionRefundSn)
+                + estimateSize(outTransactionRefundSn);
+    }
+
+    private static long estimateSize(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    public static ReconciliationEntry of(TransactionBillRecord record) {
+        boolean refund = record.isRefund();
+        long amount;
+        if (refund) {
+            amount = record.getRefundAmount() == null ? 0 : record.getRefundAmount().getIntAmount();
+        } else {
+            amount = record.getOrderAmount() == null ? 0 : record.getOrderAmount().getIntAmount();
+        }
+        return new ReconciliationEntry(record.getTransactionSn(), record.getOutTransactionSn(), record.getTransactionRefundSn(),
+                record.getOutTransactionRefundSn(), amount, record.getTransactionState());
+    }
+
+    void writeTo(DataOutput output) throws IOException {
+        writeNullable(output, transactionSn);
+        writeNullable(output, outTransactionSn);
+        writeNullable(output, transactionRefundSn);
+        writeNullable(output, outTransactionRefundSn);
+        output.writeLong(amount);
+        output.writeByte(transactionState == null ? -1 : transactionState.ordinal());
+    }
+
+    static ReconciliationEntry readFrom(DataInput input) throws IOException {
+        String transactionSn = readNullable(input);
+        String outTransactionSn = readNullable(input);
+        String transactionRefundSn = readNullable(input);
+        String outTransactionRefundSn = readNullable(input);
+        long amount = input.readLong();
+        byte state = input.readByte();
+        return new ReconciliationEntry(transactionSn, outTransactionSn, transactionRefundSn, outTransactionRefundSn, amount,
+                state < 0 ? null : STATES[state]);
+    }
+
+    private static void writeNullable(DataOutput output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.wind.payment.core.reconciliation;
+
+/**
+ * 对账差异
+ *
+ * @param type         差异类型
+ * @param gatewayEntry 支付平台账单记录，{@link ReconciliationMismatchType#MISSING_GATEWAY} 时为 null
+ * @param localEntry   本地记录，{@link ReconciliationMismatchType#MISSING_LOCAL} 时为 null
+ * @author wuxp
+ * @date 2026-10-18 19:55
+ **/
+public record ReconciliationMismatch(ReconciliationMismatchType type, ReconciliationEntry gatewayEntry, ReconciliationEntry localEntry) {
+}
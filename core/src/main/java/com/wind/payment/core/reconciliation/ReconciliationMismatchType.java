@@ -0,0 +1,26 @@
+package com.wind.payment.core.reconciliation;
+
+import com.wind.common.enums.DescriptiveEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 对账差异类型
+ *
+ * @author wuxp
+ * @date 2026-10-18 19:50
+ **/
+@AllArgsConstructor
+@Getter
+public enum ReconciliationMismatchType implements DescriptiveEnum {
+
+    MISSING_LOCAL("本地缺失，支付平台账单存在"),
+
+    MISSING_GATEWAY("支付平台缺失，本地记录存在"),
+
+    AMOUNT_MISMATCH("金额不一致"),
+
+    STATE_MISMATCH("状态不一致");
+
+    private final String desc;
+}
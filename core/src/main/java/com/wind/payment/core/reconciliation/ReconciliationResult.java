@@ -0,0 +1,14 @@
+package com.wind.payment.core.reconciliation;
+
+/**
+ * 对账结果汇总
+ *
+ * @param gatewayCount  支付平台记录数
+ * @param localCount    本地记录数
+ * @param matchedCount  一致的记录数
+ * @param mismatchCount 差异数
+ * @author wuxp
+ * @date 2026-10-18 19:56
+ **/
+public record ReconciliationResult(long gatewayCount, long localCount, long matchedCount, long mismatchCount) {
+}
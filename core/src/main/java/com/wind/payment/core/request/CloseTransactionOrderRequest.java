@@ -0,0 +1,31 @@
+package com.wind.payment.core.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 关闭交易（支付）订单
+ *
+ * @author wuxp
+ * @date 2026-10-18 21:10
+ **/
+@Data
+public class CloseTransactionOrderRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -1383740266316470563L;
+
+    /**
+     * 应用内的交易流水号
+     */
+    @NotBlank
+    private String transactionSn;
+
+    /**
+     * 第三方交易流水号，预下单后未获取到时可以为空
+     */
+    private String outTransactionSn;
+}
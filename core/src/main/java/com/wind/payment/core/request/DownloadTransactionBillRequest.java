@@ -0,0 +1,27 @@
+package com.wind.payment.core.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 下载交易对账单
+ *
+ * @author wuxp
+ * @date 2026-10-18 18:40
+ **/
+@Data
+public class DownloadTransactionBillRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2861527743935702395L;
+
+    /**
+     * 账单日期
+     */
+    @NotNull
+    private LocalDate billDate;
+}
@@ -0,0 +1,47 @@
+package com.wind.payment.core.response;
+
+import com.wind.payment.core.enums.PaymentTransactionState;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 关闭交易订单响应
+ *
+ * @author wuxp
+ * @date 2026-10-18 21:12
+ **/
+@Data
+@Accessors(chain = true)
+public class CloseTransactionOrderResponse implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4197406405315011632L;
+
+    /**
+     * 支付交易流水号(系统内的)
+     */
+    private String transactionSn;
+
+    /**
+     * 第三方交易流水号
+     */
+    private String outTransactionSn;
+
+    /**
+     * 交易状态，关闭成功（包括支付平台不存在该订单）时为 {@link PaymentTransactionState#CLOSED}
+     */
+    private PaymentTransactionState transactionState;
+
+    /**
+     * 原始响应
+     */
+    private Object rawResponse;
+
+    @SuppressWarnings("unchecked")
+    public <T> T getRawResponse() {
+        return (T) rawResponse;
+    }
+}
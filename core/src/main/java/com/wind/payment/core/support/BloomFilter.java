@@ -0,0 +1,112 @@
+package com.wind.payment.core.support;
+
+import com.wind.common.exception.AssertUtils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程安全的字符串布隆过滤器
+ * 按预期插入数量与误判率计算位数组大小与哈希函数个数，使用双重哈希生成各个位下标；
+ * {@link #mightContain(String)} 返回 false 时元素一定不存在，返回 true 时可能误判
+ *
+ * @author wuxp
+ * @date 2026-10-18 21:40
+ **/
+public final class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray bits;
+
+    private final long bitSize;
+
+    private final int hashFunctions;
+
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedInsertions 预期插入数量
+     * @param falsePositiveRate  期望的误判率，取值 (0, 1)
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        AssertUtils.isTrue(expectedInsertions > 0, "argument expectedInsertions must greater than 0");
+        AssertUtils.isTrue(falsePositiveRate > 0 && falsePositiveRate < 1, "argument falsePositiveRate must between 0 and 1");
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int words = (int) Math.max(1, (optimalBits + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * ln2));
+    }
+
+    /**
+     * @param value 元素
+     * @return 元素是否可能存在
+     */
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitSize);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param value 元素
+     */
+    public void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitSize);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+        insertions.increment();
+    }
+
+    /**
+     * @return 已插入的元素数量（包括重复插入）
+     */
+    public long getInsertions() {
+        return insertions.sum();
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    private static long hash(String value) {
+        long result = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            result = (result ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return mix(result);
+    }
+
+    /**
+     * splitmix64 终结函数，打散 FNV 哈希的低位分布
+     */
+    private static long mix(long value) {
+        long result = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        result = (result ^ (result >>> 27)) * 0x94d049bb133111ebL;
+        return result ^ (result >>> 31);
+    }
+}
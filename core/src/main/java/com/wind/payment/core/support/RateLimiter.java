@@ -0,0 +1,76 @@
+package com.wind.payment.core.support;
+
+import com.wind.common.exception.AssertUtils;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 平滑限流器
+ * 按固定间隔发放许可，空闲时最多累积 1 秒的许可用于应对突发请求
+ *
+ * @author wuxp
+ * @date 2026-10-18 18:10
+ **/
+public final class RateLimiter {
+
+    @Getter
+    private final double permitsPerSecond;
+
+    private final long intervalNanos;
+
+    private final long maxBurstNanos;
+
+    /**
+     * 下一个许可可用的时间点
+     */
+    private long nextFreeNanos;
+
+    public RateLimiter(double permitsPerSecond) {
+        AssertUtils.isTrue(permitsPerSecond > 0, "argument permitsPerSecond must greater than 0");
+        this.permitsPerSecond = permitsPerSecond;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.maxBurstNanos = TimeUnit.SECONDS.toNanos(1);
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取一个许可，没有可用许可时阻塞等待
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        long deadline = System.nanoTime() + waitNanos;
+        while (waitNanos > 0) {
+            LockSupport.parkNanos(this, waitNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            waitNanos = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * 尝试立即获取一个许可
+     *
+     * @return 是否获取成功
+     */
+    public synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        if (nextFreeNanos - now > 0) {
+            return false;
+        }
+        reserve();
+        return true;
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        // 空闲期间累积的许可不超过 maxBurstNanos
+        long next = Math.max(nextFreeNanos, now - maxBurstNanos);
+        nextFreeNanos = next + intervalNanos;
+        return Math.max(0, next - now);
+    }
+}
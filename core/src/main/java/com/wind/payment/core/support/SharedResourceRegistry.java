@@ -0,0 +1,156 @@
+package com.wind.payment.core.support;
+
+import com.wind.common.exception.AssertUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.ref.Cleaner;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 引用计数的共享资源注册表
+ * 相同 key 的资源只创建一次，由所有持有者共享；最后一个持有者释放后销毁资源。
+ * 持有者未显式释放而被 GC 回收时，通过 {@link Cleaner} 兜底释放引用
+ *
+ * @author wuxp
+ * @date 2026-10-18 16:02
+ **/
+@Slf4j
+public class SharedResourceRegistry<K, V> {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final Map<K, SharedResource<V>> resources = new HashMap<>();
+
+    private final Function<K, V> factory;
+
+    private final Consumer<V> destroyer;
+
+    /**
+     * @param factory   资源创建者
+     * @param destroyer 资源销毁者，在引用计数归零时调用
+     */
+    public SharedResourceRegistry(Function<K, V> factory, Consumer<V> destroyer) {
+        AssertUtils.notNull(factory, "argument factory must not null");
+        AssertUtils.notNull(destroyer, "argument destroyer must not null");
+        this.factory = factory;
+        this.destroyer = destroyer;
+    }
+
+    /**
+     * 获取共享资源并增加引用计数
+     *
+     * @param key   资源 key
+     * @param owner 资源持有者，持有者被回收时自动释放引用
+     * @return 资源租约
+     */
+    public Lease<V> acquire(K key, Object owner) {
+        AssertUtils.notNull(key, "argument key must not null");
+        AssertUtils.notNull(owner, "argument owner must not null");
+        SharedResource<V> resource;
+        synchronized (resources) {
+            resource = resources.computeIfAbsent(key, k -> new SharedResource<>(factory.apply(k)));
+            resource.referenceCount++;
+        }
+        ReleaseAction<K, V> action = new ReleaseAction<>(this, key, resource);
+        // 注意：清理动作不能持有 owner 的引用
+        return new Lease<>(resource.value, CLEANER.register(owner, action));
+    }
+
+    /**
+     * @return 当前共享的资源数量
+     */
+    public int size() {
+        synchronized (resources) {
+            return resources.size();
+        }
+    }
+
+    /**
+     * @param key 资源 key
+     * @return 资源的引用计数，不存在时返回 0
+     */
+    public int getReferenceCount(K key) {
+        synchronized (resources) {
+            SharedResource<V> resource = resources.get(key);
+            return resource == null ? 0 : resource.referenceCount;
+        }
+    }
+
+    private void release(K key, SharedResource<V> resource) {
+        synchronized (resources) {
+            if (--resource.referenceCount > 0) {
+                return;
+            }
+            resources.remove(key, resource);
+        }
+        try {
+            destroyer.accept(resource.value);
+        } catch (Exception exception) {
+            log.warn("destroy shared resource error, key = {}", key, exception);
+        }
+    }
+
+    private static final class SharedResource<V> {
+
+        private final V value;
+
+        private int referenceCount;
+
+        private SharedResource(V value) {
+            this.value = value;
+        }
+    }
+
+    private static final class ReleaseAction<K, V> implements Runnable {
+
+        private final SharedResourceRegistry<K, V> registry;
+
+        private final K key;
+
+        private final SharedResource<V> resource;
+
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private ReleaseAction(SharedResourceRegistry<K, V> registry, K key, SharedResource<V> resource) {
+            this.registry = registry;
+            this.key = key;
+            this.resource = resource;
+        }
+
+        @Override
+        public void run() {
+            if (released.compareAndSet(false, true)) {
+                registry.release(key, resource);
+            }
+        }
+    }
+
+    /**
+     * 共享资源租约，关闭后释放一次引用
+     */
+    public static final class Lease<V> implements AutoCloseable {
+
+        private final V value;
+
+        private final Cleaner.Cleanable cleanable;
+
+        private Lease(V value, Cleaner.Cleanable cleanable) {
+            this.value = value;
+            this.cleanable = cleanable;
+        }
+
+        public V get() {
+            return value;
+        }
+
+        @Override
+        public void close() {
+            // Cleanable#clean 至多执行一次释放动作，并取消 GC 兜底
+            cleanable.clean();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.wind.payment.core.transport;
+
+import com.wind.common.exception.AssertUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.net.ssl.SSLContext;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于 {@link HttpClient} 的非阻塞支付网关传输
+ * 连接由 HttpClient 的选择器线程多路复用，网关支持时使用 HTTP/2（同一连接并发多个请求），否则回退 HTTP/1.1 长连接；
+ * 响应处理在固定数量的 I/O 线程上完成，并发请求数量不受线程数量限制
+ *
+ * @author wuxp
+ * @date 2026-10-19 13:20
+ **/
+@Slf4j
+public class NioPaymentGatewayHttpTransport implements PaymentGatewayHttpTransport, AutoCloseable {
+
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(3);
+
+    private final String name;
+
+    private final HttpClient httpClient;
+
+    private final ExecutorService executor;
+
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+
+    private final LongAdder completedCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * @param name           传输名称，用于 I/O 线程命名
+     * @param ioThreads      I/O 线程数量
+     * @param connectTimeout 建立连接（含 TLS 握手）超时
+     * @param sslContext     TLS 上下文，例如包含商户证书的双向 TLS 上下文；为 null 时使用 JVM 默认的上下文
+     */
+    public NioPaymentGatewayHttpTransport(String name, int ioThreads, Duration connectTimeout, SSLContext sslContext) {
+        AssertUtils.hasLength(name, "argument name must not empty");
+        AssertUtils.isTrue(ioThreads > 0, "argument ioThreads must greater than 0");
+        AssertUtils.notNull(connectTimeout, "argument connectTimeout must not null");
+        this.name = name;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(ioThreads, runnable -> {
+            Thread result = new Thread(runnable, "payment-gateway-http-" + name + "-" + counter.incrementAndGet());
+            result.setDaemon(true);
+            return result;
+        });
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(connectTimeout)
+                .executor(executor);
+        if (sslContext != null) {
+            builder.sslContext(sslContext);
+        }
+        this.httpClient = builder.build();
+    }
+
+    /**
+     * @return 进程内共享的默认传输，使用 JVM 默认的 TLS 上下文
+     */
+    public static NioPaymentGatewayHttpTransport shared() {
+        return SharedHolder.TRANSPORT;
+    }
+
+    @Override
+    public CompletableFuture<PaymentGatewayHttpResponse> sendAsync(PaymentGatewayHttpRequest request) {
+        HttpRequest httpRequest = HttpRequest.newBuilder(request.uri())
+                .timeout(request.timeout())
+                .header("Content-Type", request.contentType())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(request.body()))
+                .build();
+        CompletableFuture<HttpResponse<byte[]>> future;
+        try {
+            future = httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RejectedExecutionException exception) {
+            failedCount.increment();
+            return CompletableFuture.failedFuture(exception);
+        }
+        inFlightCount.incrementAndGet();
+        return future.whenComplete((response, throwable) -> {
+            inFlightCount.decrementAndGet();
+            if (throwable == null) {
+                completedCount.increment();
+                return;
+            }
+            failedCount.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("payment gateway request error, uri = {}, message = {}", request.uri(), throwable.getMessage());
+            }
+        }).thenApply(response -> new PaymentGatewayHttpResponse(response.statusCode(), response.body()));
+    }
+
+    /**
+     * @return 统计快照
+     */
+    public Stats stats() {
+        return new Stats(name, inFlightCount.get(), completedCount.sum(), failedCount.sum());
+    }
+
+    /**
+     * 停止 I/O 线程，未完成的请求将无法完成；共享的默认传输不应被关闭
+     */
+    @Override
+    public void close() {
+        AssertUtils.isTrue(this != SharedHolder.TRANSPORT, "shared payment gateway http transport can not be closed");
+        executor.shutdown();
+    }
+
+    private static final class SharedHolder {
+
+        private static final NioPaymentGatewayHttpTransport TRANSPORT = new NioPaymentGatewayHttpTransport("shared",
+                Math.max(2, Runtime.getRuntime().availableProcessors() / 2), DEFAULT_CONNECT_TIMEOUT, null);
+    }
+
+    /**
+     * 传输统计
+     *
+     * @param name           传输名称
+     * @param inFlightCount  正在等待响应的请求数量
+     * @param completedCount 收到响应的请求数量
+     * @param failedCount    网络错误或超时的请求数量
+     */
+    public record Stats(String name, int inFlightCount, long completedCount, long failedCount) {
+    }
+}
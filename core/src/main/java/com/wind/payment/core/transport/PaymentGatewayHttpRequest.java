@@ -0,0 +1,26 @@
+package com.wind.payment.core.transport;
+
+import com.wind.common.exception.AssertUtils;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * 支付网关 http 请求，固定使用 POST
+ *
+ * @param uri         请求地址
+ * @param contentType 请求体类型
+ * @param body        请求体
+ * @param timeout     从发送请求到收到响应的超时时间
+ * @author wuxp
+ * @date 2026-10-19 13:10
+ **/
+public record PaymentGatewayHttpRequest(URI uri, String contentType, byte[] body, Duration timeout) {
+
+    public PaymentGatewayHttpRequest {
+        AssertUtils.notNull(uri, "argument uri must not null");
+        AssertUtils.hasLength(contentType, "argument contentType must not empty");
+        AssertUtils.notNull(body, "argument body must not null");
+        AssertUtils.notNull(timeout, "argument timeout must not null");
+    }
+}
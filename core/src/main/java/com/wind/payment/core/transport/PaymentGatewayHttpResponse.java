@@ -0,0 +1,16 @@
+package com.wind.payment.core.transport;
+
+/**
+ * 支付网关 http 响应
+ *
+ * @param statusCode http 状态码
+ * @param body       响应体
+ * @author wuxp
+ * @date 2026-10-19 13:12
+ **/
+public record PaymentGatewayHttpResponse(int statusCode, byte[] body) {
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+}
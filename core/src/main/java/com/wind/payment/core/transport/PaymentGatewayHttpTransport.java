@@ -0,0 +1,51 @@
+package com.wind.payment.core.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 支付网关 http 传输 SPI
+ * 实现应是非阻塞的：请求发出后不占用调用线程，响应由少量 I/O 线程完成 {@link CompletableFuture}
+ *
+ * @author wuxp
+ * @date 2026-10-19 13:15
+ **/
+public interface PaymentGatewayHttpTransport {
+
+    /**
+     * 异步发送请求，网络错误或超时时以 {@link IOException} 异常完成
+     *
+     * @param request 请求
+     * @return 响应
+     */
+    CompletableFuture<PaymentGatewayHttpResponse> sendAsync(PaymentGatewayHttpRequest request);
+
+    /**
+     * 发送请求并等待响应，供同步的网关客户端使用；
+     * 在虚拟线程中等待不会占用平台线程
+     *
+     * @param request 请求
+     * @return 响应
+     */
+    default PaymentGatewayHttpResponse send(PaymentGatewayHttpRequest request) throws IOException {
+        CompletableFuture<PaymentGatewayHttpResponse> future = sendAsync(request);
+        try {
+            return future.get();
+        } catch (InterruptedException exception) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("payment gateway request interrupted, uri = " + request.uri());
+        } catch (CancellationException exception) {
+            throw new InterruptedIOException("payment gateway request cancelled, uri = " + request.uri());
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("payment gateway request error, uri = " + request.uri(), cause);
+        }
+    }
+}
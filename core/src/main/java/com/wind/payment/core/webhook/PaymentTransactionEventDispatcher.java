@@ -0,0 +1,233 @@
+package com.wind.payment.core.webhook;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.core.PaymentTransactionWebHooker;
+import com.wind.payment.core.request.PaymentTransactionEventRequest;
+import com.wind.payment.core.request.PaymentTransactionRefundEventRequest;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * 支付通知分发器
+ * 按 transactionSn 的哈希值将通知分配到固定数量的单线程通道（lane），同一交易的支付、退款通知在同一通道内按提交顺序串行处理，
+ * 不同交易的通知在各通道间并行处理，替代全局锁。
+ * 每个通道的队列有界，队列已满时拒绝提交并返回失败响应，由支付平台稍后重发
+ *
+ * @author wuxp
+ * @date 2026-10-19 09:10
+ **/
+@Slf4j
+public class PaymentTransactionEventDispatcher implements AutoCloseable {
+
+    private static final int DEFAULT_LANE_QUEUE_CAPACITY = 1024;
+
+    private final Lane[] lanes;
+
+    public PaymentTransactionEventDispatcher() {
+        this(Runtime.getRuntime().availableProcessors() * 2, DEFAULT_LANE_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param laneCount         通道数量
+     * @param laneQueueCapacity 每个通道的队列容量
+     */
+    public PaymentTransactionEventDispatcher(int laneCount, int laneQueueCapacity) {
+        AssertUtils.isTrue(laneCount > 0, "argument laneCount must greater than 0");
+        AssertUtils.isTrue(laneQueueCapacity > 0, "argument laneQueueCapacity must greater than 0");
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, laneQueueCapacity);
+        }
+    }
+
+    /**
+     * 在交易所属的通道内验签并处理支付通知
+     *
+     * @param hooker  通知验签者（支付插件）
+     * @param request 通知请求
+     * @param handler 业务处理，返回是否处理成功
+     * @return 返回给支付平台的响应，通道队列已满或处理异常时为失败响应
+     */
+    public CompletableFuture<Object> dispatchPaymentEvent(PaymentTransactionWebHooker hooker, PaymentTransactionEventRequest request,
+                                                          Predicate<QueryTransactionOrderResponse> handler) {
+        AssertUtils.notNull(request, "argument request must not null");
+        return dispatchEvent(request.getTransactionSn(), hooker, () -> handler.test(hooker.onPaymentEvent(request)));
+    }
+
+    /**
+     * 在交易所属的通道内验签并处理退款通知
+     *
+     * @param transactionSn 退款所属的支付交易流水号，与支付通知使用同一通道
+     * @param hooker        通知验签者（支付插件）
+     * @param request       通知请求
+     * @param handler       业务处理，返回是否处理成功
+     * @return 返回给支付平台的响应，通道队列已满或处理异常时为失败响应
+     */
+    public CompletableFuture<Object> dispatchRefundEvent(String transactionSn, PaymentTransactionWebHooker hooker,
+                                                         PaymentTransactionRefundEventRequest request,
+                                                         Predicate<TransactionOrderRefundResponse> handler) {
+        AssertUtils.notNull(request, "argument request must not null");
+        return dispatchEvent(transactionSn, hooker, () -> handler.test(hooker.onRefundEvent(request)));
+    }
+
+    /**
+     * 在交易所属的通道内执行任务
+     *
+     * @param transactionSn 支付交易流水号
+     * @param task          任务
+     * @return 任务结果，通道队列已满时以 {@link RejectedExecutionException} 失败
+     */
+    public <T> CompletableFuture<T> dispatch(String transactionSn, Callable<T> task) {
+        AssertUtils.hasLength(transactionSn, "argument transactionSn must not empty");
+        AssertUtils.notNull(task, "argument task must not null");
+        return lanes[laneOf(transactionSn)].submit(task);
+    }
+
+    /**
+     * @param transactionSn 支付交易流水号
+     * @return 交易所属的通道序号
+     */
+    public int laneOf(String transactionSn) {
+        int hash = transactionSn.hashCode();
+        // 混合高位，避免流水号前缀相同时集中到少数通道
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    /**
+     * @return 各通道的统计快照
+     */
+    public List<LaneStats> laneStats() {
+        List<LaneStats> result = new ArrayList<>(lanes.length);
+        for (Lane lane : lanes) {
+            result.add(lane.stats());
+        }
+        return result;
+    }
+
+    /**
+     * 停止接收新的通知，等待已提交的通知处理完成
+     */
+    @Override
+    public void close() {
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+        for (Lane lane : lanes) {
+            try {
+                if (!lane.executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    log.warn("payment transaction event dispatcher lane not terminated, lane = {}, queueSize = {}", lane.index,
+                            lane.executor.getQueue().size());
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private CompletableFuture<Object> dispatchEvent(String transactionSn, PaymentTransactionWebHooker hooker, Callable<Boolean> task) {
+        AssertUtils.notNull(hooker, "argument hooker must not null");
+        return dispatch(transactionSn, task).handle((successful, throwable) -> {
+            if (throwable != null) {
+                log.warn("dispatch payment transaction event error, transactionSn = {}", transactionSn, throwable);
+                return hooker.getWebHookResponse(false);
+            }
+            return hooker.getWebHookResponse(Boolean.TRUE.equals(successful));
+        });
+    }
+
+    private static final class Lane {
+
+        private final int index;
+
+        private final ThreadPoolExecutor executor;
+
+        private final LongAdder submittedCount = new LongAdder();
+
+        private final LongAdder completedCount = new LongAdder();
+
+        private final LongAdder failedCount = new LongAdder();
+
+        private final LongAdder rejectedCount = new LongAdder();
+
+        /**
+         * 任务在队列中等待的总时长
+         */
+        private final LongAdder queueNanos = new LongAdder();
+
+        private final AtomicInteger maxQueueSize = new AtomicInteger();
+
+        private Lane(int index, int queueCapacity) {
+            this.index = index;
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "payment-transaction-event-lane-" + index);
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        }
+
+        private <T> CompletableFuture<T> submit(Callable<T> task) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            long submittedNanos = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    queueNanos.add(System.nanoTime() - submittedNanos);
+                    T value;
+                    try {
+                        value = task.call();
+                    } catch (Throwable throwable) {
+                        failedCount.increment();
+                        result.completeExceptionally(throwable);
+                        return;
+                    }
+                    completedCount.increment();
+                    result.complete(value);
+                });
+            } catch (RejectedExecutionException exception) {
+                rejectedCount.increment();
+                result.completeExceptionally(exception);
+                return result;
+            }
+            submittedCount.increment();
+            maxQueueSize.accumulateAndGet(executor.getQueue().size(), Math::max);
+            return result;
+        }
+
+        private LaneStats stats() {
+            long completed = completedCount.sum();
+            long failed = failedCount.sum();
+            long finished = completed + failed;
+            return new LaneStats(index, executor.getQueue().size(), maxQueueSize.get(), submittedCount.sum(), completed, failed,
+                    rejectedCount.sum(), finished == 0 ? 0 : queueNanos.sum() / finished);
+        }
+    }
+
+    /**
+     * 通道统计
+     *
+     * @param lane              通道序号
+     * @param queueSize         当前排队的任务数量
+     * @param maxQueueSize      排队任务数量的历史最大值
+     * @param submittedCount    提交成功的任务数量
+     * @param completedCount    处理成功的任务数量
+     * @param failedCount       处理异常的任务数量
+     * @param rejectedCount     队列已满被拒绝的任务数量
+     * @param averageQueueNanos 任务在队列中的平均等待时长
+     */
+    public record LaneStats(int lane, int queueSize, int maxQueueSize, long submittedCount, long completedCount, long failedCount,
+                            long rejectedCount, long averageQueueNanos) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.wind.payment.core.webhook;
+
+import com.wind.transaction.core.Money;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 已解码、未验签的支付/退款通知
+ * 由 {@link com.wind.payment.core.PaymentTransactionWebHooker#parsePaymentEvent(Object)} 等方法生成，调用方根据其中的交易流水号加载订单后，
+ * 将其作为 rawRequest 传入 onPaymentEvent/onRefundEvent 完成验签，插件直接使用已解码的内容，不再重复解析。
+ * 验签前其中的字段均不可信，只能用于路由与加载订单
+ *
+ * @author wuxp
+ * @date 2026-10-18 22:10
+ **/
+@Data
+@Accessors(chain = true)
+public class PaymentTransactionNotification implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2953416650287917040L;
+
+    /**
+     * 应用内的交易流水号（out_trade_no）
+     */
+    private String transactionSn;
+
+    /**
+     * 第三方交易流水号
+     */
+    private String outTransactionSn;
+
+    /**
+     * 应用内的退款流水号（out_refund_no），支付通知为空
+     */
+    private String transactionRefundSn;
+
+    /**
+     * 第三方退款流水号
+     */
+    private String outTransactionRefundSn;
+
+    /**
+     * 订单总金额
+     */
+    private Money orderAmount;
+
+    /**
+     * 退款金额，支付通知为空
+     */
+    private Money refundAmount;
+
+    /**
+     * 原始的通知请求参数
+     */
+    private Object rawRequest;
+
+    /**
+     * 插件解码后的通知内容，例如支付宝的参数 Map、微信支付的通知对象
+     */
+    private transient Object payload;
+
+    @SuppressWarnings("unchecked")
+    public <T> T getRawRequest() {
+        return (T) rawRequest;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getPayload() {
+        return (T) payload;
+    }
+}
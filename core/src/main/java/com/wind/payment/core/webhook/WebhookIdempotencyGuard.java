@@ -0,0 +1,254 @@
+package com.wind.payment.core.webhook;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.PaymentTransactionWebHooker;
+import com.wind.payment.core.request.PaymentTransactionEventRequest;
+import com.wind.payment.core.request.PaymentTransactionRefundEventRequest;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import com.wind.payment.core.support.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 支付通知幂等处理
+ * 支付平台会多次投递同一通知，已处理成功的通知直接返回 {@link PaymentTransactionWebHooker#getWebHookResponse(boolean)} 的成功响应，
+ * 不再重复验签与执行业务逻辑。
+ * 判重分为三层：布隆过滤器判定不存在时直接处理；可能存在时依次精确检查内存中的 LRU 记录与持久化存储，排除布隆过滤器的误判。
+ * 布隆过滤器按 {@link #expectedInsertions} 分代轮换，只覆盖最近两代的通知，容量应大于支付平台重试周期内的通知数量
+ *
+ * @author wuxp
+ * @date 2026-10-18 21:50
+ **/
+@Slf4j
+public class WebhookIdempotencyGuard {
+
+    private static final int DEFAULT_EXPECTED_INSERTIONS = 1 << 20;
+
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    private static final int DEFAULT_RECENT_CAPACITY = 1 << 14;
+
+    private final WebhookIdempotencyStore store;
+
+    private final int expectedInsertions;
+
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter currentFilter;
+
+    private volatile BloomFilter previousFilter;
+
+    /**
+     * 最近处理成功的通知 key，按访问顺序淘汰
+     */
+    private final Map<String, Boolean> recentKeys;
+
+    /**
+     * 正在处理的通知 key，同一通知并发投递时只处理一次
+     */
+    private final Set<String> processingKeys = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder duplicateCount = new LongAdder();
+
+    private final LongAdder falsePositiveCount = new LongAdder();
+
+    public WebhookIdempotencyGuard() {
+        this(WebhookIdempotencyStore.none());
+    }
+
+    public WebhookIdempotencyGuard(WebhookIdempotencyStore store) {
+        this(store, DEFAULT_EXPECTED_INSERTIONS, DEFAULT_FALSE_POSITIVE_RATE, DEFAULT_RECENT_CAPACITY);
+    }
+
+    /**
+     * @param store              持久化存储
+     * @param expectedInsertions 每代布隆过滤器的预期通知数量
+     * @param falsePositiveRate  布隆过滤器误判率
+     * @param recentCapacity     内存中保留的最近通知数量
+     */
+    public WebhookIdempotencyGuard(WebhookIdempotencyStore store, int expectedInsertions, double falsePositiveRate, int recentCapacity) {
+        AssertUtils.notNull(store, "argument store must not null");
+        AssertUtils.isTrue(recentCapacity > 0, "argument recentCapacity must greater than 0");
+        this.store = store;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.currentFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.recentKeys = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentCapacity;
+            }
+        };
+        store.loadRecentKeys(this::putFilter);
+    }
+
+    /**
+     * 幂等处理支付通知
+     *
+     * @param hooker  支付插件
+     * @param request 支付通知请求
+     * @param handler 业务处理，返回是否处理成功；处理成功的通知重复投递时不再调用
+     * @return 返回给支付平台的响应
+     */
+    public Object onPaymentEvent(PaymentTransactionWebHooker hooker, PaymentTransactionEventRequest request,
+                                 Predicate<QueryTransactionOrderResponse> handler) {
+        Object rawRequest = parseQuietly(request.getRawRequest(), hooker::parsePaymentEvent);
+        PaymentTransactionEventRequest verifyRequest = request;
+        if (rawRequest != request.getRawRequest()) {
+            verifyRequest = new PaymentTransactionEventRequest();
+            verifyRequest.setTransactionSn(request.getTransactionSn());
+            verifyRequest.setOrderAmount(request.getOrderAmount());
+            verifyRequest.setRawRequest(rawRequest);
+        }
+        PaymentTransactionEventRequest finalRequest = verifyRequest;
+        return handle(hooker, rawRequest, () -> hooker.onPaymentEvent(finalRequest), handler);
+    }
+
+    /**
+     * 幂等处理退款通知
+     *
+     * @param hooker  支付插件
+     * @param request 退款通知请求
+     * @param handler 业务处理，返回是否处理成功；处理成功的通知重复投递时不再调用
+     * @return 返回给支付平台的响应
+     */
+    public Object onRefundEvent(PaymentTransactionWebHooker hooker, PaymentTransactionRefundEventRequest request,
+                                Predicate<TransactionOrderRefundResponse> handler) {
+        Object rawRequest = parseQuietly(request.getRawRequest(), hooker::parseRefundEvent);
+        PaymentTransactionRefundEventRequest verifyRequest = request;
+        if (rawRequest != request.getRawRequest()) {
+            verifyRequest = new PaymentTransactionRefundEventRequest();
+            verifyRequest.setTransactionRefundSn(request.getTransactionRefundSn());
+            verifyRequest.setOrderAmount(request.getOrderAmount());
+            verifyRequest.setRefundAmount(request.getRefundAmount());
+            verifyRequest.setRawRequest(rawRequest);
+        }
+        PaymentTransactionRefundEventRequest finalRequest = verifyRequest;
+        return handle(hooker, rawRequest, () -> hooker.onRefundEvent(finalRequest), handler);
+    }
+
+    /**
+     * @param key 幂等 key
+     * @return 通知是否已处理成功
+     */
+    public boolean isProcessed(WebhookIdempotencyKey key) {
+        String text = key.asText();
+        BloomFilter previous = previousFilter;
+        if (!currentFilter.mightContain(text) && (previous == null || !previous.mightContain(text))) {
+            return false;
+        }
+        synchronized (recentKeys) {
+            if (recentKeys.get(text) != null) {
+                return true;
+            }
+        }
+        if (store.contains(text)) {
+            synchronized (recentKeys) {
+                recentKeys.put(text, Boolean.TRUE);
+            }
+            return true;
+        }
+        falsePositiveCount.increment();
+        return false;
+    }
+
+    /**
+     * 记录通知已处理成功
+     *
+     * @param key 幂等 key
+     */
+    public void markProcessed(WebhookIdempotencyKey key) {
+        String text = key.asText();
+        store.save(text);
+        synchronized (recentKeys) {
+            recentKeys.put(text, Boolean.TRUE);
+        }
+        putFilter(text);
+    }
+
+    /**
+     * @return 被识别为重复投递的通知数量
+     */
+    public long getDuplicateCount() {
+        return duplicateCount.sum();
+    }
+
+    /**
+     * @return 布隆过滤器误判后经精确检查确认为新通知的数量
+     */
+    public long getFalsePositiveCount() {
+        return falsePositiveCount.sum();
+    }
+
+    private <R> Object handle(PaymentTransactionWebHooker hooker, Object rawRequest, Supplier<R> verifier, Predicate<R> handler) {
+        AssertUtils.notNull(handler, "argument handler must not null");
+        WebhookIdempotencyKey key = hooker.getIdempotencyKey(rawRequest);
+        if (key == null) {
+            // 无法提取幂等 key 时按普通通知处理
+            return hooker.getWebHookResponse(handler.test(verifier.get()));
+        }
+        if (isProcessed(key)) {
+            duplicateCount.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("duplicate payment webhook, key = {}", key);
+            }
+            return hooker.getWebHookResponse(true);
+        }
+        String text = key.asText();
+        if (!processingKeys.add(text)) {
+            // 同一通知正在被其它线程处理，返回失败让支付平台稍后重试
+            return hooker.getWebHookResponse(false);
+        }
+        try {
+            boolean successful = handler.test(verifier.get());
+            if (successful) {
+                markProcessed(key);
+            }
+            return hooker.getWebHookResponse(successful);
+        } finally {
+            processingKeys.remove(text);
+        }
+    }
+
+    /**
+     * 通知只解码一次，解码结果同时用于提取幂等 key 与验签；插件不支持解码或解码失败时使用原始参数，由验签报告错误
+     */
+    private static Object parseQuietly(Object rawRequest, Function<Object, PaymentTransactionNotification> parser) {
+        if (rawRequest instanceof PaymentTransactionNotification) {
+            return rawRequest;
+        }
+        try {
+            PaymentTransactionNotification result = parser.apply(rawRequest);
+            return result == null ? rawRequest : result;
+        } catch (PaymentTransactionException exception) {
+            if (log.isDebugEnabled()) {
+                log.debug("parse payment webhook error, fallback to raw request", exception);
+            }
+            return rawRequest;
+        }
+    }
+
+    private void putFilter(String key) {
+        BloomFilter filter = currentFilter;
+        if (filter.getInsertions() >= expectedInsertions) {
+            synchronized (this) {
+                if (currentFilter == filter) {
+                    previousFilter = filter;
+                    currentFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+                }
+                filter = currentFilter;
+            }
+        }
+        filter.put(key);
+    }
+}
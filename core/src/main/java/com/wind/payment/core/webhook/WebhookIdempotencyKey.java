@@ -0,0 +1,27 @@
+package com.wind.payment.core.webhook;
+
+import com.wind.common.exception.AssertUtils;
+
+/**
+ * 支付通知的幂等 key，支付平台重复投递同一通知时得到相同的 key
+ *
+ * @param platform 支付平台名称
+ * @param notifyId 通知标识，例如支付宝的 notify_id、微信支付的 transaction_id
+ * @param state    通知携带的交易状态，同一交易不同状态的通知不会被视为重复
+ * @author wuxp
+ * @date 2026-10-18 21:45
+ **/
+public record WebhookIdempotencyKey(String platform, String notifyId, String state) {
+
+    public WebhookIdempotencyKey {
+        AssertUtils.hasLength(platform, "argument platform must not empty");
+        AssertUtils.hasLength(notifyId, "argument notifyId must not empty");
+    }
+
+    /**
+     * @return 用于布隆过滤器与持久化存储的文本形式
+     */
+    public String asText() {
+        return platform + ':' + notifyId + ':' + (state == null ? "" : state);
+    }
+}
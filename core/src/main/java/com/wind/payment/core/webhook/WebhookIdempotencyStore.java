@@ -0,0 +1,49 @@
+package com.wind.payment.core.webhook;
+
+import java.util.function.Consumer;
+
+/**
+ * 已处理通知的持久化存储，例如数据库表或 Redis，实现需要线程安全
+ *
+ * @author wuxp
+ * @date 2026-10-18 21:48
+ **/
+public interface WebhookIdempotencyStore {
+
+    /**
+     * @param key 幂等 key，{@link WebhookIdempotencyKey#asText()}
+     * @return 通知是否已处理
+     */
+    boolean contains(String key);
+
+    /**
+     * 记录通知已处理
+     *
+     * @param key 幂等 key，{@link WebhookIdempotencyKey#asText()}
+     */
+    void save(String key);
+
+    /**
+     * 加载近期已处理的通知 key，用于进程启动时预热布隆过滤器
+     *
+     * @param consumer key 消费者
+     */
+    default void loadRecentKeys(Consumer<String> consumer) {
+    }
+
+    /**
+     * @return 不持久化的空存储，只依赖内存中的记录去重
+     */
+    static WebhookIdempotencyStore none() {
+        return new WebhookIdempotencyStore() {
+            @Override
+            public boolean contains(String key) {
+                return false;
+            }
+
+            @Override
+            public void save(String key) {
+            }
+        };
+    }
+}
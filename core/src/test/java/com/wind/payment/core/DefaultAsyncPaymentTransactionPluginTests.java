@@ -0,0 +1,94 @@
+package com.wind.payment.core;
+
+import com.wind.payment.core.request.QueryTransactionOrderRequest;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DefaultAsyncPaymentTransactionPluginTests {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testCompletesWithDelegateResponse() throws Exception {
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class);
+        QueryTransactionOrderResponse response = new QueryTransactionOrderResponse();
+        when(plugin.queryTransactionOrder(any())).thenReturn(response);
+
+        AsyncPaymentTransactionPlugin asyncPlugin = new DefaultAsyncPaymentTransactionPlugin(plugin, executor, null);
+
+        assertSame(response, asyncPlugin.queryTransactionOrder(new QueryTransactionOrderRequest()).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCompletesExceptionallyWithDelegateError() {
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class);
+        when(plugin.queryTransactionOrder(any())).thenThrow(new PaymentTransactionException("gateway error"));
+
+        AsyncPaymentTransactionPlugin asyncPlugin = new DefaultAsyncPaymentTransactionPlugin(plugin, executor, null);
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> asyncPlugin.queryTransactionOrder(new QueryTransactionOrderRequest()).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PaymentTransactionException.class, exception.getCause());
+    }
+
+    @Test
+    void testTimeoutInterruptsRunningCall() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class);
+        when(plugin.queryTransactionOrder(any())).thenAnswer(invocation -> blockUntilInterrupted(interrupted));
+
+        AsyncPaymentTransactionPlugin asyncPlugin = new DefaultAsyncPaymentTransactionPlugin(plugin, executor, Duration.ofMinutes(1));
+        CompletableFuture<QueryTransactionOrderResponse> future = asyncPlugin.queryTransactionOrder(new QueryTransactionOrderRequest(),
+                Duration.ofMillis(50));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCancelInterruptsRunningCall() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class);
+        when(plugin.queryTransactionOrder(any())).thenAnswer(invocation -> blockUntilInterrupted(interrupted));
+
+        CompletableFuture<QueryTransactionOrderResponse> future = new DefaultAsyncPaymentTransactionPlugin(plugin, executor, null)
+                .queryTransactionOrder(new QueryTransactionOrderRequest());
+        future.cancel(true);
+
+        assertTrue(future.isCancelled());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    private static QueryTransactionOrderResponse blockUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(Duration.ofMinutes(1).toMillis());
+        } catch (InterruptedException exception) {
+            interrupted.countDown();
+        }
+        return null;
+    }
+}
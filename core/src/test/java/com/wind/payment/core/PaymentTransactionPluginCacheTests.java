@@ -0,0 +1,129 @@
+package com.wind.payment.core;
+
+import com.wind.payment.core.bill.TransactionBillProvider;
+import com.wind.payment.core.request.QueryTransactionOrderRequest;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class PaymentTransactionPluginCacheTests {
+
+    @Test
+    void testReturnsCachedPluginWhileFingerprintIsUnchanged() {
+        PaymentTransactionPluginCache cache = new PaymentTransactionPluginCache();
+        AtomicInteger builds = new AtomicInteger();
+
+        PaymentTransactionPlugin first = cache.get("p1", TestPlatform.MOCK, TestScene.APP, "config-v1", () -> newPlugin(builds));
+        PaymentTransactionPlugin second = cache.get("p1", TestPlatform.MOCK, TestScene.APP, "config-v1", () -> newPlugin(builds));
+
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void testRebuildsPluginWhenFingerprintChanges() {
+        PaymentTransactionPluginCache cache = new PaymentTransactionPluginCache();
+        AtomicInteger builds = new AtomicInteger();
+
+        PaymentTransactionPlugin first = cache.get("p1", TestPlatform.MOCK, TestScene.APP, "config-v1", () -> newPlugin(builds));
+        PaymentTransactionPlugin second = cache.get("p1", TestPlatform.MOCK, TestScene.APP, "config-v2", () -> newPlugin(builds));
+
+        assertNotSame(first, second);
+        assertEquals(2, builds.get());
+        assertEquals(1, cache.stats().invalidationCount());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedPluginWhenFull() {
+        PaymentTransactionPluginCache cache = new PaymentTransactionPluginCache(2, Duration.ofMinutes(1));
+        AtomicInteger builds = new AtomicInteger();
+
+        cache.get("p1", TestPlatform.MOCK, TestScene.APP, "c", () -> newPlugin(builds));
+        cache.get("p2", TestPlatform.MOCK, TestScene.APP, "c", () -> newPlugin(builds));
+        cache.get("p1", TestPlatform.MOCK, TestScene.APP, "c", () -> newPlugin(builds));
+        cache.get("p3", TestPlatform.MOCK, TestScene.APP, "c", () -> newPlugin(builds));
+        cache.get("p1", TestPlatform.MOCK, TestScene.APP, "c", () -> newPlugin(builds));
+
+        assertEquals(3, builds.get());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().evictionCount());
+    }
+
+    @Test
+    void testExpiresIdlePlugin() {
+        PaymentTransactionPluginCache cache = new PaymentTransactionPluginCache(16, Duration.ZERO);
+        AtomicInteger builds = new AtomicInteger();
+
+        cache.get("p1", TestPlatform.MOCK, TestScene.APP, "c", () -> newPlugin(builds));
+        cache.get("p1", TestPlatform.MOCK, TestScene.APP, "c", () -> newPlugin(builds));
+
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void testDoesNotCloseEvictedPluginWhileHandleIsHeld() throws Exception {
+        PaymentTransactionPluginCache cache = new PaymentTransactionPluginCache(1, Duration.ofMinutes(1));
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class, withSettings().extraInterfaces(AutoCloseable.class));
+        QueryTransactionOrderResponse response = new QueryTransactionOrderResponse();
+        when(plugin.queryTransactionOrder(any())).thenReturn(response);
+
+        PaymentTransactionPlugin handle = cache.get("p1", TestPlatform.MOCK, TestScene.APP, "c", () -> plugin);
+        cache.get("p2", TestPlatform.MOCK, TestScene.APP, "c", () -> newPlugin(new AtomicInteger()));
+        cache.invalidateAll();
+
+        assertEquals(1, cache.stats().evictionCount());
+        assertSame(response, handle.queryTransactionOrder(new QueryTransactionOrderRequest()));
+        verify((AutoCloseable) plugin, never()).close();
+    }
+
+    @Test
+    void testHandleKeepsBillProvider() {
+        PaymentTransactionPluginCache cache = new PaymentTransactionPluginCache();
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class, withSettings().extraInterfaces(TransactionBillProvider.class));
+
+        PaymentTransactionPlugin handle = cache.get("p1", TestPlatform.MOCK, TestScene.APP, "c", () -> plugin);
+
+        assertInstanceOf(TransactionBillProvider.class, handle);
+        assertSame(plugin, ((CachedPaymentTransactionPlugin) handle).getDelegate());
+    }
+
+    private static PaymentTransactionPlugin newPlugin(AtomicInteger builds) {
+        builds.incrementAndGet();
+        return mock(PaymentTransactionPlugin.class);
+    }
+
+    @AllArgsConstructor
+    @Getter
+    enum TestPlatform implements PaymentTransactionPlatform {
+
+        MOCK("测试平台");
+
+        private final String desc;
+    }
+
+    @AllArgsConstructor
+    @Getter
+    enum TestScene implements PaymentTransactionScene {
+
+        APP("App支付");
+
+        private final String desc;
+    }
+}
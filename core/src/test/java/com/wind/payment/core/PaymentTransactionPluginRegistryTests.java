@@ -0,0 +1,171 @@
+package com.wind.payment.core;
+
+import com.wind.payment.core.request.CloseTransactionOrderRequest;
+import com.wind.payment.core.request.PaymentTransactionEventRequest;
+import com.wind.payment.core.request.PaymentTransactionRefundEventRequest;
+import com.wind.payment.core.request.PrePaymentOrderRequest;
+import com.wind.payment.core.request.QueryTransactionOrderRefundRequest;
+import com.wind.payment.core.request.QueryTransactionOrderRequest;
+import com.wind.payment.core.request.TransactionOrderRefundRequest;
+import com.wind.payment.core.response.CloseTransactionOrderResponse;
+import com.wind.payment.core.response.PrePaymentOrderResponse;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import com.wind.payment.core.webhook.PaymentTransactionNotification;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaymentTransactionPluginRegistryTests {
+
+    @Test
+    void testCompilesPublicConstructorWithLambdaMetafactory() {
+        PaymentTransactionPluginRegistry registry = new PaymentTransactionPluginRegistry();
+        registry.register(TestPlatform.MOCK, TestScene.APP, PublicPlugin.class);
+
+        Function<String, PaymentTransactionPlugin> builder = registry.getBuilder(TestPlatform.MOCK, TestScene.APP);
+
+        assertFalse(builder instanceof PaymentTransactionPluginRegistry.ReflectiveBuilder);
+        assertEquals("config-a", assertInstanceOf(PublicPlugin.class, builder.apply("config-a")).config);
+        assertNull(registry.getBuilder(TestPlatform.MOCK, TestScene.WEB));
+    }
+
+    @Test
+    void testFallsBackToReflectionForInaccessibleConstructor() {
+        Function<String, PaymentTransactionPlugin> builder = PaymentTransactionPluginRegistry.compileBuilder(PrivatePlugin.class);
+
+        assertInstanceOf(PaymentTransactionPluginRegistry.ReflectiveBuilder.class, builder);
+        assertEquals("config-b", assertInstanceOf(PrivatePlugin.class, builder.apply("config-b")).config);
+    }
+
+    @Test
+    void testPropagatesErrorThrownByPluginConstructor() {
+        Function<String, PaymentTransactionPlugin> builder = PaymentTransactionPluginRegistry.compileBuilder(FailingPlugin.class);
+
+        assertFalse(builder instanceof PaymentTransactionPluginRegistry.ReflectiveBuilder);
+        NoClassDefFoundError error = assertThrows(NoClassDefFoundError.class, () -> builder.apply("config-c"));
+        assertEquals("plugin dependency", error.getMessage());
+        assertEquals(1, FailingPlugin.CONSTRUCTOR_CALLS.get());
+    }
+
+    @Test
+    void testRejectsRegistrationAfterFreeze() {
+        PaymentTransactionPluginRegistry registry = new PaymentTransactionPluginRegistry();
+        registry.freeze();
+
+        assertThrows(RuntimeException.class, () -> registry.register(TestPlatform.MOCK, TestScene.APP, PublicPlugin.class));
+    }
+
+    public static class PublicPlugin extends StubPlugin {
+
+        public PublicPlugin(String config) {
+            super(config);
+        }
+    }
+
+    public static class FailingPlugin extends StubPlugin {
+
+        static final AtomicInteger CONSTRUCTOR_CALLS = new AtomicInteger();
+
+        public FailingPlugin(String config) {
+            super(config);
+            CONSTRUCTOR_CALLS.incrementAndGet();
+            throw new NoClassDefFoundError("plugin dependency");
+        }
+    }
+
+    private static final class PrivatePlugin extends StubPlugin {
+
+        private PrivatePlugin(String config) {
+            super(config);
+        }
+    }
+
+    abstract static class StubPlugin implements PaymentTransactionPlugin {
+
+        final String config;
+
+        StubPlugin(String config) {
+            this.config = config;
+        }
+
+        @Override
+        public PrePaymentOrderResponse preOrder(PrePaymentOrderRequest request) {
+            return null;
+        }
+
+        @Override
+        public QueryTransactionOrderResponse queryTransactionOrder(QueryTransactionOrderRequest request) {
+            return null;
+        }
+
+        @Override
+        public TransactionOrderRefundResponse transactionOrderRefund(TransactionOrderRefundRequest request) {
+            return null;
+        }
+
+        @Override
+        public TransactionOrderRefundResponse queryTransactionOrderRefund(QueryTransactionOrderRefundRequest request) {
+            return null;
+        }
+
+        @Override
+        public CloseTransactionOrderResponse closeTransactionOrder(CloseTransactionOrderRequest request) {
+            return null;
+        }
+
+        @Override
+        public PaymentTransactionNotification parsePaymentEvent(Object rawRequest) {
+            return null;
+        }
+
+        @Override
+        public PaymentTransactionNotification parseRefundEvent(Object rawRequest) {
+            return null;
+        }
+
+        @Override
+        public QueryTransactionOrderResponse onPaymentEvent(PaymentTransactionEventRequest request) {
+            return null;
+        }
+
+        @Override
+        public TransactionOrderRefundResponse onRefundEvent(PaymentTransactionRefundEventRequest request) {
+            return null;
+        }
+
+        @Override
+        public Object getWebHookResponse(boolean isSuccessful) {
+            return null;
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    enum TestPlatform implements PaymentTransactionPlatform {
+
+        MOCK("测试平台");
+
+        private final String desc;
+    }
+
+    @AllArgsConstructor
+    @Getter
+    enum TestScene implements PaymentTransactionScene {
+
+        APP("App支付"),
+
+        WEB("网页支付");
+
+        private final String desc;
+    }
+}
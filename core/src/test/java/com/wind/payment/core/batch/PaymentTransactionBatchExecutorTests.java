@@ -0,0 +1,173 @@
+package com.wind.payment.core.batch;
+
+import com.wind.payment.core.PaymentTransactionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentTransactionBatchExecutorTests {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testReportsEveryItemAndKeepsGoingAfterFailures() {
+        PaymentTransactionBatchExecutor batchExecutor = new PaymentTransactionBatchExecutor(executor, 4);
+        List<Integer> requests = IntStream.range(0, 100).boxed().toList();
+
+        try (BatchResultIterator<Integer, String> results = batchExecutor.execute("p1", requests, request -> {
+            if (request % 10 == 0) {
+                throw new PaymentTransactionException("query failure");
+            }
+            return String.valueOf(request);
+        })) {
+            List<BatchItemResult<Integer, String>> items = results.stream().toList();
+            assertEquals(100, items.size());
+            List<BatchItemResult<Integer, String>> failures = items.stream().filter(item -> !item.isSuccessful()).toList();
+            assertEquals(10, failures.size());
+            failures.forEach(item -> assertInstanceOf(PaymentTransactionException.class, item.error()));
+        }
+    }
+
+    @Test
+    void testLimitsConcurrencyPerPartnerAcrossBatches() {
+        PaymentTransactionBatchExecutor batchExecutor = new PaymentTransactionBatchExecutor(executor, 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> requests = IntStream.range(0, 30).boxed().toList();
+
+        BatchResultIterator<Integer, Integer> first = batchExecutor.execute("p1", requests, request -> track(running, maxRunning, request));
+        BatchResultIterator<Integer, Integer> second = batchExecutor.execute("p1", requests, request -> track(running, maxRunning, request));
+        first.forEachRemaining(item -> assertTrue(item.isSuccessful()));
+        second.forEachRemaining(item -> assertTrue(item.isSuccessful()));
+
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    void testRunsRequestsOfSameGroupInOrder() {
+        PaymentTransactionBatchExecutor batchExecutor = new PaymentTransactionBatchExecutor(executor, 4);
+        Map<String, List<Integer>> executed = new ConcurrentHashMap<>();
+        AtomicInteger progress = new AtomicInteger();
+        List<Integer> requests = IntStream.range(0, 40).boxed().toList();
+
+        try (BatchResultIterator<Integer, Integer> results = batchExecutor.execute("p1", requests, request -> "order-" + request % 4,
+                request -> {
+                    executed.computeIfAbsent("order-" + request % 4, key -> Collections.synchronizedList(new ArrayList<>())).add(request);
+                    return request;
+                }, (result, completed, total) -> progress.incrementAndGet())) {
+            assertEquals(40, results.stream().count());
+        }
+
+        assertEquals(40, progress.get());
+        executed.values().forEach(values -> assertEquals(values.stream().sorted().toList(), values));
+    }
+
+    @Test
+    void testLimitsRequestRatePerPartner() {
+        PaymentTransactionBatchExecutor batchExecutor = new PaymentTransactionBatchExecutor(executor, 4, 50);
+        List<Integer> requests = IntStream.range(0, 75).boxed().toList();
+
+        long begin = System.nanoTime();
+        try (BatchResultIterator<Integer, Integer> results = batchExecutor.execute("p1", requests, request -> request)) {
+            results.forEachRemaining(item -> assertTrue(item.isSuccessful()));
+        }
+
+        // 初始没有累积的许可，75 个许可按 20ms 间隔发放，最后一个在约 1.48 秒后
+        assertTrue(System.nanoTime() - begin >= 1_400_000_000L);
+    }
+
+    @Test
+    void testFailsRemainingRequestsWhenActionThrowsError() {
+        PaymentTransactionBatchExecutor batchExecutor = new PaymentTransactionBatchExecutor(executor, 1);
+        List<Integer> requests = IntStream.range(0, 10).boxed().toList();
+
+        try (BatchResultIterator<Integer, Integer> results = batchExecutor.execute("p1", requests, request -> {
+            if (request == 3) {
+                throw new StackOverflowError();
+            }
+            return request;
+        })) {
+            List<BatchItemResult<Integer, Integer>> items = results.stream().toList();
+            assertEquals(10, items.size());
+            assertEquals(3, items.stream().filter(BatchItemResult::isSuccessful).count());
+            items.stream().filter(item -> !item.isSuccessful()).forEach(item -> assertInstanceOf(StackOverflowError.class, item.error()));
+        }
+    }
+
+    @Test
+    void testSerializesSameGroupAcrossBatches() {
+        PaymentTransactionBatchExecutor batchExecutor = new PaymentTransactionBatchExecutor(executor, 4);
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger maxRunningPerGroup = new AtomicInteger();
+        List<Integer> requests = IntStream.range(0, 20).boxed().toList();
+
+        List<BatchResultIterator<Integer, Integer>> batches = IntStream.range(0, 3)
+                .mapToObj(i -> batchExecutor.execute("p" + i, requests, request -> "order-" + request % 2, request -> {
+                    AtomicInteger counter = running.computeIfAbsent("order-" + request % 2, key -> new AtomicInteger());
+                    return track(counter, maxRunningPerGroup, request);
+                }, BatchProgressListener.none()))
+                .toList();
+        batches.forEach(batch -> batch.forEachRemaining(item -> assertTrue(item.isSuccessful())));
+
+        assertEquals(1, maxRunningPerGroup.get());
+    }
+
+    @Test
+    void testEvictsIdlePartnerLimitsOnly() throws Exception {
+        PaymentTransactionBatchExecutor batchExecutor = new PaymentTransactionBatchExecutor(executor, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        BatchResultIterator<Integer, Integer> results = batchExecutor.execute("p1", List.of(1), request -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return request;
+        });
+        started.await();
+        assertFalse(batchExecutor.evictPartnerLimits("p1"));
+        release.countDown();
+        results.forEachRemaining(item -> assertTrue(item.isSuccessful()));
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!batchExecutor.evictPartnerLimits("p1") && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(batchExecutor.evictPartnerLimits("p1"));
+    }
+
+    private static Integer track(AtomicInteger running, AtomicInteger maxRunning, Integer request) {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+        }
+        return request;
+    }
+}
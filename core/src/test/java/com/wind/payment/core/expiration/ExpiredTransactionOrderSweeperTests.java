@@ -0,0 +1,146 @@
+package com.wind.payment.core.expiration;
+
+import com.wind.payment.core.PaymentTransactionPlugin;
+import com.wind.payment.core.batch.PaymentTransactionBatchExecutor;
+import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.payment.core.request.CloseTransactionOrderRequest;
+import com.wind.payment.core.request.PrePaymentOrderRequest;
+import com.wind.payment.core.response.CloseTransactionOrderResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExpiredTransactionOrderSweeperTests {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final Set<String> closed = ConcurrentHashMap.newKeySet();
+
+    private final CountDownLatch latch = new CountDownLatch(2);
+
+    private final ExpiredTransactionOrderSweeper sweeper = new ExpiredTransactionOrderSweeper(new PaymentTransactionBatchExecutor(executor, 2),
+            Duration.ofHours(1), (result, completed, total) -> {
+        if (result.isSuccessful()) {
+            closed.add(result.response().getTransactionSn());
+        }
+        latch.countDown();
+    });
+
+    @AfterEach
+    void tearDown() {
+        sweeper.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSweepClosesOnlyExpiredOrders() throws Exception {
+        PaymentTransactionPlugin plugin = mockPlugin();
+        Instant now = Instant.now();
+        sweeper.track(plugin, closeRequest("T001"), now.minusSeconds(10));
+        sweeper.track(plugin, closeRequest("T002"), now.minusSeconds(5));
+        sweeper.track(plugin, closeRequest("T003"), now.plus(Duration.ofHours(3)));
+
+        assertEquals(2, sweeper.sweep(now.plus(Duration.ofHours(1))));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(Set.of("T001", "T002"), closed);
+        assertEquals(1, sweeper.getTrackingCount());
+    }
+
+    @Test
+    void testCancelledOrderIsNotClosed() {
+        PaymentTransactionPlugin plugin = mockPlugin();
+        PrePaymentOrderRequest request = new PrePaymentOrderRequest();
+        request.setTransactionSn("T004");
+        request.setValidityDuration(Duration.ofMinutes(15));
+        sweeper.track(plugin, request);
+
+        assertTrue(sweeper.cancel("T004"));
+        assertFalse(sweeper.cancel("T004"));
+        assertEquals(0, sweeper.sweep(Instant.now().plus(Duration.ofDays(1))));
+    }
+
+    @Test
+    void testRetrackReplacesDeadline() {
+        PaymentTransactionPlugin plugin = mockPlugin();
+        Instant now = Instant.now();
+        sweeper.track(plugin, closeRequest("T005"), now.minusSeconds(10));
+        sweeper.track(plugin, closeRequest("T005"), now.plus(Duration.ofDays(1)));
+
+        assertEquals(0, sweeper.sweep(now.plus(Duration.ofHours(1))));
+        assertEquals(1, sweeper.getTrackingCount());
+    }
+
+    @Test
+    void testPluginsOfSamePartnerShareConcurrencyLimit() throws Exception {
+        PaymentTransactionBatchExecutor.PartnerKey partnerKey = new PaymentTransactionBatchExecutor.PartnerKey("partner-001", "MOCK");
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        PaymentTransactionPlugin appPlugin = slowPlugin(partnerKey, running, maxRunning);
+        PaymentTransactionPlugin webPlugin = slowPlugin(partnerKey, running, maxRunning);
+        CountDownLatch completed = new CountDownLatch(4);
+        try (ExpiredTransactionOrderSweeper partnerSweeper = new ExpiredTransactionOrderSweeper(new PaymentTransactionBatchExecutor(executor, 1),
+                Duration.ofHours(1), (result, count, total) -> completed.countDown())) {
+            Instant now = Instant.now();
+            partnerSweeper.track(appPlugin, closeRequest("T101"), now.minusSeconds(10));
+            partnerSweeper.track(appPlugin, closeRequest("T102"), now.minusSeconds(10));
+            partnerSweeper.track(webPlugin, closeRequest("T103"), now.minusSeconds(10));
+            partnerSweeper.track(webPlugin, closeRequest("T104"), now.minusSeconds(10));
+
+            assertEquals(4, partnerSweeper.sweep(now));
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, maxRunning.get());
+    }
+
+    private static PaymentTransactionPlugin slowPlugin(Object partnerKey, AtomicInteger running, AtomicInteger maxRunning) {
+        PaymentTransactionPlugin result = mock(PaymentTransactionPlugin.class);
+        when(result.getPartnerKey()).thenReturn(partnerKey);
+        when(result.closeTransactionOrder(any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } finally {
+                running.decrementAndGet();
+            }
+            CloseTransactionOrderRequest request = invocation.getArgument(0);
+            return new CloseTransactionOrderResponse()
+                    .setTransactionSn(request.getTransactionSn())
+                    .setTransactionState(PaymentTransactionState.CLOSED);
+        });
+        return result;
+    }
+
+    private static PaymentTransactionPlugin mockPlugin() {
+        PaymentTransactionPlugin result = mock(PaymentTransactionPlugin.class);
+        when(result.getPartnerKey()).thenReturn(result);
+        when(result.closeTransactionOrder(any())).thenAnswer(invocation -> {
+            CloseTransactionOrderRequest request = invocation.getArgument(0);
+            return new CloseTransactionOrderResponse()
+                    .setTransactionSn(request.getTransactionSn())
+                    .setTransactionState(PaymentTransactionState.CLOSED);
+        });
+        return result;
+    }
+
+    private static CloseTransactionOrderRequest closeRequest(String transactionSn) {
+        CloseTransactionOrderRequest result = new CloseTransactionOrderRequest();
+        result.setTransactionSn(transactionSn);
+        return result;
+    }
+}
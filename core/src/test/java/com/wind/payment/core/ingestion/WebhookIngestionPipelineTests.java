@@ -0,0 +1,247 @@
+package com.wind.payment.core.ingestion;
+
+import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.PaymentTransactionWebHooker;
+import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.payment.core.request.PaymentTransactionEventRequest;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.transaction.core.enums.CurrencyIsoCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WebhookIngestionPipelineTests {
+
+    private final PaymentTransactionWebHooker hooker = mockHooker();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAcknowledgesAfterAppendAndProcessesAsynchronously() throws Exception {
+        List<WebhookEvent> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        try (WebhookIngestionPipeline pipeline = new WebhookIngestionPipeline(new WebhookEventJournal(directory), events -> {
+            handled.addAll(events);
+            latch.countDown();
+        })) {
+            assertEquals("success", pipeline.ingestPaymentEvent("partner", hooker, request("T001")));
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            WebhookEvent event = handled.get(0);
+            assertEquals(1, event.sequence());
+            assertEquals(WebhookEvent.Type.PAYMENT, event.type());
+            assertEquals("partner", event.partnerId());
+            assertEquals("T001", event.transactionSn());
+            assertEquals(PaymentTransactionState.COMPLETED, event.transactionState());
+            assertEquals(10_000, event.orderAmount());
+        }
+    }
+
+    @Test
+    void testShedsLoadWhenPendingEventsReachLimit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (WebhookIngestionPipeline pipeline = new WebhookIngestionPipeline(new WebhookEventJournal(directory), events -> release.await(),
+                1, 2, 16, 1, Duration.ofMillis(1))) {
+            assertEquals("success", pipeline.ingestPaymentEvent("partner", hooker, request("T001")));
+            assertEquals("success", pipeline.ingestPaymentEvent("partner", hooker, request("T002")));
+            assertEquals("failure", pipeline.ingestPaymentEvent("partner", hooker, request("T003")));
+
+            assertEquals(1, pipeline.stats().shedCount());
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testRejectsEventWhenVerificationFails() {
+        when(hooker.onPaymentEvent(any())).thenThrow(new IllegalStateException("bad sign"));
+        try (WebhookIngestionPipeline pipeline = new WebhookIngestionPipeline(new WebhookEventJournal(directory), events -> {
+        })) {
+            assertEquals("failure", pipeline.ingestPaymentEvent("partner", hooker, request("T001")));
+            assertEquals(1, pipeline.stats().rejectedCount());
+            assertEquals(0, pipeline.getPendingCount());
+        }
+    }
+
+    @Test
+    void testRetriesFailedBatch() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        try (WebhookIngestionPipeline pipeline = new WebhookIngestionPipeline(new WebhookEventJournal(directory), events -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("handle error");
+            }
+            latch.countDown();
+        }, 1, 16, 16, 5, Duration.ofMillis(1))) {
+            pipeline.ingestPaymentEvent("partner", hooker, request("T001"));
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(3, attempts.get());
+            assertEquals(2, pipeline.stats().retryCount());
+        }
+    }
+
+    @Test
+    void testRetriesBatchWhenHandlerThrowsError() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(2);
+        try (WebhookIngestionPipeline pipeline = new WebhookIngestionPipeline(new WebhookEventJournal(directory), events -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new StackOverflowError();
+            }
+            events.forEach(event -> latch.countDown());
+        }, 1, 16, 1, 5, Duration.ofMillis(1))) {
+            pipeline.ingestPaymentEvent("partner", hooker, request("T001"));
+            pipeline.ingestPaymentEvent("partner", hooker, request("T002"));
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            awaitProcessed(pipeline);
+            assertEquals(1, pipeline.stats().retryCount());
+            assertEquals(2, pipeline.stats().processedCount());
+        }
+    }
+
+    @Test
+    void testReplaysUncommittedEventsAfterRestart() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        try (WebhookIngestionPipeline pipeline = new WebhookIngestionPipeline(new WebhookEventJournal(directory), events -> {
+            blocked.countDown();
+            new CountDownLatch(1).await();
+        })) {
+            pipeline.ingestPaymentEvent("partner", hooker, request("T001"));
+            pipeline.ingestPaymentEvent("partner", hooker, request("T002"));
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        }
+
+        List<WebhookEvent> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        try (WebhookIngestionPipeline pipeline = new WebhookIngestionPipeline(new WebhookEventJournal(directory), events -> {
+            handled.addAll(events);
+            events.forEach(event -> latch.countDown());
+        })) {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            awaitProcessed(pipeline);
+            assertEquals(List.of("T001", "T002"), handled.stream().map(WebhookEvent::transactionSn).toList());
+        }
+        try (WebhookEventJournal journal = new WebhookEventJournal(directory)) {
+            assertEquals(2, journal.getCommittedSequence());
+            assertEquals(0, journal.replay(event -> {
+            }));
+        }
+    }
+
+    @Test
+    void testJournalTruncatesTornRecord() throws IOException {
+        try (WebhookEventJournal journal = new WebhookEventJournal(directory)) {
+            journal.append(event("T001"), event -> {
+            });
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.getFileName().toString().endsWith(".journal")).findFirst().orElseThrow();
+        }
+        long size = Files.size(segment);
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        try (WebhookEventJournal journal = new WebhookEventJournal(directory)) {
+            assertEquals(size, Files.size(segment));
+            assertEquals(2, journal.append(event("T002"), event -> {
+            }).sequence());
+            List<String> replayed = new CopyOnWriteArrayList<>();
+            journal.replay(event -> replayed.add(event.transactionSn()));
+            assertEquals(List.of("T001", "T002"), replayed);
+        }
+    }
+
+    @Test
+    void testJournalReopensSegmentClosedByInterrupt() {
+        try (WebhookEventJournal journal = new WebhookEventJournal(directory)) {
+            Thread.currentThread().interrupt();
+            try {
+                assertThrows(PaymentTransactionException.class, () -> journal.append(event("T001"), event -> {
+                }));
+                assertTrue(Thread.currentThread().isInterrupted());
+            } finally {
+                Thread.interrupted();
+            }
+
+            assertEquals(1, journal.append(event("T002"), event -> {
+            }).sequence());
+            List<String> replayed = new CopyOnWriteArrayList<>();
+            journal.replay(event -> replayed.add(event.transactionSn()));
+            assertEquals(List.of("T002"), replayed);
+        }
+    }
+
+    @Test
+    void testJournalDeletesCommittedSegments() {
+        try (WebhookEventJournal journal = new WebhookEventJournal(directory, 64 * 1024 + 1)) {
+            for (int i = 0; i < 2000; i++) {
+                journal.append(event("T" + i), event -> {
+                });
+            }
+            int segmentCount = journal.getSegmentCount();
+            assertTrue(segmentCount > 1);
+
+            journal.commit(journal.getLastSequence());
+
+            assertEquals(1, journal.getSegmentCount());
+            assertEquals(0, journal.replay(event -> {
+            }));
+        }
+    }
+
+    private static void awaitProcessed(WebhookIngestionPipeline pipeline) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pipeline.getPendingCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pipeline.getPendingCount());
+    }
+
+    private static WebhookEvent event(String transactionSn) {
+        return new WebhookEvent(0, WebhookEvent.Type.PAYMENT, "partner", transactionSn, "O" + transactionSn, null, null,
+                PaymentTransactionState.COMPLETED, 100, 0, System.currentTimeMillis());
+    }
+
+    private static PaymentTransactionWebHooker mockHooker() {
+        PaymentTransactionWebHooker result = mock(PaymentTransactionWebHooker.class);
+        when(result.onPaymentEvent(any())).thenAnswer(invocation -> {
+            PaymentTransactionEventRequest request = invocation.getArgument(0);
+            QueryTransactionOrderResponse response = new QueryTransactionOrderResponse();
+            response.setTransactionSn(request.getTransactionSn());
+            response.setOutTransactionSn("O" + request.getTransactionSn());
+            response.setOrderAmount(request.getOrderAmount());
+            response.setTransactionState(PaymentTransactionState.COMPLETED);
+            return response;
+        });
+        when(result.getWebHookResponse(anyBoolean())).thenAnswer(invocation -> (boolean) invocation.getArgument(0) ? "success" : "failure");
+        return result;
+    }
+
+    private static PaymentTransactionEventRequest request(String transactionSn) {
+        PaymentTransactionEventRequest result = new PaymentTransactionEventRequest();
+        result.setTransactionSn(transactionSn);
+        result.setOrderAmount(CurrencyIsoCode.CNY.of(10_000));
+        return result;
+    }
+}
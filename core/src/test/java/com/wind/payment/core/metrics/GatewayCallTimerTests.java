@@ -0,0 +1,104 @@
+package com.wind.payment.core.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayCallTimerTests {
+
+    @Test
+    void testNoopWithoutListener() {
+        GatewayCallTimer timer = GatewayCallTimer.start(GatewayCallListener.NOOP, "alipay", "query");
+        assertFalse(timer.isEnabled());
+        assertSame(timer, GatewayCallTimer.current());
+        assertSame(timer, GatewayCallTimer.start("alipay", "query"));
+        timer.mark(GatewayCallPhase.SIGN);
+        timer.close();
+        assertFalse(GatewayCallTimer.current().isEnabled());
+    }
+
+    @Test
+    void testRecordsMarkedPhases() {
+        List<GatewayCallBreakdown> breakdowns = new ArrayList<>();
+        try (GatewayCallTimer timer = GatewayCallTimer.start(breakdowns::add, "alipay", "query")) {
+            assertTrue(timer.isEnabled());
+            assertSame(timer, GatewayCallTimer.current());
+            timer.mark(GatewayCallPhase.SIGN);
+            GatewayCallTimer.current().mark(GatewayCallPhase.NETWORK);
+            timer.mark(GatewayCallPhase.PARSE);
+        }
+        assertFalse(GatewayCallTimer.current().isEnabled());
+
+        assertEquals(1, breakdowns.size());
+        GatewayCallBreakdown breakdown = breakdowns.get(0);
+        assertEquals("alipay", breakdown.getPlatform());
+        assertEquals("query", breakdown.getOperation());
+        assertTrue(breakdown.isRecorded(GatewayCallPhase.SIGN));
+        assertTrue(breakdown.isRecorded(GatewayCallPhase.NETWORK));
+        assertTrue(breakdown.isRecorded(GatewayCallPhase.PARSE));
+        assertTrue(breakdown.isRecorded(GatewayCallPhase.MAP));
+        assertFalse(breakdown.isRecorded(GatewayCallPhase.CONNECT));
+        assertEquals(0, breakdown.getPhaseNanos(GatewayCallPhase.CONNECT));
+        long phaseTotal = 0;
+        for (GatewayCallPhase phase : GatewayCallPhase.values()) {
+            phaseTotal += breakdown.getPhaseNanos(phase);
+        }
+        assertEquals(breakdown.getTotalNanos(), phaseTotal);
+    }
+
+    @Test
+    void testNestedTimerRestoresPrevious() {
+        List<GatewayCallBreakdown> breakdowns = new ArrayList<>();
+        try (GatewayCallTimer outer = GatewayCallTimer.start(breakdowns::add, "wechat", "refund")) {
+            try (GatewayCallTimer inner = GatewayCallTimer.start(breakdowns::add, "wechat", "queryRefund")) {
+                assertSame(inner, GatewayCallTimer.current());
+            }
+            assertSame(outer, GatewayCallTimer.current());
+            outer.mark(GatewayCallPhase.NETWORK);
+        }
+        assertEquals(List.of("queryRefund", "refund"), breakdowns.stream().map(GatewayCallBreakdown::getOperation).toList());
+    }
+
+    @Test
+    void testListenerErrorIsIgnored() {
+        GatewayCallTimer timer = GatewayCallTimer.start(breakdown -> {
+            throw new IllegalStateException("listener error");
+        }, "wechat", "CLOSE");
+        timer.close();
+        assertFalse(GatewayCallTimer.current().isEnabled());
+    }
+
+    @Test
+    void testMicrometerListenerRecordsPhaseHistograms() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerGatewayCallListener listener = new MicrometerGatewayCallListener(registry);
+        for (int i = 0; i < 2; i++) {
+            try (GatewayCallTimer timer = GatewayCallTimer.start(listener, "alipay", "preOrder")) {
+                timer.mark(GatewayCallPhase.SIGN);
+                timer.mark(GatewayCallPhase.NETWORK);
+            }
+        }
+
+        assertEquals(2, registry.get(MicrometerGatewayCallListener.PHASE_METER_NAME)
+                .tags("platform", "alipay", "operation", "preOrder", "phase", "sign")
+                .timer()
+                .count());
+        assertEquals(2, registry.get(MicrometerGatewayCallListener.PHASE_METER_NAME)
+                .tags("platform", "alipay", "operation", "preOrder", "phase", "map")
+                .timer()
+                .count());
+        assertEquals(0, registry.get(MicrometerGatewayCallListener.PHASE_METER_NAME)
+                .tags("platform", "alipay", "operation", "preOrder", "phase", "connect")
+                .timer()
+                .count());
+        assertNull(registry.find(MicrometerGatewayCallListener.PHASE_METER_NAME).tags("operation", "query").timer());
+    }
+}
@@ -0,0 +1,153 @@
+package com.wind.payment.core.metrics;
+
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.PaymentTransactionPlatform;
+import com.wind.payment.core.PaymentTransactionPlugin;
+import com.wind.payment.core.PaymentTransactionScene;
+import com.wind.payment.core.bill.TransactionBillProvider;
+import com.wind.payment.core.request.QueryTransactionOrderRequest;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class MicrometerPaymentTransactionPluginDecoratorTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MicrometerPaymentTransactionPluginDecorator decorator = new MicrometerPaymentTransactionPluginDecorator(registry, 2, 8);
+
+    @Test
+    void testRecordsSuccessLatencyAndInFlight() {
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class);
+        AtomicReference<Double> inFlight = new AtomicReference<>();
+        when(plugin.queryTransactionOrder(any())).thenAnswer(invocation -> {
+            inFlight.set(registry.get(MicrometerPaymentTransactionPluginDecorator.IN_FLIGHT_METER_NAME)
+                    .tags("merchant", "m1", "operation", "query")
+                    .gauge()
+                    .value());
+            return new QueryTransactionOrderResponse();
+        });
+        PaymentTransactionPlugin instrumented = decorator.decorate("m1", TestPlatform.MOCK, TestScene.APP, plugin);
+
+        assertNotNull(instrumented.queryTransactionOrder(new QueryTransactionOrderRequest()));
+        assertNotNull(instrumented.queryTransactionOrder(new QueryTransactionOrderRequest()));
+
+        Timer timer = registry.get(MicrometerPaymentTransactionPluginDecorator.REQUESTS_METER_NAME)
+                .tags("platform", "MOCK", "scene", "APP", "merchant", "m1", "operation", "query", "outcome", "success")
+                .timer();
+        assertEquals(2, timer.count());
+        assertEquals(1.0, inFlight.get());
+        assertEquals(0.0, registry.get(MicrometerPaymentTransactionPluginDecorator.IN_FLIGHT_METER_NAME)
+                .tags("merchant", "m1", "operation", "query")
+                .gauge()
+                .value());
+    }
+
+    @Test
+    void testCountsErrorsByGatewayErrorCode() {
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class);
+        when(plugin.queryTransactionOrder(any()))
+                .thenThrow(new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "failed")
+                        .withGatewayErrorCode("ACQ.TRADE_NOT_EXIST"))
+                .thenThrow(new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "error",
+                        new UncheckedIOException(new IOException("timeout"))));
+        PaymentTransactionPlugin instrumented = decorator.decorate("m1", TestPlatform.MOCK, TestScene.APP, plugin);
+
+        assertThrows(PaymentTransactionException.class, () -> instrumented.queryTransactionOrder(new QueryTransactionOrderRequest()));
+        assertThrows(PaymentTransactionException.class, () -> instrumented.queryTransactionOrder(new QueryTransactionOrderRequest()));
+
+        assertEquals(1, registry.get(MicrometerPaymentTransactionPluginDecorator.ERRORS_METER_NAME)
+                .tags("operation", "query", "error_code", "ACQ.TRADE_NOT_EXIST")
+                .counter()
+                .count());
+        assertEquals(1, registry.get(MicrometerPaymentTransactionPluginDecorator.ERRORS_METER_NAME)
+                .tags("operation", "query", "error_code", "IOException")
+                .counter()
+                .count());
+        assertEquals(2, registry.get(MicrometerPaymentTransactionPluginDecorator.REQUESTS_METER_NAME)
+                .tags("operation", "query", "outcome", "error")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void testMerchantTagCardinalityIsBounded() {
+        for (String merchant : new String[]{"m1", "m2", "m3", "m4"}) {
+            decorator.decorate(merchant, TestPlatform.MOCK, TestScene.APP, mock(PaymentTransactionPlugin.class))
+                    .queryTransactionOrder(new QueryTransactionOrderRequest());
+        }
+
+        assertEquals(2, registry.get(MicrometerPaymentTransactionPluginDecorator.REQUESTS_METER_NAME)
+                .tags("merchant", MicrometerPaymentTransactionPluginDecorator.OTHER_TAG_VALUE, "operation", "query", "outcome", "success")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void testPercentileHistogramCanBeDisabled() {
+        SimpleMeterRegistry noHistogramRegistry = new SimpleMeterRegistry();
+        decorator.decorate("m1", TestPlatform.MOCK, TestScene.APP, mock(PaymentTransactionPlugin.class))
+                .queryTransactionOrder(new QueryTransactionOrderRequest());
+        new MicrometerPaymentTransactionPluginDecorator(noHistogramRegistry, 2, 8, false)
+                .decorate("m1", TestPlatform.MOCK, TestScene.APP, mock(PaymentTransactionPlugin.class))
+                .queryTransactionOrder(new QueryTransactionOrderRequest());
+
+        assertTrue(registry.get(MicrometerPaymentTransactionPluginDecorator.REQUESTS_METER_NAME)
+                .tags("operation", "query", "outcome", "success")
+                .timer()
+                .takeSnapshot()
+                .histogramCounts().length > 0);
+        assertEquals(0, noHistogramRegistry.get(MicrometerPaymentTransactionPluginDecorator.REQUESTS_METER_NAME)
+                .tags("operation", "query", "outcome", "success")
+                .timer()
+                .takeSnapshot()
+                .histogramCounts().length);
+    }
+
+    @Test
+    void testKeepsBillProviderCapability() {
+        PaymentTransactionPlugin billPlugin = mock(PaymentTransactionPlugin.class,
+                withSettings().extraInterfaces(TransactionBillProvider.class));
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class);
+
+        assertInstanceOf(TransactionBillProvider.class, decorator.decorate("m1", TestPlatform.MOCK, TestScene.APP, billPlugin));
+        assertFalse(decorator.decorate("m1", TestPlatform.MOCK, TestScene.APP, plugin) instanceof TransactionBillProvider);
+    }
+
+    @AllArgsConstructor
+    @Getter
+    enum TestPlatform implements PaymentTransactionPlatform {
+
+        MOCK("测试平台");
+
+        private final String desc;
+    }
+
+    @AllArgsConstructor
+    @Getter
+    enum TestScene implements PaymentTransactionScene {
+
+        APP("App支付");
+
+        private final String desc;
+    }
+}
@@ -0,0 +1,100 @@
+package com.wind.payment.core.polling;
+
+import com.wind.payment.core.PaymentTransactionPlugin;
+import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.payment.core.request.QueryTransactionOrderRequest;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PaymentTransactionStatePollerTests {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final PaymentTransactionStatePoller poller = new PaymentTransactionStatePoller(executor,
+            PollingBackoffPolicy.exponential(Duration.ofMillis(20), 2, 2.0, Duration.ofMillis(80), 10), Duration.ofMillis(10), 64);
+
+    @AfterEach
+    void tearDown() {
+        poller.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testStopsPollingOnTerminalState() throws Exception {
+        AtomicInteger queries = new AtomicInteger();
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class);
+        when(plugin.queryTransactionOrder(any())).thenAnswer(invocation -> new QueryTransactionOrderResponse()
+                .setTransactionState(queries.incrementAndGet() < 3 ? PaymentTransactionState.PAYING : PaymentTransactionState.COMPLETED));
+        CompletableFuture<QueryTransactionOrderResponse> completed = new CompletableFuture<>();
+
+        poller.pollTransactionOrder(plugin, request("T001"), completed::complete);
+
+        assertEquals(PaymentTransactionState.COMPLETED, completed.get(5, TimeUnit.SECONDS).getTransactionState());
+        assertEquals(3, queries.get());
+        assertEquals(0, poller.getPollingCount());
+    }
+
+    @Test
+    void testStopsPollingWhenWebhookArrives() throws Exception {
+        AtomicInteger queries = new AtomicInteger();
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class);
+        when(plugin.queryTransactionOrder(any())).thenAnswer(invocation -> {
+            queries.incrementAndGet();
+            return new QueryTransactionOrderResponse().setTransactionState(PaymentTransactionState.PAYING);
+        });
+
+        poller.pollTransactionOrder(plugin, request("T002"), response -> {
+        });
+        assertTrue(poller.onPaymentEvent("T002"));
+        int queried = queries.get();
+        Thread.sleep(200);
+
+        assertEquals(queried, queries.get());
+        assertEquals(0, poller.getPollingCount());
+    }
+
+    @Test
+    void testGivesUpWhenBackoffIsExhausted() throws Exception {
+        PaymentTransactionPlugin plugin = mock(PaymentTransactionPlugin.class);
+        when(plugin.queryTransactionOrder(any())).thenReturn(new QueryTransactionOrderResponse()
+                .setTransactionState(PaymentTransactionState.PAYING));
+        CompletableFuture<Integer> exhausted = new CompletableFuture<>();
+        PaymentTransactionStatePoller shortPoller = new PaymentTransactionStatePoller(executor,
+                PollingBackoffPolicy.exponential(Duration.ofMillis(10), 3, 1.0, Duration.ofMillis(10), 3), Duration.ofMillis(5), 16);
+
+        try (shortPoller) {
+            shortPoller.pollTransactionOrder(plugin, request("T003"), new TransactionStatePollingListener<>() {
+                @Override
+                public void onCompleted(QueryTransactionOrderResponse response) {
+                    exhausted.completeExceptionally(new IllegalStateException("unexpected completion"));
+                }
+
+                @Override
+                public void onExhausted(QueryTransactionOrderResponse lastResponse, Throwable lastError) {
+                    exhausted.complete(1);
+                }
+            });
+            assertEquals(1, exhausted.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static QueryTransactionOrderRequest request(String transactionSn) {
+        QueryTransactionOrderRequest result = new QueryTransactionOrderRequest();
+        result.setTransactionSn(transactionSn);
+        return result;
+    }
+}
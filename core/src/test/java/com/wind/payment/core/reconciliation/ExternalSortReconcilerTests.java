@@ -0,0 +1,121 @@
+package com.wind.payment.core.reconciliation;
+
+import com.wind.payment.core.bill.TransactionBillRecord;
+import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.transaction.core.enums.CurrencyIsoCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExternalSortReconcilerTests {
+
+    @TempDir
+    Path tempDirectory;
+
+    @Test
+    void testReportsMismatchesWhenSpillingToDisk() throws IOException {
+        List<TransactionBillRecord> gateway = new ArrayList<>();
+        List<TransactionBillRecord> local = new ArrayList<>();
+        IntStream.range(0, 5000).forEach(i -> {
+            gateway.add(payment("T" + i, 100, PaymentTransactionState.COMPLETED));
+            local.add(payment("T" + i, 100, PaymentTransactionState.COMPLETED));
+        });
+        gateway.add(payment("ONLY-GATEWAY", 100, PaymentTransactionState.COMPLETED));
+        local.add(payment("ONLY-LOCAL", 100, PaymentTransactionState.COMPLETED));
+        gateway.set(10, payment("T10", 99, PaymentTransactionState.COMPLETED));
+        local.set(20, payment("T20", 100, PaymentTransactionState.PAYING));
+        gateway.add(payment("T30", 100, PaymentTransactionState.REFUNDED).setTransactionRefundSn("R30").setRefundAmount(CurrencyIsoCode.CNY.of(50)));
+        local.add(payment("T30", 100, PaymentTransactionState.PARTIAL_REFUND).setTransactionRefundSn("R30").setRefundAmount(CurrencyIsoCode.CNY.of(50)));
+        Collections.shuffle(gateway);
+        Collections.shuffle(local);
+
+        Map<ReconciliationMismatchType, List<ReconciliationMismatch>> mismatches = new EnumMap<>(ReconciliationMismatchType.class);
+        ExternalSortReconciler reconciler = new ExternalSortReconciler(64 * 1024, tempDirectory);
+        ReconciliationResult result = reconciler.reconcile(gateway.iterator(), local.iterator(),
+                mismatch -> mismatches.computeIfAbsent(mismatch.type(), key -> new ArrayList<>()).add(mismatch));
+
+        assertEquals(5002, result.gatewayCount());
+        assertEquals(4999, result.matchedCount());
+        assertEquals(4, result.mismatchCount());
+        assertEquals("ONLY-GATEWAY", mismatches.get(ReconciliationMismatchType.MISSING_LOCAL).get(0).gatewayEntry().transactionSn());
+        assertEquals("ONLY-LOCAL", mismatches.get(ReconciliationMismatchType.MISSING_GATEWAY).get(0).localEntry().transactionSn());
+        assertEquals("T10", mismatches.get(ReconciliationMismatchType.AMOUNT_MISMATCH).get(0).gatewayEntry().transactionSn());
+        assertEquals("T20", mismatches.get(ReconciliationMismatchType.STATE_MISMATCH).get(0).localEntry().transactionSn());
+        try (Stream<Path> files = Files.list(tempDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testPairsRecordsSharingJoinKey() {
+        List<TransactionBillRecord> gateway = List.of(
+                payment("T1", 100, PaymentTransactionState.COMPLETED),
+                payment("T1", 100, PaymentTransactionState.CLOSED),
+                refund("T1", null, "W1", 30),
+                refund("T1", "R2", null, 20),
+                payment(null, 200, PaymentTransactionState.COMPLETED).setOutTransactionSn("O2"),
+                refund("T3", null, "W3", 10));
+        List<TransactionBillRecord> local = List.of(
+                payment("T1", 100, PaymentTransactionState.CLOSED),
+                refund("T1", "R2", "W2", 20),
+                refund("T1", "R1", "W1", 30),
+                payment("T1", 100, PaymentTransactionState.COMPLETED),
+                payment(null, 200, PaymentTransactionState.COMPLETED).setOutTransactionSn("O2"),
+                refund("T3", "R3", null, 10));
+
+        List<ReconciliationMismatch> mismatches = new ArrayList<>();
+        ReconciliationResult result = new ExternalSortReconciler(64 * 1024, tempDirectory).reconcile(gateway.iterator(), local.iterator(),
+                mismatches::add);
+
+        assertEquals(5, result.matchedCount());
+        assertEquals(2, result.mismatchCount());
+        assertEquals(ReconciliationMismatchType.MISSING_LOCAL, mismatches.get(0).type());
+        assertEquals("W3", mismatches.get(0).gatewayEntry().outTransactionRefundSn());
+        assertEquals(ReconciliationMismatchType.MISSING_GATEWAY, mismatches.get(1).type());
+        assertEquals("R3", mismatches.get(1).localEntry().transactionRefundSn());
+    }
+
+    @Test
+    void testReportsRecordsWithoutJoinKey() {
+        List<TransactionBillRecord> gateway = List.of(payment(null, 100, PaymentTransactionState.COMPLETED),
+                payment(null, 100, PaymentTransactionState.COMPLETED));
+        List<TransactionBillRecord> local = List.of(payment(null, 100, PaymentTransactionState.COMPLETED));
+
+        List<ReconciliationMismatch> mismatches = new ArrayList<>();
+        ReconciliationResult result = new ExternalSortReconciler(64 * 1024, tempDirectory).reconcile(gateway.iterator(), local.iterator(),
+                mismatches::add);
+
+        assertEquals(0, result.matchedCount());
+        assertEquals(3, result.mismatchCount());
+    }
+
+    private static TransactionBillRecord refund(String transactionSn, String transactionRefundSn, String outTransactionRefundSn,
+                                                int amount) {
+        return new TransactionBillRecord()
+                .setTransactionSn(transactionSn)
+                .setTransactionRefundSn(transactionRefundSn)
+                .setOutTransactionRefundSn(outTransactionRefundSn)
+                .setOrderAmount(CurrencyIsoCode.CNY.of(100))
+                .setRefundAmount(CurrencyIsoCode.CNY.of(amount))
+                .setTransactionState(PaymentTransactionState.REFUNDED);
+    }
+
+    private static TransactionBillRecord payment(String transactionSn, int amount, PaymentTransactionState state) {
+        return new TransactionBillRecord()
+                .setTransactionSn(transactionSn)
+                .setOrderAmount(CurrencyIsoCode.CNY.of(amount))
+                .setTransactionState(state);
+    }
+}
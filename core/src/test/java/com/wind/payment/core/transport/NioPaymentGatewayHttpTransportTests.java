@@ -0,0 +1,110 @@
+package com.wind.payment.core.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NioPaymentGatewayHttpTransportTests {
+
+    private HttpServer server;
+
+    private CountDownLatch slowLatch;
+
+    private NioPaymentGatewayHttpTransport transport;
+
+    @BeforeEach
+    void setup() throws IOException {
+        slowLatch = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/echo", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.createContext("/error", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                slowLatch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        transport = new NioPaymentGatewayHttpTransport("test", 1, Duration.ofSeconds(1), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowLatch.countDown();
+        transport.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testConcurrentRequestsOnSingleIoThread() {
+        List<CompletableFuture<PaymentGatewayHttpResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(transport.sendAsync(request("/echo", "body-" + i, Duration.ofSeconds(5))));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            PaymentGatewayHttpResponse response = futures.get(i).join();
+            assertTrue(response.isSuccessful());
+            assertArrayEquals(("body-" + i).getBytes(StandardCharsets.UTF_8), response.body());
+        }
+        NioPaymentGatewayHttpTransport.Stats stats = transport.stats();
+        assertEquals(50, stats.completedCount());
+        assertEquals(0, stats.inFlightCount());
+    }
+
+    @Test
+    void testErrorStatusIsReturned() throws IOException {
+        PaymentGatewayHttpResponse response = transport.send(request("/error", "", Duration.ofSeconds(5)));
+        assertFalse(response.isSuccessful());
+        assertEquals(503, response.statusCode());
+    }
+
+    @Test
+    void testSendTimeout() {
+        assertThrows(HttpTimeoutException.class, () -> transport.send(request("/slow", "", Duration.ofMillis(200))));
+        assertEquals(1, transport.stats().failedCount());
+    }
+
+    @Test
+    void testSharedTransportCanNotBeClosed() {
+        assertThrows(RuntimeException.class, () -> NioPaymentGatewayHttpTransport.shared().close());
+    }
+
+    private PaymentGatewayHttpRequest request(String path, String body, Duration timeout) {
+        return new PaymentGatewayHttpRequest(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path), "text/plain",
+                body.getBytes(StandardCharsets.UTF_8), timeout);
+    }
+}
@@ -0,0 +1,131 @@
+package com.wind.payment.core.webhook;
+
+import com.wind.payment.core.PaymentTransactionWebHooker;
+import com.wind.payment.core.request.PaymentTransactionEventRequest;
+import com.wind.payment.core.request.PaymentTransactionRefundEventRequest;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PaymentTransactionEventDispatcherTests {
+
+    private final PaymentTransactionWebHooker hooker = mockHooker();
+
+    @Test
+    void testEventsOfSameTransactionAreHandledInOrder() throws Exception {
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        try (PaymentTransactionEventDispatcher dispatcher = new PaymentTransactionEventDispatcher(4, 64)) {
+            List<CompletableFuture<Object>> futures = new ArrayList<>();
+            futures.add(dispatcher.dispatchPaymentEvent(hooker, paymentRequest("T001"), response -> {
+                sleep();
+                return handled.add("payment");
+            }));
+            futures.add(dispatcher.dispatchRefundEvent("T001", hooker, refundRequest("R001"), response -> handled.add("refund")));
+
+            for (CompletableFuture<Object> future : futures) {
+                assertEquals("success", future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(List.of("payment", "refund"), handled);
+        }
+    }
+
+    @Test
+    void testDifferentTransactionsRunInParallel() throws Exception {
+        try (PaymentTransactionEventDispatcher dispatcher = new PaymentTransactionEventDispatcher(8, 64)) {
+            String first = "T001";
+            String second = "T002";
+            for (int i = 3; dispatcher.laneOf(first) == dispatcher.laneOf(second); i++) {
+                second = "T00" + i;
+            }
+            assertNotEquals(dispatcher.laneOf(first), dispatcher.laneOf(second));
+            CountDownLatch bothStarted = new CountDownLatch(2);
+            CompletableFuture<Boolean> firstResult = dispatcher.dispatch(first, () -> awaitOther(bothStarted));
+            CompletableFuture<Boolean> secondResult = dispatcher.dispatch(second, () -> awaitOther(bothStarted));
+
+            assertTrue(firstResult.get(5, TimeUnit.SECONDS));
+            assertTrue(secondResult.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testRejectsWhenLaneQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (PaymentTransactionEventDispatcher dispatcher = new PaymentTransactionEventDispatcher(1, 1)) {
+            CountDownLatch started = new CountDownLatch(1);
+            dispatcher.dispatch("T001", () -> {
+                started.countDown();
+                return release.await(5, TimeUnit.SECONDS);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            dispatcher.dispatch("T002", () -> true);
+
+            Object response = dispatcher.dispatchPaymentEvent(hooker, paymentRequest("T003"), result -> true).get(5, TimeUnit.SECONDS);
+
+            assertEquals("failure", response);
+            PaymentTransactionEventDispatcher.LaneStats stats = dispatcher.laneStats().get(0);
+            assertEquals(1, stats.rejectedCount());
+            assertEquals(1, stats.queueSize());
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testHandlerErrorReturnsFailureResponse() throws Exception {
+        try (PaymentTransactionEventDispatcher dispatcher = new PaymentTransactionEventDispatcher(2, 16)) {
+            Object response = dispatcher.dispatchPaymentEvent(hooker, paymentRequest("T001"), result -> {
+                throw new IllegalStateException("handle error");
+            }).get(5, TimeUnit.SECONDS);
+
+            assertEquals("failure", response);
+            assertEquals(1, dispatcher.laneStats().get(dispatcher.laneOf("T001")).failedCount());
+        }
+    }
+
+    private static boolean awaitOther(CountDownLatch latch) throws InterruptedException {
+        latch.countDown();
+        return latch.await(5, TimeUnit.SECONDS);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static PaymentTransactionWebHooker mockHooker() {
+        PaymentTransactionWebHooker result = mock(PaymentTransactionWebHooker.class);
+        when(result.onPaymentEvent(any())).thenReturn(new QueryTransactionOrderResponse());
+        when(result.onRefundEvent(any())).thenReturn(new TransactionOrderRefundResponse());
+        when(result.getWebHookResponse(anyBoolean())).thenAnswer(invocation -> (boolean) invocation.getArgument(0) ? "success" : "failure");
+        return result;
+    }
+
+    private static PaymentTransactionEventRequest paymentRequest(String transactionSn) {
+        PaymentTransactionEventRequest result = new PaymentTransactionEventRequest();
+        result.setTransactionSn(transactionSn);
+        return result;
+    }
+
+    private static PaymentTransactionRefundEventRequest refundRequest(String transactionRefundSn) {
+        PaymentTransactionRefundEventRequest result = new PaymentTransactionRefundEventRequest();
+        result.setTransactionRefundSn(transactionRefundSn);
+        return result;
+    }
+}
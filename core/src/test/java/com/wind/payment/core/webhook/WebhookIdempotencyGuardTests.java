@@ -0,0 +1,151 @@
+package com.wind.payment.core.webhook;
+
+import com.wind.payment.core.PaymentTransactionWebHooker;
+import com.wind.payment.core.request.PaymentTransactionEventRequest;
+import com.wind.payment.core.response.QueryTransactionOrderResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebhookIdempotencyGuardTests {
+
+    private final PaymentTransactionWebHooker hooker = mockHooker();
+
+    @Test
+    void testDuplicateNotificationIsNotReprocessed() {
+        WebhookIdempotencyGuard guard = new WebhookIdempotencyGuard();
+        AtomicInteger handled = new AtomicInteger();
+
+        assertEquals("success", guard.onPaymentEvent(hooker, request("N001", "TRADE_SUCCESS"), response -> handled.incrementAndGet() > 0));
+        assertEquals("success", guard.onPaymentEvent(hooker, request("N001", "TRADE_SUCCESS"), response -> handled.incrementAndGet() > 0));
+
+        assertEquals(1, handled.get());
+        assertEquals(1, guard.getDuplicateCount());
+        verify(hooker, times(1)).onPaymentEvent(any());
+    }
+
+    @Test
+    void testFailedNotificationIsReprocessed() {
+        WebhookIdempotencyGuard guard = new WebhookIdempotencyGuard();
+        AtomicInteger handled = new AtomicInteger();
+
+        assertEquals("failure", guard.onPaymentEvent(hooker, request("N002", "TRADE_SUCCESS"), response -> handled.incrementAndGet() > 1));
+        assertEquals("success", guard.onPaymentEvent(hooker, request("N002", "TRADE_SUCCESS"), response -> handled.incrementAndGet() > 1));
+
+        assertEquals(2, handled.get());
+        assertEquals(0, guard.getDuplicateCount());
+    }
+
+    @Test
+    void testDifferentStateIsNotDuplicate() {
+        WebhookIdempotencyGuard guard = new WebhookIdempotencyGuard();
+
+        guard.onPaymentEvent(hooker, request("N003", "WAIT_BUYER_PAY"), response -> true);
+        guard.onPaymentEvent(hooker, request("N003", "TRADE_SUCCESS"), response -> true);
+
+        assertEquals(0, guard.getDuplicateCount());
+        verify(hooker, times(2)).onPaymentEvent(any());
+    }
+
+    @Test
+    void testFallsBackToStoreAfterRecentKeysEvicted() {
+        MemoryStore store = new MemoryStore();
+        WebhookIdempotencyGuard guard = new WebhookIdempotencyGuard(store, 1024, 0.01, 1);
+        guard.onPaymentEvent(hooker, request("N004", "TRADE_SUCCESS"), response -> true);
+        guard.onPaymentEvent(hooker, request("N005", "TRADE_SUCCESS"), response -> true);
+
+        assertTrue(guard.isProcessed(new WebhookIdempotencyKey("TEST", "N004", "TRADE_SUCCESS")));
+        assertEquals(2, store.keys.size());
+    }
+
+    @Test
+    void testWarmsUpFromStore() {
+        MemoryStore store = new MemoryStore();
+        store.save(new WebhookIdempotencyKey("TEST", "N006", "TRADE_SUCCESS").asText());
+        WebhookIdempotencyGuard guard = new WebhookIdempotencyGuard(store, 1024, 0.01, 16);
+
+        assertEquals("success", guard.onPaymentEvent(hooker, request("N006", "TRADE_SUCCESS"), response -> false));
+        verify(hooker, never()).onPaymentEvent(any());
+    }
+
+    @Test
+    void testDecodesNotificationOnce() {
+        PaymentTransactionWebHooker parsingHooker = mock(PaymentTransactionWebHooker.class);
+        PaymentTransactionEventRequest request = request("N008", "TRADE_SUCCESS");
+        PaymentTransactionNotification notification = new PaymentTransactionNotification()
+                .setRawRequest(request.getRawRequest())
+                .setPayload(request.getRawRequest());
+        when(parsingHooker.parsePaymentEvent(request.getRawRequest())).thenReturn(notification);
+        when(parsingHooker.getIdempotencyKey(notification)).thenReturn(new WebhookIdempotencyKey("TEST", "N008", "TRADE_SUCCESS"));
+        when(parsingHooker.onPaymentEvent(any())).thenReturn(new QueryTransactionOrderResponse());
+        when(parsingHooker.getWebHookResponse(anyBoolean())).thenReturn("success");
+        WebhookIdempotencyGuard guard = new WebhookIdempotencyGuard(new MemoryStore(), 1024, 0.01, 16);
+
+        assertEquals("success", guard.onPaymentEvent(parsingHooker, request, response -> true));
+
+        verify(parsingHooker, times(1)).parsePaymentEvent(any());
+        verify(parsingHooker).onPaymentEvent(argThat(verifyRequest -> verifyRequest.getRawRequest() == notification
+                && "TN008".equals(verifyRequest.getTransactionSn())));
+    }
+
+    @Test
+    void testUnknownKeyIsNotProcessed() {
+        WebhookIdempotencyGuard guard = new WebhookIdempotencyGuard(new MemoryStore(), 1024, 0.01, 16);
+
+        assertFalse(guard.isProcessed(new WebhookIdempotencyKey("TEST", "N007", null)));
+    }
+
+    private static PaymentTransactionWebHooker mockHooker() {
+        PaymentTransactionWebHooker result = mock(PaymentTransactionWebHooker.class);
+        when(result.getIdempotencyKey(any())).thenAnswer(invocation -> {
+            Map<String, String> params = invocation.getArgument(0);
+            return new WebhookIdempotencyKey("TEST", params.get("notify_id"), params.get("trade_status"));
+        });
+        when(result.onPaymentEvent(any())).thenReturn(new QueryTransactionOrderResponse());
+        when(result.getWebHookResponse(anyBoolean())).thenAnswer(invocation -> (boolean) invocation.getArgument(0) ? "success" : "failure");
+        return result;
+    }
+
+    private static PaymentTransactionEventRequest request(String notifyId, String tradeStatus) {
+        PaymentTransactionEventRequest result = new PaymentTransactionEventRequest();
+        result.setTransactionSn("T" + notifyId);
+        result.setRawRequest(Map.of("notify_id", notifyId, "trade_status", tradeStatus));
+        return result;
+    }
+
+    private static final class MemoryStore implements WebhookIdempotencyStore {
+
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean contains(String key) {
+            return keys.contains(key);
+        }
+
+        @Override
+        public void save(String key) {
+            keys.add(key);
+        }
+
+        @Override
+        public void loadRecentKeys(Consumer<String> consumer) {
+            keys.forEach(consumer);
+        }
+    }
+}
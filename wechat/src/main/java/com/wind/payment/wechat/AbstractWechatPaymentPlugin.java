@@ -5,14 +5,13 @@ import com.github.binarywang.wxpay.bean.notify.WxPayOrderNotifyResult;
 import com.github.binarywang.wxpay.bean.notify.WxPayRefundNotifyResult;
 import com.github.binarywang.wxpay.bean.request.WxPayRefundQueryRequest;
 import com.github.binarywang.wxpay.bean.request.WxPayRefundRequest;
+import com.github.binarywang.wxpay.bean.result.WxPayOrderCloseResult;
 import com.github.binarywang.wxpay.bean.result.WxPayOrderQueryResult;
 import com.github.binarywang.wxpay.bean.result.WxPayRefundQueryResult;
 import com.github.binarywang.wxpay.bean.result.WxPayRefundResult;
-import com.github.binarywang.wxpay.config.WxPayConfig;
 import com.github.binarywang.wxpay.constant.WxPayConstants;
 import com.github.binarywang.wxpay.exception.WxPayException;
 import com.github.binarywang.wxpay.service.WxPayService;
-import com.github.binarywang.wxpay.service.impl.WxPayServiceImpl;
 import com.wind.common.WindConstants;
 import com.wind.common.WindDateFormatPatterns;
 import com.wind.common.enums.DescriptiveEnum;
@@ -20,14 +19,30 @@ import com.wind.common.exception.AssertUtils;
 import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.payment.core.PaymentTransactionException;
 import com.wind.payment.core.PaymentTransactionPlugin;
+import com.wind.payment.core.batch.PaymentTransactionBatchExecutor;
+import com.wind.payment.core.bill.TransactionBillIterator;
+import com.wind.payment.core.bill.TransactionBillProvider;
 import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.payment.core.metrics.GatewayCallPhase;
+import com.wind.payment.core.metrics.GatewayCallTimer;
+import com.wind.payment.core.metrics.PaymentTransactionOperation;
+import com.wind.payment.core.request.CloseTransactionOrderRequest;
+import com.wind.payment.core.request.DownloadTransactionBillRequest;
 import com.wind.payment.core.request.PaymentTransactionEventRequest;
 import com.wind.payment.core.request.PaymentTransactionRefundEventRequest;
 import com.wind.payment.core.request.QueryTransactionOrderRefundRequest;
 import com.wind.payment.core.request.QueryTransactionOrderRequest;
 import com.wind.payment.core.request.TransactionOrderRefundRequest;
+import com.wind.payment.core.response.CloseTransactionOrderResponse;
 import com.wind.payment.core.response.QueryTransactionOrderResponse;
 import com.wind.payment.core.response.TransactionOrderRefundResponse;
+import com.wind.payment.core.support.SharedResourceRegistry;
+import com.wind.payment.core.webhook.PaymentTransactionNotification;
+import com.wind.payment.core.webhook.WebhookIdempotencyKey;
+import com.wind.payment.wechat.bill.WechatTransactionBillDownloader;
+import com.wind.payment.wechat.http.WechatPayOperation;
+import com.wind.payment.wechat.webhook.WechatNotification;
+import com.wind.payment.wechat.webhook.WechatNotificationXmlParser;
 import com.wind.transaction.core.enums.CurrencyIsoCode;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -36,20 +51,26 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * 微信支付插件抽象类
+ * 同一商户配置的各场景插件共享一个 {@link WxPayService}，插件不再使用时应调用 {@link #close()} 释放引用
  *
  * @author wuxp
  * @date 2023-10-03 09:36
  **/
 @Slf4j
-public abstract class AbstractWechatPaymentPlugin implements PaymentTransactionPlugin {
+public abstract class AbstractWechatPaymentPlugin implements PaymentTransactionPlugin, TransactionBillProvider, AutoCloseable {
 
     /**
      * 支付结果处理成功返回码
@@ -61,6 +82,21 @@ public abstract class AbstractWechatPaymentPlugin implements PaymentTransactionP
      */
     private static final String PAYMENT_RESULT_HANDLE_FAILURE_RETURN_CONTENT = WxPayNotifyResponse.success("failure");
 
+    /**
+     * 通知幂等 key 中的平台名称
+     */
+    private static final String IDEMPOTENCY_PLATFORM = "WECHAT";
+
+    /**
+     * 接口调用分阶段计时中的平台名称
+     */
+    private static final String GATEWAY_CALL_PLATFORM = "wechat";
+
+    /**
+     * 关闭订单时订单已关闭，视为关闭成功
+     */
+    private static final String ORDER_CLOSED_ERROR_CODE = "ORDERCLOSED";
+
     private static final List<String> SUCCESS_CODES = Arrays.asList(WxPayConstants.ResultCode.SUCCESS, WindConstants.EMPTY);
 
     /**
@@ -96,22 +132,52 @@ public abstract class AbstractWechatPaymentPlugin implements PaymentTransactionP
 
     private final WechatPayPartnerConfig config;
 
+    private final SharedResourceRegistry.Lease<WxPayService> wxPayServiceLease;
+
     @Getter
     private final WxPayService wxPayService;
 
+    private final WechatNotificationXmlParser notificationParser;
+
     protected AbstractWechatPaymentPlugin(WechatPayPartnerConfig config) {
         AssertUtils.hasLength(config.getAppId(), "wechat AppId must not empty");
         AssertUtils.hasLength(config.getPartner(), "wechat Partner must not empty");
         AssertUtils.hasLength(config.getPartnerSecret(), "wechat PartnerSecret must not empty");
         this.config = config;
-        this.wxPayService = buildWxPayService();
+        this.wxPayServiceLease = WechatPayServiceRegistry.acquire(config, this);
+        this.wxPayService = wxPayServiceLease.get();
+        this.notificationParser = new WechatNotificationXmlParser(config.getSignType(), config.getPartnerSecret());
     }
 
+    @Override
+    public void close() {
+        wxPayServiceLease.close();
+    }
+
+    /**
+     * @return 以商户号区分，同一商户的场景插件、重建后的插件共享批量操作的并发与速率限制
+     */
+    @Override
+    public Object getPartnerKey() {
+        return new PaymentTransactionBatchExecutor.PartnerKey(config.getPartner(), IDEMPOTENCY_PLATFORM);
+    }
+
+    /**
+     * 开始接口调用的分阶段计时，SDK 调用返回后应标记 {@link GatewayCallPhase#PARSE}，计时器关闭前的剩余耗时计为响应转换
+     *
+     * @param operation 接口调用类型
+     * @return 计时器，未设置监听器时为空计时器
+     */
+    protected GatewayCallTimer startGatewayCallTimer(WechatPayOperation operation) {
+        PaymentTransactionOperation metricsOperation = operation.getMetricsOperation();
+        return GatewayCallTimer.start(GATEWAY_CALL_PLATFORM, metricsOperation == null ? operation.name() : metricsOperation.getTagValue());
+    }
 
     @Override
     public QueryTransactionOrderResponse queryTransactionOrder(QueryTransactionOrderRequest request) {
-        try {
+        try (GatewayCallTimer timer = startGatewayCallTimer(WechatPayOperation.QUERY)) {
             WxPayOrderQueryResult response = wxPayService.queryOrder(request.getOutTransactionSn(), request.getTransactionSn());
+            timer.mark(GatewayCallPhase.PARSE);
             if (log.isDebugEnabled()) {
                 log.debug("查询微信支付结果，transactionNo = {}，响应：{}", request.getTransactionSn(), response);
             }
@@ -126,7 +192,8 @@ public abstract class AbstractWechatPaymentPlugin implements PaymentTransactionP
                     .setRawResponse(response);
         } catch (WxPayException exception) {
             throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("查询微信交易单异常，transactionNo = %s",
-                    request.getTransactionSn()), exception);
+                    request.getTransactionSn()), exception)
+                    .withGatewayErrorCode(getGatewayErrorCode(exception));
         }
     }
 
@@ -140,8 +207,9 @@ public abstract class AbstractWechatPaymentPlugin implements PaymentTransactionP
         req.setTotalFee(request.getOrderAmount().getIntAmount());
         req.setNotifyUrl(request.getAsynchronousNotificationUrl());
         req.setRefundDesc(request.getRefundReason());
-        try {
+        try (GatewayCallTimer timer = startGatewayCallTimer(WechatPayOperation.REFUND)) {
             WxPayRefundResult response = wxPayService.refund(req);
+            timer.mark(GatewayCallPhase.PARSE);
             if (log.isDebugEnabled()) {
                 log.debug("微信退款请求结果，transactionNo = {}，响应：{}", request.getTransactionSn(), response);
             }
@@ -155,7 +223,8 @@ public abstract class AbstractWechatPaymentPlugin implements PaymentTransactionP
                     .setRawResponse(response);
         } catch (WxPayException exception) {
             throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("微信交易退款异常，transactionNo = %s",
-                    request.getTransactionSn()), exception);
+                    request.getTransactionSn()), exception)
+                    .withGatewayErrorCode(getGatewayErrorCode(exception));
         }
     }
 
@@ -166,8 +235,9 @@ public abstract class AbstractWechatPaymentPlugin implements PaymentTransactionP
         req.setOutTradeNo(request.getTransactionSn());
         req.setOutRefundNo(request.getRequestRefundSn());
         req.setRefundId(request.getOutTransactionRefundSn());
-        try {
+        try (GatewayCallTimer timer = startGatewayCallTimer(WechatPayOperation.QUERY_REFUND)) {
             WxPayRefundQueryResult response = wxPayService.refundQuery(req);
+            timer.mark(GatewayCallPhase.PARSE);
             if (log.isDebugEnabled()) {
                 log.debug("微信退款查询结果，transactionNo = {}，响应：{}", request.getTransactionSn(), response);
             }
@@ -184,40 +254,65 @@ public abstract class AbstractWechatPaymentPlugin implements PaymentTransactionP
                     .setRawResponse(response);
         } catch (WxPayException exception) {
             throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("查询微信交易退款异常，transactionNo = %s",
-                    request.getTransactionSn()), exception);
+                    request.getTransactionSn()), exception)
+                    .withGatewayErrorCode(getGatewayErrorCode(exception));
+        }
+    }
+
+    @Override
+    public CloseTransactionOrderResponse closeTransactionOrder(CloseTransactionOrderRequest request) {
+        AssertUtils.hasLength(request.getTransactionSn(), "close order transactionSn must not empty");
+        CloseTransactionOrderResponse result = new CloseTransactionOrderResponse()
+                .setTransactionSn(request.getTransactionSn())
+                .setOutTransactionSn(request.getOutTransactionSn())
+                .setTransactionState(PaymentTransactionState.CLOSED);
+        try (GatewayCallTimer timer = startGatewayCallTimer(WechatPayOperation.CLOSE)) {
+            WxPayOrderCloseResult response = wxPayService.closeOrder(request.getTransactionSn());
+            timer.mark(GatewayCallPhase.PARSE);
+            if (log.isDebugEnabled()) {
+                log.debug("关闭微信交易单，transactionNo = {}，响应：{}", request.getTransactionSn(), response);
+            }
+            return result.setRawResponse(response);
+        } catch (WxPayException exception) {
+            if (Objects.equals(ORDER_CLOSED_ERROR_CODE, exception.getErrCode())) {
+                return result.setRawResponse(exception.getXmlString());
+            }
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("关闭微信交易单异常，transactionNo = %s，errorCode = %s",
+                    request.getTransactionSn(), exception.getErrCode()), exception)
+                    .withGatewayErrorCode(getGatewayErrorCode(exception));
         }
     }
 
     @Override
     public QueryTransactionOrderResponse onPaymentEvent(PaymentTransactionEventRequest request) {
-        WxPayOrderNotifyResult notifyResult = verifyPaymentNotifyRequest(request);
+        WechatNotification notification = verifyPaymentNotifyRequest(request);
         QueryTransactionOrderResponse result = new QueryTransactionOrderResponse();
-        result.setOutTransactionSn(notifyResult.getTransactionId())
-                .setTransactionSn(notifyResult.getOutTradeNo())
-                .setOrderAmount(CurrencyIsoCode.CNY.of(notifyResult.getTotalFee()))
-                .setBuyerPayAmount(CurrencyIsoCode.CNY.of(notifyResult.getSettlementTotalFee()))
+        Integer settlementTotalFee = notification.getInt("settlement_total_fee");
+        result.setOutTransactionSn(notification.get("transaction_id"))
+                .setTransactionSn(notification.get("out_trade_no"))
+                .setOrderAmount(CurrencyIsoCode.CNY.of(notification.getInt("total_fee")))
+                .setBuyerPayAmount(settlementTotalFee == null ? null : CurrencyIsoCode.CNY.of(settlementTotalFee))
                 .setUseSandboxEnv(isUseSandboxEnv());
-        if (isSuccessful(notifyResult.getReturnCode(), notifyResult.getResultCode())) {
+        if (isSuccessful(notification.get("return_code"), notification.get("result_code"))) {
             result.setTransactionState(PaymentTransactionState.COMPLETED);
         } else {
             result.setTransactionState(PaymentTransactionState.FAILED);
         }
-        result.setRawResponse(notifyResult);
+        result.setRawResponse(toOrderNotifyResult(notification));
         return result;
     }
 
     @Override
     public TransactionOrderRefundResponse onRefundEvent(PaymentTransactionRefundEventRequest request) {
         // 验签
-        WxPayRefundNotifyResult notifyResult = verifyRefundNotifyRequest(request);
-        WxPayRefundNotifyResult.ReqInfo reqInfo = notifyResult.getReqInfo();
+        WechatNotification notification = verifyRefundNotifyRequest(request);
         TransactionOrderRefundResponse result = new TransactionOrderRefundResponse();
-        result.setTransactionRefundSn(reqInfo.getOutRefundNo())
-                .setOutTransactionRefundSn(reqInfo.getRefundId())
-                .setOrderAmount(CurrencyIsoCode.CNY.of(reqInfo.getTotalFee()))
-                .setRefundAmount(CurrencyIsoCode.CNY.of(reqInfo.getSettlementRefundFee()))
-                .setRawResponse(notifyResult);
-        if (isSuccessful(notifyResult.getReturnCode(), notifyResult.getResultCode())) {
+        result.setTransactionRefundSn(notification.getRefundInfo("out_refund_no"))
+                .setOutTransactionRefundSn(notification.getRefundInfo("refund_id"))
+                .setOrderAmount(CurrencyIsoCode.CNY.of(notification.getRefundInfoInt("total_fee")))
+                .setRefundAmount(CurrencyIsoCode.CNY.of(notification.getRefundInfoInt("settlement_refund_fee")))
+                .setRawResponse(toRefundNotifyResult(notification));
+        if (isSuccessful(notification.get("return_code"), notification.get("result_code"))) {
             result.setTransactionState(Objects.equals(result.getOrderAmount(), result.getRefundAmount()) ? PaymentTransactionState.REFUNDED :
                     PaymentTransactionState.PARTIAL_REFUND);
 
@@ -227,6 +322,15 @@ public abstract class AbstractWechatPaymentPlugin implements PaymentTransactionP
         return result;
     }
 
+    @Override
+    public TransactionBillIterator downloadTransactionBill(DownloadTransactionBillRequest request) {
+        AssertUtils.notNull(request.getBillDate(), "bill date must not null");
+        if (log.isDebugEnabled()) {
+            log.debug("下载微信账单，billDate = {}", request.getBillDate());
+        }
+        return WechatTransactionBillDownloader.download(wxPayService, request.getBillDate());
+    }
+
     @Override
     public Object getWebHookResponse(boolean isSuccessful) {
         return isSuccessful ? PAYMENT_RESULT_HANDLE_SUCCESS_RETURN_CONTENT :
@@ -269,76 +373,226 @@ public abstract class AbstractWechatPaymentPlugin implements PaymentTransactionP
     }
 
     /**
-     * 验证支付通知
+     * 验证支付通知，微信支付的支付通知总是携带签名，未携带签名的通知直接拒绝
      *
      * @param request 支付通知参数
-     * @return WxPayOrderNotifyResult
+     * @return 解码后的通知
      */
-    private WxPayOrderNotifyResult verifyPaymentNotifyRequest(PaymentTransactionEventRequest request) {
-        try {
-            WxPayOrderNotifyResult notifyResult = wxPayService.parseOrderNotifyResult(request.getRawRequest());
-            boolean verifyResult = Objects.equals(config.getPartner(), notifyResult.getMchId())
-                    && Objects.equals(request.getTransactionSn(), notifyResult.getOutTradeNo())
-                    && Objects.equals(request.getOrderAmount(), notifyResult.getTotalFee());
-            if (log.isDebugEnabled()) {
-                log.debug("微信支付通知，transactionNo = {}，参数验证 = {}，通知内容 = {}", request.getTransactionSn(), verifyResult, notifyResult);
-            }
-            AssertUtils.isTrue(verifyResult, "参数验证失败");
-            // 验签
-            notifyResult.checkResult(this.wxPayService, config.getSignType(), false);
-            return notifyResult;
-        } catch (WxPayException exception) {
-            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "微信支付通知签名验证异常", exception);
+    private WechatNotification verifyPaymentNotifyRequest(PaymentTransactionEventRequest request) {
+        // 原始通知在此解码，两阶段处理时复用 parsePaymentEvent 的解码结果
+        WechatNotification notification = parsePaymentEvent(request.getRawRequest()).getPayload();
+        boolean verifyResult = Objects.equals(config.getPartner(), notification.get("mch_id"))
+                && Objects.equals(request.getTransactionSn(), notification.get("out_trade_no"))
+                && request.getOrderAmount() != null
+                && Objects.equals(request.getOrderAmount().getIntAmount(), notification.getInt("total_fee"));
+        if (log.isDebugEnabled()) {
+            log.debug("微信支付通知，transactionNo = {}，参数验证 = {}，通知内容 = {}", request.getTransactionSn(), verifyResult, notification.getFields());
         }
+        AssertUtils.isTrue(verifyResult, "参数验证失败");
+        // 验签
+        AssertUtils.isTrue(notification.isSignValid(), "微信支付通知签名验证失败");
+        return notification;
     }
 
 
     /**
      * 退款通知验签
+     * 退款通知的内容通过 req_info 加密传输，携带签名时同时校验签名
      *
      * @param request 通知请求
-     * @return WxPayRefundNotifyResult
+     * @return 解码后的通知
      */
-    private WxPayRefundNotifyResult verifyRefundNotifyRequest(PaymentTransactionRefundEventRequest request) {
-        try {
-            WxPayRefundNotifyResult notifyResult = wxPayService.parseRefundNotifyResult(request.getRawRequest());
-            boolean verifyResult = Objects.equals(config.getPartner(), notifyResult.getMchId())
-                    && Objects.equals(request.getTransactionRefundSn(), notifyResult.getReqInfo().getOutRefundNo());
-            if (log.isDebugEnabled()) {
-                log.debug("微信退款通知，transactionRefundNo = {}，参数验证 = {}，通知内容 = {}", request.getTransactionRefundSn(), verifyResult, notifyResult);
+    private WechatNotification verifyRefundNotifyRequest(PaymentTransactionRefundEventRequest request) {
+        WechatNotification notification = parseRefundEvent(request.getRawRequest()).getPayload();
+        boolean verifyResult = Objects.equals(config.getPartner(), notification.get("mch_id"))
+                && Objects.equals(request.getTransactionRefundSn(), notification.getRefundInfo("out_refund_no"));
+        if (log.isDebugEnabled()) {
+            log.debug("微信退款通知，transactionRefundNo = {}，参数验证 = {}，通知内容 = {}", request.getTransactionRefundSn(), verifyResult,
+                    notification.getRefundInfo());
+        }
+        AssertUtils.isTrue(verifyResult, "参数验证失败");
+        // 验签
+        AssertUtils.isTrue(!notification.isSigned() || notification.isSignValid(), "微信退款通知签名验证失败");
+        return notification;
+    }
+
+    @Override
+    public PaymentTransactionNotification parsePaymentEvent(Object rawRequest) {
+        if (rawRequest instanceof PaymentTransactionNotification notification && notification.getPayload() instanceof WechatNotification) {
+            return notification;
+        }
+        WechatNotification notification = notificationParser.parsePaymentNotification(getNotificationXml(rawRequest));
+        Integer totalFee = notification.getInt("total_fee");
+        return new PaymentTransactionNotification()
+                .setTransactionSn(notification.get("out_trade_no"))
+                .setOutTransactionSn(notification.get("transaction_id"))
+                .setOrderAmount(totalFee == null ? null : CurrencyIsoCode.CNY.of(totalFee))
+                .setRawRequest(rawRequest)
+                .setPayload(notification);
+    }
+
+    @Override
+    public PaymentTransactionNotification parseRefundEvent(Object rawRequest) {
+        if (rawRequest instanceof PaymentTransactionNotification notification && notification.getPayload() instanceof WechatNotification) {
+            return notification;
+        }
+        // 退款通知的 req_info 需要使用商户密钥解密后才能取得退款单号
+        WechatNotification notification = notificationParser.parseRefundNotification(getNotificationXml(rawRequest));
+        Integer totalFee = notification.getRefundInfoInt("total_fee");
+        Integer refundFee = notification.getRefundInfoInt("refund_fee");
+        return new PaymentTransactionNotification()
+                .setTransactionSn(notification.getRefundInfo("out_trade_no"))
+                .setOutTransactionSn(notification.getRefundInfo("transaction_id"))
+                .setTransactionRefundSn(notification.getRefundInfo("out_refund_no"))
+                .setOutTransactionRefundSn(notification.getRefundInfo("refund_id"))
+                .setOrderAmount(totalFee == null ? null : CurrencyIsoCode.CNY.of(totalFee))
+                .setRefundAmount(refundFee == null ? null : CurrencyIsoCode.CNY.of(refundFee))
+                .setRawRequest(rawRequest)
+                .setPayload(notification);
+    }
+
+    @Override
+    public WebhookIdempotencyKey getIdempotencyKey(Object rawRequest) {
+        if (rawRequest instanceof PaymentTransactionNotification notification) {
+            if (notification.getPayload() instanceof WechatNotification decoded) {
+                return getIdempotencyKey(decoded.getFields()::get);
             }
-            AssertUtils.isTrue(verifyResult, "参数验证失败");
-            // 验签
-            notifyResult.checkResult(wxPayService, config.getSignType(), false);
-            return notifyResult;
-        } catch (WxPayException exception) {
-            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "微信退款通知签名验证异常", exception);
+            rawRequest = notification.getRawRequest();
+        }
+        if (!(rawRequest instanceof String xml)) {
+            return null;
         }
+        return getIdempotencyKey(name -> getXmlElementText(xml, name));
     }
 
     /**
-     * @return 获取微信支付服务
+     * @return 微信支付返回的错误码，优先使用业务错误码 err_code，通信失败时使用 return_code
      */
-    private WxPayService buildWxPayService() {
-        WxPayConfig payConfig = new WxPayConfig();
-        payConfig.setAppId(StringUtils.trimToNull(config.getAppId()));
-        payConfig.setMchId(StringUtils.trimToNull(config.getPartner()));
-        payConfig.setMchKey(StringUtils.trimToNull(config.getPartnerSecret()));
-        payConfig.setSubAppId(StringUtils.trimToNull(config.getSubAppId()));
-        payConfig.setSubMchId(StringUtils.trimToNull(config.getSubMchId()));
-        payConfig.setKeyPath(StringUtils.trimToNull(config.getKeyPath()));
-        payConfig.setSignType(config.getSignType());
-        // 可以指定是否使用沙箱环境
-        payConfig.setUseSandboxEnv(isUseSandboxEnv());
-        WxPayService result = new WxPayServiceImpl();
-        result.setConfig(payConfig);
-        return result;
+    static String getGatewayErrorCode(WxPayException exception) {
+        if (StringUtils.isNotEmpty(exception.getErrCode())) {
+            return exception.getErrCode();
+        }
+        return WxPayConstants.ResultCode.SUCCESS.equals(exception.getReturnCode()) ? exception.getResultCode() : exception.getReturnCode();
+    }
+
+    private static WebhookIdempotencyKey getIdempotencyKey(Function<String, String> fields) {
+        String reqInfo = StringUtils.trimToNull(fields.apply("req_info"));
+        if (reqInfo != null) {
+            // 退款通知的内容是加密的，重复投递时密文不变，以密文摘要作为通知标识
+            return new WebhookIdempotencyKey(IDEMPOTENCY_PLATFORM, sha256Hex(reqInfo), "REFUND");
+        }
+        String notifyId = StringUtils.trimToNull(fields.apply("transaction_id"));
+        if (notifyId == null) {
+            notifyId = StringUtils.trimToNull(fields.apply("out_trade_no"));
+        }
+        return notifyId == null ? null : new WebhookIdempotencyKey(IDEMPOTENCY_PLATFORM, notifyId, fields.apply("result_code"));
     }
 
     protected boolean isUseSandboxEnv() {
         return config.isUseSandboxEnv();
     }
 
+    /**
+     * 转换为 SDK 的通知对象，保持 rawResponse 的类型不变
+     */
+    private static WxPayOrderNotifyResult toOrderNotifyResult(WechatNotification notification) {
+        WxPayOrderNotifyResult result = new WxPayOrderNotifyResult();
+        result.setXmlString(notification.getXml());
+        result.setReturnCode(notification.get("return_code"));
+        result.setReturnMsg(notification.get("return_msg"));
+        result.setResultCode(notification.get("result_code"));
+        result.setErrCode(notification.get("err_code"));
+        result.setErrCodeDes(notification.get("err_code_des"));
+        result.setAppid(notification.get("appid"));
+        result.setMchId(notification.get("mch_id"));
+        result.setSubAppId(notification.get("sub_appid"));
+        result.setSubMchId(notification.get("sub_mch_id"));
+        result.setNonceStr(notification.get("nonce_str"));
+        result.setSign(notification.get("sign"));
+        result.setOpenid(notification.get("openid"));
+        result.setTradeType(notification.get("trade_type"));
+        result.setBankType(notification.get("bank_type"));
+        result.setTotalFee(notification.getInt("total_fee"));
+        result.setSettlementTotalFee(notification.getInt("settlement_total_fee"));
+        result.setFeeType(notification.get("fee_type"));
+        result.setCashFee(notification.getInt("cash_fee"));
+        result.setTransactionId(notification.get("transaction_id"));
+        result.setOutTradeNo(notification.get("out_trade_no"));
+        result.setAttach(notification.get("attach"));
+        result.setTimeEnd(notification.get("time_end"));
+        return result;
+    }
+
+    private static WxPayRefundNotifyResult toRefundNotifyResult(WechatNotification notification) {
+        WxPayRefundNotifyResult.ReqInfo reqInfo = new WxPayRefundNotifyResult.ReqInfo();
+        reqInfo.setTransactionId(notification.getRefundInfo("transaction_id"));
+        reqInfo.setOutTradeNo(notification.getRefundInfo("out_trade_no"));
+        reqInfo.setRefundId(notification.getRefundInfo("refund_id"));
+        reqInfo.setOutRefundNo(notification.getRefundInfo("out_refund_no"));
+        reqInfo.setTotalFee(notification.getRefundInfoInt("total_fee"));
+        reqInfo.setSettlementTotalFee(notification.getRefundInfoInt("settlement_total_fee"));
+        reqInfo.setRefundFee(notification.getRefundInfoInt("refund_fee"));
+        reqInfo.setSettlementRefundFee(notification.getRefundInfoInt("settlement_refund_fee"));
+        reqInfo.setRefundStatus(notification.getRefundInfo("refund_status"));
+        reqInfo.setSuccessTime(notification.getRefundInfo("success_time"));
+        reqInfo.setRefundRecvAccout(notification.getRefundInfo("refund_recv_accout"));
+        reqInfo.setRefundAccount(notification.getRefundInfo("refund_account"));
+        reqInfo.setRefundRequestSource(notification.getRefundInfo("refund_request_source"));
+        WxPayRefundNotifyResult result = new WxPayRefundNotifyResult();
+        result.setXmlString(notification.getXml());
+        result.setReturnCode(notification.get("return_code"));
+        result.setReturnMsg(notification.get("return_msg"));
+        result.setAppid(notification.get("appid"));
+        result.setMchId(notification.get("mch_id"));
+        result.setNonceStr(notification.get("nonce_str"));
+        result.setReqInfoString(notification.get("req_info"));
+        result.setReqInfo(reqInfo);
+        return result;
+    }
+
+    private static String getNotificationXml(Object rawRequest) {
+        if (rawRequest instanceof PaymentTransactionNotification notification) {
+            rawRequest = notification.getRawRequest();
+        }
+        if (rawRequest instanceof String xml) {
+            return xml;
+        }
+        throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "微信支付通知原始请求参数必须为 xml 字符串");
+    }
+
+    /**
+     * 不经过 xml 解析器查找顶层元素的文本，只用于提取幂等 key，支持 CDATA
+     *
+     * @param xml  通知内容
+     * @param name 元素名称
+     * @return 元素文本，不存在或为空时返回 null
+     */
+    static String getXmlElementText(String xml, String name) {
+        String startTag = "<" + name + ">";
+        int start = xml.indexOf(startTag);
+        if (start < 0) {
+            return null;
+        }
+        start += startTag.length();
+        int end = xml.indexOf("</" + name + ">", start);
+        if (end < 0) {
+            return null;
+        }
+        String result = xml.substring(start, end).trim();
+        if (result.startsWith("<![CDATA[") && result.endsWith("]]>")) {
+            result = result.substring("<![CDATA[".length(), result.length() - "]]>".length());
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
     static String normalizationBody(String description) {
         return StringUtils.abbreviate(description.replaceAll("[^0-9a-zA-Z\\u4e00-\\u9fa5 ]", ""), 600);
     }
@@ -6,8 +6,11 @@ import com.github.binarywang.wxpay.exception.WxPayException;
 import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.jackson.WindJson;
 import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.metrics.GatewayCallPhase;
+import com.wind.payment.core.metrics.GatewayCallTimer;
 import com.wind.payment.core.request.PrePaymentOrderRequest;
 import com.wind.payment.core.response.PrePaymentOrderResponse;
+import com.wind.payment.wechat.http.WechatPayOperation;
 import com.wind.payment.wechat.response.WechatJsApiTransactionPayResult;
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,8 +45,9 @@ public class JsApiWechatPaymentPlugin extends AbstractWechatPaymentPlugin {
         req.setProductId(request.getTransactionSn());
         req.setTimeExpire(getExpireTimeOrUseDefault(request.getValidityDuration()));
         req.setOpenid(request.getUserId());
-        try {
+        try (GatewayCallTimer timer = startGatewayCallTimer(WechatPayOperation.UNIFIED_ORDER)) {
             WxPayMpOrderResult orderResult = getWxPayService().createOrder(req);
+            timer.mark(GatewayCallPhase.PARSE);
             if (log.isDebugEnabled()) {
                 log.debug("微信 JsApi 预下单响应 :{}", orderResult);
             }
@@ -61,7 +65,8 @@ public class JsApiWechatPaymentPlugin extends AbstractWechatPaymentPlugin {
                     .setUseSandboxEnv(isUseSandboxEnv());
         } catch (WxPayException exception) {
             throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("微信 JsApi 支付交易异常，transactionNo = %s。",
-                    request.getTransactionSn()), exception);
+                    request.getTransactionSn()), exception)
+                    .withGatewayErrorCode(getGatewayErrorCode(exception));
         }
         return result;
     }
@@ -1,8 +1,13 @@
 package com.wind.payment.wechat;
 
 import com.github.binarywang.wxpay.constant.WxPayConstants;
+import com.wind.payment.wechat.http.WechatPayOperation;
 import lombok.Data;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
  * 微信支付配置
  *
@@ -56,4 +61,73 @@ public class WechatPayPartnerConfig {
      * 签名类型
      */
     private String signType = WxPayConstants.SignType.MD5;
+
+    /**
+     * 接口请求的 http 传输方式
+     */
+    private TransportType transportType = TransportType.POOLED;
+
+    /**
+     * http 连接池配置，{@link #transportType} 为 {@link TransportType#NIO} 时仅使用其中的连接超时与读超时配置
+     */
+    private HttpPoolConfig httpPool = new HttpPoolConfig();
+
+    /**
+     * 接口请求的 http 传输方式
+     */
+    public enum TransportType {
+
+        /**
+         * 使用连接池（基于 Apache HttpClient 4）
+         */
+        POOLED,
+
+        /**
+         * 使用非阻塞传输（基于 java.net.http.HttpClient），等待响应时不占用 I/O 线程
+         */
+        NIO
+    }
+
+    /**
+     * http 连接池配置
+     * 不需要商户证书的接口使用按配置共享的连接池；退款等需要商户证书（双向 TLS）的接口使用商户独占的连接池
+     */
+    @Data
+    public static class HttpPoolConfig {
+
+        /**
+         * 每个路由（接口域名）的最大连接数
+         */
+        private int maxConnectionsPerRoute = 64;
+
+        /**
+         * 连接池最大连接数
+         */
+        private int maxConnectionsTotal = 256;
+
+        /**
+         * 建立连接（含 TLS 握手）超时
+         */
+        private Duration connectTimeout = Duration.ofSeconds(3);
+
+        /**
+         * 从连接池获取连接的超时
+         */
+        private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+        /**
+         * 空闲连接的回收时间
+         */
+        private Duration idleEvictTimeout = Duration.ofSeconds(60);
+
+        /**
+         * 连接的最大存活时间，超过后不再复用
+         */
+        private Duration connectionTimeToLive = Duration.ofMinutes(10);
+
+        /**
+         * 各类接口的读超时，未配置的使用 {@link WechatPayOperation#getDefaultReadTimeout()}
+         */
+        private Map<WechatPayOperation, Duration> readTimeouts = new EnumMap<>(WechatPayOperation.class);
+    }
 }
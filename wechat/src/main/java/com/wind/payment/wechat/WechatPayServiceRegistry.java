@@ -0,0 +1,106 @@
+package com.wind.payment.wechat;
+
+import com.github.binarywang.wxpay.config.WxPayConfig;
+import com.github.binarywang.wxpay.service.WxPayService;
+import com.wind.payment.core.support.SharedResourceRegistry;
+import com.wind.payment.wechat.http.PooledWxPayService;
+import com.wind.payment.wechat.http.WechatHttpPoolSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * 微信支付服务注册表
+ * 同一商户配置的所有场景插件共享一个 {@link WxPayService}（包括其 http 连接池与已加载的商户证书），
+ * 插件关闭或被回收时释放引用，引用归零后移除并关闭其连接池
+ *
+ * @author wuxp
+ * @date 2026-10-18 16:20
+ **/
+@Slf4j
+final class WechatPayServiceRegistry {
+
+    private static final SharedResourceRegistry<ServiceKey, WxPayService> SERVICES =
+            new SharedResourceRegistry<>(WechatPayServiceRegistry::buildWxPayService, WechatPayServiceRegistry::destroyWxPayService);
+
+    private WechatPayServiceRegistry() {
+        throw new AssertionError();
+    }
+
+    /**
+     * 获取商户共享的微信支付服务
+     *
+     * @param config 商户配置
+     * @param owner  服务持有者
+     * @return 服务租约
+     */
+    static SharedResourceRegistry.Lease<WxPayService> acquire(WechatPayPartnerConfig config, Object owner) {
+        return SERVICES.acquire(ServiceKey.of(config), owner);
+    }
+
+    /**
+     * @return 当前共享的微信支付服务数量
+     */
+    static int size() {
+        return SERVICES.size();
+    }
+
+    /**
+     * @param config 商户配置
+     * @return 商户微信支付服务的引用计数
+     */
+    static int getReferenceCount(WechatPayPartnerConfig config) {
+        return SERVICES.getReferenceCount(ServiceKey.of(config));
+    }
+
+    private static WxPayService buildWxPayService(ServiceKey key) {
+        WxPayConfig payConfig = new WxPayConfig();
+        payConfig.setAppId(key.appId());
+        payConfig.setMchId(key.mchId());
+        payConfig.setMchKey(key.mchKey());
+        payConfig.setSubAppId(key.subAppId());
+        payConfig.setSubMchId(key.subMchId());
+        payConfig.setKeyPath(key.keyPath());
+        payConfig.setSignType(key.signType());
+        // 可以指定是否使用沙箱环境
+        payConfig.setUseSandboxEnv(key.useSandboxEnv());
+        WxPayService result = new PooledWxPayService(key.poolSettings(), key.transportType());
+        result.setConfig(payConfig);
+        return result;
+    }
+
+    private static void destroyWxPayService(WxPayService service) {
+        if (log.isDebugEnabled()) {
+            log.debug("release wechat pay service, mchId = {}", service.getConfig().getMchId());
+        }
+        if (service instanceof PooledWxPayService pooled) {
+            pooled.close();
+        }
+    }
+
+    /**
+     * 影响 {@link WxPayService} 行为的商户配置项
+     */
+    private record ServiceKey(String appId, String mchId, String mchKey, String subAppId, String subMchId, String keyPath,
+                              String signType, boolean useSandboxEnv, WechatHttpPoolSettings poolSettings,
+                              WechatPayPartnerConfig.TransportType transportType) {
+
+        static ServiceKey of(WechatPayPartnerConfig config) {
+            return new ServiceKey(StringUtils.trimToNull(config.getAppId()),
+                    StringUtils.trimToNull(config.getPartner()),
+                    StringUtils.trimToNull(config.getPartnerSecret()),
+                    StringUtils.trimToNull(config.getSubAppId()),
+                    StringUtils.trimToNull(config.getSubMchId()),
+                    StringUtils.trimToNull(config.getKeyPath()),
+                    config.getSignType(),
+                    config.isUseSandboxEnv(),
+                    WechatHttpPoolSettings.of(config.getHttpPool()),
+                    config.getTransportType());
+        }
+
+        @Override
+        public String toString() {
+            // 避免在日志中输出商户密钥
+            return "ServiceKey(appId=" + appId + ", mchId=" + mchId + ", subMchId=" + subMchId + ")";
+        }
+    }
+}
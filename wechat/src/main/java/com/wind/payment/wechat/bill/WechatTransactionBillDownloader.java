@@ -0,0 +1,159 @@
+package com.wind.payment.wechat.bill;
+
+import com.github.binarywang.wxpay.config.WxPayConfig;
+import com.github.binarywang.wxpay.constant.WxPayConstants;
+import com.github.binarywang.wxpay.service.WxPayService;
+import com.github.binarywang.wxpay.util.SignUtils;
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.bill.TransactionBillHttpClient;
+import com.wind.payment.core.bill.TransactionBillIterator;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 微信支付账单下载
+ * SDK 的 downloadBill 会把整个账单读入内存，这里直接请求 downloadbill 接口并要求 GZIP 压缩，在下载流上边解压边解析
+ *
+ * @author wuxp
+ * @date 2026-10-18 19:30
+ **/
+public final class WechatTransactionBillDownloader {
+
+    private static final String DOWNLOAD_BILL_PATH = "/pay/downloadbill";
+
+    private static final String BILL_TYPE_ALL = "ALL";
+
+    private static final String TAR_TYPE_GZIP = "GZIP";
+
+    private static final String NO_BILL_EXIST = "No Bill Exist";
+
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+    /**
+     * 错误响应最多读取的字节数
+     */
+    private static final int MAX_ERROR_RESPONSE_BYTES = 4096;
+
+    private static final Duration DOWNLOAD_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final Pattern RETURN_MSG_PATTERN = Pattern.compile("<(return_msg|err_code_des)>(?:<!\\[CDATA\\[)?(.*?)(?:]]>)?</\\1>");
+
+    private static final SecureRandom NONCE_RANDOM = new SecureRandom();
+
+    private WechatTransactionBillDownloader() {
+        throw new AssertionError();
+    }
+
+    /**
+     * 下载交易账单
+     *
+     * @param wxPayService 商户的微信支付服务
+     * @param billDate     账单日期
+     * @return 账单迭代器，当日无账单时返回空迭代器
+     */
+    public static TransactionBillIterator download(WxPayService wxPayService, LocalDate billDate) {
+        WxPayConfig config = wxPayService.getConfig();
+        Map<String, String> params = new TreeMap<>();
+        params.put("appid", config.getAppId());
+        params.put("mch_id", config.getMchId());
+        putIfNotEmpty(params, "sub_appid", config.getSubAppId());
+        putIfNotEmpty(params, "sub_mch_id", config.getSubMchId());
+        params.put("nonce_str", nonce());
+        params.put("bill_date", billDate.format(DateTimeFormatter.BASIC_ISO_DATE));
+        params.put("bill_type", BILL_TYPE_ALL);
+        params.put("tar_type", TAR_TYPE_GZIP);
+        String signType = StringUtils.defaultIfEmpty(config.getSignType(), WxPayConstants.SignType.MD5);
+        if (!WxPayConstants.SignType.MD5.equals(signType)) {
+            params.put("sign_type", signType);
+        }
+        params.put("sign", SignUtils.createSign(params, signType, config.getMchKey(), null));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(wxPayService.getPayBaseUrl() + DOWNLOAD_BILL_PATH))
+                .timeout(DOWNLOAD_TIMEOUT)
+                .header("Content-Type", "text/xml; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(toXml(params), StandardCharsets.UTF_8))
+                .build();
+        return open(TransactionBillHttpClient.open(request));
+    }
+
+    /**
+     * @param input 下载响应流，成功时为 gzip 压缩的账单，失败时为 xml 错误信息
+     * @return 账单迭代器
+     */
+    static TransactionBillIterator open(InputStream input) {
+        BufferedInputStream buffered = new BufferedInputStream(input);
+        try {
+            buffered.mark(2);
+            int first = buffered.read();
+            int second = buffered.read();
+            buffered.reset();
+            if (first == GZIP_MAGIC_FIRST && second == GZIP_MAGIC_SECOND) {
+                return new WechatTransactionBillIterator(new BufferedReader(new InputStreamReader(new GZIPInputStream(buffered),
+                        StandardCharsets.UTF_8)));
+            }
+            String error = new String(buffered.readNBytes(MAX_ERROR_RESPONSE_BYTES), StandardCharsets.UTF_8);
+            buffered.close();
+            if (error.contains(NO_BILL_EXIST)) {
+                return new WechatTransactionBillIterator(new BufferedReader(new StringReader("")));
+            }
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("下载微信账单失败：%s", parseErrorMessage(error)));
+        } catch (IOException exception) {
+            try {
+                buffered.close();
+            } catch (IOException ignore) {
+                // ignore
+            }
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "下载微信账单异常", exception);
+        }
+    }
+
+    private static String parseErrorMessage(String response) {
+        Matcher matcher = RETURN_MSG_PATTERN.matcher(response);
+        String result = null;
+        while (matcher.find()) {
+            // err_code_des 比 return_msg 更具体，优先使用
+            result = matcher.group(2);
+        }
+        return result == null ? StringUtils.abbreviate(response, 256) : result;
+    }
+
+    private static void putIfNotEmpty(Map<String, String> params, String name, String value) {
+        if (StringUtils.isNotEmpty(value)) {
+            params.put(name, value);
+        }
+    }
+
+    private static String nonce() {
+        byte[] bytes = new byte[16];
+        NONCE_RANDOM.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private static String toXml(Map<String, String> params) {
+        StringBuilder result = new StringBuilder(512).append("<xml>");
+        params.forEach((name, value) -> result.append('<').append(name).append("><![CDATA[").append(value).append("]]></")
+                .append(name).append('>'));
+        return result.append("</xml>").toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.wind.payment.wechat.bill;
+
+import com.wind.payment.core.bill.AbstractDelimitedTransactionBillIterator;
+import com.wind.payment.core.bill.TransactionBillRecord;
+import com.wind.payment.core.enums.PaymentTransactionState;
+
+import java.io.BufferedReader;
+import java.util.Map;
+
+/**
+ * 微信支付交易账单（ALL）迭代器
+ * 账单为 utf-8 编码 csv，每个值以 ` 开头，明细之后是以“总交易单数”开头的汇总信息
+ *
+ * @author wuxp
+ * @date 2026-10-18 19:20
+ **/
+public final class WechatTransactionBillIterator extends AbstractDelimitedTransactionBillIterator {
+
+    private static final String HEADER_FIRST_COLUMN = "交易时间";
+
+    private static final String SUMMARY_FIRST_COLUMN = "总交易单数";
+
+    private static final char VALUE_PREFIX = '`';
+
+    private static final String TRADE_STATE_SUCCESS = "SUCCESS";
+
+    private static final String TRADE_STATE_REFUND = "REFUND";
+
+    private static final String TRADE_STATE_REVOKED = "REVOKED";
+
+    private static final String REFUND_STATE_PROCESSING = "PROCESSING";
+
+    public WechatTransactionBillIterator(BufferedReader reader) {
+        super(reader);
+    }
+
+    @Override
+    protected boolean isHeaderLine(String line) {
+        return line.startsWith(HEADER_FIRST_COLUMN);
+    }
+
+    @Override
+    protected boolean isEndLine(String line) {
+        return line.startsWith(SUMMARY_FIRST_COLUMN);
+    }
+
+    @Override
+    protected String normalizeValue(String value) {
+        String result = super.normalizeValue(value);
+        if (result != null && result.charAt(0) == VALUE_PREFIX) {
+            result = result.length() == 1 ? null : result.substring(1);
+        }
+        return result;
+    }
+
+    @Override
+    protected TransactionBillRecord mapRecord(Map<String, String> row) {
+        String orderAmount = row.get("订单金额") == null ? row.get("应结订单金额") : row.get("订单金额");
+        TransactionBillRecord result = new TransactionBillRecord()
+                .setOutTransactionSn(row.get("微信订单号"))
+                .setTransactionSn(row.get("商户订单号"))
+                .setDescription(row.get("商品名称"))
+                .setOrderAmount(parseMoney(orderAmount))
+                .setTransactionTime(parseTime(row.get("交易时间")));
+        String tradeState = row.get("交易状态");
+        if (TRADE_STATE_SUCCESS.equals(tradeState)) {
+            return result.setTransactionState(PaymentTransactionState.COMPLETED);
+        }
+        if (TRADE_STATE_REFUND.equals(tradeState)) {
+            return result.setTransactionRefundSn(row.get("商户退款单号"))
+                    .setOutTransactionRefundSn(row.get("微信退款单号"))
+                    .setRefundAmount(parseMoney(row.get("退款金额")))
+                    .setTransactionState(transformRefundState(row.get("退款状态")));
+        }
+        if (TRADE_STATE_REVOKED.equals(tradeState)) {
+            return result.setTransactionState(PaymentTransactionState.CLOSED);
+        }
+        return result.setTransactionState(PaymentTransactionState.UNKNOWN);
+    }
+
+    private static PaymentTransactionState transformRefundState(String refundState) {
+        if (TRADE_STATE_SUCCESS.equals(refundState)) {
+            return PaymentTransactionState.REFUNDED;
+        }
+        if (REFUND_STATE_PROCESSING.equals(refundState)) {
+            return PaymentTransactionState.WAIT_REFUND;
+        }
+        return PaymentTransactionState.REFUND_FAILED;
+    }
+}
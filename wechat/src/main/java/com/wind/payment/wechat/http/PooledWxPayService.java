@@ -0,0 +1,198 @@
+package com.wind.payment.wechat.http;
+
+import com.github.binarywang.wxpay.config.WxPayConfig;
+import com.github.binarywang.wxpay.exception.WxPayException;
+import com.github.binarywang.wxpay.service.impl.WxPayServiceImpl;
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.core.metrics.GatewayCallPhase;
+import com.wind.payment.core.metrics.GatewayCallTimer;
+import com.wind.payment.core.support.SharedResourceRegistry;
+import com.wind.payment.core.transport.NioPaymentGatewayHttpTransport;
+import com.wind.payment.core.transport.PaymentGatewayHttpRequest;
+import com.wind.payment.core.transport.PaymentGatewayHttpResponse;
+import com.wind.payment.core.transport.PaymentGatewayHttpTransport;
+import com.wind.payment.wechat.WechatPayPartnerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 使用连接池或非阻塞传输发送请求的 {@link WxPayServiceImpl}
+ * SDK 默认实现每次请求都新建 HttpClient，无法复用连接；这里将 V2 接口的 xml 请求改为：
+ * <ul>
+ *     <li>{@link WechatPayPartnerConfig.TransportType#POOLED}：不使用商户证书的请求使用按配置共享的连接池，
+ *     使用商户证书的请求使用本服务独占的连接池（首次使用时创建）</li>
+ *     <li>{@link WechatPayPartnerConfig.TransportType#NIO}：不使用商户证书的请求使用进程内共享的非阻塞传输，
+ *     使用商户证书的请求使用本服务独占的非阻塞传输（首次使用时创建）</li>
+ * </ul>
+ * 配置了 http 代理时仍使用 SDK 默认实现；
+ * 当前线程的 {@link GatewayCallTimer} 中，SDK 组装、签名请求的耗时记录为 {@link GatewayCallPhase#SIGN}，
+ * 发送请求的耗时记录为 {@link GatewayCallPhase#NETWORK}
+ *
+ * @author wuxp
+ * @date 2026-10-19 11:55
+ **/
+@Slf4j
+public class PooledWxPayService extends WxPayServiceImpl implements AutoCloseable {
+
+    private static final String XML_CONTENT_TYPE = "text/xml; charset=UTF-8";
+
+    private static final int KEY_TRANSPORT_IO_THREADS = 2;
+
+    private final WechatHttpPoolSettings settings;
+
+    private final WechatPayPartnerConfig.TransportType transportType;
+
+    /**
+     * 共享连接池租约，使用非阻塞传输时为 null
+     */
+    private final SharedResourceRegistry.Lease<WechatPooledHttpClient> sharedClientLease;
+
+    private volatile WechatPooledHttpClient keyClient;
+
+    private volatile NioPaymentGatewayHttpTransport keyTransport;
+
+    private volatile boolean closed;
+
+    public PooledWxPayService(WechatHttpPoolSettings settings) {
+        this(settings, WechatPayPartnerConfig.TransportType.POOLED);
+    }
+
+    public PooledWxPayService(WechatHttpPoolSettings settings, WechatPayPartnerConfig.TransportType transportType) {
+        AssertUtils.notNull(settings, "argument settings must not null");
+        AssertUtils.notNull(transportType, "argument transportType must not null");
+        this.settings = settings;
+        this.transportType = transportType;
+        this.sharedClientLease = transportType == WechatPayPartnerConfig.TransportType.POOLED ?
+                WechatHttpClientFactory.acquireShared(settings, this) : null;
+    }
+
+    @Override
+    public String post(String url, String requestStr, boolean useKey) throws WxPayException {
+        GatewayCallTimer timer = GatewayCallTimer.current();
+        timer.mark(GatewayCallPhase.SIGN);
+        try {
+            return useProxy() ? super.post(url, requestStr, useKey) : new String(execute(url, requestStr, useKey), StandardCharsets.UTF_8);
+        } finally {
+            timer.mark(GatewayCallPhase.NETWORK);
+        }
+    }
+
+    @Override
+    public byte[] postForBytes(String url, String requestStr, boolean useKey) throws WxPayException {
+        GatewayCallTimer timer = GatewayCallTimer.current();
+        timer.mark(GatewayCallPhase.SIGN);
+        try {
+            return useProxy() ? super.postForBytes(url, requestStr, useKey) : execute(url, requestStr, useKey);
+        } finally {
+            timer.mark(GatewayCallPhase.NETWORK);
+        }
+    }
+
+    /**
+     * @return 本服务使用的连接池统计，使用非阻塞传输时为空
+     */
+    public List<WechatHttpPoolMetrics> getPoolMetrics() {
+        List<WechatHttpPoolMetrics> result = new ArrayList<>(2);
+        if (sharedClientLease != null) {
+            result.add(sharedClientLease.get().getMetrics());
+        }
+        WechatPooledHttpClient client = keyClient;
+        if (client != null) {
+            result.add(client.getMetrics());
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (sharedClientLease != null) {
+            sharedClientLease.close();
+        }
+        if (keyClient != null) {
+            WechatHttpClientFactory.closeExclusive(keyClient);
+            keyClient = null;
+        }
+        if (keyTransport != null) {
+            keyTransport.close();
+            keyTransport = null;
+        }
+    }
+
+    private byte[] execute(String url, String requestStr, boolean useKey) throws WxPayException {
+        Duration readTimeout = settings.readTimeout(WechatPayOperation.of(url));
+        long startTime = System.currentTimeMillis();
+        try {
+            byte[] result = transportType == WechatPayPartnerConfig.TransportType.NIO ?
+                    executeNio(url, requestStr, useKey, readTimeout) :
+                    (useKey ? getKeyClient() : sharedClientLease.get()).post(url, requestStr, readTimeout);
+            if (log.isDebugEnabled()) {
+                log.debug("wechat pay request url = {}, useKey = {}, costs = {}ms", url, useKey, System.currentTimeMillis() - startTime);
+            }
+            return result;
+        } catch (IOException exception) {
+            log.error("wechat pay request error, url = {}, useKey = {}, message = {}", url, useKey, exception.getMessage());
+            throw new WxPayException(exception.getMessage(), exception);
+        }
+    }
+
+    private byte[] executeNio(String url, String requestStr, boolean useKey, Duration readTimeout) throws IOException, WxPayException {
+        PaymentGatewayHttpTransport transport = useKey ? getKeyTransport() : NioPaymentGatewayHttpTransport.shared();
+        // 非阻塞传输的超时从发送请求开始计算，包含建立连接的时间
+        PaymentGatewayHttpResponse response = transport.send(new PaymentGatewayHttpRequest(URI.create(url), XML_CONTENT_TYPE,
+                requestStr.getBytes(StandardCharsets.UTF_8), settings.connectTimeout().plus(readTimeout)));
+        if (!response.isSuccessful()) {
+            throw new IOException(String.format("wechat pay response status = %d, url = %s", response.statusCode(), url));
+        }
+        return response.body();
+    }
+
+    private WechatPooledHttpClient getKeyClient() throws WxPayException {
+        WechatPooledHttpClient result = keyClient;
+        if (result != null) {
+            return result;
+        }
+        synchronized (this) {
+            AssertUtils.isTrue(!closed, "wechat pay service is closed");
+            if (keyClient == null) {
+                keyClient = WechatHttpClientFactory.createExclusive("mch-" + getConfig().getMchId(), settings, getMerchantSslContext());
+            }
+            return keyClient;
+        }
+    }
+
+    private NioPaymentGatewayHttpTransport getKeyTransport() throws WxPayException {
+        NioPaymentGatewayHttpTransport result = keyTransport;
+        if (result != null) {
+            return result;
+        }
+        synchronized (this) {
+            AssertUtils.isTrue(!closed, "wechat pay service is closed");
+            if (keyTransport == null) {
+                keyTransport = new NioPaymentGatewayHttpTransport("mch-" + getConfig().getMchId(), KEY_TRANSPORT_IO_THREADS,
+                        settings.connectTimeout(), getMerchantSslContext());
+            }
+            return keyTransport;
+        }
+    }
+
+    private SSLContext getMerchantSslContext() throws WxPayException {
+        WxPayConfig config = getConfig();
+        return config.getSslContext() == null ? config.initSSLContext() : config.getSslContext();
+    }
+
+    private boolean useProxy() {
+        return StringUtils.isNotBlank(getConfig().getHttpProxyHost());
+    }
+}
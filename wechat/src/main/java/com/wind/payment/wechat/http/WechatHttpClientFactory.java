@@ -0,0 +1,105 @@
+package com.wind.payment.wechat.http;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.core.support.SharedResourceRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.net.ssl.SSLContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 微信支付 http 连接池工厂
+ * 不使用商户证书的请求按连接池配置共享连接池，最后一个持有者释放后关闭；
+ * 使用商户证书的请求（退款等）连接绑定了商户的 TLS 身份，由每个商户服务单独创建连接池
+ *
+ * @author wuxp
+ * @date 2026-10-19 11:45
+ **/
+@Slf4j
+public final class WechatHttpClientFactory {
+
+    private static final SharedResourceRegistry<WechatHttpPoolSettings, WechatPooledHttpClient> SHARED_CLIENTS =
+            new SharedResourceRegistry<>(WechatHttpClientFactory::buildSharedClient, WechatHttpClientFactory::destroyClient);
+
+    /**
+     * 存活的连接池，用于统计
+     */
+    private static final Set<WechatPooledHttpClient> LIVE_CLIENTS = ConcurrentHashMap.newKeySet();
+
+    private WechatHttpClientFactory() {
+        throw new AssertionError();
+    }
+
+    /**
+     * 获取共享的连接池
+     *
+     * @param settings 连接池配置
+     * @param owner    持有者
+     * @return 连接池租约
+     */
+    public static SharedResourceRegistry.Lease<WechatPooledHttpClient> acquireShared(WechatHttpPoolSettings settings, Object owner) {
+        AssertUtils.notNull(settings, "argument settings must not null");
+        return SHARED_CLIENTS.acquire(settings.withoutReadTimeouts(), owner);
+    }
+
+    /**
+     * 创建独占的连接池，由调用者通过 {@link #closeExclusive(WechatPooledHttpClient)} 关闭
+     *
+     * @param name       连接池名称
+     * @param settings   连接池配置
+     * @param sslContext 包含商户证书的 TLS 上下文
+     * @return 连接池
+     */
+    public static WechatPooledHttpClient createExclusive(String name, WechatHttpPoolSettings settings, SSLContext sslContext) {
+        AssertUtils.notNull(settings, "argument settings must not null");
+        AssertUtils.notNull(sslContext, "argument sslContext must not null");
+        return track(new WechatPooledHttpClient(name, settings, sslContext));
+    }
+
+    /**
+     * @return 当前共享的连接池数量
+     */
+    public static int sharedSize() {
+        return SHARED_CLIENTS.size();
+    }
+
+    /**
+     * @return 所有存活连接池的统计
+     */
+    public static List<WechatHttpPoolMetrics> metrics() {
+        List<WechatHttpPoolMetrics> result = new ArrayList<>(LIVE_CLIENTS.size());
+        for (WechatPooledHttpClient client : LIVE_CLIENTS) {
+            result.add(client.getMetrics());
+        }
+        return result;
+    }
+
+    /**
+     * 关闭独占的连接池
+     *
+     * @param client 连接池
+     */
+    public static void closeExclusive(WechatPooledHttpClient client) {
+        destroyClient(client);
+    }
+
+    private static void destroyClient(WechatPooledHttpClient client) {
+        LIVE_CLIENTS.remove(client);
+        if (log.isDebugEnabled()) {
+            log.debug("close wechat pay http connection pool, metrics = {}", client.getMetrics());
+        }
+        client.close();
+    }
+
+    private static WechatPooledHttpClient buildSharedClient(WechatHttpPoolSettings settings) {
+        return track(new WechatPooledHttpClient("shared-" + Integer.toHexString(settings.hashCode()), settings, null));
+    }
+
+    private static WechatPooledHttpClient track(WechatPooledHttpClient client) {
+        LIVE_CLIENTS.add(client);
+        return client;
+    }
+}
@@ -0,0 +1,15 @@
+package com.wind.payment.wechat.http;
+
+/**
+ * 连接池统计
+ *
+ * @param name      连接池名称
+ * @param leased    正在使用的连接数
+ * @param pending   等待获取连接的请求数
+ * @param available 空闲连接数
+ * @param max       最大连接数
+ * @author wuxp
+ * @date 2026-10-19 11:40
+ **/
+public record WechatHttpPoolMetrics(String name, int leased, int pending, int available, int max) {
+}
@@ -0,0 +1,50 @@
+package com.wind.payment.wechat.http;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.payment.wechat.WechatPayPartnerConfig;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * {@link WechatPayPartnerConfig.HttpPoolConfig} 的不可变快照，作为共享连接池的 key
+ *
+ * @author wuxp
+ * @date 2026-10-19 11:30
+ **/
+public record WechatHttpPoolSettings(int maxConnectionsPerRoute, int maxConnectionsTotal, Duration connectTimeout,
+                                     Duration connectionRequestTimeout, Duration idleEvictTimeout, Duration connectionTimeToLive,
+                                     Map<WechatPayOperation, Duration> readTimeouts) {
+
+    public WechatHttpPoolSettings {
+        AssertUtils.isTrue(maxConnectionsPerRoute > 0, "argument maxConnectionsPerRoute must greater than 0");
+        AssertUtils.isTrue(maxConnectionsTotal >= maxConnectionsPerRoute, "argument maxConnectionsTotal must not less than maxConnectionsPerRoute");
+        AssertUtils.notNull(connectTimeout, "argument connectTimeout must not null");
+        AssertUtils.notNull(connectionRequestTimeout, "argument connectionRequestTimeout must not null");
+        AssertUtils.notNull(idleEvictTimeout, "argument idleEvictTimeout must not null");
+        AssertUtils.notNull(connectionTimeToLive, "argument connectionTimeToLive must not null");
+        readTimeouts = readTimeouts == null ? Map.of() : Map.copyOf(readTimeouts);
+    }
+
+    public static WechatHttpPoolSettings of(WechatPayPartnerConfig.HttpPoolConfig config) {
+        AssertUtils.notNull(config, "argument config must not null");
+        return new WechatHttpPoolSettings(config.getMaxConnectionsPerRoute(), config.getMaxConnectionsTotal(), config.getConnectTimeout(),
+                config.getConnectionRequestTimeout(), config.getIdleEvictTimeout(), config.getConnectionTimeToLive(), config.getReadTimeouts());
+    }
+
+    /**
+     * @return 去掉读超时后的配置，读超时按请求设置，不影响连接池的共享
+     */
+    WechatHttpPoolSettings withoutReadTimeouts() {
+        return readTimeouts.isEmpty() ? this : new WechatHttpPoolSettings(maxConnectionsPerRoute, maxConnectionsTotal, connectTimeout,
+                connectionRequestTimeout, idleEvictTimeout, connectionTimeToLive, Map.of());
+    }
+
+    /**
+     * @param operation 接口调用类型
+     * @return 读超时
+     */
+    public Duration readTimeout(WechatPayOperation operation) {
+        return readTimeouts.getOrDefault(operation, operation.getDefaultReadTimeout());
+    }
+}
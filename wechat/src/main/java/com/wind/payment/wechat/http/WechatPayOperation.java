@@ -0,0 +1,85 @@
+package com.wind.payment.wechat.http;
+
+import com.wind.payment.core.metrics.PaymentTransactionOperation;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 微信支付接口调用类型，用于区分各类接口的读超时，并映射为网关调用指标的 operation 标签
+ *
+ * @author wuxp
+ * @date 2026-10-19 11:20
+ **/
+@AllArgsConstructor
+@Getter
+public enum WechatPayOperation {
+
+    /**
+     * 统一下单
+     */
+    UNIFIED_ORDER("/pay/unifiedorder", Duration.ofSeconds(10), PaymentTransactionOperation.PRE_ORDER),
+
+    /**
+     * 查询订单
+     */
+    QUERY("/pay/orderquery", Duration.ofSeconds(5), PaymentTransactionOperation.QUERY),
+
+    /**
+     * 关闭订单
+     */
+    CLOSE("/pay/closeorder", Duration.ofSeconds(5), PaymentTransactionOperation.CLOSE),
+
+    /**
+     * 申请退款（需要商户证书）
+     */
+    REFUND("/secapi/pay/refund", Duration.ofSeconds(15), PaymentTransactionOperation.REFUND),
+
+    /**
+     * 查询退款
+     */
+    QUERY_REFUND("/pay/refundquery", Duration.ofSeconds(5), PaymentTransactionOperation.QUERY_REFUND),
+
+    /**
+     * 下载对账单
+     */
+    DOWNLOAD_BILL("/pay/downloadbill", Duration.ofSeconds(30), PaymentTransactionOperation.DOWNLOAD_BILL),
+
+    /**
+     * 其它接口
+     */
+    OTHER(null, Duration.ofSeconds(10), null);
+
+    private static final WechatPayOperation[] OPERATIONS = values();
+
+    /**
+     * 接口路径后缀，沙箱环境的路径带有 /sandboxnew 前缀
+     */
+    private final String pathSuffix;
+
+    /**
+     * 默认读超时
+     */
+    private final Duration defaultReadTimeout;
+
+    /**
+     * 对应的插件操作，网关调用指标使用其标签值，与插件调用指标保持一致；{@link #OTHER} 为 null
+     */
+    private final PaymentTransactionOperation metricsOperation;
+
+    /**
+     * @param url 接口地址
+     * @return 接口调用类型，无法识别时返回 {@link #OTHER}
+     */
+    public static WechatPayOperation of(String url) {
+        int queryIndex = url.indexOf('?');
+        String path = queryIndex < 0 ? url : url.substring(0, queryIndex);
+        for (WechatPayOperation operation : OPERATIONS) {
+            if (operation.pathSuffix != null && path.endsWith(operation.pathSuffix)) {
+                return operation;
+            }
+        }
+        return OTHER;
+    }
+}
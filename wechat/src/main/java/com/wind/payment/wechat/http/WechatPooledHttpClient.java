@@ -0,0 +1,140 @@
+package com.wind.payment.wechat.http;
+
+import com.wind.payment.core.metrics.GatewayCallPhase;
+import com.wind.payment.core.metrics.GatewayCallTimer;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.http.util.EntityUtils;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Apache HttpClient 4 连接池的 http 客户端
+ * 连接保持长连接并按路由限制数量，空闲或超过存活时间的连接由后台线程回收；
+ * 关闭了连接状态跟踪，使用商户证书的双向 TLS 连接也可以在请求之间复用；
+ * 获取（及建立）连接的耗时记录为 {@link GatewayCallPhase#CONNECT}
+ *
+ * @author wuxp
+ * @date 2026-10-19 11:35
+ **/
+public final class WechatPooledHttpClient implements AutoCloseable {
+
+    private static final ContentType XML_CONTENT_TYPE = ContentType.create("text/xml", StandardCharsets.UTF_8);
+
+    private final String name;
+
+    private final WechatHttpPoolSettings settings;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * @param name       连接池名称，用于统计
+     * @param settings   连接池配置
+     * @param sslContext TLS 上下文，为 null 时使用 JVM 默认的上下文
+     */
+    WechatPooledHttpClient(String name, WechatHttpPoolSettings settings, SSLContext sslContext) {
+        this.name = name;
+        this.settings = settings;
+        SSLConnectionSocketFactory sslSocketFactory = sslContext == null ? SSLConnectionSocketFactory.getSocketFactory() :
+                new SSLConnectionSocketFactory(sslContext, SSLConnectionSocketFactory.getDefaultHostnameVerifier());
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
+        this.connectionManager = new PoolingHttpClientConnectionManager(registry, null, null, null,
+                settings.connectionTimeToLive().toMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(settings.maxConnectionsTotal());
+        connectionManager.setDefaultMaxPerRoute(settings.maxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity(2000);
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(settings.idleEvictTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .disableConnectionState()
+                .disableCookieManagement()
+                .disableAutomaticRetries()
+                .setRequestExecutor(new HttpRequestExecutor() {
+
+                    @Override
+                    public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                            throws IOException, HttpException {
+                        // 执行时已获取（及建立）连接
+                        GatewayCallTimer.current().mark(GatewayCallPhase.CONNECT);
+                        return super.execute(request, conn, context);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 提交 xml 请求
+     *
+     * @param url         接口地址
+     * @param body        请求体
+     * @param readTimeout 读超时
+     * @return 响应体
+     */
+    public byte[] post(String url, String body, Duration readTimeout) throws IOException {
+        HttpPost post = new HttpPost(url);
+        post.setConfig(RequestConfig.custom()
+                .setConnectTimeout(toMillis(settings.connectTimeout()))
+                .setConnectionRequestTimeout(toMillis(settings.connectionRequestTimeout()))
+                .setSocketTimeout(toMillis(readTimeout))
+                .build());
+        post.setEntity(new StringEntity(body, XML_CONTENT_TYPE));
+        try (CloseableHttpResponse response = httpClient.execute(post)) {
+            byte[] result = EntityUtils.toByteArray(response.getEntity());
+            int status = response.getStatusLine().getStatusCode();
+            if (status != HttpStatus.SC_OK) {
+                throw new IOException(String.format("wechat pay response status = %d, url = %s", status, url));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * @return 连接池统计
+     */
+    public WechatHttpPoolMetrics getMetrics() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return new WechatHttpPoolMetrics(name, stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax());
+    }
+
+    @Override
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException ignore) {
+            // 关闭连接池时的异常无需处理
+        }
+    }
+
+    private static int toMillis(Duration duration) {
+        return (int) Math.min(duration.toMillis(), Integer.MAX_VALUE);
+    }
+}
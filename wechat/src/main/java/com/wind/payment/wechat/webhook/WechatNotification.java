@@ -0,0 +1,77 @@
+package com.wind.payment.wechat.webhook;
+
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.PaymentTransactionException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 已解码的微信支付通知
+ * 由 {@link WechatNotificationXmlParser} 在解析通知 xml 的同时计算签名，验签结果随解码结果保存，验签时无需再次解析
+ *
+ * @author wuxp
+ * @date 2026-10-18 22:50
+ **/
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class WechatNotification {
+
+    /**
+     * 原始通知 xml
+     */
+    @Getter
+    private final String xml;
+
+    /**
+     * 通知的顶层字段
+     */
+    @Getter
+    private final Map<String, String> fields;
+
+    /**
+     * 退款通知 req_info 解密后的字段，支付通知为空
+     */
+    @Getter
+    private final Map<String, String> refundInfo;
+
+    /**
+     * 通知是否携带签名
+     */
+    @Getter
+    private final boolean signed;
+
+    /**
+     * 通知签名是否有效，未携带签名时为 false
+     */
+    @Getter
+    private final boolean signValid;
+
+    public String get(String name) {
+        return fields.get(name);
+    }
+
+    public Integer getInt(String name) {
+        return parseInt(name, fields.get(name));
+    }
+
+    public String getRefundInfo(String name) {
+        return refundInfo.get(name);
+    }
+
+    public Integer getRefundInfoInt(String name) {
+        return parseInt(name, refundInfo.get(name));
+    }
+
+    private static Integer parseInt(String name, String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("微信支付通知字段格式错误，%s", name), exception);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.wind.payment.wechat.webhook;
+
+import com.github.binarywang.wxpay.constant.WxPayConstants;
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.payment.core.PaymentTransactionException;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 微信支付通知 xml 解析器
+ * 基于 StAX 流式读取通知的顶层字段，不经过 XStream 与反射；读取完成后按与 {@code SignUtils#createSign} 相同的规则计算签名，
+ * 退款通知的 req_info 使用 md5(商户密钥) 作为 AES 密钥解密。
+ * 解析器禁用 DTD 与外部实体，包含 DOCTYPE 的通知直接拒绝
+ *
+ * @author wuxp
+ * @date 2026-10-18 22:55
+ **/
+public final class WechatNotificationXmlParser {
+
+    public static final int DEFAULT_MAX_XML_LENGTH = 64 * 1024;
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+
+    private static final String SIGN_NAME = "sign";
+
+    private static final String REQ_INFO_NAME = "req_info";
+
+    /**
+     * 不参与签名的字段，与 {@code SignUtils#createSign} 保持一致
+     */
+    private static final Set<String> UNSIGNED_NAMES = Set.of(SIGN_NAME, "key", "xmlString", "xmlDoc", "couponList");
+
+    private static final String HMAC_SHA256_ALGORITHM = "HmacSHA256";
+
+    private static final String REFUND_INFO_CIPHER = "AES/ECB/PKCS5Padding";
+
+    private static final HexFormat UPPER_HEX = HexFormat.of().withUpperCase();
+
+    private final String signType;
+
+    private final String mchKey;
+
+    private final SecretKeySpec refundInfoKey;
+
+    private final int maxXmlLength;
+
+    public WechatNotificationXmlParser(String signType, String mchKey) {
+        this(signType, mchKey, DEFAULT_MAX_XML_LENGTH);
+    }
+
+    /**
+     * @param signType     签名类型，MD5 或 HMAC-SHA256
+     * @param mchKey       商户密钥
+     * @param maxXmlLength 通知 xml 最大长度
+     */
+    public WechatNotificationXmlParser(String signType, String mchKey, int maxXmlLength) {
+        AssertUtils.hasLength(mchKey, "argument mchKey must not empty");
+        AssertUtils.isTrue(maxXmlLength > 0, "argument maxXmlLength must greater than 0");
+        this.signType = signType == null ? WxPayConstants.SignType.MD5 : signType;
+        this.mchKey = mchKey;
+        this.refundInfoKey = new SecretKeySpec(HexFormat.of().formatHex(md5(mchKey.getBytes(StandardCharsets.UTF_8)))
+                .getBytes(StandardCharsets.UTF_8), "AES");
+        this.maxXmlLength = maxXmlLength;
+    }
+
+    /**
+     * 解析支付通知
+     *
+     * @param xml 通知 xml
+     * @return 解码后的通知
+     */
+    public WechatNotification parsePaymentNotification(String xml) {
+        Map<String, String> fields = parseFields(xml);
+        return newNotification(xml, fields, Collections.emptyMap());
+    }
+
+    /**
+     * 解析退款通知，并解密 req_info
+     *
+     * @param xml 通知 xml
+     * @return 解码后的通知
+     */
+    public WechatNotification parseRefundNotification(String xml) {
+        Map<String, String> fields = parseFields(xml);
+        String reqInfo = fields.get(REQ_INFO_NAME);
+        Map<String, String> refundInfo = reqInfo == null || reqInfo.isEmpty() ? Collections.emptyMap() : parseFields(decryptRefundInfo(reqInfo));
+        return newNotification(xml, fields, refundInfo);
+    }
+
+    private WechatNotification newNotification(String xml, Map<String, String> fields, Map<String, String> refundInfo) {
+        String sign = fields.get(SIGN_NAME);
+        boolean signed = sign != null && !sign.isEmpty();
+        boolean signValid = signed && MessageDigest.isEqual(createSign(fields).getBytes(StandardCharsets.US_ASCII),
+                sign.getBytes(StandardCharsets.US_ASCII));
+        return new WechatNotification(xml, Collections.unmodifiableMap(fields), Collections.unmodifiableMap(refundInfo), signed, signValid);
+    }
+
+    /**
+     * 读取根元素下的顶层字段，字段按名称排序，便于直接计算签名
+     */
+    private Map<String, String> parseFields(String xml) {
+        AssertUtils.hasLength(xml, "wechat notification xml must not empty");
+        if (xml.length() > maxXmlLength) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("微信支付通知内容过大，length = %d，limit = %d",
+                    xml.length(), maxXmlLength));
+        }
+        Map<String, String> result = new TreeMap<>();
+        StringBuilder text = new StringBuilder(64);
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(xml));
+            int depth = 0;
+            String name = null;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        depth++;
+                        if (depth == 2) {
+                            name = reader.getLocalName();
+                            text.setLength(0);
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        if (depth >= 2) {
+                            text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (depth == 2 && result.put(name, text.toString()) != null) {
+                            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, String.format("微信支付通知字段重复，%s", name));
+                        }
+                        depth--;
+                    }
+                    case XMLStreamConstants.DTD ->
+                            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "微信支付通知不允许包含 DTD");
+                    default -> {
+                        // 忽略注释、处理指令等事件
+                    }
+                }
+            }
+            return result;
+        } catch (XMLStreamException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "微信支付通知 xml 格式错误", exception);
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    private String createSign(Map<String, String> sortedFields) {
+        StringBuilder content = new StringBuilder(512);
+        for (Map.Entry<String, String> entry : sortedFields.entrySet()) {
+            if (!entry.getValue().isEmpty() && !UNSIGNED_NAMES.contains(entry.getKey())) {
+                content.append(entry.getKey()).append('=').append(entry.getValue()).append('&');
+            }
+        }
+        content.append("key=").append(mchKey);
+        byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        if (WxPayConstants.SignType.HMAC_SHA256.equals(signType)) {
+            try {
+                Mac mac = Mac.getInstance(HMAC_SHA256_ALGORITHM);
+                mac.init(new SecretKeySpec(mchKey.getBytes(StandardCharsets.UTF_8), HMAC_SHA256_ALGORITHM));
+                return UPPER_HEX.formatHex(mac.doFinal(bytes));
+            } catch (GeneralSecurityException exception) {
+                throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "微信支付通知签名计算异常", exception);
+            }
+        }
+        return UPPER_HEX.formatHex(md5(bytes));
+    }
+
+    private String decryptRefundInfo(String reqInfo) {
+        try {
+            Cipher cipher = Cipher.getInstance(REFUND_INFO_CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, refundInfoKey);
+            return new String(cipher.doFinal(Base64.getMimeDecoder().decode(reqInfo)), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException exception) {
+            throw new PaymentTransactionException(DefaultExceptionCode.COMMON_ERROR, "微信退款通知 req_info 解密失败", exception);
+        }
+    }
+
+    private static byte[] md5(byte[] content) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(content);
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static void closeQuietly(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException ignore) {
+                // ignore
+            }
+        }
+    }
+
+    private static XMLInputFactory newXmlInputFactory() {
+        XMLInputFactory result = XMLInputFactory.newFactory();
+        result.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        result.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        result.setProperty(XMLInputFactory.IS_COALESCING, true);
+        try {
+            result.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        } catch (IllegalArgumentException ignore) {
+            // 非 JDK 内置实现可能不支持该属性，已禁用 DTD 与外部实体
+        }
+        return result;
+    }
+}
@@ -1,9 +1,12 @@
 package com.wind.payment.wechat;
 
+import com.wind.jackson.WindJson;
 import org.junit.jupiter.api.Test;
 import tools.jackson.core.JacksonException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class WechatConfigurationParsingTests {
@@ -25,4 +28,16 @@ class WechatConfigurationParsingTests {
 
         assertThrows(JacksonException.class, () -> new AppWechatPaymentPlugin(config));
     }
+
+    @Test
+    void testScenePluginsOfSameMerchantShareWxPayService() {
+        String config = CONFIG.replace("partner-id", "shared-partner-id");
+        WechatPayPartnerConfig partnerConfig = WindJson.parseObject(config, WechatPayPartnerConfig.class);
+        try (AppWechatPaymentPlugin app = new AppWechatPaymentPlugin(partnerConfig);
+             ScanWechatPaymentPlugin scan = new ScanWechatPaymentPlugin(config)) {
+            assertSame(app.getWxPayService(), scan.getWxPayService());
+            assertEquals(2, WechatPayServiceRegistry.getReferenceCount(partnerConfig));
+        }
+        assertEquals(0, WechatPayServiceRegistry.getReferenceCount(partnerConfig));
+    }
 }
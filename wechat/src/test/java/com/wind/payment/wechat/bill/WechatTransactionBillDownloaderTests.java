@@ -0,0 +1,76 @@
+package com.wind.payment.wechat.bill;
+
+import com.wind.payment.core.PaymentTransactionException;
+import com.wind.payment.core.bill.TransactionBillIterator;
+import com.wind.payment.core.bill.TransactionBillRecord;
+import com.wind.payment.core.enums.PaymentTransactionState;
+import com.wind.transaction.core.enums.CurrencyIsoCode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WechatTransactionBillDownloaderTests {
+
+    private static final String BILL = """
+            交易时间,公众账号ID,商户号,特约商户号,设备号,微信订单号,商户订单号,用户标识,交易类型,交易状态,付款银行,货币种类,应结订单金额,代金券金额,微信退款单号,商户退款单号,退款金额,充值券退款金额,退款类型,退款状态,商品名称,商户数据包,手续费,费率,订单金额,申请退款金额,费率备注
+            `2026-10-17 10:00:00,`wx01,`10001,`0,`,`4200001,`T001,`openid,`JSAPI,`SUCCESS,`CMB_DEBIT,`CNY,`1.00,`0.00,`0,`0,`0.00,`0.00,`,`,`商品,`,`0.01000,`0.60%,`1.00,`0.00,`
+            `2026-10-17 11:00:00,`wx01,`10001,`0,`,`4200001,`T001,`openid,`JSAPI,`REFUND,`CMB_DEBIT,`CNY,`0.00,`0.00,`5030001,`R001,`0.50,`0.00,`ORIGINAL,`SUCCESS,`商品,`,`-0.00300,`0.60%,`1.00,`0.50,`
+            总交易单数,应结订单总金额,退款总金额,充值券退款总金额,手续费总金额,订单总金额,申请退款总金额
+            `2,`1.00,`0.50,`0.00,`0.00700,`1.00,`0.50
+            """;
+
+    @Test
+    void testParsesGzipBillLazily() throws IOException {
+        try (TransactionBillIterator iterator = WechatTransactionBillDownloader.open(new ByteArrayInputStream(gzip(BILL)))) {
+            List<TransactionBillRecord> records = iterator.stream().toList();
+
+            assertEquals(2, records.size());
+            TransactionBillRecord payment = records.get(0);
+            assertEquals("T001", payment.getTransactionSn());
+            assertEquals("4200001", payment.getOutTransactionSn());
+            assertEquals(CurrencyIsoCode.CNY.of(100), payment.getOrderAmount());
+            assertEquals(PaymentTransactionState.COMPLETED, payment.getTransactionState());
+            assertFalse(payment.isRefund());
+            TransactionBillRecord refund = records.get(1);
+            assertTrue(refund.isRefund());
+            assertEquals("R001", refund.getTransactionRefundSn());
+            assertEquals(CurrencyIsoCode.CNY.of(50), refund.getRefundAmount());
+            assertEquals(PaymentTransactionState.REFUNDED, refund.getTransactionState());
+        }
+    }
+
+    @Test
+    void testReturnsEmptyIteratorWhenNoBillExists() {
+        String response = "<xml><return_code><![CDATA[FAIL]]></return_code><return_msg><![CDATA[No Bill Exist]]></return_msg></xml>";
+
+        try (TransactionBillIterator iterator = WechatTransactionBillDownloader.open(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)))) {
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Test
+    void testRejectsErrorResponse() {
+        String response = "<xml><return_code><![CDATA[FAIL]]></return_code><return_msg><![CDATA[签名错误]]></return_msg></xml>";
+
+        assertThrows(PaymentTransactionException.class,
+                () -> WechatTransactionBillDownloader.open(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(result)) {
+            output.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return result.toByteArray();
+    }
+}
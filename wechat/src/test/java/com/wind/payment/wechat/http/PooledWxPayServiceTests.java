@@ -0,0 +1,123 @@
+package com.wind.payment.wechat.http;
+
+import com.github.binarywang.wxpay.config.WxPayConfig;
+import com.github.binarywang.wxpay.exception.WxPayException;
+import com.sun.net.httpserver.HttpServer;
+import com.wind.payment.wechat.WechatPayPartnerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledWxPayServiceTests {
+
+    private HttpServer server;
+
+    private String baseUrl;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/pay/orderquery", exchange -> {
+            byte[] request = exchange.getRequestBody().readAllBytes();
+            byte[] response = ("<xml><echo>" + new String(request, StandardCharsets.UTF_8) + "</echo></xml>").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(response);
+            }
+        });
+        server.createContext("/pay/closeorder", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testOperationOfUrl() {
+        assertEquals(WechatPayOperation.QUERY, WechatPayOperation.of("https://api.mch.weixin.qq.com/pay/orderquery"));
+        assertEquals(WechatPayOperation.QUERY, WechatPayOperation.of("https://api.mch.weixin.qq.com/sandboxnew/pay/orderquery"));
+        assertEquals(WechatPayOperation.REFUND, WechatPayOperation.of("https://api.mch.weixin.qq.com/secapi/pay/refund?a=1"));
+        assertEquals(WechatPayOperation.OTHER, WechatPayOperation.of("https://api.mch.weixin.qq.com/pay/micropay"));
+    }
+
+    @Test
+    void testReadTimeoutFallsBackToOperationDefault() {
+        WechatPayPartnerConfig.HttpPoolConfig config = new WechatPayPartnerConfig.HttpPoolConfig();
+        config.getReadTimeouts().put(WechatPayOperation.QUERY, Duration.ofSeconds(2));
+        WechatHttpPoolSettings settings = WechatHttpPoolSettings.of(config);
+        assertEquals(Duration.ofSeconds(2), settings.readTimeout(WechatPayOperation.QUERY));
+        assertEquals(WechatPayOperation.REFUND.getDefaultReadTimeout(), settings.readTimeout(WechatPayOperation.REFUND));
+    }
+
+    @Test
+    void testServicesWithSamePoolSettingsShareConnectionPool() {
+        WechatPayPartnerConfig.HttpPoolConfig config = new WechatPayPartnerConfig.HttpPoolConfig();
+        config.setMaxConnectionsPerRoute(7);
+        WechatHttpPoolSettings settings = WechatHttpPoolSettings.of(config);
+        config.getReadTimeouts().put(WechatPayOperation.QUERY, Duration.ofSeconds(2));
+        WechatHttpPoolSettings otherReadTimeouts = WechatHttpPoolSettings.of(config);
+        int sharedSize = WechatHttpClientFactory.sharedSize();
+        try (PooledWxPayService first = newService(settings); PooledWxPayService second = newService(otherReadTimeouts)) {
+            assertEquals(sharedSize + 1, WechatHttpClientFactory.sharedSize());
+            assertEquals(first.getPoolMetrics().get(0).name(), second.getPoolMetrics().get(0).name());
+        }
+        assertEquals(sharedSize, WechatHttpClientFactory.sharedSize());
+    }
+
+    @Test
+    void testPostThroughPooledClient() throws WxPayException {
+        try (PooledWxPayService service = newService(WechatHttpPoolSettings.of(new WechatPayPartnerConfig.HttpPoolConfig()))) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals("<xml><echo>请求" + i + "</echo></xml>", service.post(baseUrl + "/pay/orderquery", "请求" + i, false));
+            }
+            WechatHttpPoolMetrics metrics = service.getPoolMetrics().get(0);
+            assertEquals(0, metrics.leased());
+            assertEquals(1, metrics.available());
+        }
+    }
+
+    @Test
+    void testPostThroughNioTransport() throws WxPayException {
+        try (PooledWxPayService service = newService(WechatHttpPoolSettings.of(new WechatPayPartnerConfig.HttpPoolConfig()),
+                WechatPayPartnerConfig.TransportType.NIO)) {
+            assertEquals("<xml><echo>请求</echo></xml>", service.post(baseUrl + "/pay/orderquery", "请求", false));
+            assertThrows(WxPayException.class, () -> service.post(baseUrl + "/pay/closeorder", "<xml/>", false));
+            assertTrue(service.getPoolMetrics().isEmpty());
+        }
+    }
+
+    @Test
+    void testPostRejectsNonOkStatus() {
+        try (PooledWxPayService service = newService(WechatHttpPoolSettings.of(new WechatPayPartnerConfig.HttpPoolConfig()))) {
+            assertThrows(WxPayException.class, () -> service.post(baseUrl + "/pay/closeorder", "<xml/>", false));
+        }
+    }
+
+    private static PooledWxPayService newService(WechatHttpPoolSettings settings) {
+        return newService(settings, WechatPayPartnerConfig.TransportType.POOLED);
+    }
+
+    private static PooledWxPayService newService(WechatHttpPoolSettings settings, WechatPayPartnerConfig.TransportType transportType) {
+        PooledWxPayService result = new PooledWxPayService(settings, transportType);
+        WxPayConfig config = new WxPayConfig();
+        config.setMchId("mch-id");
+        result.setConfig(config);
+        return result;
+    }
+}
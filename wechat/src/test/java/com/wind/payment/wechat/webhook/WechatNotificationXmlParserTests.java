@@ -0,0 +1,125 @@
+package com.wind.payment.wechat.webhook;
+
+import com.github.binarywang.wxpay.constant.WxPayConstants;
+import com.github.binarywang.wxpay.util.SignUtils;
+import com.wind.payment.core.PaymentTransactionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WechatNotificationXmlParserTests {
+
+    private static final String MCH_KEY = "0123456789abcdef0123456789abcdef";
+
+    @ParameterizedTest
+    @ValueSource(strings = {WxPayConstants.SignType.MD5, WxPayConstants.SignType.HMAC_SHA256})
+    void testVerifiesSdkSignatureInParsePass(String signType) {
+        Map<String, String> fields = paymentFields();
+        fields.put("sign", SignUtils.createSign(fields, signType, MCH_KEY, null));
+
+        WechatNotification notification = new WechatNotificationXmlParser(signType, MCH_KEY).parsePaymentNotification(toXml(fields));
+
+        assertTrue(notification.isSigned());
+        assertTrue(notification.isSignValid());
+        assertEquals("payment-001", notification.get("out_trade_no"));
+        assertEquals(10000, notification.getInt("total_fee"));
+        assertEquals("a & b <c>", notification.get("attach"));
+    }
+
+    @Test
+    void testDetectsTamperedField() {
+        Map<String, String> fields = paymentFields();
+        fields.put("sign", SignUtils.createSign(fields, WxPayConstants.SignType.MD5, MCH_KEY, null));
+        fields.put("total_fee", "1");
+
+        WechatNotification notification = new WechatNotificationXmlParser(WxPayConstants.SignType.MD5, MCH_KEY)
+                .parsePaymentNotification(toXml(fields));
+
+        assertFalse(notification.isSignValid());
+    }
+
+    @Test
+    void testMissingSignIsNotValid() {
+        WechatNotification notification = new WechatNotificationXmlParser(WxPayConstants.SignType.MD5, MCH_KEY)
+                .parsePaymentNotification(toXml(paymentFields()));
+
+        assertFalse(notification.isSigned());
+        assertFalse(notification.isSignValid());
+    }
+
+    @Test
+    void testRejectsDoctype() {
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE xml [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]><xml><attach>&xxe;</attach></xml>";
+        WechatNotificationXmlParser parser = new WechatNotificationXmlParser(WxPayConstants.SignType.MD5, MCH_KEY);
+
+        assertThrows(PaymentTransactionException.class, () -> parser.parsePaymentNotification(xml));
+    }
+
+    @Test
+    void testRejectsOversizedXml() {
+        WechatNotificationXmlParser parser = new WechatNotificationXmlParser(WxPayConstants.SignType.MD5, MCH_KEY, 64);
+
+        assertThrows(PaymentTransactionException.class, () -> parser.parsePaymentNotification(toXml(paymentFields())));
+    }
+
+    @Test
+    void testDecryptsRefundInfo() throws Exception {
+        String refundInfo = "<root><out_refund_no><![CDATA[refund-001]]></out_refund_no><refund_id>wx-refund-001</refund_id>"
+                + "<total_fee>10000</total_fee><settlement_refund_fee>2000</settlement_refund_fee></root>";
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("return_code", "SUCCESS");
+        fields.put("mch_id", "mch-001");
+        fields.put("req_info", encrypt(refundInfo));
+
+        WechatNotification notification = new WechatNotificationXmlParser(WxPayConstants.SignType.MD5, MCH_KEY)
+                .parseRefundNotification(toXml(fields));
+
+        assertEquals("refund-001", notification.getRefundInfo("out_refund_no"));
+        assertEquals("wx-refund-001", notification.getRefundInfo("refund_id"));
+        assertEquals(2000, notification.getRefundInfoInt("settlement_refund_fee"));
+        assertFalse(notification.isSigned());
+    }
+
+    private static Map<String, String> paymentFields() {
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("return_code", "SUCCESS");
+        result.put("result_code", "SUCCESS");
+        result.put("appid", "app-001");
+        result.put("mch_id", "mch-001");
+        result.put("nonce_str", "5K8264ILTKCH16CQ2502SI8ZNMTM67VS");
+        result.put("out_trade_no", "payment-001");
+        result.put("transaction_id", "wx-001");
+        result.put("total_fee", "10000");
+        result.put("attach", "a & b <c>");
+        result.put("coupon_fee", "");
+        return result;
+    }
+
+    private static String toXml(Map<String, String> fields) {
+        StringBuilder result = new StringBuilder("<xml>");
+        fields.forEach((name, value) -> result.append('<').append(name).append("><![CDATA[").append(value).append("]]></").append(name).append('>'));
+        return result.append("</xml>").toString();
+    }
+
+    private static String encrypt(String content) throws Exception {
+        byte[] key = HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(MCH_KEY.getBytes(StandardCharsets.UTF_8)))
+                .getBytes(StandardCharsets.UTF_8);
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}